@@ -9,5 +9,17 @@ public enum AlgoritmoDispersor {
     /** Algoritmo de Bob Jenkins para cadenas. */
     BJ_STRING,
     /** Algoritmo de Daniel J. Bernstein para cadenas. */
-    DJB_STRING;
+    DJB_STRING,
+    /** Algoritmo de 64 bits de Bob Jenkins (lookup3) para cadenas. */
+    BJ64_STRING,
+    /** Algoritmo FNV-1a de 64 bits para cadenas. */
+    FNV64_STRING,
+    /** Algoritmo xxHash64 para cadenas. */
+    XXH64_STRING,
+    /** Algoritmo MurmurHash3 de 128 bits para cadenas. */
+    MURMUR128_STRING,
+    /** Algoritmo XXH3 de 128 bits para cadenas. */
+    XXH128_STRING,
+    /** Algoritmo SipHash-1-3 (de 64 bits, con llave) para cadenas. */
+    SIP13_STRING;
 }
@@ -0,0 +1,187 @@
+package mx.unam.ciencias.edd;
+
+import java.util.Arrays;
+
+/**
+ * <p>Clase para anillos de dispersión consistente, que reparten llaves entre
+ * nodos de forma que agregar o quitar un nodo sólo mueve las llaves que le
+ * tocan a ese nodo.</p>
+ *
+ * <p>Cada nodo se coloca en el anillo de dispersiones de 64 bits en varias
+ * posiciones (nodos virtuales), y a cada llave le toca el nodo de la primera
+ * posición mayor o igual que su dispersión, dando la vuelta al final. Las
+ * posiciones se guardan en un arreglo ordenado, así que una búsqueda es una
+ * búsqueda binaria sobre <i>n</i>·<i>v</i> posiciones; agregar o quitar un
+ * nodo reconstruye el arreglo en tiempo lineal.</p>
+ */
+public class AnilloConsistente {
+
+    /* El dispersor de llaves y nodos virtuales. */
+    private Dispersor64<CharSequence> dispersor;
+    /* El número de nodos virtuales por nodo. */
+    private int virtuales;
+    /* Las posiciones en el anillo, ordenadas. */
+    private long[] posiciones;
+    /* El nodo de cada posición. */
+    private String[] nodos;
+    /* Los nodos, sin repetir. */
+    private Lista<String> lista;
+
+    /**
+     * Construye un anillo vacío.
+     * @param algoritmo el algoritmo de dispersión; puede ser de cualquier
+     *                  número de bits.
+     * @param virtuales el número de nodos virtuales por nodo.
+     * @throws IllegalArgumentException si el número de nodos virtuales no es
+     *         positivo.
+     */
+    public AnilloConsistente(AlgoritmoDispersor algoritmo, int virtuales) {
+        if (virtuales <= 0)
+            throw new IllegalArgumentException("Número de nodos inválido");
+        dispersor = dispersor(algoritmo);
+        this.virtuales = virtuales;
+        posiciones = new long[0];
+        nodos = new String[0];
+        lista = new Lista<String>();
+    }
+
+    /* Regresa un dispersor de 64 bits mezclados para el algoritmo. Los
+       algoritmos de 32 bits se extienden con la mezcla de Murmur. */
+    static Dispersor64<CharSequence> dispersor(AlgoritmoDispersor algoritmo) {
+        switch (algoritmo) {
+        case XOR_STRING:
+        case BJ_STRING:
+        case DJB_STRING:
+            Dispersor<CharSequence> d32 =
+                FabricaDispersores.dispersorSecuencia(algoritmo);
+            return c -> Dispersores.mezclaMurmur64(d32.dispersa(c) &
+                                                   0xFFFFFFFFL);
+        default:
+            // Mezclamos también, porque las posiciones de un mismo nodo
+            // sólo difieren en el sufijo.
+            Dispersor64<CharSequence> d64 =
+                FabricaDispersores.dispersorSecuencia64(algoritmo);
+            return c -> Dispersores.mezclaMurmur64(d64.dispersa(c));
+        }
+    }
+
+    /**
+     * Agrega un nodo al anillo.
+     * @param nodo el nombre del nodo.
+     * @throws IllegalArgumentException si el nodo es <code>null</code> o ya
+     *         está en el anillo.
+     */
+    public void agregaNodo(String nodo) {
+        if (nodo == null || lista.contiene(nodo))
+            throw new IllegalArgumentException("Nodo inválido");
+        long[] nuevas = new long[virtuales];
+        for (int i = 0; i < virtuales; i++)
+            nuevas[i] = dispersor.dispersa(nodo + "#" + i);
+        Arrays.sort(nuevas);
+        // Mezclamos las posiciones nuevas con las que ya había; con empate va
+        // primero el nombre menor, para no depender del orden de los nodos.
+        int n = posiciones.length;
+        long[] p = new long[n + virtuales];
+        String[] d = new String[n + virtuales];
+        int i = 0, j = 0, k = 0;
+        while (i < n || j < virtuales) {
+            if (j == virtuales || (i < n && antes(i, nuevas[j], nodo))) {
+                p[k] = posiciones[i];
+                d[k++] = nodos[i++];
+            } else {
+                p[k] = nuevas[j++];
+                d[k++] = nodo;
+            }
+        }
+        posiciones = p;
+        nodos = d;
+        lista.agrega(nodo);
+    }
+
+    /* Nos dice si la posición i va antes de la posición dada del nodo. */
+    private boolean antes(int i, long posicion, String nodo) {
+        if (posiciones[i] != posicion)
+            return posiciones[i] < posicion;
+        return nodos[i].compareTo(nodo) < 0;
+    }
+
+    /**
+     * Elimina un nodo del anillo. Si el nodo no está en el anillo, no hace
+     * nada.
+     * @param nodo el nombre del nodo.
+     */
+    public void eliminaNodo(String nodo) {
+        if (nodo == null || !lista.contiene(nodo))
+            return;
+        int n = posiciones.length - virtuales;
+        long[] p = new long[n];
+        String[] d = new String[n];
+        int k = 0;
+        for (int i = 0; i < posiciones.length; i++) {
+            if (nodos[i].equals(nodo))
+                continue;
+            p[k] = posiciones[i];
+            d[k++] = nodos[i];
+        }
+        posiciones = p;
+        nodos = d;
+        lista.elimina(nodo);
+    }
+
+    /**
+     * Nos dice si un nodo está en el anillo.
+     * @param nodo el nombre del nodo.
+     * @return <code>true</code> si el nodo está en el anillo,
+     *         <code>false</code> en otro caso.
+     */
+    public boolean contieneNodo(String nodo) {
+        return lista.contiene(nodo);
+    }
+
+    /**
+     * Regresa el nodo al que le toca una llave.
+     * @param llave la llave.
+     * @return el nombre del nodo al que le toca la llave.
+     * @throws IllegalStateException si el anillo no tiene nodos.
+     */
+    public String nodo(CharSequence llave) {
+        if (posiciones.length == 0)
+            throw new IllegalStateException("Anillo vacío");
+        long h = dispersor.dispersa(llave);
+        // Buscamos la primera posición mayor o igual que h.
+        int a = 0, b = posiciones.length;
+        while (a < b) {
+            int m = (a + b) >>> 1;
+            if (posiciones[m] < h)
+                a = m + 1;
+            else
+                b = m;
+        }
+        return nodos[a == posiciones.length ? 0 : a];
+    }
+
+    /**
+     * Regresa una lista con los nodos del anillo, en el orden en que se
+     * agregaron.
+     * @return una lista con los nodos del anillo.
+     */
+    public Lista<String> getNodos() {
+        return lista.copia();
+    }
+
+    /**
+     * Regresa el número de nodos del anillo.
+     * @return el número de nodos del anillo.
+     */
+    public int getNumeroNodos() {
+        return lista.getLongitud();
+    }
+
+    /**
+     * Regresa el número de nodos virtuales por nodo.
+     * @return el número de nodos virtuales por nodo.
+     */
+    public int getVirtuales() {
+        return virtuales;
+    }
+}
@@ -0,0 +1,401 @@
+package mx.unam.ciencias.edd;
+
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * <p>Programa para medir la calidad y la velocidad de los algoritmos de
+ * {@link AlgoritmoDispersor}.</p>
+ *
+ * <p>Cada algoritmo se corre sobre cuatro corpus de llaves: enteros
+ * secuenciales (4 bytes, little endian), palabras, UUIDs y URLs. Los corpus
+ * se generan con una semilla fija, así que son los mismos en cada
+ * corrida. Para cada algoritmo y corpus se reporta:</p>
+ *
+ * <ul>
+ *   <li>la mediana y el mínimo de los nanosegundos por llave de {@link
+ *       Dispersores#dispersaLote}, medidos en pasadas separadas después de
+ *       unas pasadas de calentamiento sin medir;</li>
+ *   <li>el sesgo de avalancha máximo y promedio: para cada bit de entrada
+ *       (de los primeros 128) y cada bit de salida, qué tan lejos está de
+ *       1/2 la probabilidad de que el bit de salida cambie al cambiar el de
+ *       entrada (0 es ideal, 1 es lo peor);</li>
+ *   <li>la estadística ji cuadrada de las cubetas, y su desviación
+ *       normalizada (que debería estar entre -3 y 3), para una tabla de
+ *       tamaño potencia de dos (con máscara) y una de tamaño primo (con
+ *       módulo);</li>
+ *   <li>el número de colisiones de 32 bits, y el esperado para una función
+ *       aleatoria.</li>
+ * </ul>
+ *
+ * <p>Todas las mediciones son sobre la dispersión de 32 bits, la misma que
+ * regresa {@link FabricaDispersores#dispersorCadena}. La salida es CSV o
+ * JSON:</p>
+ *
+ * <pre>
+ * $ java -cp target/practica9.jar mx.unam.ciencias.edd.CalidadDispersores \
+ *       [-n llaves] [-f csv|json]
+ * </pre>
+ *
+ * <p>Con 10<sup>7</sup> llaves el corpus de URLs ocupa cerca de 1 GiB, así
+ * que hay que darle suficiente memoria a la máquina virtual.</p>
+ */
+public class CalidadDispersores {
+
+    /* Número de llaves por omisión. */
+    private static final int LLAVES = 1000000;
+    /* Semilla para generar los corpus. */
+    private static final long SEMILLA = 0x5EED;
+    /* Número de llaves muestreadas para la avalancha. */
+    private static final int MUESTRAS = 1000;
+    /* Número máximo de bits de entrada para la avalancha. */
+    private static final int BITS_ENTRADA = 128;
+    /* Número de pasadas medidas al medir el tiempo. */
+    private static final int REPETICIONES = 11;
+    /* Número de pasadas de calentamiento antes de medir el tiempo. */
+    private static final int CALENTAMIENTO = 5;
+    /* Tamaño potencia de dos de la tabla para la ji cuadrada. */
+    private static final int TABLA_POTENCIA = 1 << 16;
+    /* Tamaño primo de la tabla para la ji cuadrada. */
+    private static final int TABLA_PRIMO = 65521;
+
+    /* Los nombres de los corpus. */
+    private static final String[] CORPUS = {
+        "secuenciales", "palabras", "uuids", "urls"
+    };
+
+    /* Las columnas de la salida. */
+    private static final String[] COLUMNAS = {
+        "algoritmo", "corpus", "llaves", "ns_por_llave_mediana",
+        "ns_por_llave_minimo",
+        "sesgo_avalancha_max", "sesgo_avalancha_promedio",
+        "ji2_potencia", "z_potencia", "ji2_primo", "z_primo",
+        "colisiones", "colisiones_esperadas"
+    };
+
+    /* Sílabas para las palabras. */
+    private static final String[] SILABAS = {
+        "a", "e", "i", "o", "u", "ba", "be", "bi", "bo", "bu",
+        "ca", "ce", "ci", "co", "cu", "da", "de", "di", "do", "du",
+        "fa", "fe", "fi", "fo", "fu", "ga", "ge", "gi", "go", "gu",
+        "la", "le", "li", "lo", "lu", "ma", "me", "mi", "mo", "mu",
+        "na", "ne", "ni", "no", "nu", "pa", "pe", "pi", "po", "pu",
+        "ra", "re", "ri", "ro", "ru", "sa", "se", "si", "so", "su",
+        "ta", "te", "ti", "to"
+    };
+
+    /* Constructor privado para evitar instanciación. */
+    private CalidadDispersores() {}
+
+    /* Llaves empacadas en un arreglo, con sus desplazamientos. */
+    private static class Corpus {
+
+        /* Los bytes de las llaves. */
+        private byte[] datos;
+        /* Dónde empieza cada llave, más dónde termina la última. */
+        private int[] desplazamientos;
+        /* El número de llaves agregadas. */
+        private int llaves;
+
+        /* Construye un corpus vacío para n llaves. */
+        public Corpus(int n) {
+            datos = new byte[16 * n + 16];
+            desplazamientos = new int[n + 1];
+        }
+
+        /* Agrega una llave al corpus. */
+        public void agrega(byte[] llave) {
+            int fin = desplazamientos[llaves];
+            if (datos.length - fin < llave.length)
+                datos = Arrays.copyOf(datos, Math.max(2 * datos.length,
+                                                      fin + llave.length));
+            System.arraycopy(llave, 0, datos, fin, llave.length);
+            desplazamientos[++llaves] = fin + llave.length;
+        }
+
+        /* Recorta los desplazamientos a las llaves agregadas, para poder
+           pasarlos a Dispersores.dispersaLote. */
+        public void recorta() {
+            if (desplazamientos.length > llaves + 1)
+                desplazamientos = Arrays.copyOf(desplazamientos, llaves + 1);
+        }
+    }
+
+    /**
+     * Corre las mediciones e imprime los resultados en la salida estándar.
+     * @param args las opciones: <code>-n</code> para el número de llaves y
+     *             <code>-f</code> para el formato (<code>csv</code> o
+     *             <code>json</code>).
+     */
+    public static void main(String[] args) {
+        int n = LLAVES;
+        boolean json = false;
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("-n") && i + 1 < args.length) {
+                n = Integer.parseInt(args[++i]);
+            } else if (args[i].equals("-f") && i + 1 < args.length) {
+                json = args[++i].equals("json");
+            } else {
+                System.err.println("Uso: CalidadDispersores " +
+                                   "[-n llaves] [-f csv|json]");
+                System.exit(1);
+            }
+        }
+        PrintStream salida = System.out;
+        if (json)
+            salida.println("[");
+        else
+            salida.println(String.join(",", COLUMNAS));
+        boolean primero = true;
+        for (String nombre : CORPUS) {
+            Corpus corpus = corpus(nombre, n);
+            for (AlgoritmoDispersor algoritmo : AlgoritmoDispersor.values()) {
+                Object[] renglon = mide(algoritmo, nombre, corpus);
+                if (json) {
+                    salida.print(primero ? "" : ",\n");
+                    salida.print(objetoJSON(renglon));
+                } else {
+                    salida.println(renglonCSV(renglon));
+                }
+                salida.flush();
+                primero = false;
+            }
+        }
+        if (json)
+            salida.println("\n]");
+    }
+
+    /* Hace todas las mediciones de un algoritmo sobre un corpus. */
+    private static Object[] mide(AlgoritmoDispersor algoritmo, String nombre,
+                                 Corpus corpus) {
+        int n = corpus.llaves;
+        int[] h = new int[n];
+        double[] ns = nanosPorLlave(algoritmo, corpus, h);
+        double[] avalancha = sesgoAvalancha(algoritmo, corpus);
+        double jiPotencia = jiCuadrada(h, TABLA_POTENCIA);
+        double jiPrimo = jiCuadrada(h, TABLA_PRIMO);
+        return new Object[] {
+            algoritmo.name(), nombre, n, ns[0], ns[1],
+            avalancha[0], avalancha[1],
+            jiPotencia, normaliza(jiPotencia, TABLA_POTENCIA),
+            jiPrimo, normaliza(jiPrimo, TABLA_PRIMO),
+            colisiones(h), colisionesEsperadas(n)
+        };
+    }
+
+    /* Dispersa el corpus varias veces, deja las dispersiones en h y
+       regresa la mediana y el mínimo en nanosegundos por llave. Las
+       primeras pasadas no se miden, para que el compilador ya haya
+       optimizado el algoritmo cuando se mide. */
+    private static double[] nanosPorLlave(AlgoritmoDispersor algoritmo,
+                                          Corpus corpus, int[] h) {
+        for (int r = 0; r < CALENTAMIENTO; r++)
+            Dispersores.dispersaLote(algoritmo, corpus.datos,
+                                     corpus.desplazamientos, h);
+        double[] ns = new double[REPETICIONES];
+        double minimo = Double.MAX_VALUE;
+        for (int r = 0; r < REPETICIONES; r++) {
+            long t = System.nanoTime();
+            Dispersores.dispersaLote(algoritmo, corpus.datos,
+                                     corpus.desplazamientos, h);
+            ns[r] = (double)(System.nanoTime() - t) /
+                Math.max(1, corpus.llaves);
+            minimo = Math.min(minimo, ns[r]);
+        }
+        return new double[] { VelocidadDispersores.mediana(ns), minimo };
+    }
+
+    /**
+     * Regresa la estadística ji cuadrada de las cubetas de una tabla de
+     * tamaño <code>m</code>. Si <code>m</code> es potencia de dos la cubeta
+     * se obtiene con una máscara, y si no con el módulo sin signo.
+     * @param h las dispersiones.
+     * @param m el número de cubetas.
+     * @return la estadística ji cuadrada de las cubetas.
+     */
+    public static double jiCuadrada(int[] h, int m) {
+        long[] cubetas = new long[m];
+        boolean potencia = (m & (m - 1)) == 0;
+        for (int x : h)
+            cubetas[potencia ? x & (m - 1) : Integer.remainderUnsigned(x, m)]++;
+        double esperado = (double)h.length / m;
+        double ji = 0;
+        for (long c : cubetas)
+            ji += (c - esperado) * (c - esperado);
+        return ji / esperado;
+    }
+
+    /* Normaliza la ji cuadrada con m - 1 grados de libertad. */
+    private static double normaliza(double ji, int m) {
+        return (ji - (m - 1)) / Math.sqrt(2.0 * (m - 1));
+    }
+
+    /**
+     * Regresa el número de colisiones de las dispersiones: el número de
+     * dispersiones que son iguales a alguna anterior. El arreglo se ordena.
+     * @param h las dispersiones.
+     * @return el número de colisiones.
+     */
+    public static long colisiones(int[] h) {
+        Arrays.sort(h);
+        long c = 0;
+        for (int i = 1; i < h.length; i++)
+            if (h[i] == h[i-1])
+                c++;
+        return c;
+    }
+
+    /**
+     * Regresa el número esperado de colisiones de 32 bits para n llaves
+     * con una función aleatoria.
+     * @param n el número de llaves.
+     * @return el número esperado de colisiones.
+     */
+    public static double colisionesEsperadas(long n) {
+        double m = 4294967296.0;
+        return n - m * -Math.expm1(n * Math.log1p(-1 / m));
+    }
+
+    /* Regresa el sesgo de avalancha máximo y promedio sobre una muestra
+       del corpus. Todas las variantes con un bit cambiado se empacan en
+       otro corpus y se dispersan en un solo lote. */
+    private static double[] sesgoAvalancha(AlgoritmoDispersor algoritmo,
+                                           Corpus corpus) {
+        int muestras = Math.min(MUESTRAS, corpus.llaves);
+        int paso = Math.max(1, corpus.llaves / Math.max(1, muestras));
+        Corpus variantes = new Corpus(muestras * (BITS_ENTRADA + 1));
+        int[] bits = new int[muestras];
+        for (int k = 0; k < muestras; k++) {
+            int i = k * paso;
+            int a = corpus.desplazamientos[i];
+            byte[] llave = Arrays.copyOfRange(corpus.datos, a,
+                                              corpus.desplazamientos[i+1]);
+            bits[k] = Math.min(BITS_ENTRADA, 8 * llave.length);
+            variantes.agrega(llave);
+            for (int b = 0; b < bits[k]; b++) {
+                llave[b >>> 3] ^= 1 << (b & 7);
+                variantes.agrega(llave);
+                llave[b >>> 3] ^= 1 << (b & 7);
+            }
+        }
+        variantes.recorta();
+        int[] h = new int[variantes.llaves];
+        Dispersores.dispersaLote(algoritmo, variantes.datos,
+                                 variantes.desplazamientos, h);
+        long[][] cambios = new long[BITS_ENTRADA][32];
+        long[] intentos = new long[BITS_ENTRADA];
+        int j = 0;
+        for (int k = 0; k < muestras; k++) {
+            int original = h[j++];
+            for (int b = 0; b < bits[k]; b++) {
+                int d = original ^ h[j++];
+                intentos[b]++;
+                for (int s = 0; s < 32; s++)
+                    cambios[b][s] += (d >>> s) & 1;
+            }
+        }
+        double maximo = 0, suma = 0;
+        int celdas = 0;
+        for (int b = 0; b < BITS_ENTRADA; b++) {
+            if (intentos[b] == 0)
+                continue;
+            for (int s = 0; s < 32; s++) {
+                double sesgo = Math.abs(2.0 * cambios[b][s] / intentos[b] - 1);
+                maximo = Math.max(maximo, sesgo);
+                suma += sesgo;
+                celdas++;
+            }
+        }
+        return new double[] { maximo, celdas == 0 ? 0 : suma / celdas };
+    }
+
+    /* Genera el corpus con el nombre dado. */
+    private static Corpus corpus(String nombre, int n) {
+        Random random = new Random(SEMILLA);
+        Corpus corpus = new Corpus(n);
+        for (int i = 0; i < n; i++) {
+            switch (nombre) {
+            case "secuenciales":
+                corpus.agrega(new byte[] {
+                        (byte)i, (byte)(i >>> 8),
+                        (byte)(i >>> 16), (byte)(i >>> 24)
+                    });
+                break;
+            case "palabras":
+                corpus.agrega(bytes(palabra(i)));
+                break;
+            case "uuids":
+                corpus.agrega(bytes(uuid(random)));
+                break;
+            case "urls":
+                corpus.agrega(bytes("https://www." +
+                                    palabra(random.nextInt(10000)) +
+                                    ".com/" + palabra(i) + "?id=" +
+                                    random.nextInt(1000)));
+                break;
+            }
+        }
+        corpus.recorta();
+        return corpus;
+    }
+
+    /* Regresa la palabra i-ésima; palabras distintas tienen índices
+       distintos, porque las sílabas son los dígitos del índice en base
+       64. */
+    private static String palabra(int i) {
+        StringBuilder sb = new StringBuilder();
+        do {
+            sb.append(SILABAS[i & 63]);
+            i >>>= 6;
+        } while (i != 0);
+        return sb.toString();
+    }
+
+    /* Regresa un UUID aleatorio (versión 4) en su forma de texto. */
+    private static String uuid(Random random) {
+        long alto = (random.nextLong() & ~0xF000L) | 0x4000L;
+        long bajo = (random.nextLong() & ~(3L << 62)) | (1L << 63);
+        return new UUID(alto, bajo).toString();
+    }
+
+    /* Regresa la codificación UTF-8 de la cadena. */
+    private static byte[] bytes(String s) {
+        return s.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /* Regresa el renglón en formato CSV. */
+    private static String renglonCSV(Object[] renglon) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < renglon.length; i++) {
+            if (i > 0)
+                sb.append(',');
+            sb.append(valor(renglon[i], false));
+        }
+        return sb.toString();
+    }
+
+    /* Regresa el renglón como un objeto JSON. */
+    private static String objetoJSON(Object[] renglon) {
+        StringBuilder sb = new StringBuilder("  {");
+        for (int i = 0; i < renglon.length; i++) {
+            if (i > 0)
+                sb.append(", ");
+            sb.append('"').append(COLUMNAS[i]).append("\": ");
+            sb.append(valor(renglon[i], true));
+        }
+        return sb.append('}').toString();
+    }
+
+    /* Regresa un valor como texto; las cadenas se entrecomillan en JSON. */
+    private static String valor(Object v, boolean json) {
+        if (v instanceof Double)
+            return String.format(Locale.ROOT, "%.6g", (Double)v);
+        if (v instanceof String && json)
+            return "\"" + v + "\"";
+        return v.toString();
+    }
+}
@@ -0,0 +1,240 @@
+package mx.unam.ciencias.edd;
+
+import java.util.Iterator;
+
+/**
+ * <p>Clase para conjuntos, implementados con un {@link Diccionario} que
+ * asocia cada elemento consigo mismo.</p>
+ *
+ * <p>Las operaciones de conjuntos ({@link #union}, {@link #interseccion} y
+ * {@link #diferencia}) regresan conjuntos nuevos, con espacio reservado de
+ * antemano para el resultado, y cuando es posible recorren el conjunto más
+ * chico y buscan en el más grande, así que toman tiempo esperado
+ * <i>O</i>(min(<i>n</i>, <i>m</i>)) en lugar de <i>O</i>(<i>n</i>·<i>m</i>).
+ * El conjunto resultante usa el dispersor del conjunto que recibe el
+ * mensaje.</p>
+ */
+public class Conjunto<T> implements Coleccion<T> {
+
+    /* El dispersor de los elementos. */
+    private Dispersor<T> dispersor;
+    /* El diccionario de los elementos. */
+    private Diccionario<T, T> diccionario;
+
+    /**
+     * Construye un conjunto vacío con el dispersor dado.
+     * @param dispersor el dispersor para los elementos.
+     */
+    public Conjunto(Dispersor<T> dispersor) {
+        this(dispersor, 0);
+    }
+
+    /**
+     * Construye un conjunto vacío con el dispersor dado, con espacio para el
+     * número de elementos recibido sin tener que crecer.
+     * @param dispersor el dispersor para los elementos.
+     * @param elementos el número de elementos esperado.
+     * @throws IllegalArgumentException si el número de elementos es
+     *         negativo.
+     */
+    public Conjunto(Dispersor<T> dispersor, int elementos) {
+        this.dispersor = dispersor;
+        diccionario = new Diccionario<T, T>(dispersor, elementos);
+    }
+
+    /**
+     * Construye un conjunto con los elementos de una colección, usando el
+     * dispersor dado.
+     * @param dispersor el dispersor para los elementos.
+     * @param coleccion la colección con los elementos.
+     */
+    public Conjunto(Dispersor<T> dispersor, Coleccion<T> coleccion) {
+        this(dispersor, coleccion.getElementos());
+        for (T elemento : coleccion)
+            agrega(elemento);
+    }
+
+    /**
+     * Agrega un elemento al conjunto. Si el elemento ya estaba en el
+     * conjunto, el método no lo modifica.
+     * @param elemento el elemento a agregar.
+     * @throws IllegalArgumentException si <code>elemento</code> es
+     *         <code>null</code>.
+     */
+    @Override public void agrega(T elemento) {
+        if (elemento == null)
+            throw new IllegalArgumentException("Elemento nulo");
+        diccionario.agrega(elemento, elemento);
+    }
+
+    /**
+     * Elimina un elemento del conjunto.
+     * @param elemento el elemento a eliminar.
+     */
+    @Override public void elimina(T elemento) {
+        diccionario.elimina(elemento);
+    }
+
+    /**
+     * Nos dice si un elemento está en el conjunto.
+     * @param elemento el elemento que queremos saber si está en el conjunto.
+     * @return <code>true</code> si el elemento está en el conjunto,
+     *         <code>false</code> en otro caso.
+     */
+    @Override public boolean contiene(T elemento) {
+        return diccionario.contiene(elemento);
+    }
+
+    /**
+     * Nos dice si el conjunto es vacío.
+     * @return <code>true</code> si el conjunto es vacío, <code>false</code>
+     *         en otro caso.
+     */
+    @Override public boolean esVacia() {
+        return diccionario.esVacia();
+    }
+
+    /**
+     * Regresa el número de elementos en el conjunto.
+     * @return el número de elementos en el conjunto.
+     */
+    @Override public int getElementos() {
+        return diccionario.getElementos();
+    }
+
+    /**
+     * Limpia el conjunto de elementos, dejándolo vacío.
+     */
+    @Override public void limpia() {
+        diccionario.limpia();
+    }
+
+    /**
+     * Regresa la unión del conjunto con otro.
+     * @param conjunto el otro conjunto.
+     * @return un conjunto nuevo con los elementos que están en alguno de los
+     *         dos conjuntos.
+     */
+    public Conjunto<T> union(Conjunto<T> conjunto) {
+        Conjunto<T> union =
+            new Conjunto<T>(dispersor, getElementos() + conjunto.getElementos());
+        for (T elemento : this)
+            union.agrega(elemento);
+        for (T elemento : conjunto)
+            union.agrega(elemento);
+        return union;
+    }
+
+    /**
+     * Regresa la intersección del conjunto con otro. Se recorre el más chico
+     * de los dos conjuntos.
+     * @param conjunto el otro conjunto.
+     * @return un conjunto nuevo con los elementos que están en los dos
+     *         conjuntos.
+     */
+    public Conjunto<T> interseccion(Conjunto<T> conjunto) {
+        Conjunto<T> chico = this;
+        Conjunto<T> grande = conjunto;
+        if (chico.getElementos() > grande.getElementos()) {
+            chico = conjunto;
+            grande = this;
+        }
+        Conjunto<T> interseccion =
+            new Conjunto<T>(dispersor, chico.getElementos());
+        for (T elemento : chico)
+            if (grande.contiene(elemento))
+                interseccion.agrega(elemento);
+        return interseccion;
+    }
+
+    /**
+     * Regresa la diferencia del conjunto con otro. Si el otro conjunto es
+     * más chico, se copia este conjunto y se eliminan los elementos del otro;
+     * si no, se recorre este conjunto.
+     * @param conjunto el otro conjunto.
+     * @return un conjunto nuevo con los elementos que están en este conjunto
+     *         pero no en el otro.
+     */
+    public Conjunto<T> diferencia(Conjunto<T> conjunto) {
+        Conjunto<T> diferencia = new Conjunto<T>(dispersor, getElementos());
+        if (conjunto.getElementos() < getElementos()) {
+            for (T elemento : this)
+                diferencia.agrega(elemento);
+            for (T elemento : conjunto)
+                diferencia.elimina(elemento);
+        } else {
+            for (T elemento : this)
+                if (!conjunto.contiene(elemento))
+                    diferencia.agrega(elemento);
+        }
+        return diferencia;
+    }
+
+    /**
+     * Nos dice si el conjunto es subconjunto de otro.
+     * @param conjunto el otro conjunto.
+     * @return <code>true</code> si todos los elementos del conjunto están en
+     *         el otro, <code>false</code> en otro caso.
+     */
+    public boolean esSubconjunto(Conjunto<T> conjunto) {
+        if (getElementos() > conjunto.getElementos())
+            return false;
+        for (T elemento : this)
+            if (!conjunto.contiene(elemento))
+                return false;
+        return true;
+    }
+
+    /**
+     * Regresa una representación en cadena del conjunto.
+     * @return una representación en cadena del conjunto.
+     */
+    @Override public String toString() {
+        StringBuilder sb = new StringBuilder("{");
+        Iterator<T> i = iterator();
+        while (i.hasNext()) {
+            sb.append(i.next());
+            if (i.hasNext())
+                sb.append(", ");
+        }
+        return sb.append("}").toString();
+    }
+
+    /**
+     * Nos dice si el conjunto es igual al objeto recibido.
+     * @param objeto el objeto con el que hay que comparar.
+     * @return <code>true</code> si el conjunto es igual al objeto recibido;
+     *         <code>false</code> en otro caso.
+     */
+    @Override public boolean equals(Object objeto) {
+        if (objeto == null || getClass() != objeto.getClass())
+            return false;
+        @SuppressWarnings("unchecked") Conjunto<T> conjunto =
+            (Conjunto<T>)objeto;
+        return getElementos() == conjunto.getElementos() &&
+            esSubconjunto(conjunto);
+    }
+
+    /**
+     * Regresa un código de dispersión para el conjunto: la suma de los
+     * <code>hashCode</code> de sus elementos, que no depende del orden ni del
+     * dispersor. No se usa el dispersor del conjunto porque dos conjuntos con
+     * dispersores distintos pueden ser iguales.
+     * @return un código de dispersión para el conjunto.
+     */
+    @Override public int hashCode() {
+        int h = 0;
+        for (T elemento : this)
+            h += elemento.hashCode();
+        return h;
+    }
+
+    /**
+     * Regresa un iterador para recorrer el conjunto, en ningún orden en
+     * particular.
+     * @return un iterador para recorrer el conjunto.
+     */
+    @Override public Iterator<T> iterator() {
+        return diccionario.iterator();
+    }
+}
@@ -0,0 +1,211 @@
+package mx.unam.ciencias.edd;
+
+/**
+ * <p>Clase para conjuntos de <code>int</code>, sin envolver los
+ * elementos.</p>
+ *
+ * <p>Los elementos se guardan en un arreglo con direccionamiento abierto y
+ * prueba lineal, igual que las llaves de {@link DiccionarioIntInt}: el 0
+ * marca las entradas vacías y se lleva aparte, y al eliminar se recorren
+ * hacia atrás los elementos siguientes.</p>
+ */
+public class ConjuntoInt {
+
+    /* El dispersor de los elementos. */
+    private DispersorInt dispersor;
+    /* El factor de carga. */
+    private double carga;
+    /* La tabla. */
+    private int[] tabla;
+    /* El número de elementos que hacen crecer la tabla. */
+    private int umbral;
+    /* Si el 0 está en el conjunto. */
+    private boolean tieneCero;
+    /* El número de elementos en el conjunto. */
+    private int elementos;
+
+    /**
+     * Construye un conjunto vacío con el dispersor de {@link
+     * FabricaDispersores#dispersorInt()}.
+     */
+    public ConjuntoInt() {
+        this(FabricaDispersores.dispersorInt(), 0, Diccionario.CARGA);
+    }
+
+    /**
+     * Construye un conjunto vacío, con espacio para el número de elementos
+     * recibido sin tener que crecer.
+     * @param elementos el número de elementos esperado.
+     * @throws IllegalArgumentException si el número de elementos es
+     *         negativo.
+     */
+    public ConjuntoInt(int elementos) {
+        this(FabricaDispersores.dispersorInt(), elementos, Diccionario.CARGA);
+    }
+
+    /**
+     * Construye un conjunto vacío con el dispersor y el factor de carga
+     * dados, con espacio para el número de elementos recibido sin tener que
+     * crecer. Sólo se usan los bits bajos del dispersor, así que deben estar
+     * bien distribuidos.
+     * @param dispersor el dispersor para los elementos.
+     * @param elementos el número de elementos esperado.
+     * @param carga el factor de carga, en el intervalo (0, 1).
+     * @throws IllegalArgumentException si el número de elementos es
+     *         negativo, o si el factor de carga no está en (0, 1).
+     */
+    public ConjuntoInt(DispersorInt dispersor, int elementos, double carga) {
+        if (dispersor == null)
+            throw new IllegalArgumentException("Dispersor inválido");
+        if (elementos < 0)
+            throw new IllegalArgumentException("Número de elementos inválido");
+        if (!(carga > 0.0 && carga < 1.0))
+            throw new IllegalArgumentException("Factor de carga inválido");
+        this.dispersor = dispersor;
+        this.carga = carga;
+        inicializa(Diccionario.capacidad(elementos, carga));
+    }
+
+    /* Crea una tabla vacía de la capacidad dada. */
+    private void inicializa(int capacidad) {
+        tabla = new int[capacidad];
+        umbral = Math.min(capacidad - 1, (int)(capacidad * carga));
+    }
+
+    /* Regresa el índice del elemento distinto de 0, o -1 si no está. */
+    private int busca(int elemento) {
+        int mascara = tabla.length - 1;
+        int i = dispersor.dispersa(elemento) & mascara;
+        int e;
+        while ((e = tabla[i]) != 0) {
+            if (e == elemento)
+                return i;
+            i = (i + 1) & mascara;
+        }
+        return -1;
+    }
+
+    /* Inserta un elemento distinto de 0 que no está en la tabla. */
+    private void inserta(int elemento) {
+        int mascara = tabla.length - 1;
+        int i = dispersor.dispersa(elemento) & mascara;
+        while (tabla[i] != 0)
+            i = (i + 1) & mascara;
+        tabla[i] = elemento;
+    }
+
+    /* Vuelve a dispersar la tabla en una del doble de tamaño. */
+    private void crece() {
+        int[] vieja = tabla;
+        inicializa(tabla.length << 1);
+        for (int e : vieja)
+            if (e != 0)
+                inserta(e);
+    }
+
+    /**
+     * Agrega un elemento al conjunto. Si el elemento ya estaba en el
+     * conjunto, el método no lo modifica.
+     * @param elemento el elemento a agregar.
+     */
+    public void agrega(int elemento) {
+        if (elemento == 0) {
+            if (!tieneCero)
+                elementos++;
+            tieneCero = true;
+            return;
+        }
+        if (busca(elemento) != -1)
+            return;
+        if (elementos + 1 > umbral)
+            crece();
+        inserta(elemento);
+        elementos++;
+    }
+
+    /**
+     * Nos dice si un elemento está en el conjunto.
+     * @param elemento el elemento que queremos saber si está en el conjunto.
+     * @return <code>true</code> si el elemento está en el conjunto,
+     *         <code>false</code> en otro caso.
+     */
+    public boolean contiene(int elemento) {
+        return elemento == 0 ? tieneCero : busca(elemento) != -1;
+    }
+
+    /**
+     * Elimina un elemento del conjunto. Si el elemento no está en el
+     * conjunto, el método no lo modifica.
+     * @param elemento el elemento a eliminar.
+     */
+    public void elimina(int elemento) {
+        if (elemento == 0) {
+            if (tieneCero)
+                elementos--;
+            tieneCero = false;
+            return;
+        }
+        int i = busca(elemento);
+        if (i == -1)
+            return;
+        elementos--;
+        int mascara = tabla.length - 1;
+        int j = i;
+        while (true) {
+            j = (j + 1) & mascara;
+            int e = tabla[j];
+            if (e == 0)
+                break;
+            int h = dispersor.dispersa(e) & mascara;
+            // Si el lugar original de e está en (i, j], e se queda.
+            if (i <= j ? (i < h && h <= j) : (i < h || h <= j))
+                continue;
+            tabla[i] = e;
+            i = j;
+        }
+        tabla[i] = 0;
+    }
+
+    /**
+     * Regresa el número de elementos en el conjunto.
+     * @return el número de elementos en el conjunto.
+     */
+    public int getElementos() {
+        return elementos;
+    }
+
+    /**
+     * Nos dice si el conjunto es vacío.
+     * @return <code>true</code> si el conjunto es vacío, <code>false</code>
+     *         en otro caso.
+     */
+    public boolean esVacia() {
+        return elementos == 0;
+    }
+
+    /**
+     * Limpia el conjunto de elementos, dejándolo vacío. La capacidad no
+     * cambia.
+     */
+    public void limpia() {
+        inicializa(tabla.length);
+        tieneCero = false;
+        elementos = 0;
+    }
+
+    /**
+     * Regresa un arreglo con los elementos del conjunto, en ningún orden en
+     * particular.
+     * @return un arreglo con los elementos del conjunto.
+     */
+    public int[] aArreglo() {
+        int[] r = new int[elementos];
+        int n = 0;
+        if (tieneCero)
+            r[n++] = 0;
+        for (int e : tabla)
+            if (e != 0)
+                r[n++] = e;
+        return r;
+    }
+}
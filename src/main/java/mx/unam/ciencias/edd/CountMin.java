@@ -0,0 +1,250 @@
+package mx.unam.ciencias.edd;
+
+/**
+ * <p>Clase para bosquejos Count-Min, que estiman la frecuencia de cada
+ * elemento de un flujo usando una cantidad fija de memoria.</p>
+ *
+ * <p>El bosquejo es una matriz de <i>d</i> renglones por <i>w</i> contadores.
+ * Cada elemento incrementa un contador en cada renglón, y su frecuencia se
+ * estima con el mínimo de esos contadores; la estimación nunca es menor que
+ * la frecuencia real, y con probabilidad al menos 1 − δ la excede por a lo
+ * más ε·<i>N</i>, donde <i>N</i> es el total agregado, si <i>w</i> =
+ * ⌈<i>e</i>/ε⌉ y <i>d</i> = ⌈ln(1/δ)⌉. El ancho se redondea a una potencia
+ * de dos, y las columnas de los renglones se obtienen por dispersión doble de
+ * dos {@link Dispersor}, como en {@link FiltroBloom}, así que sólo se
+ * dispersa dos veces por elemento sin importar <i>d</i>.</p>
+ *
+ * <p>Con actualización conservadora, agregar un elemento sólo sube los
+ * contadores de sus renglones hasta el nuevo mínimo, en lugar de sumarle a
+ * todos; las estimaciones siguen siendo cotas superiores, pero mucho más
+ * cercanas.</p>
+ */
+public class CountMin<T> {
+
+    /* El primer dispersor. */
+    private Dispersor<T> primero;
+    /* El segundo dispersor. */
+    private Dispersor<T> segundo;
+    /* Los contadores, renglón por renglón. */
+    private long[] contadores;
+    /* El número de contadores en cada renglón. */
+    private int w;
+    /* El número de renglones. */
+    private int d;
+    /* Si se usa actualización conservadora. */
+    private boolean conservador;
+    /* El total agregado. */
+    private long total;
+
+    /**
+     * Construye un bosquejo vacío con el error y la probabilidad dados.
+     * @param primero el primer dispersor.
+     * @param segundo el segundo dispersor, independiente del primero.
+     * @param epsilon el error relativo al total, en el intervalo (0, 1).
+     * @param delta la probabilidad de exceder el error, en el intervalo
+     *              (0, 1).
+     * @param conservador si se usa actualización conservadora.
+     * @throws IllegalArgumentException si algún dispersor es
+     *         <code>null</code>, o si el error o la probabilidad no están en
+     *         (0, 1).
+     */
+    public CountMin(Dispersor<T> primero, Dispersor<T> segundo,
+                    double epsilon, double delta, boolean conservador) {
+        this(primero, segundo, ancho(epsilon), profundidad(delta),
+             conservador);
+    }
+
+    /**
+     * Construye un bosquejo vacío con las dimensiones dadas.
+     * @param primero el primer dispersor.
+     * @param segundo el segundo dispersor, independiente del primero.
+     * @param ancho el número mínimo de contadores en cada renglón; se
+     *              redondea a una potencia de dos.
+     * @param profundidad el número de renglones.
+     * @param conservador si se usa actualización conservadora.
+     * @throws IllegalArgumentException si algún dispersor es
+     *         <code>null</code>, o si las dimensiones no son positivas o son
+     *         demasiado grandes.
+     */
+    public CountMin(Dispersor<T> primero, Dispersor<T> segundo, int ancho,
+                    int profundidad, boolean conservador) {
+        if (primero == null || segundo == null)
+            throw new IllegalArgumentException("Dispersor inválido");
+        if (ancho <= 0 || ancho > (1 << 30) || profundidad <= 0)
+            throw new IllegalArgumentException("Dimensiones inválidas");
+        // Con un ancho par, b impar nunca es múltiplo de w y las columnas de
+        // un elemento no colapsan.
+        int potencia = Integer.highestOneBit(ancho);
+        if (potencia < ancho)
+            potencia <<= 1;
+        if ((long)potencia * profundidad > Integer.MAX_VALUE - 8)
+            throw new IllegalArgumentException("Dimensiones inválidas");
+        this.primero = primero;
+        this.segundo = segundo;
+        this.conservador = conservador;
+        w = Math.max(2, potencia);
+        d = profundidad;
+        contadores = new long[w * d];
+    }
+
+    /**
+     * Construye un bosquejo vacío para cadenas, dispersando con el algoritmo
+     * dado y dos semillas fijas. Dos bosquejos construidos así con los
+     * mismos parámetros se pueden unir.
+     * @param <T> el tipo de las cadenas.
+     * @param algoritmo el algoritmo de dispersión, que debe aceptar
+     *                  semillas.
+     * @param epsilon el error relativo al total, en el intervalo (0, 1).
+     * @param delta la probabilidad de exceder el error, en el intervalo
+     *              (0, 1).
+     * @param conservador si se usa actualización conservadora.
+     * @return un bosquejo vacío.
+     * @throws IllegalArgumentException si el algoritmo no acepta semillas, o
+     *         si el error o la probabilidad no están en (0, 1).
+     */
+    public static <T extends CharSequence> CountMin<T>
+    deCadenas(AlgoritmoDispersor algoritmo, double epsilon, double delta,
+              boolean conservador) {
+        Dispersor<CharSequence> a = FabricaDispersores.dispersorSecuencia(
+            algoritmo, FiltroBloom.SEMILLA_PRIMERA);
+        Dispersor<CharSequence> b = FabricaDispersores.dispersorSecuencia(
+            algoritmo, FiltroBloom.SEMILLA_SEGUNDA);
+        return new CountMin<T>(a::dispersa, b::dispersa, epsilon, delta,
+                               conservador);
+    }
+
+    /* Regresa el ancho para el error dado. */
+    private static int ancho(double epsilon) {
+        if (!(epsilon > 0.0 && epsilon < 1.0))
+            throw new IllegalArgumentException("Error inválido");
+        double w = Math.ceil(Math.E / epsilon);
+        if (w > (1 << 30))
+            throw new IllegalArgumentException("Error inválido");
+        return (int)w;
+    }
+
+    /* Regresa la profundidad para la probabilidad dada. */
+    private static int profundidad(double delta) {
+        if (!(delta > 0.0 && delta < 1.0))
+            throw new IllegalArgumentException("Probabilidad inválida");
+        return Math.max(1, (int)Math.ceil(Math.log(1 / delta)));
+    }
+
+    /**
+     * Agrega una aparición de un elemento al bosquejo.
+     * @param elemento el elemento.
+     * @return la nueva frecuencia estimada del elemento.
+     * @throws IllegalArgumentException si <code>elemento</code> es
+     *         <code>null</code>.
+     */
+    public long agrega(T elemento) {
+        return agrega(elemento, 1);
+    }
+
+    /**
+     * Agrega varias apariciones de un elemento al bosquejo.
+     * @param elemento el elemento.
+     * @param cuenta el número de apariciones.
+     * @return la nueva frecuencia estimada del elemento.
+     * @throws IllegalArgumentException si <code>elemento</code> es
+     *         <code>null</code>, o si la cuenta es negativa.
+     */
+    public long agrega(T elemento, long cuenta) {
+        if (elemento == null)
+            throw new IllegalArgumentException("Elemento nulo");
+        if (cuenta < 0)
+            throw new IllegalArgumentException("Cuenta inválida");
+        long a = FiltroBloom.dispersa(primero, elemento);
+        long b = FiltroBloom.dispersa(segundo, elemento) | 1;
+        total += cuenta;
+        if (!conservador) {
+            long minimo = Long.MAX_VALUE;
+            for (int i = 0; i < d; i++) {
+                int j = i * w + (int)FiltroBloom.posicion(a, b, i, w);
+                contadores[j] += cuenta;
+                minimo = Math.min(minimo, contadores[j]);
+            }
+            return minimo;
+        }
+        long nuevo = estima(a, b) + cuenta;
+        for (int i = 0; i < d; i++) {
+            int j = i * w + (int)FiltroBloom.posicion(a, b, i, w);
+            if (contadores[j] < nuevo)
+                contadores[j] = nuevo;
+        }
+        return nuevo;
+    }
+
+    /* Regresa el mínimo de los contadores de las dispersiones. */
+    private long estima(long a, long b) {
+        long minimo = Long.MAX_VALUE;
+        for (int i = 0; i < d; i++) {
+            long c = contadores[i * w + (int)FiltroBloom.posicion(a, b, i, w)];
+            if (c < minimo)
+                minimo = c;
+        }
+        return minimo;
+    }
+
+    /**
+     * Regresa la frecuencia estimada de un elemento. Nunca es menor que la
+     * frecuencia real.
+     * @param elemento el elemento.
+     * @return la frecuencia estimada del elemento.
+     */
+    public long estima(T elemento) {
+        if (elemento == null)
+            return 0;
+        return estima(FiltroBloom.dispersa(primero, elemento),
+                      FiltroBloom.dispersa(segundo, elemento) | 1);
+    }
+
+    /**
+     * Une otro bosquejo a éste, sumando sus contadores. Los bosquejos deben
+     * usar los mismos dispersores; el resultado es un bosquejo del flujo
+     * concatenado, también si alguno es conservador.
+     * @param bosquejo el bosquejo a unir.
+     * @throws IllegalArgumentException si los bosquejos no tienen las mismas
+     *         dimensiones.
+     */
+    public void une(CountMin<T> bosquejo) {
+        if (bosquejo.w != w || bosquejo.d != d)
+            throw new IllegalArgumentException("Bosquejos incompatibles");
+        for (int i = 0; i < contadores.length; i++)
+            contadores[i] += bosquejo.contadores[i];
+        total += bosquejo.total;
+    }
+
+    /**
+     * Regresa el total de apariciones agregadas al bosquejo.
+     * @return el total de apariciones agregadas.
+     */
+    public long getTotal() {
+        return total;
+    }
+
+    /**
+     * Regresa el número de contadores en cada renglón.
+     * @return el número de contadores en cada renglón.
+     */
+    public int getAncho() {
+        return w;
+    }
+
+    /**
+     * Regresa el número de renglones.
+     * @return el número de renglones.
+     */
+    public int getProfundidad() {
+        return d;
+    }
+
+    /**
+     * Limpia el bosquejo, dejándolo vacío.
+     */
+    public void limpia() {
+        for (int i = 0; i < contadores.length; i++)
+            contadores[i] = 0;
+        total = 0;
+    }
+}
@@ -0,0 +1,480 @@
+package mx.unam.ciencias.edd;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * <p>Clase para diccionarios (<i>hash tables</i>) con direccionamiento
+ * abierto. Las llaves se dispersan con un {@link Dispersor}, y las colisiones
+ * se resuelven con prueba lineal usando la heurística de Robin Hood: al
+ * insertar, una llave desplaza a la que está más cerca de su lugar original,
+ * y al eliminar se recorren hacia atrás las llaves siguientes, así que no hay
+ * lápidas.</p>
+ *
+ * <p>La capacidad siempre es potencia de 2. Cuando el número de elementos
+ * rebasa el factor de carga, el diccionario crece al doble de manera
+ * incremental: la tabla vieja se conserva y cada operación que modifica el
+ * diccionario migra unas cuantas entradas a la nueva, en lugar de copiarlas
+ * todas de golpe. La migración empieza en una entrada vacía de la tabla
+ * vieja y avanza en orden circular, así que ningún cúmulo de la tabla vieja
+ * queda partido por una entrada migrada.</p>
+ *
+ * <p>Los diccionarios no aceptan a <code>null</code> como llave ni como
+ * valor.</p>
+ */
+public class Diccionario<K, V> implements Iterable<V> {
+
+    /* Clase interna privada para iteradores. Recorre la tabla nueva y luego
+       lo que queda de la vieja. */
+    private abstract class Iterador<E> implements Iterator<E> {
+
+        /* Las llaves de la tabla que se recorre. */
+        protected K[] tabla;
+        /* Si se recorre la tabla vieja. */
+        protected boolean vieja;
+        /* Índice del iterador; en la tabla vieja, contado desde el inicio de
+           la migración. */
+        protected int indice;
+
+        /* Construye un nuevo iterador. */
+        public Iterador() {
+            tabla = llaves;
+            indice = -1;
+            avanza();
+        }
+
+        /* Regresa la entrada de la tabla en el índice actual. */
+        protected int posicion() {
+            if (!vieja)
+                return indice;
+            return (inicioMigracion + indice) & (tabla.length - 1);
+        }
+
+        /* Mueve el índice a la siguiente entrada ocupada. */
+        private void avanza() {
+            indice++;
+            while (true) {
+                while (indice < tabla.length && tabla[posicion()] == null)
+                    indice++;
+                if (indice < tabla.length || vieja || viejasLlaves == null)
+                    return;
+                tabla = viejasLlaves;
+                vieja = true;
+                indice = migradas;
+            }
+        }
+
+        /* Nos dice si hay un siguiente elemento. */
+        @Override public boolean hasNext() {
+            return indice < tabla.length;
+        }
+
+        /* Regresa el siguiente elemento. */
+        @Override public E next() {
+            if (!hasNext())
+                throw new NoSuchElementException("No hay siguiente");
+            E e = elemento();
+            avanza();
+            return e;
+        }
+
+        /* Regresa el elemento en el índice actual. */
+        protected abstract E elemento();
+    }
+
+    /* Iterador para las llaves. */
+    private class IteradorLlaves extends Iterador<K> {
+
+        /* Regresa la llave en el índice actual. */
+        @Override protected K elemento() {
+            return tabla[posicion()];
+        }
+    }
+
+    /* Iterador para los valores. */
+    private class IteradorValores extends Iterador<V> {
+
+        /* Regresa el valor en el índice actual. */
+        @Override protected V elemento() {
+            return vieja ? viejosValores[posicion()] : valores[indice];
+        }
+    }
+
+    /** Capacidad mínima de la tabla. */
+    public static final int CAPACIDAD_MINIMA = 8;
+    /** Factor de carga por omisión. */
+    public static final double CARGA = 0.75;
+    /* Entradas de la tabla vieja que se migran en cada modificación. */
+    private static final int PASOS = 8;
+
+    /* El dispersor de las llaves. */
+    private Dispersor<K> dispersor;
+    /* El factor de carga. */
+    private double carga;
+    /* Las llaves. */
+    private K[] llaves;
+    /* Los valores. */
+    private V[] valores;
+    /* Las dispersiones de las llaves. */
+    private int[] dispersiones;
+    /* El número de elementos que hacen crecer la tabla. */
+    private int umbral;
+    /* Las llaves de la tabla vieja, o null si no estamos creciendo. */
+    private K[] viejasLlaves;
+    /* Los valores de la tabla vieja. */
+    private V[] viejosValores;
+    /* Las dispersiones de la tabla vieja. */
+    private int[] viejasDispersiones;
+    /* La entrada vacía de la tabla vieja donde empezó la migración. */
+    private int inicioMigracion;
+    /* Las entradas de la tabla vieja que ya migramos, a partir de
+       inicioMigracion y en orden circular. */
+    private int migradas;
+    /* El número de elementos en el diccionario. */
+    private int elementos;
+
+    /**
+     * Construye un diccionario vacío con el dispersor dado.
+     * @param dispersor el dispersor para las llaves.
+     */
+    public Diccionario(Dispersor<K> dispersor) {
+        this(dispersor, 0, CARGA);
+    }
+
+    /**
+     * Construye un diccionario vacío con el dispersor dado, con espacio para
+     * el número de elementos recibido sin tener que crecer.
+     * @param dispersor el dispersor para las llaves.
+     * @param elementos el número de elementos esperado.
+     * @throws IllegalArgumentException si el número de elementos es
+     *         negativo.
+     */
+    public Diccionario(Dispersor<K> dispersor, int elementos) {
+        this(dispersor, elementos, CARGA);
+    }
+
+    /**
+     * Construye un diccionario vacío con el dispersor y el factor de carga
+     * dados, con espacio para el número de elementos recibido sin tener que
+     * crecer.
+     * @param dispersor el dispersor para las llaves.
+     * @param elementos el número de elementos esperado.
+     * @param carga el factor de carga, en el intervalo (0, 1).
+     * @throws IllegalArgumentException si el número de elementos es
+     *         negativo, o si el factor de carga no está en (0, 1).
+     */
+    public Diccionario(Dispersor<K> dispersor, int elementos, double carga) {
+        if (dispersor == null)
+            throw new IllegalArgumentException("Dispersor inválido");
+        if (elementos < 0)
+            throw new IllegalArgumentException("Número de elementos inválido");
+        if (!(carga > 0.0 && carga < 1.0))
+            throw new IllegalArgumentException("Factor de carga inválido");
+        this.dispersor = dispersor;
+        this.carga = carga;
+        inicializa(capacidad(elementos, carga));
+    }
+
+    /* Regresa la menor potencia de 2 donde caben n elementos con el factor
+       de carga dado. También la usan las tablas para tipos primitivos. */
+    static int capacidad(int n, double carga) {
+        long c = (long)Math.ceil(n / carga) + 1;
+        if (c > (1 << 30))
+            throw new IllegalArgumentException("Número de elementos inválido");
+        int capacidad = CAPACIDAD_MINIMA;
+        while (capacidad < c)
+            capacidad <<= 1;
+        return capacidad;
+    }
+
+    /* Crea una tabla vacía de la capacidad dada. */
+    private void inicializa(int capacidad) {
+        llaves = nuevoArregloLlaves(capacidad);
+        valores = nuevoArregloValores(capacidad);
+        dispersiones = new int[capacidad];
+        umbral = Math.min(capacidad - 1, (int)(capacidad * carga));
+    }
+
+    /* Truco para crear arreglos genéricos. Es necesario hacerlo así por cómo
+       Java implementa sus genéricos; de otra forma obtenemos advertencias del
+       compilador. */
+    @SuppressWarnings("unchecked") private K[] nuevoArregloLlaves(int n) {
+        return (K[])(new Object[n]);
+    }
+
+    /* Truco para crear arreglos genéricos. */
+    @SuppressWarnings("unchecked") private V[] nuevoArregloValores(int n) {
+        return (V[])(new Object[n]);
+    }
+
+    /* Dispersa la llave. Mezclamos el resultado porque sólo usamos los bits
+       bajos, y no todos los dispersores los distribuyen bien. */
+    private int dispersa(K llave) {
+        return Dispersores.mezclaMurmur32(dispersor.dispersa(llave));
+    }
+
+    /* Regresa el índice de la llave en la tabla, o -1 si no está. Las
+       entradas migradas, que empiezan en inicio, ya están vacías; como inicio
+       estaba vacía, si la llave no se migró está después de las migradas. */
+    private static <K> int busca(K[] llaves, int[] dispersiones, int inicio,
+                                 int migradas, K llave, int h) {
+        int mascara = llaves.length - 1;
+        int i = h & mascara;
+        int d = 0;
+        int r = (i - inicio) & mascara;
+        if (r < migradas) {
+            d = migradas - r;
+            i = (inicio + migradas) & mascara;
+        }
+        while (true) {
+            K k = llaves[i];
+            if (k == null)
+                return -1;
+            int dk = dispersiones[i];
+            if (((i - dk) & mascara) < d)
+                return -1;
+            if (dk == h && k.equals(llave))
+                return i;
+            i = (i + 1) & mascara;
+            d++;
+        }
+    }
+
+    /* Inserta una llave que no está en la tabla nueva. */
+    private void inserta(K llave, V valor, int h) {
+        int mascara = llaves.length - 1;
+        int i = h & mascara;
+        int d = 0;
+        while (llaves[i] != null) {
+            int di = (i - dispersiones[i]) & mascara;
+            if (di < d) {
+                K k = llaves[i];
+                V v = valores[i];
+                int dk = dispersiones[i];
+                llaves[i] = llave;
+                valores[i] = valor;
+                dispersiones[i] = h;
+                llave = k;
+                valor = v;
+                h = dk;
+                d = di;
+            }
+            i = (i + 1) & mascara;
+            d++;
+        }
+        llaves[i] = llave;
+        valores[i] = valor;
+        dispersiones[i] = h;
+    }
+
+    /* Elimina la entrada i de una tabla, recorriendo hacia atrás las que le
+       siguen y no están en su lugar original. */
+    private static <K, V> void elimina(K[] llaves, V[] valores,
+                                       int[] dispersiones, int i) {
+        int mascara = llaves.length - 1;
+        int j = (i + 1) & mascara;
+        while (llaves[j] != null && ((j - dispersiones[j]) & mascara) != 0) {
+            llaves[i] = llaves[j];
+            valores[i] = valores[j];
+            dispersiones[i] = dispersiones[j];
+            i = j;
+            j = (j + 1) & mascara;
+        }
+        llaves[i] = null;
+        valores[i] = null;
+    }
+
+    /* Migra a la tabla nueva hasta n entradas de la tabla vieja. Las
+       entradas migradas se vacían sin recorrer las siguientes; las búsquedas
+       en la tabla vieja se saltan las migradas. */
+    private void migra(int n) {
+        int mascara = viejasLlaves.length - 1;
+        int fin = Math.min(viejasLlaves.length, migradas + n);
+        for (int j = migradas; j < fin; j++) {
+            int i = (inicioMigracion + j) & mascara;
+            if (viejasLlaves[i] != null) {
+                inserta(viejasLlaves[i], viejosValores[i],
+                        viejasDispersiones[i]);
+                viejasLlaves[i] = null;
+                viejosValores[i] = null;
+            }
+        }
+        migradas = fin;
+        if (migradas == viejasLlaves.length) {
+            viejasLlaves = null;
+            viejosValores = null;
+            viejasDispersiones = null;
+        }
+    }
+
+    /* Empieza a crecer la tabla al doble. */
+    private void crece() {
+        if (viejasLlaves != null)
+            migra(viejasLlaves.length);
+        viejasLlaves = llaves;
+        viejosValores = valores;
+        viejasDispersiones = dispersiones;
+        migradas = 0;
+        // El umbral deja al menos una entrada vacía.
+        inicioMigracion = 0;
+        while (llaves[inicioMigracion] != null)
+            inicioMigracion++;
+        inicializa(llaves.length << 1);
+    }
+
+    /**
+     * Asocia un valor a una llave. Si la llave ya estaba en el diccionario,
+     * su valor se reemplaza.
+     * @param llave la llave.
+     * @param valor el valor.
+     * @throws IllegalArgumentException si la llave o el valor son
+     *         <code>null</code>.
+     */
+    public void agrega(K llave, V valor) {
+        if (llave == null || valor == null)
+            throw new IllegalArgumentException("Llave o valor nulos");
+        if (viejasLlaves != null)
+            migra(PASOS);
+        int h = dispersa(llave);
+        int i;
+        if (viejasLlaves != null) {
+            i = busca(viejasLlaves, viejasDispersiones, inicioMigracion,
+                      migradas, llave, h);
+            if (i != -1) {
+                viejosValores[i] = valor;
+                return;
+            }
+        }
+        i = busca(llaves, dispersiones, 0, 0, llave, h);
+        if (i != -1) {
+            valores[i] = valor;
+            return;
+        }
+        if (elementos + 1 > umbral)
+            crece();
+        inserta(llave, valor, h);
+        elementos++;
+    }
+
+    /**
+     * Regresa el valor asociado a una llave.
+     * @param llave la llave.
+     * @return el valor asociado a la llave, o <code>null</code> si la llave
+     *         no está en el diccionario.
+     */
+    public V get(K llave) {
+        if (llave == null)
+            return null;
+        int h = dispersa(llave);
+        int i = busca(llaves, dispersiones, 0, 0, llave, h);
+        if (i != -1)
+            return valores[i];
+        if (viejasLlaves != null) {
+            i = busca(viejasLlaves, viejasDispersiones, inicioMigracion,
+                      migradas, llave, h);
+            if (i != -1)
+                return viejosValores[i];
+        }
+        return null;
+    }
+
+    /**
+     * Nos dice si una llave está en el diccionario.
+     * @param llave la llave.
+     * @return <code>true</code> si la llave está en el diccionario,
+     *         <code>false</code> en otro caso.
+     */
+    public boolean contiene(K llave) {
+        return get(llave) != null;
+    }
+
+    /**
+     * Elimina una llave y su valor del diccionario. Si la llave no está en el
+     * diccionario, el método no lo modifica.
+     * @param llave la llave a eliminar.
+     */
+    public void elimina(K llave) {
+        if (llave == null)
+            return;
+        if (viejasLlaves != null)
+            migra(PASOS);
+        int h = dispersa(llave);
+        if (viejasLlaves != null) {
+            int i = busca(viejasLlaves, viejasDispersiones, inicioMigracion,
+                          migradas, llave, h);
+            if (i != -1) {
+                elimina(viejasLlaves, viejosValores, viejasDispersiones, i);
+                elementos--;
+                return;
+            }
+        }
+        int i = busca(llaves, dispersiones, 0, 0, llave, h);
+        if (i != -1) {
+            elimina(llaves, valores, dispersiones, i);
+            elementos--;
+        }
+    }
+
+    /**
+     * Regresa el número de elementos en el diccionario.
+     * @return el número de elementos en el diccionario.
+     */
+    public int getElementos() {
+        return elementos;
+    }
+
+    /**
+     * Nos dice si el diccionario es vacío.
+     * @return <code>true</code> si el diccionario es vacío, <code>false</code>
+     *         en otro caso.
+     */
+    public boolean esVacia() {
+        return elementos == 0;
+    }
+
+    /**
+     * Limpia el diccionario de elementos, dejándolo vacío. La capacidad no
+     * cambia.
+     */
+    public void limpia() {
+        viejasLlaves = null;
+        viejosValores = null;
+        viejasDispersiones = null;
+        inicializa(llaves.length);
+        elementos = 0;
+    }
+
+    /**
+     * Regresa un iterador para recorrer las llaves del diccionario, en
+     * ningún orden en particular.
+     * @return un iterador para recorrer las llaves del diccionario.
+     */
+    public Iterator<K> iteradorLlaves() {
+        return new IteradorLlaves();
+    }
+
+    /**
+     * Regresa un iterador para recorrer los valores del diccionario, en
+     * ningún orden en particular.
+     * @return un iterador para recorrer los valores del diccionario.
+     */
+    @Override public Iterator<V> iterator() {
+        return new IteradorValores();
+    }
+
+    /**
+     * Regresa una representación en cadena del diccionario.
+     * @return una representación en cadena del diccionario.
+     */
+    @Override public String toString() {
+        StringBuilder sb = new StringBuilder("{");
+        Iterator<K> i = iteradorLlaves();
+        while (i.hasNext()) {
+            K llave = i.next();
+            sb.append(llave).append(": ").append(get(llave));
+            if (i.hasNext())
+                sb.append(", ");
+        }
+        return sb.append("}").toString();
+    }
+}
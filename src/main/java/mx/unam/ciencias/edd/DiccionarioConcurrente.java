@@ -0,0 +1,419 @@
+package mx.unam.ciencias.edd;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * <p>Clase para diccionarios que pueden usar varios hilos al mismo
+ * tiempo.</p>
+ *
+ * <p>Las llaves se reparten en segmentos, cada uno con su propia tabla de
+ * direccionamiento abierto y prueba lineal. Los bits altos de la dispersión
+ * escogen el segmento, y los bajos el lugar dentro de la tabla. Las
+ * modificaciones toman el candado de su segmento, así que hilos que escriben
+ * en segmentos distintos no se estorban.</p>
+ *
+ * <p>Las búsquedas no toman candados: cada lugar de la tabla guarda una
+ * entrada inmutable, las modificaciones reemplazan entradas completas, las
+ * eliminaciones dejan una lápida y cada segmento crece construyendo una tabla
+ * nueva que publica al terminar. Una búsqueda ve la tabla antes o después de
+ * cada modificación, nunca a la mitad. El crecimiento es por segmento:
+ * mientras un segmento crece, los demás siguen aceptando escrituras, y las
+ * lecturas del segmento que crece usan la tabla vieja.</p>
+ *
+ * <p>{@link #getElementos} y los iteradores son débilmente consistentes: si
+ * hay modificaciones concurrentes, pueden reflejar sólo algunas de ellas.
+ * Los diccionarios no aceptan a <code>null</code> como llave ni como
+ * valor.</p>
+ */
+public class DiccionarioConcurrente<K, V> implements Iterable<V> {
+
+    /* Clase estática privada para entradas, que son inmutables. */
+    private static class Entrada<K, V> {
+
+        /* La llave. */
+        public final K llave;
+        /* El valor. */
+        public final V valor;
+        /* La dispersión de la llave. */
+        public final int dispersion;
+
+        /* Construye una entrada. */
+        public Entrada(K llave, V valor, int dispersion) {
+            this.llave = llave;
+            this.valor = valor;
+            this.dispersion = dispersion;
+        }
+    }
+
+    /* Marca de las entradas eliminadas. */
+    private static final Entrada<Object, Object> LAPIDA =
+        new Entrada<Object, Object>(null, null, 0);
+
+    /* Clase estática privada para segmentos. Las modificaciones se hacen con
+       el candado del segmento. */
+    private static class Segmento<K, V> {
+
+        /* La tabla; sólo se reemplaza con el candado. */
+        public volatile AtomicReferenceArray<Entrada<K, V>> tabla;
+        /* El número de elementos. */
+        public volatile int elementos;
+        /* El número de lugares ocupados, incluyendo lápidas. */
+        private int ocupados;
+        /* El número de lugares ocupados que hacen crecer la tabla. */
+        private int umbral;
+
+        /* Construye un segmento con la capacidad dada. */
+        public Segmento(int capacidad) {
+            inicializa(capacidad);
+        }
+
+        /* Crea una tabla vacía de la capacidad dada. */
+        private void inicializa(int capacidad) {
+            tabla = new AtomicReferenceArray<Entrada<K, V>>(capacidad);
+            umbral = Math.min(capacidad - 1,
+                              (int)(capacidad * Diccionario.CARGA));
+            ocupados = 0;
+        }
+
+        /* Busca una llave sin candado. */
+        public V get(K llave, int h) {
+            AtomicReferenceArray<Entrada<K, V>> t = tabla;
+            int mascara = t.length() - 1;
+            int i = h & mascara;
+            Entrada<K, V> e;
+            while ((e = t.get(i)) != null) {
+                if (e != LAPIDA && e.dispersion == h && e.llave.equals(llave))
+                    return e.valor;
+                i = (i + 1) & mascara;
+            }
+            return null;
+        }
+
+        /* Asocia el valor a la llave y regresa el valor anterior. Si
+           siAusente es true, no reemplaza el valor anterior. */
+        public synchronized V agrega(K llave, V valor, int h,
+                                     boolean siAusente) {
+            AtomicReferenceArray<Entrada<K, V>> t = tabla;
+            int mascara = t.length() - 1;
+            int i = h & mascara;
+            int lapida = -1;
+            Entrada<K, V> e;
+            while ((e = t.get(i)) != null) {
+                if (e == LAPIDA) {
+                    if (lapida == -1)
+                        lapida = i;
+                } else if (e.dispersion == h && e.llave.equals(llave)) {
+                    if (!siAusente)
+                        t.set(i, new Entrada<K, V>(llave, valor, h));
+                    return e.valor;
+                }
+                i = (i + 1) & mascara;
+            }
+            if (lapida != -1) {
+                t.set(lapida, new Entrada<K, V>(llave, valor, h));
+            } else {
+                if (ocupados + 1 > umbral) {
+                    redimensiona();
+                    t = tabla;
+                    mascara = t.length() - 1;
+                    i = h & mascara;
+                    while (t.get(i) != null)
+                        i = (i + 1) & mascara;
+                }
+                t.set(i, new Entrada<K, V>(llave, valor, h));
+                ocupados++;
+            }
+            elementos++;
+            return null;
+        }
+
+        /* Elimina la llave y regresa su valor. */
+        public synchronized V elimina(K llave, int h) {
+            AtomicReferenceArray<Entrada<K, V>> t = tabla;
+            int mascara = t.length() - 1;
+            int i = h & mascara;
+            Entrada<K, V> e;
+            while ((e = t.get(i)) != null) {
+                if (e != LAPIDA && e.dispersion == h &&
+                    e.llave.equals(llave)) {
+                    t.set(i, lapida());
+                    elementos--;
+                    return e.valor;
+                }
+                i = (i + 1) & mascara;
+            }
+            return null;
+        }
+
+        /* Construye una tabla nueva sin lápidas, del doble de tamaño si los
+           elementos ocupan al menos la mitad del umbral, y la publica. */
+        private void redimensiona() {
+            AtomicReferenceArray<Entrada<K, V>> vieja = tabla;
+            int capacidad = vieja.length();
+            if (elementos >= umbral / 2)
+                capacidad <<= 1;
+            AtomicReferenceArray<Entrada<K, V>> nueva =
+                new AtomicReferenceArray<Entrada<K, V>>(capacidad);
+            int mascara = capacidad - 1;
+            for (int j = 0; j < vieja.length(); j++) {
+                Entrada<K, V> e = vieja.get(j);
+                if (e == null || e == LAPIDA)
+                    continue;
+                int i = e.dispersion & mascara;
+                while (nueva.get(i) != null)
+                    i = (i + 1) & mascara;
+                nueva.set(i, e);
+            }
+            umbral = Math.min(capacidad - 1,
+                              (int)(capacidad * Diccionario.CARGA));
+            ocupados = elementos;
+            tabla = nueva;
+        }
+
+        /* Vacía el segmento, conservando su capacidad. */
+        public synchronized void limpia() {
+            inicializa(tabla.length());
+            elementos = 0;
+        }
+
+        /* Regresa la lápida con el tipo del segmento. */
+        @SuppressWarnings("unchecked") private static <K, V> Entrada<K, V> lapida() {
+            return (Entrada<K, V>)(Entrada<?, ?>)LAPIDA;
+        }
+    }
+
+    /* Clase interna privada para iteradores. */
+    private class Iterador implements Iterator<V> {
+
+        /* El segmento actual. */
+        private int segmento;
+        /* La tabla del segmento actual. */
+        private AtomicReferenceArray<Entrada<K, V>> tabla;
+        /* Índice en la tabla. */
+        private int indice;
+        /* La siguiente entrada. */
+        private Entrada<K, V> siguiente;
+
+        /* Construye un nuevo iterador. */
+        public Iterador() {
+            segmento = 0;
+            tabla = segmentos[0].tabla;
+            indice = -1;
+            avanza();
+        }
+
+        /* Busca la siguiente entrada. */
+        private void avanza() {
+            siguiente = null;
+            while (true) {
+                while (++indice < tabla.length()) {
+                    Entrada<K, V> e = tabla.get(indice);
+                    if (e != null && e != LAPIDA) {
+                        siguiente = e;
+                        return;
+                    }
+                }
+                if (++segmento == segmentos.length)
+                    return;
+                tabla = segmentos[segmento].tabla;
+                indice = -1;
+            }
+        }
+
+        /* Nos dice si hay un siguiente elemento. */
+        @Override public boolean hasNext() {
+            return siguiente != null;
+        }
+
+        /* Regresa el siguiente elemento. */
+        @Override public V next() {
+            if (siguiente == null)
+                throw new NoSuchElementException("No hay siguiente");
+            V v = siguiente.valor;
+            avanza();
+            return v;
+        }
+    }
+
+    /** Número de segmentos por omisión. */
+    public static final int SEGMENTOS = 16;
+
+    /* El dispersor de las llaves. */
+    private final Dispersor<K> dispersor;
+    /* Los segmentos. */
+    private final Segmento<K, V>[] segmentos;
+    /* Corrimiento para obtener el segmento de los bits altos. */
+    private final int corrimiento;
+
+    /**
+     * Construye un diccionario vacío con el dispersor dado.
+     * @param dispersor el dispersor para las llaves.
+     */
+    public DiccionarioConcurrente(Dispersor<K> dispersor) {
+        this(dispersor, 0, SEGMENTOS);
+    }
+
+    /**
+     * Construye un diccionario vacío con el dispersor dado, con espacio para
+     * el número de elementos recibido repartido en segmentos.
+     * @param dispersor el dispersor para las llaves.
+     * @param elementos el número de elementos esperado.
+     * @param concurrencia el número de hilos que se espera que escriban al
+     *                     mismo tiempo; el número de segmentos es la menor
+     *                     potencia de 2 mayor o igual.
+     * @throws IllegalArgumentException si el número de elementos es
+     *         negativo, o si la concurrencia no está en [1, 2<sup>16</sup>].
+     */
+    public DiccionarioConcurrente(Dispersor<K> dispersor, int elementos,
+                                  int concurrencia) {
+        if (dispersor == null)
+            throw new IllegalArgumentException("Dispersor inválido");
+        if (elementos < 0)
+            throw new IllegalArgumentException("Número de elementos inválido");
+        if (concurrencia < 1 || concurrencia > (1 << 16))
+            throw new IllegalArgumentException("Concurrencia inválida");
+        this.dispersor = dispersor;
+        int n = 1;
+        int bits = 0;
+        while (n < concurrencia) {
+            n <<= 1;
+            bits++;
+        }
+        corrimiento = 32 - bits;
+        segmentos = nuevoArreglo(n);
+        int capacidad = Diccionario.capacidad((elementos + n - 1) / n,
+                                              Diccionario.CARGA);
+        for (int i = 0; i < n; i++)
+            segmentos[i] = new Segmento<K, V>(capacidad);
+    }
+
+    /* Truco para crear arreglos genéricos. Es necesario hacerlo así por cómo
+       Java implementa sus genéricos; de otra forma obtenemos advertencias del
+       compilador. */
+    @SuppressWarnings("unchecked") private Segmento<K, V>[] nuevoArreglo(int n) {
+        return (Segmento<K, V>[])(new Segmento[n]);
+    }
+
+    /* Dispersa la llave. */
+    private int dispersa(K llave) {
+        return Dispersores.mezclaMurmur32(dispersor.dispersa(llave));
+    }
+
+    /* Regresa el segmento de la dispersión, usando sus bits altos. */
+    private Segmento<K, V> segmento(int h) {
+        return segmentos[(int)((h & 0xFFFFFFFFL) >>> corrimiento)];
+    }
+
+    /**
+     * Asocia un valor a una llave. Si la llave ya estaba en el diccionario,
+     * su valor se reemplaza.
+     * @param llave la llave.
+     * @param valor el valor.
+     * @return el valor anterior de la llave, o <code>null</code> si no
+     *         estaba en el diccionario.
+     * @throws IllegalArgumentException si la llave o el valor son
+     *         <code>null</code>.
+     */
+    public V agrega(K llave, V valor) {
+        if (llave == null || valor == null)
+            throw new IllegalArgumentException("Llave o valor nulos");
+        int h = dispersa(llave);
+        return segmento(h).agrega(llave, valor, h, false);
+    }
+
+    /**
+     * Asocia un valor a una llave sólo si la llave no estaba en el
+     * diccionario. La revisión y la asociación son atómicas.
+     * @param llave la llave.
+     * @param valor el valor.
+     * @return el valor de la llave si ya estaba en el diccionario, o
+     *         <code>null</code> si se agregó.
+     * @throws IllegalArgumentException si la llave o el valor son
+     *         <code>null</code>.
+     */
+    public V agregaSiAusente(K llave, V valor) {
+        if (llave == null || valor == null)
+            throw new IllegalArgumentException("Llave o valor nulos");
+        int h = dispersa(llave);
+        return segmento(h).agrega(llave, valor, h, true);
+    }
+
+    /**
+     * Regresa el valor asociado a una llave. No toma candados.
+     * @param llave la llave.
+     * @return el valor asociado a la llave, o <code>null</code> si la llave
+     *         no está en el diccionario.
+     */
+    public V get(K llave) {
+        if (llave == null)
+            return null;
+        int h = dispersa(llave);
+        return segmento(h).get(llave, h);
+    }
+
+    /**
+     * Nos dice si una llave está en el diccionario. No toma candados.
+     * @param llave la llave.
+     * @return <code>true</code> si la llave está en el diccionario,
+     *         <code>false</code> en otro caso.
+     */
+    public boolean contiene(K llave) {
+        return get(llave) != null;
+    }
+
+    /**
+     * Elimina una llave y su valor del diccionario.
+     * @param llave la llave a eliminar.
+     * @return el valor que tenía la llave, o <code>null</code> si no estaba
+     *         en el diccionario.
+     */
+    public V elimina(K llave) {
+        if (llave == null)
+            return null;
+        int h = dispersa(llave);
+        return segmento(h).elimina(llave, h);
+    }
+
+    /**
+     * Regresa el número de elementos en el diccionario. Si hay
+     * modificaciones concurrentes, el resultado es aproximado.
+     * @return el número de elementos en el diccionario.
+     */
+    public int getElementos() {
+        int n = 0;
+        for (Segmento<K, V> s : segmentos)
+            n += s.elementos;
+        return n;
+    }
+
+    /**
+     * Nos dice si el diccionario es vacío.
+     * @return <code>true</code> si el diccionario es vacío, <code>false</code>
+     *         en otro caso.
+     */
+    public boolean esVacia() {
+        for (Segmento<K, V> s : segmentos)
+            if (s.elementos != 0)
+                return false;
+        return true;
+    }
+
+    /**
+     * Limpia el diccionario, segmento por segmento.
+     */
+    public void limpia() {
+        for (Segmento<K, V> s : segmentos)
+            s.limpia();
+    }
+
+    /**
+     * Regresa un iterador débilmente consistente para recorrer los valores
+     * del diccionario, en ningún orden en particular.
+     * @return un iterador para recorrer los valores del diccionario.
+     */
+    @Override public Iterator<V> iterator() {
+        return new Iterador();
+    }
+}
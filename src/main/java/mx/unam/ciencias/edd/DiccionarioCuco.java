@@ -0,0 +1,525 @@
+package mx.unam.ciencias.edd;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+/**
+ * <p>Clase para diccionarios cuco (<i>cuckoo hash tables</i>).</p>
+ *
+ * <p>Cada llave tiene dos cubetas posibles, una por cada uno de dos
+ * dispersores independientes, y cada cubeta tiene {@link #CUBETA} lugares
+ * consecutivos. Una búsqueda revisa a lo más las dos cubetas y un escondite
+ * de {@link #ESCONDITE} lugares, que sólo se revisa si no está vacío, así que
+ * toma tiempo <i>O</i>(1) en el peor caso, no sólo en promedio. Para comparar
+ * rápido, cada lugar guarda las dos dispersiones de su llave, y
+ * <code>equals</code> sólo se llama si coinciden.</p>
+ *
+ * <p>Las dispersiones de una cubeta están juntas en un solo arreglo de
+ * enteros (32 bytes por cubeta), y las llaves y valores intercalados en otro,
+ * así que una búsqueda fallida sólo lee las dispersiones de sus dos cubetas,
+ * y una exitosa además lee un par llave-valor contiguo. Java no deja alinear
+ * los arreglos, así que una cubeta puede cruzar la frontera entre dos líneas
+ * de caché: una búsqueda fallida toca de dos a cuatro líneas, y no
+ * exactamente dos.</p>
+ *
+ * <p>Si las dos cubetas de una llave nueva están llenas, la llave desaloja a
+ * una de las que están en ellas, que se muda a su otra cubeta, y así hasta
+ * {@link #DESALOJOS} veces. Si la cadena no termina, la llave que quedó sin
+ * lugar va al escondite, y si el escondite está lleno la tabla crece al
+ * doble. Si los dos dispersores mandan demasiadas llaves a las mismas
+ * cubetas, crecer no sirve de nada; cuando la tabla ya tiene más cubetas que
+ * elementos y aun así no caben, se lanza {@link IllegalStateException} y el
+ * diccionario queda inservible.</p>
+ *
+ * <p>Los diccionarios no aceptan a <code>null</code> como llave ni como
+ * valor.</p>
+ */
+public class DiccionarioCuco<K, V> implements Iterable<V> {
+
+    /* Clase interna privada para iteradores. */
+    private class Iterador implements Iterator<V> {
+
+        /* Índice del iterador; los índices después de la tabla son del
+           escondite. */
+        private int indice;
+
+        /* Construye un nuevo iterador. */
+        public Iterador() {
+            indice = -1;
+            avanza();
+        }
+
+        /* Mueve el índice a la siguiente entrada ocupada. */
+        private void avanza() {
+            indice++;
+            while (indice < lugares() && entradas[2*indice] == null)
+                indice++;
+        }
+
+        /* Nos dice si hay un siguiente elemento. */
+        @Override public boolean hasNext() {
+            return indice < lugares() + escondidos;
+        }
+
+        /* Regresa el siguiente elemento. */
+        @Override public V next() {
+            if (!hasNext())
+                throw new NoSuchElementException("No hay siguiente");
+            V v = indice < lugares() ? valor(indice) :
+                valoresEscondidos[indice - lugares()];
+            avanza();
+            return v;
+        }
+    }
+
+    /** Número de lugares de cada cubeta. */
+    public static final int CUBETA = 4;
+    /** Número de lugares del escondite. */
+    public static final int ESCONDITE = 8;
+    /** Máximo número de desalojos al agregar una llave. */
+    public static final int DESALOJOS = 256;
+    /** Factor de carga; con cubetas de 4 lugares, la tabla casi nunca
+        necesita el escondite antes de esta carga. */
+    public static final double CARGA = 0.9;
+
+    /* El primer dispersor. */
+    private Dispersor<K> primero;
+    /* El segundo dispersor. */
+    private Dispersor<K> segundo;
+    /* Las llaves y los valores; el lugar j de la cubeta c es i = c * CUBETA
+       + j, y su llave y su valor están en 2i y 2i + 1. */
+    private Object[] entradas;
+    /* Las dispersiones de las llaves; las del lugar i están en 2i y 2i + 1,
+       así que las de una cubeta son contiguas. */
+    private int[] dispersiones;
+    /* La máscara para obtener la cubeta de una dispersión. */
+    private int mascara;
+    /* Las llaves en el escondite. */
+    private K[] llavesEscondidas;
+    /* Los valores en el escondite. */
+    private V[] valoresEscondidos;
+    /* Las primeras dispersiones del escondite. */
+    private int[] primerasEscondidas;
+    /* Las segundas dispersiones del escondite. */
+    private int[] segundasEscondidas;
+    /* El número de llaves en el escondite. */
+    private int escondidos;
+    /* El número de elementos que hacen crecer la tabla. */
+    private int umbral;
+    /* El número de elementos en el diccionario. */
+    private int elementos;
+    /* Generador para escoger a quién desalojar. */
+    private Random random;
+    /* La llave que se quedó sin lugar en la última inserción fallida. */
+    private K llaveSinLugar;
+    /* El valor que se quedó sin lugar. */
+    private V valorSinLugar;
+    /* La primera dispersión de la llave sin lugar. */
+    private int h1SinLugar;
+    /* La segunda dispersión de la llave sin lugar. */
+    private int h2SinLugar;
+
+    /**
+     * Construye un diccionario cuco vacío con los dispersores dados, que
+     * deben ser independientes.
+     * @param primero el primer dispersor para las llaves.
+     * @param segundo el segundo dispersor para las llaves.
+     */
+    public DiccionarioCuco(Dispersor<K> primero, Dispersor<K> segundo) {
+        this(primero, segundo, 0);
+    }
+
+    /**
+     * Construye un diccionario cuco vacío con los dispersores dados, que
+     * deben ser independientes, con espacio para el número de elementos
+     * recibido.
+     * @param primero el primer dispersor para las llaves.
+     * @param segundo el segundo dispersor para las llaves.
+     * @param elementos el número de elementos esperado.
+     * @throws IllegalArgumentException si algún dispersor es
+     *         <code>null</code>, o si el número de elementos es negativo.
+     */
+    public DiccionarioCuco(Dispersor<K> primero, Dispersor<K> segundo,
+                           int elementos) {
+        if (primero == null || segundo == null)
+            throw new IllegalArgumentException("Dispersor inválido");
+        if (elementos < 0)
+            throw new IllegalArgumentException("Número de elementos inválido");
+        this.primero = primero;
+        this.segundo = segundo;
+        random = new Random();
+        llavesEscondidas = nuevoArregloLlaves(ESCONDITE);
+        valoresEscondidos = nuevoArregloValores(ESCONDITE);
+        primerasEscondidas = new int[ESCONDITE];
+        segundasEscondidas = new int[ESCONDITE];
+        int cubetas = 2;
+        while (cubetas * CUBETA * CARGA < elementos)
+            cubetas <<= 1;
+        inicializa(cubetas);
+    }
+
+    /**
+     * Construye un diccionario cuco para cadenas con dos algoritmos de
+     * dispersión, cada uno con una semilla aleatoria distinta; el mismo
+     * algoritmo puede usarse dos veces.
+     * @param <V> el tipo de los valores.
+     * @param primero el primer algoritmo.
+     * @param segundo el segundo algoritmo.
+     * @return un diccionario cuco vacío para cadenas.
+     * @throws IllegalArgumentException si algún algoritmo no acepta
+     *         semillas.
+     */
+    public static <V> DiccionarioCuco<String, V>
+    deCadenas(AlgoritmoDispersor primero, AlgoritmoDispersor segundo) {
+        long a = FabricaDispersores.semillaAleatoria();
+        long b = FabricaDispersores.semillaAleatoria();
+        if (a == b)
+            b = ~a;
+        return new DiccionarioCuco<String, V>(
+            FabricaDispersores.dispersorCadena(primero, a),
+            FabricaDispersores.dispersorCadena(segundo, b));
+    }
+
+    /* Truco para crear arreglos genéricos. Es necesario hacerlo así por cómo
+       Java implementa sus genéricos; de otra forma obtenemos advertencias del
+       compilador. */
+    @SuppressWarnings("unchecked") private K[] nuevoArregloLlaves(int n) {
+        return (K[])(new Object[n]);
+    }
+
+    /* Truco para crear arreglos genéricos. */
+    @SuppressWarnings("unchecked") private V[] nuevoArregloValores(int n) {
+        return (V[])(new Object[n]);
+    }
+
+    /* Crea una tabla vacía con el número de cubetas dado. */
+    private void inicializa(int cubetas) {
+        int n = cubetas * CUBETA;
+        entradas = new Object[2 * n];
+        dispersiones = new int[2 * n];
+        mascara = cubetas - 1;
+        umbral = (int)(n * CARGA);
+    }
+
+    /* Regresa el número de lugares de la tabla. */
+    private int lugares() {
+        return entradas.length >> 1;
+    }
+
+    /* Regresa la llave del lugar i. */
+    @SuppressWarnings("unchecked") private K llave(int i) {
+        return (K)entradas[2*i];
+    }
+
+    /* Regresa el valor del lugar i. */
+    @SuppressWarnings("unchecked") private V valor(int i) {
+        return (V)entradas[2*i+1];
+    }
+
+    /* Regresa la primera cubeta de una dispersión. */
+    private int primeraCubeta(int h1) {
+        return h1 & mascara;
+    }
+
+    /* Regresa la segunda cubeta; nunca es igual a la primera. */
+    private int segundaCubeta(int h1, int h2) {
+        int c = h2 & mascara;
+        return c == (h1 & mascara) ? c ^ 1 : c;
+    }
+
+    /* Regresa el lugar de la llave en la cubeta, o -1 si no está. Sólo lee
+       las entradas si las dispersiones coinciden. */
+    private int buscaEnCubeta(int cubeta, K llave, int h1, int h2) {
+        int inicio = cubeta * CUBETA;
+        for (int i = inicio; i < inicio + CUBETA; i++) {
+            if (dispersiones[2*i] != h1 || dispersiones[2*i+1] != h2)
+                continue;
+            Object k = entradas[2*i];
+            if (k != null && k.equals(llave))
+                return i;
+        }
+        return -1;
+    }
+
+    /* Regresa el lugar de la llave en el escondite, o -1 si no está. */
+    private int buscaEnEscondite(K llave, int h1, int h2) {
+        for (int i = 0; i < escondidos; i++)
+            if (primerasEscondidas[i] == h1 && segundasEscondidas[i] == h2 &&
+                llavesEscondidas[i].equals(llave))
+                return i;
+        return -1;
+    }
+
+    /* Regresa un lugar libre en la cubeta, o -1 si está llena. */
+    private int libreEnCubeta(int cubeta) {
+        int inicio = cubeta * CUBETA;
+        for (int i = inicio; i < inicio + CUBETA; i++)
+            if (entradas[2*i] == null)
+                return i;
+        return -1;
+    }
+
+    /* Pone una entrada en un lugar de la tabla. */
+    private void pon(int i, K llave, V valor, int h1, int h2) {
+        entradas[2*i] = llave;
+        entradas[2*i+1] = valor;
+        dispersiones[2*i] = h1;
+        dispersiones[2*i+1] = h2;
+    }
+
+    /* Inserta una llave que no está en el diccionario. Si alguna llave
+       desalojada no cabe ni en la tabla ni en el escondite, la guarda en los
+       campos sinLugar y regresa false. */
+    private boolean inserta(K llave, V valor, int h1, int h2) {
+        int c1 = primeraCubeta(h1);
+        int c2 = segundaCubeta(h1, h2);
+        int i = libreEnCubeta(c1);
+        if (i == -1)
+            i = libreEnCubeta(c2);
+        if (i != -1) {
+            pon(i, llave, valor, h1, h2);
+            return true;
+        }
+        int cubeta = random.nextBoolean() ? c1 : c2;
+        for (int d = 0; d < DESALOJOS; d++) {
+            i = cubeta * CUBETA + random.nextInt(CUBETA);
+            K k = llave(i);
+            V v = valor(i);
+            int k1 = dispersiones[2*i];
+            int k2 = dispersiones[2*i+1];
+            pon(i, llave, valor, h1, h2);
+            llave = k;
+            valor = v;
+            h1 = k1;
+            h2 = k2;
+            int a = primeraCubeta(h1);
+            cubeta = a == cubeta ? segundaCubeta(h1, h2) : a;
+            i = libreEnCubeta(cubeta);
+            if (i != -1) {
+                pon(i, llave, valor, h1, h2);
+                return true;
+            }
+        }
+        if (escondidos == ESCONDITE) {
+            llaveSinLugar = llave;
+            valorSinLugar = valor;
+            h1SinLugar = h1;
+            h2SinLugar = h2;
+            return false;
+        }
+        llavesEscondidas[escondidos] = llave;
+        valoresEscondidos[escondidos] = valor;
+        primerasEscondidas[escondidos] = h1;
+        segundasEscondidas[escondidos] = h2;
+        escondidos++;
+        return true;
+    }
+
+    /* Crece la tabla al doble, con la entrada que no cupo. Si algo no cabe,
+       empieza de nuevo con el doble de cubetas. */
+    private void crece(K llave, V valor, int h1, int h2) {
+        Object[] viejasEntradas = entradas;
+        int[] viejasDispersiones = dispersiones;
+        int viejosLugares = lugares();
+        K[] escondidas = llavesEscondidas.clone();
+        V[] valoresE = valoresEscondidos.clone();
+        int[] primerasE = primerasEscondidas.clone();
+        int[] segundasE = segundasEscondidas.clone();
+        int n = escondidos;
+        int cubetas = (mascara + 1) << 1;
+        while (true) {
+            inicializa(cubetas);
+            for (int i = 0; i < ESCONDITE; i++) {
+                llavesEscondidas[i] = null;
+                valoresEscondidos[i] = null;
+            }
+            escondidos = 0;
+            boolean cupo = inserta(llave, valor, h1, h2);
+            for (int i = 0; cupo && i < viejosLugares; i++)
+                if (viejasEntradas[2*i] != null)
+                    cupo = inserta(vieja(viejasEntradas, 2*i),
+                                   vieja(viejasEntradas, 2*i+1),
+                                   viejasDispersiones[2*i],
+                                   viejasDispersiones[2*i+1]);
+            for (int i = 0; cupo && i < n; i++)
+                cupo = inserta(escondidas[i], valoresE[i],
+                               primerasE[i], segundasE[i]);
+            if (cupo) {
+                llaveSinLugar = null;
+                valorSinLugar = null;
+                return;
+            }
+            if (cubetas > elementos + ESCONDITE)
+                throw new IllegalStateException("Los dispersores no " +
+                                                "distribuyen las llaves");
+            cubetas <<= 1;
+        }
+    }
+
+    /* Regresa una entrada de una tabla vieja, con el tipo que se espera. */
+    @SuppressWarnings("unchecked") private static <T> T vieja(Object[] e,
+                                                              int i) {
+        return (T)e[i];
+    }
+
+    /* Dispersa la llave con el primer dispersor. */
+    private int dispersa1(K llave) {
+        return Dispersores.mezclaMurmur32(primero.dispersa(llave));
+    }
+
+    /* Dispersa la llave con el segundo dispersor. */
+    private int dispersa2(K llave) {
+        return Dispersores.mezclaMurmur32(segundo.dispersa(llave));
+    }
+
+    /**
+     * Asocia un valor a una llave. Si la llave ya estaba en el diccionario,
+     * su valor se reemplaza.
+     * @param llave la llave.
+     * @param valor el valor.
+     * @throws IllegalArgumentException si la llave o el valor son
+     *         <code>null</code>.
+     * @throws IllegalStateException si los dispersores no distribuyen las
+     *         llaves lo suficiente para que quepan.
+     */
+    public void agrega(K llave, V valor) {
+        if (llave == null || valor == null)
+            throw new IllegalArgumentException("Llave o valor nulos");
+        int h1 = dispersa1(llave);
+        int h2 = dispersa2(llave);
+        int i = buscaEnCubeta(primeraCubeta(h1), llave, h1, h2);
+        if (i == -1)
+            i = buscaEnCubeta(segundaCubeta(h1, h2), llave, h1, h2);
+        if (i != -1) {
+            entradas[2*i+1] = valor;
+            return;
+        }
+        i = buscaEnEscondite(llave, h1, h2);
+        if (i != -1) {
+            valoresEscondidos[i] = valor;
+            return;
+        }
+        elementos++;
+        if (elementos > umbral) {
+            crece(llave, valor, h1, h2);
+            return;
+        }
+        if (!inserta(llave, valor, h1, h2))
+            crece(llaveSinLugar, valorSinLugar, h1SinLugar, h2SinLugar);
+    }
+
+    /**
+     * Regresa el valor asociado a una llave. Revisa a lo más dos cubetas y
+     * el escondite.
+     * @param llave la llave.
+     * @return el valor asociado a la llave, o <code>null</code> si la llave
+     *         no está en el diccionario.
+     */
+    public V get(K llave) {
+        if (llave == null)
+            return null;
+        int h1 = dispersa1(llave);
+        int h2 = dispersa2(llave);
+        int i = buscaEnCubeta(primeraCubeta(h1), llave, h1, h2);
+        if (i != -1)
+            return valor(i);
+        i = buscaEnCubeta(segundaCubeta(h1, h2), llave, h1, h2);
+        if (i != -1)
+            return valor(i);
+        if (escondidos == 0)
+            return null;
+        i = buscaEnEscondite(llave, h1, h2);
+        return i == -1 ? null : valoresEscondidos[i];
+    }
+
+    /**
+     * Nos dice si una llave está en el diccionario.
+     * @param llave la llave.
+     * @return <code>true</code> si la llave está en el diccionario,
+     *         <code>false</code> en otro caso.
+     */
+    public boolean contiene(K llave) {
+        return get(llave) != null;
+    }
+
+    /**
+     * Elimina una llave y su valor del diccionario. Si la llave no está en el
+     * diccionario, el método no lo modifica.
+     * @param llave la llave a eliminar.
+     */
+    public void elimina(K llave) {
+        if (llave == null)
+            return;
+        int h1 = dispersa1(llave);
+        int h2 = dispersa2(llave);
+        int i = buscaEnCubeta(primeraCubeta(h1), llave, h1, h2);
+        if (i == -1)
+            i = buscaEnCubeta(segundaCubeta(h1, h2), llave, h1, h2);
+        if (i != -1) {
+            entradas[2*i] = null;
+            entradas[2*i+1] = null;
+            elementos--;
+            return;
+        }
+        i = buscaEnEscondite(llave, h1, h2);
+        if (i == -1)
+            return;
+        escondidos--;
+        llavesEscondidas[i] = llavesEscondidas[escondidos];
+        valoresEscondidos[i] = valoresEscondidos[escondidos];
+        primerasEscondidas[i] = primerasEscondidas[escondidos];
+        segundasEscondidas[i] = segundasEscondidas[escondidos];
+        llavesEscondidas[escondidos] = null;
+        valoresEscondidos[escondidos] = null;
+        elementos--;
+    }
+
+    /**
+     * Regresa el número de elementos en el diccionario.
+     * @return el número de elementos en el diccionario.
+     */
+    public int getElementos() {
+        return elementos;
+    }
+
+    /**
+     * Regresa el número de elementos en el escondite.
+     * @return el número de elementos en el escondite.
+     */
+    public int getEscondidos() {
+        return escondidos;
+    }
+
+    /**
+     * Nos dice si el diccionario es vacío.
+     * @return <code>true</code> si el diccionario es vacío, <code>false</code>
+     *         en otro caso.
+     */
+    public boolean esVacia() {
+        return elementos == 0;
+    }
+
+    /**
+     * Limpia el diccionario de elementos, dejándolo vacío. La capacidad no
+     * cambia.
+     */
+    public void limpia() {
+        inicializa(mascara + 1);
+        for (int i = 0; i < ESCONDITE; i++) {
+            llavesEscondidas[i] = null;
+            valoresEscondidos[i] = null;
+        }
+        escondidos = 0;
+        elementos = 0;
+    }
+
+    /**
+     * Regresa un iterador para recorrer los valores del diccionario, en
+     * ningún orden en particular.
+     * @return un iterador para recorrer los valores del diccionario.
+     */
+    @Override public Iterator<V> iterator() {
+        return new Iterador();
+    }
+}
@@ -0,0 +1,284 @@
+package mx.unam.ciencias.edd;
+
+import java.util.NoSuchElementException;
+
+/**
+ * <p>Clase para diccionarios de <code>int</code> a <code>int</code>, sin
+ * envolver llaves ni valores.</p>
+ *
+ * <p>Las llaves y los valores se guardan en dos arreglos paralelos, con
+ * direccionamiento abierto y prueba lineal; la llave 0 marca las entradas
+ * vacías, y si está en el diccionario su valor se guarda aparte. Al eliminar
+ * se recorren hacia atrás las llaves siguientes, así que no hay lápidas.
+ * Cada entrada ocupa 8 bytes de la tabla, contra las decenas de bytes de un
+ * diccionario genérico de {@link Integer} a {@link Integer}.</p>
+ *
+ * <p>La capacidad siempre es potencia de 2, y cuando el número de elementos
+ * rebasa el factor de carga la tabla se vuelve a dispersar en una del
+ * doble de tamaño.</p>
+ */
+public class DiccionarioIntInt {
+
+    /* El dispersor de las llaves. */
+    private DispersorInt dispersor;
+    /* El factor de carga. */
+    private double carga;
+    /* Las llaves. */
+    private int[] llaves;
+    /* Los valores. */
+    private int[] valores;
+    /* El número de elementos que hacen crecer la tabla. */
+    private int umbral;
+    /* Si la llave 0 está en el diccionario. */
+    private boolean tieneCero;
+    /* El valor de la llave 0. */
+    private int valorCero;
+    /* El número de elementos en el diccionario. */
+    private int elementos;
+
+    /**
+     * Construye un diccionario vacío con el dispersor de {@link
+     * FabricaDispersores#dispersorInt()}.
+     */
+    public DiccionarioIntInt() {
+        this(FabricaDispersores.dispersorInt(), 0, Diccionario.CARGA);
+    }
+
+    /**
+     * Construye un diccionario vacío, con espacio para el número de elementos
+     * recibido sin tener que crecer.
+     * @param elementos el número de elementos esperado.
+     * @throws IllegalArgumentException si el número de elementos es
+     *         negativo.
+     */
+    public DiccionarioIntInt(int elementos) {
+        this(FabricaDispersores.dispersorInt(), elementos, Diccionario.CARGA);
+    }
+
+    /**
+     * Construye un diccionario vacío con el dispersor y el factor de carga
+     * dados, con espacio para el número de elementos recibido sin tener que
+     * crecer. Sólo se usan los bits bajos del dispersor, así que deben estar
+     * bien distribuidos.
+     * @param dispersor el dispersor para las llaves.
+     * @param elementos el número de elementos esperado.
+     * @param carga el factor de carga, en el intervalo (0, 1).
+     * @throws IllegalArgumentException si el número de elementos es
+     *         negativo, o si el factor de carga no está en (0, 1).
+     */
+    public DiccionarioIntInt(DispersorInt dispersor, int elementos,
+                             double carga) {
+        if (dispersor == null)
+            throw new IllegalArgumentException("Dispersor inválido");
+        if (elementos < 0)
+            throw new IllegalArgumentException("Número de elementos inválido");
+        if (!(carga > 0.0 && carga < 1.0))
+            throw new IllegalArgumentException("Factor de carga inválido");
+        this.dispersor = dispersor;
+        this.carga = carga;
+        inicializa(Diccionario.capacidad(elementos, carga));
+    }
+
+    /* Crea una tabla vacía de la capacidad dada. */
+    private void inicializa(int capacidad) {
+        llaves = new int[capacidad];
+        valores = new int[capacidad];
+        umbral = Math.min(capacidad - 1, (int)(capacidad * carga));
+    }
+
+    /* Regresa el índice de la llave distinta de 0, o -1 si no está. */
+    private int busca(int llave) {
+        int mascara = llaves.length - 1;
+        int i = dispersor.dispersa(llave) & mascara;
+        int k;
+        while ((k = llaves[i]) != 0) {
+            if (k == llave)
+                return i;
+            i = (i + 1) & mascara;
+        }
+        return -1;
+    }
+
+    /* Inserta una llave distinta de 0 que no está en la tabla. */
+    private void inserta(int llave, int valor) {
+        int mascara = llaves.length - 1;
+        int i = dispersor.dispersa(llave) & mascara;
+        while (llaves[i] != 0)
+            i = (i + 1) & mascara;
+        llaves[i] = llave;
+        valores[i] = valor;
+    }
+
+    /* Vuelve a dispersar la tabla en una del doble de tamaño. */
+    private void crece() {
+        int[] viejasLlaves = llaves;
+        int[] viejosValores = valores;
+        inicializa(llaves.length << 1);
+        for (int i = 0; i < viejasLlaves.length; i++)
+            if (viejasLlaves[i] != 0)
+                inserta(viejasLlaves[i], viejosValores[i]);
+    }
+
+    /**
+     * Asocia un valor a una llave. Si la llave ya estaba en el diccionario,
+     * su valor se reemplaza.
+     * @param llave la llave.
+     * @param valor el valor.
+     */
+    public void agrega(int llave, int valor) {
+        if (llave == 0) {
+            if (!tieneCero)
+                elementos++;
+            tieneCero = true;
+            valorCero = valor;
+            return;
+        }
+        int i = busca(llave);
+        if (i != -1) {
+            valores[i] = valor;
+            return;
+        }
+        if (elementos + 1 > umbral)
+            crece();
+        inserta(llave, valor);
+        elementos++;
+    }
+
+    /**
+     * Suma una cantidad al valor de una llave. Si la llave no estaba en el
+     * diccionario, se agrega con la cantidad como valor.
+     * @param llave la llave.
+     * @param cantidad la cantidad a sumar.
+     * @return el nuevo valor de la llave.
+     */
+    public int incrementa(int llave, int cantidad) {
+        if (llave == 0) {
+            agrega(0, tieneCero ? valorCero + cantidad : cantidad);
+            return valorCero;
+        }
+        int i = busca(llave);
+        if (i != -1)
+            return valores[i] += cantidad;
+        agrega(llave, cantidad);
+        return cantidad;
+    }
+
+    /**
+     * Regresa el valor asociado a una llave.
+     * @param llave la llave.
+     * @return el valor asociado a la llave.
+     * @throws NoSuchElementException si la llave no está en el diccionario.
+     */
+    public int get(int llave) {
+        if (llave == 0) {
+            if (!tieneCero)
+                throw new NoSuchElementException("La llave no está");
+            return valorCero;
+        }
+        int i = busca(llave);
+        if (i == -1)
+            throw new NoSuchElementException("La llave no está");
+        return valores[i];
+    }
+
+    /**
+     * Regresa el valor asociado a una llave, o un valor por omisión si la
+     * llave no está en el diccionario.
+     * @param llave la llave.
+     * @param omision el valor por omisión.
+     * @return el valor asociado a la llave, o el valor por omisión.
+     */
+    public int get(int llave, int omision) {
+        if (llave == 0)
+            return tieneCero ? valorCero : omision;
+        int i = busca(llave);
+        return i == -1 ? omision : valores[i];
+    }
+
+    /**
+     * Nos dice si una llave está en el diccionario.
+     * @param llave la llave.
+     * @return <code>true</code> si la llave está en el diccionario,
+     *         <code>false</code> en otro caso.
+     */
+    public boolean contiene(int llave) {
+        return llave == 0 ? tieneCero : busca(llave) != -1;
+    }
+
+    /**
+     * Elimina una llave y su valor del diccionario. Si la llave no está en el
+     * diccionario, el método no lo modifica.
+     * @param llave la llave a eliminar.
+     */
+    public void elimina(int llave) {
+        if (llave == 0) {
+            if (tieneCero)
+                elementos--;
+            tieneCero = false;
+            return;
+        }
+        int i = busca(llave);
+        if (i == -1)
+            return;
+        elementos--;
+        int mascara = llaves.length - 1;
+        int j = i;
+        while (true) {
+            j = (j + 1) & mascara;
+            int k = llaves[j];
+            if (k == 0)
+                break;
+            int h = dispersor.dispersa(k) & mascara;
+            // Si el lugar original de k está en (i, j], k se queda.
+            if (i <= j ? (i < h && h <= j) : (i < h || h <= j))
+                continue;
+            llaves[i] = k;
+            valores[i] = valores[j];
+            i = j;
+        }
+        llaves[i] = 0;
+    }
+
+    /**
+     * Regresa el número de elementos en el diccionario.
+     * @return el número de elementos en el diccionario.
+     */
+    public int getElementos() {
+        return elementos;
+    }
+
+    /**
+     * Nos dice si el diccionario es vacío.
+     * @return <code>true</code> si el diccionario es vacío, <code>false</code>
+     *         en otro caso.
+     */
+    public boolean esVacia() {
+        return elementos == 0;
+    }
+
+    /**
+     * Limpia el diccionario de elementos, dejándolo vacío. La capacidad no
+     * cambia.
+     */
+    public void limpia() {
+        inicializa(llaves.length);
+        tieneCero = false;
+        elementos = 0;
+    }
+
+    /**
+     * Regresa un arreglo con las llaves del diccionario, en ningún orden en
+     * particular.
+     * @return un arreglo con las llaves del diccionario.
+     */
+    public int[] llaves() {
+        int[] r = new int[elementos];
+        int n = 0;
+        if (tieneCero)
+            r[n++] = 0;
+        for (int k : llaves)
+            if (k != 0)
+                r[n++] = k;
+        return r;
+    }
+}
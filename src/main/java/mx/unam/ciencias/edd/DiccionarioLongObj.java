@@ -0,0 +1,298 @@
+package mx.unam.ciencias.edd;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * <p>Clase para diccionarios de <code>long</code> a objetos, sin envolver
+ * las llaves.</p>
+ *
+ * <p>Las llaves y los valores se guardan en dos arreglos paralelos, igual
+ * que en {@link DiccionarioIntInt}: la llave 0 marca las entradas vacías y
+ * su valor se guarda aparte, y al eliminar se recorren hacia atrás las
+ * llaves siguientes.</p>
+ *
+ * <p>Los diccionarios no aceptan a <code>null</code> como valor.</p>
+ */
+public class DiccionarioLongObj<V> implements Iterable<V> {
+
+    /* Clase interna privada para iteradores. */
+    private class Iterador implements Iterator<V> {
+
+        /* Índice del iterador; -1 es el valor de la llave 0. */
+        private int indice;
+
+        /* Construye un nuevo iterador. */
+        public Iterador() {
+            indice = -2;
+            avanza();
+        }
+
+        /* Mueve el índice a la siguiente entrada ocupada. */
+        private void avanza() {
+            indice++;
+            if (indice == -1 && valorCero != null)
+                return;
+            if (indice == -1)
+                indice++;
+            while (indice < llaves.length && valores[indice] == null)
+                indice++;
+        }
+
+        /* Nos dice si hay un siguiente elemento. */
+        @Override public boolean hasNext() {
+            return indice < llaves.length;
+        }
+
+        /* Regresa el siguiente elemento. */
+        @Override public V next() {
+            if (!hasNext())
+                throw new NoSuchElementException("No hay siguiente");
+            V v = indice == -1 ? valorCero : valores[indice];
+            avanza();
+            return v;
+        }
+    }
+
+    /* El dispersor de las llaves. */
+    private DispersorLong dispersor;
+    /* El factor de carga. */
+    private double carga;
+    /* Las llaves. */
+    private long[] llaves;
+    /* Los valores. */
+    private V[] valores;
+    /* El número de elementos que hacen crecer la tabla. */
+    private int umbral;
+    /* El valor de la llave 0, o null si no está en el diccionario. */
+    private V valorCero;
+    /* El número de elementos en el diccionario. */
+    private int elementos;
+
+    /**
+     * Construye un diccionario vacío con el dispersor de {@link
+     * FabricaDispersores#dispersorLong()}.
+     */
+    public DiccionarioLongObj() {
+        this(FabricaDispersores.dispersorLong(), 0, Diccionario.CARGA);
+    }
+
+    /**
+     * Construye un diccionario vacío, con espacio para el número de elementos
+     * recibido sin tener que crecer.
+     * @param elementos el número de elementos esperado.
+     * @throws IllegalArgumentException si el número de elementos es
+     *         negativo.
+     */
+    public DiccionarioLongObj(int elementos) {
+        this(FabricaDispersores.dispersorLong(), elementos, Diccionario.CARGA);
+    }
+
+    /**
+     * Construye un diccionario vacío con el dispersor y el factor de carga
+     * dados, con espacio para el número de elementos recibido sin tener que
+     * crecer. Sólo se usan los bits bajos del dispersor, así que deben estar
+     * bien distribuidos.
+     * @param dispersor el dispersor para las llaves.
+     * @param elementos el número de elementos esperado.
+     * @param carga el factor de carga, en el intervalo (0, 1).
+     * @throws IllegalArgumentException si el número de elementos es
+     *         negativo, o si el factor de carga no está en (0, 1).
+     */
+    public DiccionarioLongObj(DispersorLong dispersor, int elementos,
+                              double carga) {
+        if (dispersor == null)
+            throw new IllegalArgumentException("Dispersor inválido");
+        if (elementos < 0)
+            throw new IllegalArgumentException("Número de elementos inválido");
+        if (!(carga > 0.0 && carga < 1.0))
+            throw new IllegalArgumentException("Factor de carga inválido");
+        this.dispersor = dispersor;
+        this.carga = carga;
+        inicializa(Diccionario.capacidad(elementos, carga));
+    }
+
+    /* Truco para crear arreglos genéricos. Es necesario hacerlo así por cómo
+       Java implementa sus genéricos; de otra forma obtenemos advertencias del
+       compilador. */
+    @SuppressWarnings("unchecked") private V[] nuevoArreglo(int n) {
+        return (V[])(new Object[n]);
+    }
+
+    /* Crea una tabla vacía de la capacidad dada. */
+    private void inicializa(int capacidad) {
+        llaves = new long[capacidad];
+        valores = nuevoArreglo(capacidad);
+        umbral = Math.min(capacidad - 1, (int)(capacidad * carga));
+    }
+
+    /* Regresa el índice de la llave distinta de 0, o -1 si no está. */
+    private int busca(long llave) {
+        int mascara = llaves.length - 1;
+        int i = dispersor.dispersa(llave) & mascara;
+        long k;
+        while ((k = llaves[i]) != 0) {
+            if (k == llave)
+                return i;
+            i = (i + 1) & mascara;
+        }
+        return -1;
+    }
+
+    /* Inserta una llave distinta de 0 que no está en la tabla. */
+    private void inserta(long llave, V valor) {
+        int mascara = llaves.length - 1;
+        int i = dispersor.dispersa(llave) & mascara;
+        while (llaves[i] != 0)
+            i = (i + 1) & mascara;
+        llaves[i] = llave;
+        valores[i] = valor;
+    }
+
+    /* Vuelve a dispersar la tabla en una del doble de tamaño. */
+    private void crece() {
+        long[] viejasLlaves = llaves;
+        V[] viejosValores = valores;
+        inicializa(llaves.length << 1);
+        for (int i = 0; i < viejasLlaves.length; i++)
+            if (viejasLlaves[i] != 0)
+                inserta(viejasLlaves[i], viejosValores[i]);
+    }
+
+    /**
+     * Asocia un valor a una llave. Si la llave ya estaba en el diccionario,
+     * su valor se reemplaza.
+     * @param llave la llave.
+     * @param valor el valor.
+     * @throws IllegalArgumentException si el valor es <code>null</code>.
+     */
+    public void agrega(long llave, V valor) {
+        if (valor == null)
+            throw new IllegalArgumentException("Valor nulo");
+        if (llave == 0) {
+            if (valorCero == null)
+                elementos++;
+            valorCero = valor;
+            return;
+        }
+        int i = busca(llave);
+        if (i != -1) {
+            valores[i] = valor;
+            return;
+        }
+        if (elementos + 1 > umbral)
+            crece();
+        inserta(llave, valor);
+        elementos++;
+    }
+
+    /**
+     * Regresa el valor asociado a una llave.
+     * @param llave la llave.
+     * @return el valor asociado a la llave, o <code>null</code> si la llave
+     *         no está en el diccionario.
+     */
+    public V get(long llave) {
+        if (llave == 0)
+            return valorCero;
+        int i = busca(llave);
+        return i == -1 ? null : valores[i];
+    }
+
+    /**
+     * Nos dice si una llave está en el diccionario.
+     * @param llave la llave.
+     * @return <code>true</code> si la llave está en el diccionario,
+     *         <code>false</code> en otro caso.
+     */
+    public boolean contiene(long llave) {
+        return get(llave) != null;
+    }
+
+    /**
+     * Elimina una llave y su valor del diccionario. Si la llave no está en el
+     * diccionario, el método no lo modifica.
+     * @param llave la llave a eliminar.
+     */
+    public void elimina(long llave) {
+        if (llave == 0) {
+            if (valorCero != null)
+                elementos--;
+            valorCero = null;
+            return;
+        }
+        int i = busca(llave);
+        if (i == -1)
+            return;
+        elementos--;
+        int mascara = llaves.length - 1;
+        int j = i;
+        while (true) {
+            j = (j + 1) & mascara;
+            long k = llaves[j];
+            if (k == 0)
+                break;
+            int h = dispersor.dispersa(k) & mascara;
+            // Si el lugar original de k está en (i, j], k se queda.
+            if (i <= j ? (i < h && h <= j) : (i < h || h <= j))
+                continue;
+            llaves[i] = k;
+            valores[i] = valores[j];
+            i = j;
+        }
+        llaves[i] = 0;
+        valores[i] = null;
+    }
+
+    /**
+     * Regresa el número de elementos en el diccionario.
+     * @return el número de elementos en el diccionario.
+     */
+    public int getElementos() {
+        return elementos;
+    }
+
+    /**
+     * Nos dice si el diccionario es vacío.
+     * @return <code>true</code> si el diccionario es vacío, <code>false</code>
+     *         en otro caso.
+     */
+    public boolean esVacia() {
+        return elementos == 0;
+    }
+
+    /**
+     * Limpia el diccionario de elementos, dejándolo vacío. La capacidad no
+     * cambia.
+     */
+    public void limpia() {
+        inicializa(llaves.length);
+        valorCero = null;
+        elementos = 0;
+    }
+
+    /**
+     * Regresa un arreglo con las llaves del diccionario, en el mismo orden en
+     * que las recorre el iterador.
+     * @return un arreglo con las llaves del diccionario.
+     */
+    public long[] llaves() {
+        long[] r = new long[elementos];
+        int n = 0;
+        if (valorCero != null)
+            r[n++] = 0;
+        for (long k : llaves)
+            if (k != 0)
+                r[n++] = k;
+        return r;
+    }
+
+    /**
+     * Regresa un iterador para recorrer los valores del diccionario, en
+     * ningún orden en particular.
+     * @return un iterador para recorrer los valores del diccionario.
+     */
+    @Override public Iterator<V> iterator() {
+        return new Iterador();
+    }
+}
@@ -0,0 +1,15 @@
+package mx.unam.ciencias.edd;
+
+/**
+ * Interfaz genérica para dispersores de 128 bits.
+ */
+@FunctionalInterface
+public interface Dispersor128<T> {
+
+    /**
+     * Calcula la función de dispersión de 128 bits del objeto recibido.
+     * @param objeto el objeto que queremos dispersar.
+     * @return el resultado de dispersar del objeto recibido.
+     */
+    public Huella128 dispersa(T objeto);
+}
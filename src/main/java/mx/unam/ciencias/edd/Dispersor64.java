@@ -0,0 +1,15 @@
+package mx.unam.ciencias.edd;
+
+/**
+ * Interfaz genérica para dispersores de 64 bits.
+ */
+@FunctionalInterface
+public interface Dispersor64<T> {
+
+    /**
+     * Calcula la función de dispersión de 64 bits del objeto recibido.
+     * @param objeto el objeto que queremos dispersar.
+     * @return el resultado de dispersar del objeto recibido.
+     */
+    public long dispersa(T objeto);
+}
@@ -0,0 +1,51 @@
+package mx.unam.ciencias.edd;
+
+import java.nio.ByteBuffer;
+
+/**
+ * <p>Interfaz para dispersores incrementales. Un dispersor incremental
+ * recibe la llave por pedazos, y al final regresa lo mismo que el algoritmo
+ * correspondiente de {@link Dispersores} con todos los bytes recibidos
+ * concatenados, sin importar cómo se hayan partido.</p>
+ *
+ * <p>Cada dispersor incremental usa una cantidad acotada de memoria, así que
+ * sirve para dispersar archivos o flujos que no caben en un arreglo.</p>
+ */
+public interface DispersorIncremental {
+
+    /**
+     * Agrega un subarreglo a la llave.
+     * @param llave el arreglo que contiene los bytes a agregar.
+     * @param off el índice donde empiezan los bytes.
+     * @param len el número de bytes a agregar.
+     * @throws ExcepcionIndiceInvalido si el subarreglo no está contenido en
+     *         el arreglo.
+     */
+    public void actualiza(byte[] llave, int off, int len);
+
+    /**
+     * Agrega los bytes restantes de un buffer (de su posición a su límite) a
+     * la llave. Al terminar, la posición del buffer es su límite.
+     * @param llave el buffer que contiene los bytes a agregar.
+     */
+    public void actualiza(ByteBuffer llave);
+
+    /**
+     * Regresa la dispersión de todos los bytes recibidos hasta ahora. Para
+     * los algoritmos de 32 bits el resultado está en los 32 bits bajos, y
+     * para los de 128 bits son los 64 bits bajos de la huella. El dispersor
+     * no se modifica, así que se puede seguir actualizando.
+     * @return la dispersión de todos los bytes recibidos.
+     */
+    public long finaliza();
+
+    /**
+     * Regresa la dispersión de 128 bits de todos los bytes recibidos hasta
+     * ahora. Para los algoritmos de menos de 128 bits, los bits bajos de la
+     * huella son el resultado de {@link #finaliza} y los altos son cero.
+     * @return la dispersión de 128 bits de todos los bytes recibidos.
+     */
+    public default Huella128 finaliza128() {
+        return new Huella128(finaliza(), 0L);
+    }
+}
@@ -0,0 +1,16 @@
+package mx.unam.ciencias.edd;
+
+/**
+ * Interfaz para dispersores de llaves de tipo <code>int</code>, que no
+ * necesitan envolver la llave en un objeto.
+ */
+@FunctionalInterface
+public interface DispersorInt {
+
+    /**
+     * Calcula la función de dispersión de la llave recibida.
+     * @param llave la llave que queremos dispersar.
+     * @return el resultado de dispersar la llave recibida.
+     */
+    public int dispersa(int llave);
+}
@@ -1,46 +1,27 @@
 package mx.unam.ciencias.edd;
 
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.stream.IntStream;
+
 /**
- * Clase para métodos estáticos con dispersores de bytes.
+ * <p>Clase para métodos estáticos con dispersores de bytes.</p>
+ *
+ * <p>Cada algoritmo puede dispersar un arreglo completo, un subarreglo
+ * (dado por su desplazamiento y su longitud), o los bytes restantes de un
+ * {@link ByteBuffer}. Las tres versiones regresan lo mismo para los mismos
+ * bytes, y ninguna de ellas copia la llave.</p>
  */
 public class Dispersores {
 
     /* Constructor privado para evitar instanciación. */
     private Dispersores() {}
 
-    //Big Endian
-    private static int bigEndian(byte a, byte b, byte c,byte d) {
-        return ((a & 0xFF) << 24) | ((b & 0xFF) << 16) | ((c & 0xFF) << 8) | ((d & 0xFF));
-    }
-
-    //Metodo para llnar de ceros algún arreglo que no sea de longitud multiplo de 4
-    private static byte[] llenaCeros(byte[] llave) {
-        byte[] nuevo;
-        if (llave.length % 4 == 1) {
-            nuevo = new byte[llave.length + 3];
-            for (int i = 0; i < llave.length; i++) {
-                nuevo[i] = llave[i];
-            }
-            nuevo[nuevo.length-3] = 0;
-            nuevo[nuevo.length-2] = 0;
-            nuevo[nuevo.length-1] = 0;
-            return nuevo;  
-        } else if (llave.length % 4 == 2) {
-            nuevo = new byte[llave.length+2];
-            for (int i = 0; i < llave.length; i++) {
-                nuevo[i] = llave[i];
-            }
-            nuevo[nuevo.length-2] = 0;
-            nuevo[nuevo.length-1] = 0;
-            return nuevo;
-        } else {
-            nuevo = new byte[llave.length+1];
-            for (int i = 0; i < llave.length; i++) {
-                nuevo[i] = llave[i];
-            }
-            nuevo[nuevo.length-1] = 0;
-            return nuevo;
-        }
+    //Revisa que el subarreglo esté contenido en el arreglo
+    private static void revisaRango(byte[] llave, int off, int len) {
+        if (off < 0 || len < 0 || off > llave.length - len)
+            throw new ExcepcionIndiceInvalido("Rango inválido: " + off +
+                                              ", " + len);
     }
 
     /**
@@ -49,38 +30,114 @@ public class Dispersores {
      * @return la dispersión de XOR de la llave.
      */
     public static int dispersaXOR(byte[] llave) {
-        //Si el numero de elementos en el arreglo no es multiplo de 4
-        if (llave.length % 4 != 0) {
-            llave = llenaCeros(llave);
+        return dispersaXOR(llave, 0, llave.length);
+    }
+
+    /**
+     * Función de dispersión XOR para un subarreglo.
+     * @param llave el arreglo que contiene la llave a dispersar.
+     * @param off el índice donde empieza la llave.
+     * @param len el número de bytes de la llave.
+     * @return la dispersión de XOR de la llave.
+     * @throws ExcepcionIndiceInvalido si el subarreglo no está contenido en
+     *         el arreglo.
+     */
+    public static int dispersaXOR(byte[] llave, int off, int len) {
+        revisaRango(llave, off, len);
+        //Sin armar palabras: el byte j de cada bloque de 4 sólo se combina
+        //con el byte j de los demás, así que basta un acumulador por
+        //posición, y la palabra big endian se arma una vez al final
+        int b0 = 0, b1 = 0, b2 = 0, b3 = 0;
+        int i = off;
+        int fin = off + len;
+        while (fin - i >= 16) {
+            b0 ^= llave[i]   ^ llave[i+4] ^ llave[i+8]  ^ llave[i+12];
+            b1 ^= llave[i+1] ^ llave[i+5] ^ llave[i+9]  ^ llave[i+13];
+            b2 ^= llave[i+2] ^ llave[i+6] ^ llave[i+10] ^ llave[i+14];
+            b3 ^= llave[i+3] ^ llave[i+7] ^ llave[i+11] ^ llave[i+15];
+            i += 16;
         }
-        //Procedemos a XOR 
-        int r = 0;
-        for (int i = 0; i < llave.length-3; i = i+4) {
-            r ^=  bigEndian(llave[i], llave[i+1], llave[i+2], llave[i+3]);
+        //Los bytes que sobran, como si el arreglo estuviera rellenado con
+        //ceros hasta ser múltiplo de 4
+        switch (fin - i) {
+            case 15: b2 ^= llave[i+14];
+            case 14: b1 ^= llave[i+13];
+            case 13: b0 ^= llave[i+12];
+            case 12: b3 ^= llave[i+11];
+            case 11: b2 ^= llave[i+10];
+            case 10: b1 ^= llave[i+9];
+            case  9: b0 ^= llave[i+8];
+            case  8: b3 ^= llave[i+7];
+            case  7: b2 ^= llave[i+6];
+            case  6: b1 ^= llave[i+5];
+            case  5: b0 ^= llave[i+4];
+            case  4: b3 ^= llave[i+3];
+            case  3: b2 ^= llave[i+2];
+            case  2: b1 ^= llave[i+1];
+            case  1: b0 ^= llave[i];
         }
-        return r;
+        return ((b0 & 0xFF) << 24) | ((b1 & 0xFF) << 16) |
+            ((b2 & 0xFF) << 8) | (b3 & 0xFF);
     }
 
-    //Método Little Endian
-    private static int littleEndian(byte a, byte b, byte c, byte d) {
-        return ((d & 0xFF) << 24) | ((c & 0xFF) << 16) | ((b & 0xFF) << 8) | ((a & 0xFF));
+    /**
+     * Función de dispersión XOR para los bytes restantes de un buffer (de
+     * su posición a su límite). La posición del buffer no se modifica.
+     * @param llave el buffer que contiene la llave a dispersar.
+     * @return la dispersión de XOR de la llave.
+     */
+    public static int dispersaXOR(ByteBuffer llave) {
+        ByteBuffer vista = llave.duplicate().order(ByteOrder.BIG_ENDIAN);
+        return dispersaXOR(vista, llave.position(), llave.remaining());
+    }
+
+    /* XOR sobre una vista big endian. Como la disyunción exclusiva es
+       asociativa, se hace por palabras de 64 bits (dos bloques de 4 bytes
+       a la vez) en cuatro acumuladores independientes, y al final se doblan
+       las mitades de cada palabra. */
+    private static int dispersaXOR(ByteBuffer vista, int off, int len) {
+        long r0 = 0, r1 = 0, r2 = 0, r3 = 0;
+        int i = off;
+        int fin = off + len;
+        while (fin - i >= 32) {
+            r0 ^= vista.getLong(i);
+            r1 ^= vista.getLong(i+8);
+            r2 ^= vista.getLong(i+16);
+            r3 ^= vista.getLong(i+24);
+            i += 32;
+        }
+        while (fin - i >= 8) {
+            r0 ^= vista.getLong(i);
+            i += 8;
+        }
+        long r64 = r0 ^ r1 ^ r2 ^ r3;
+        int r = (int)(r64 >>> 32) ^ (int)r64;
+        if (fin - i >= 4) {
+            r ^= vista.getInt(i);
+            i += 4;
+        }
+        //Los bytes que sobran se leen en su lugar, como si el arreglo
+        //estuviera rellenado con ceros hasta ser múltiplo de 4
+        switch (fin - i) {
+            case 3: r ^= ( (vista.get(i+2) & 0xFF) << 8);
+            case 2: r ^= ( (vista.get(i+1) & 0xFF) << 16);
+            case 1: r ^= ( (vista.get(i) & 0xFF)   << 24);
+        }
+        return r;
     }
 
-    //Método para mezclar enteros
-    private static int[] mezcla(int a, int b, int c, int[] arreglo) {
-        a -= b; a -= c; a ^= (c>>>13); 
-        b -= c; b -= a; b ^= (a<<8); 
-        c -= a; c -= b; c ^= (b>>>13); 
-        a -= b; a -= c; a ^= (c>>>12);  
-        b -= c; b -= a; b ^= (a<<16); 
-        c -= a; c -= b; c ^= (b>>>5); 
-        a -= b; a -= c; a ^= (c>>>3);  
-        b -= c; b -= a; b ^= (a<<10); 
+    //Método para la mezcla final; regresa sólo C, que es lo que se usa
+    private static int mezclaFinal(int a, int b, int c) {
+        a -= b; a -= c; a ^= (c>>>13);
+        b -= c; b -= a; b ^= (a<<8);
+        c -= a; c -= b; c ^= (b>>>13);
+        a -= b; a -= c; a ^= (c>>>12);
+        b -= c; b -= a; b ^= (a<<16);
+        c -= a; c -= b; c ^= (b>>>5);
+        a -= b; a -= c; a ^= (c>>>3);
+        b -= c; b -= a; b ^= (a<<10);
         c -= a; c -= b; c ^= (b>>>15);
-        arreglo[0] = a;
-        arreglo[1] = b;
-        arreglo[2] = c;
-        return arreglo;
+        return c;
     }
 
     /**
@@ -89,28 +146,59 @@ public class Dispersores {
      * @return la dispersión de Bob Jenkins de la llave.
      */
     public static int dispersaBJ(byte[] llave) {
-        int a = 0x9e3779b9, b = a, c = 0xFFFFFFFF;
-        int[] mezclado = new int[3];
-        //indice
-        int i = 0;
-        //longitud
-        int n = llave.length;
-        //Mientras tenga 12 bytes para trabajar
+        return dispersaBJ(llave, 0, llave.length);
+    }
+
+    /**
+     * Función de dispersión de Bob Jenkins para un subarreglo.
+     * @param llave el arreglo que contiene la llave a dispersar.
+     * @param off el índice donde empieza la llave.
+     * @param len el número de bytes de la llave.
+     * @return la dispersión de Bob Jenkins de la llave.
+     * @throws ExcepcionIndiceInvalido si el subarreglo no está contenido en
+     *         el arreglo.
+     */
+    public static int dispersaBJ(byte[] llave, int off, int len) {
+        return dispersaBJ(llave, off, len, 0L);
+    }
+
+    /**
+     * Función de dispersión de Bob Jenkins con semilla para un subarreglo.
+     * La semilla, doblada a 32 bits, se combina con el valor inicial de
+     * <code>c</code>; con semilla cero el resultado es el mismo que sin
+     * semilla.
+     * @param llave el arreglo que contiene la llave a dispersar.
+     * @param off el índice donde empieza la llave.
+     * @param len el número de bytes de la llave.
+     * @param semilla la semilla.
+     * @return la dispersión de Bob Jenkins de la llave.
+     * @throws ExcepcionIndiceInvalido si el subarreglo no está contenido en
+     *         el arreglo.
+     */
+    public static int dispersaBJ(byte[] llave, int off, int len,
+                                 long semilla) {
+        revisaRango(llave, off, len);
+        int a = 0x9e3779b9, b = a, c = ~dobla(semilla);
+        int i = off;
+        int n = len;
+        //Los carriles se arman a mano, sin envolver el arreglo
         while (n >= 12) {
-            a += littleEndian(llave[i], llave[i+1], llave[i+2], llave[i+3]);
-            b += littleEndian(llave[i+4], llave[i+5], llave[i+6], llave[i+7]);
-            c += littleEndian(llave[i+8], llave[i+9], llave[i+10], llave[i+11]);
-            mezclado = mezcla(a, b, c, mezclado);
-            a = mezclado[0];
-            b = mezclado[1];
-            c = mezclado[2];
+            a += leeIntLE(llave, i);
+            b += leeIntLE(llave, i+4);
+            c += leeIntLE(llave, i+8);
+            a -= b; a -= c; a ^= (c>>>13);
+            b -= c; b -= a; b ^= (a<<8);
+            c -= a; c -= b; c ^= (b>>>13);
+            a -= b; a -= c; a ^= (c>>>12);
+            b -= c; b -= a; b ^= (a<<16);
+            c -= a; c -= b; c ^= (b>>>5);
+            a -= b; a -= c; a ^= (c>>>3);
+            b -= c; b -= a; b ^= (a<<10);
+            c -= a; c -= b; c ^= (b>>>15);
             n -= 12;
             i += 12;
         }
-        //Sumamos a C la longitud del arreglo
-        c += llave.length;
-
-        //Si sobran menos de 12 bytes
+        c += len;
         switch (n) {
             case 11: c += ( (llave[i+10] & 0xFF) << 24);
             case 10: c += ( (llave[i+9] & 0xFF)  << 16);
@@ -121,26 +209,2056 @@ public class Dispersores {
             case  6: b += ( (llave[i+5] & 0xFF)  << 8);
             case  5: b +=  ( llave[i+4] & 0xFF);
 
-            case  4: a += ( (llave[i+3] & 0xFF)  << 24); 
+            case  4: a += ( (llave[i+3] & 0xFF)  << 24);
             case  3: a += ( (llave[i+2] & 0xFF)  << 16);
             case  2: a += ( (llave[i+1] & 0xFF)  << 8);
             case  1: a += ( llave[i] & 0xFF);
         }
+        return mezclaFinal(a, b, c);
+    }
+
+    /* Lee 4 bytes little endian del arreglo. */
+    private static int leeIntLE(byte[] b, int i) {
+        return (b[i] & 0xFF) | ((b[i+1] & 0xFF) << 8) |
+            ((b[i+2] & 0xFF) << 16) | (b[i+3] << 24);
+    }
+
+    /**
+     * Función de dispersión de Bob Jenkins para los bytes restantes de un
+     * buffer (de su posición a su límite). La posición del buffer no se
+     * modifica.
+     * @param llave el buffer que contiene la llave a dispersar.
+     * @return la dispersión de Bob Jenkins de la llave.
+     */
+    public static int dispersaBJ(ByteBuffer llave) {
+        return dispersaBJ(llave, 0L);
+    }
+
+    /**
+     * Función de dispersión de Bob Jenkins con semilla para los bytes
+     * restantes de un buffer (de su posición a su límite). La posición del
+     * buffer no se modifica.
+     * @param llave el buffer que contiene la llave a dispersar.
+     * @param semilla la semilla.
+     * @return la dispersión de Bob Jenkins de la llave.
+     */
+    public static int dispersaBJ(ByteBuffer llave, long semilla) {
+        ByteBuffer vista = llave.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        return dispersaBJ(vista, llave.position(), llave.remaining(), semilla);
+    }
+
+    /* Bob Jenkins sobre una vista little endian; cada bloque de 4 bytes se
+       lee con un solo getInt, y el estado se queda en variables locales. */
+    private static int dispersaBJ(ByteBuffer vista, int off, int len,
+                                  long semilla) {
+        int a = 0x9e3779b9, b = a, c = ~dobla(semilla);
+        //indice
+        int i = off;
+        //longitud
+        int n = len;
+        //Mientras tenga 12 bytes para trabajar
+        while (n >= 12) {
+            a += vista.getInt(i);
+            b += vista.getInt(i+4);
+            c += vista.getInt(i+8);
+            a -= b; a -= c; a ^= (c>>>13);
+            b -= c; b -= a; b ^= (a<<8);
+            c -= a; c -= b; c ^= (b>>>13);
+            a -= b; a -= c; a ^= (c>>>12);
+            b -= c; b -= a; b ^= (a<<16);
+            c -= a; c -= b; c ^= (b>>>5);
+            a -= b; a -= c; a ^= (c>>>3);
+            b -= c; b -= a; b ^= (a<<10);
+            c -= a; c -= b; c ^= (b>>>15);
+            n -= 12;
+            i += 12;
+        }
+        return terminaBJ(a, b, c, vista, i, n, len);
+    }
+
+    /* Termina Bob Jenkins con los n < 12 bytes que sobran a partir de i. */
+    private static int terminaBJ(int a, int b, int c, ByteBuffer vista,
+                                 int i, int n, int len) {
+        //Sumamos a C la longitud de la llave
+        c += len;
+
+        //Si sobran menos de 12 bytes
+        switch (n) {
+            case 11: c += ( (vista.get(i+10) & 0xFF) << 24);
+            case 10: c += ( (vista.get(i+9) & 0xFF)  << 16);
+            case  9: c += ( (vista.get(i+8) & 0xFF)  << 8);
+
+            case  8: b += ( (vista.get(i+7) & 0xFF)  << 24);
+            case  7: b += ( (vista.get(i+6) & 0xFF)  << 16);
+            case  6: b += ( (vista.get(i+5) & 0xFF)  << 8);
+            case  5: b +=  ( vista.get(i+4) & 0xFF);
+
+            case  4: a += ( (vista.get(i+3) & 0xFF)  << 24);
+            case  3: a += ( (vista.get(i+2) & 0xFF)  << 16);
+            case  2: a += ( (vista.get(i+1) & 0xFF)  << 8);
+            case  1: a += ( vista.get(i) & 0xFF);
+        }
         //Mezclamos y regresamos C
-        mezclado = mezcla(a, b, c, mezclado);
-        return mezclado[2];
+        return mezclaFinal(a, b, c);
     }
 
+    /* Potencias de 33 (módulo 2^32) para Daniel J. Bernstein. */
+    private static final int DJB_33_2 = 33 * 33;
+    private static final int DJB_33_3 = DJB_33_2 * 33;
+    private static final int DJB_33_4 = DJB_33_2 * DJB_33_2;
+    private static final int DJB_33_5 = DJB_33_4 * 33;
+    private static final int DJB_33_6 = DJB_33_4 * DJB_33_2;
+    private static final int DJB_33_7 = DJB_33_6 * 33;
+    private static final int DJB_33_8 = DJB_33_4 * DJB_33_4;
+
     /**
      * Función de dispersión Daniel J. Bernstein.
      * @param llave la llave a dispersar.
      * @return la dispersión de Daniel Bernstein de la llave.
      */
     public static int dispersaDJB(byte[] llave) {
+        return dispersaDJB(llave, 0, llave.length);
+    }
+
+    /**
+     * Función de dispersión Daniel J. Bernstein para un subarreglo.
+     * @param llave el arreglo que contiene la llave a dispersar.
+     * @param off el índice donde empieza la llave.
+     * @param len el número de bytes de la llave.
+     * @return la dispersión de Daniel Bernstein de la llave.
+     * @throws ExcepcionIndiceInvalido si el subarreglo no está contenido en
+     *         el arreglo.
+     */
+    public static int dispersaDJB(byte[] llave, int off, int len) {
+        revisaRango(llave, off, len);
         int h = 5381;
-        for (int i = 0; i < llave.length; i++) {
+        int i = off;
+        int fin = off + len;
+        while (fin - i >= 8) {
+            h = h * DJB_33_8 +
+                (llave[i] & 0xFF)   * DJB_33_7 +
+                (llave[i+1] & 0xFF) * DJB_33_6 +
+                (llave[i+2] & 0xFF) * DJB_33_5 +
+                (llave[i+3] & 0xFF) * DJB_33_4 +
+                (llave[i+4] & 0xFF) * DJB_33_3 +
+                (llave[i+5] & 0xFF) * DJB_33_2 +
+                (llave[i+6] & 0xFF) * 33 +
+                (llave[i+7] & 0xFF);
+            i += 8;
+        }
+        for (; i < fin; i++)
             h = h * 33 + (llave[i] & 0xFF);
+        return h;
+    }
+
+    /**
+     * Función de dispersión Daniel J. Bernstein para los bytes restantes de
+     * un buffer (de su posición a su límite). La posición del buffer no se
+     * modifica.
+     * @param llave el buffer que contiene la llave a dispersar.
+     * @return la dispersión de Daniel Bernstein de la llave.
+     */
+    public static int dispersaDJB(ByteBuffer llave) {
+        ByteBuffer vista = llave.duplicate().order(ByteOrder.BIG_ENDIAN);
+        return dispersaDJB(vista, llave.position(), llave.remaining());
+    }
+
+    /* Daniel J. Bernstein sobre una vista big endian. */
+    private static int dispersaDJB(ByteBuffer vista, int off, int len) {
+        int h = 5381;
+        int i = off;
+        int fin = off + len;
+        while (fin - i >= 8) {
+            h = djb8(h, vista.getLong(i));
+            i += 8;
+        }
+        for (; i < fin; i++)
+            h = h * 33 + (vista.get(i) & 0xFF);
+        return h;
+    }
+
+    /* Agrega a h los 8 bytes de x (big endian). Desenrollar h = h*33 + b
+       ocho veces da h*33^8 + b0*33^7 + ... + b7, y esos ocho productos son
+       independientes entre sí, en lugar de una cadena de ocho
+       multiplicaciones. */
+    private static int djb8(int h, long x) {
+        return h * DJB_33_8 +
+            (int)(x >>> 56)           * DJB_33_7 +
+            ((int)(x >>> 48) & 0xFF)  * DJB_33_6 +
+            ((int)(x >>> 40) & 0xFF)  * DJB_33_5 +
+            ((int)(x >>> 32) & 0xFF)  * DJB_33_4 +
+            ((int)(x >>> 24) & 0xFF)  * DJB_33_3 +
+            ((int)(x >>> 16) & 0xFF)  * DJB_33_2 +
+            ((int)(x >>> 8) & 0xFF)   * 33 +
+            ((int)x & 0xFF);
+    }
+
+    //Rotación a la izquierda de 32 bits
+    private static int rota(int x, int k) {
+        return (x << k) | (x >>> (32 - k));
+    }
+
+    /**
+     * Función de dispersión de 64 bits de Bob Jenkins (<i>lookup3</i>,
+     * <code>hashlittle2</code> con ambas semillas en cero). Los 32 bits
+     * bajos son el valor primario <code>c</code>, y los altos el secundario
+     * <code>b</code>.
+     * @param llave la llave a dispersar.
+     * @return la dispersión de 64 bits de Bob Jenkins de la llave.
+     */
+    public static long dispersaBJ64(byte[] llave) {
+        return dispersaBJ64(llave, 0, llave.length);
+    }
+
+    /**
+     * Función de dispersión de 64 bits de Bob Jenkins para un subarreglo.
+     * @param llave el arreglo que contiene la llave a dispersar.
+     * @param off el índice donde empieza la llave.
+     * @param len el número de bytes de la llave.
+     * @return la dispersión de 64 bits de Bob Jenkins de la llave.
+     * @throws ExcepcionIndiceInvalido si el subarreglo no está contenido en
+     *         el arreglo.
+     */
+    public static long dispersaBJ64(byte[] llave, int off, int len) {
+        return dispersaBJ64(llave, off, len, 0L);
+    }
+
+    /**
+     * Función de dispersión de 64 bits de Bob Jenkins con semilla para un
+     * subarreglo. Los 32 bits bajos de la semilla son la semilla primaria
+     * (<code>*pc</code>) de <code>hashlittle2</code>, y los altos la
+     * secundaria (<code>*pb</code>).
+     * @param llave el arreglo que contiene la llave a dispersar.
+     * @param off el índice donde empieza la llave.
+     * @param len el número de bytes de la llave.
+     * @param semilla la semilla.
+     * @return la dispersión de 64 bits de Bob Jenkins de la llave.
+     * @throws ExcepcionIndiceInvalido si el subarreglo no está contenido en
+     *         el arreglo.
+     */
+    public static long dispersaBJ64(byte[] llave, int off, int len,
+                                    long semilla) {
+        revisaRango(llave, off, len);
+        return dispersaBJ64(ByteBuffer.wrap(llave).order(ByteOrder.LITTLE_ENDIAN),
+                            off, len, semilla);
+    }
+
+    /**
+     * Función de dispersión de 64 bits de Bob Jenkins para los bytes
+     * restantes de un buffer (de su posición a su límite). La posición del
+     * buffer no se modifica.
+     * @param llave el buffer que contiene la llave a dispersar.
+     * @return la dispersión de 64 bits de Bob Jenkins de la llave.
+     */
+    public static long dispersaBJ64(ByteBuffer llave) {
+        return dispersaBJ64(llave, 0L);
+    }
+
+    /**
+     * Función de dispersión de 64 bits de Bob Jenkins con semilla para los
+     * bytes restantes de un buffer (de su posición a su límite). La
+     * posición del buffer no se modifica.
+     * @param llave el buffer que contiene la llave a dispersar.
+     * @param semilla la semilla.
+     * @return la dispersión de 64 bits de Bob Jenkins de la llave.
+     */
+    public static long dispersaBJ64(ByteBuffer llave, long semilla) {
+        ByteBuffer vista = llave.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        return dispersaBJ64(vista, llave.position(), llave.remaining(),
+                            semilla);
+    }
+
+    /* lookup3 sobre una vista little endian. */
+    private static long dispersaBJ64(ByteBuffer vista, int off, int len,
+                                     long semilla) {
+        int a = 0xdeadbeef + len + (int)semilla, b = a, c = a;
+        c += (int)(semilla >>> 32);
+        int i = off;
+        int n = len;
+        //A diferencia de lookup2, el último bloque (aunque sea de 12 bytes)
+        //se procesa con la mezcla final
+        while (n > 12) {
+            a += vista.getInt(i);
+            b += vista.getInt(i+4);
+            c += vista.getInt(i+8);
+            a -= c; a ^= rota(c, 4);  c += b;
+            b -= a; b ^= rota(a, 6);  a += c;
+            c -= b; c ^= rota(b, 8);  b += a;
+            a -= c; a ^= rota(c, 16); c += b;
+            b -= a; b ^= rota(a, 19); a += c;
+            c -= b; c ^= rota(b, 4);  b += a;
+            n -= 12;
+            i += 12;
+        }
+        if (n == 0)
+            return ((long)b << 32) | (c & 0xFFFFFFFFL);
+        switch (n) {
+            case 12: c += ( (vista.get(i+11) & 0xFF) << 24);
+            case 11: c += ( (vista.get(i+10) & 0xFF) << 16);
+            case 10: c += ( (vista.get(i+9) & 0xFF)  << 8);
+            case  9: c +=  ( vista.get(i+8) & 0xFF);
+
+            case  8: b += ( (vista.get(i+7) & 0xFF)  << 24);
+            case  7: b += ( (vista.get(i+6) & 0xFF)  << 16);
+            case  6: b += ( (vista.get(i+5) & 0xFF)  << 8);
+            case  5: b +=  ( vista.get(i+4) & 0xFF);
+
+            case  4: a += ( (vista.get(i+3) & 0xFF)  << 24);
+            case  3: a += ( (vista.get(i+2) & 0xFF)  << 16);
+            case  2: a += ( (vista.get(i+1) & 0xFF)  << 8);
+            case  1: a +=  ( vista.get(i) & 0xFF);
+        }
+        c ^= b; c -= rota(b, 14);
+        a ^= c; a -= rota(c, 11);
+        b ^= a; b -= rota(a, 25);
+        c ^= b; c -= rota(b, 16);
+        a ^= c; a -= rota(c, 4);
+        b ^= a; b -= rota(a, 14);
+        c ^= b; c -= rota(b, 24);
+        return ((long)b << 32) | (c & 0xFFFFFFFFL);
+    }
+
+    /* Base de FNV-1a de 64 bits. */
+    private static final long FNV_BASE = 0xcbf29ce484222325L;
+    /* Primo de FNV-1a de 64 bits. */
+    private static final long FNV_PRIMO = 0x100000001b3L;
+
+    /**
+     * Función de dispersión FNV-1a de 64 bits.
+     * @param llave la llave a dispersar.
+     * @return la dispersión FNV-1a de 64 bits de la llave.
+     */
+    public static long dispersaFNV64(byte[] llave) {
+        return dispersaFNV64(llave, 0, llave.length);
+    }
+
+    /**
+     * Función de dispersión FNV-1a de 64 bits para un subarreglo.
+     * @param llave el arreglo que contiene la llave a dispersar.
+     * @param off el índice donde empieza la llave.
+     * @param len el número de bytes de la llave.
+     * @return la dispersión FNV-1a de 64 bits de la llave.
+     * @throws ExcepcionIndiceInvalido si el subarreglo no está contenido en
+     *         el arreglo.
+     */
+    public static long dispersaFNV64(byte[] llave, int off, int len) {
+        return dispersaFNV64(llave, off, len, 0L);
+    }
+
+    /**
+     * Función de dispersión FNV-1a de 64 bits con semilla para un
+     * subarreglo. La base de FNV se combina con la semilla.
+     * @param llave el arreglo que contiene la llave a dispersar.
+     * @param off el índice donde empieza la llave.
+     * @param len el número de bytes de la llave.
+     * @param semilla la semilla.
+     * @return la dispersión FNV-1a de 64 bits de la llave.
+     * @throws ExcepcionIndiceInvalido si el subarreglo no está contenido en
+     *         el arreglo.
+     */
+    public static long dispersaFNV64(byte[] llave, int off, int len,
+                                     long semilla) {
+        revisaRango(llave, off, len);
+        long h = FNV_BASE ^ semilla;
+        for (int i = off; i < off + len; i++) {
+            h ^= (llave[i] & 0xFF);
+            h *= FNV_PRIMO;
+        }
+        return h;
+    }
+
+    /**
+     * Función de dispersión FNV-1a de 64 bits para los bytes restantes de
+     * un buffer (de su posición a su límite). La posición del buffer no se
+     * modifica.
+     * @param llave el buffer que contiene la llave a dispersar.
+     * @return la dispersión FNV-1a de 64 bits de la llave.
+     */
+    public static long dispersaFNV64(ByteBuffer llave) {
+        return dispersaFNV64(llave, 0L);
+    }
+
+    /**
+     * Función de dispersión FNV-1a de 64 bits con semilla para los bytes
+     * restantes de un buffer (de su posición a su límite). La posición del
+     * buffer no se modifica.
+     * @param llave el buffer que contiene la llave a dispersar.
+     * @param semilla la semilla.
+     * @return la dispersión FNV-1a de 64 bits de la llave.
+     */
+    public static long dispersaFNV64(ByteBuffer llave, long semilla) {
+        if (llave.hasArray())
+            return dispersaFNV64(llave.array(),
+                                 llave.arrayOffset() + llave.position(),
+                                 llave.remaining(), semilla);
+        long h = FNV_BASE ^ semilla;
+        for (int i = llave.position(); i < llave.limit(); i++) {
+            h ^= (llave.get(i) & 0xFF);
+            h *= FNV_PRIMO;
+        }
+        return h;
+    }
+
+    /* Primos de xxHash64. */
+    private static final long XXH_P1 = 0x9E3779B185EBCA87L;
+    private static final long XXH_P2 = 0xC2B2AE3D27D4EB4FL;
+    private static final long XXH_P3 = 0x165667B19E3779F9L;
+    private static final long XXH_P4 = 0x85EBCA77C2B2AE63L;
+    private static final long XXH_P5 = 0x27D4EB2F165667C5L;
+
+    //Ronda de xxHash64
+    private static long rondaXXH(long acumulado, long entrada) {
+        acumulado += entrada * XXH_P2;
+        acumulado = Long.rotateLeft(acumulado, 31);
+        return acumulado * XXH_P1;
+    }
+
+    //Ronda para juntar los acumuladores de xxHash64
+    private static long juntaXXH(long h, long v) {
+        h ^= rondaXXH(0, v);
+        return h * XXH_P1 + XXH_P4;
+    }
+
+    /**
+     * Función de dispersión xxHash64 (con semilla cero).
+     * @param llave la llave a dispersar.
+     * @return la dispersión xxHash64 de la llave.
+     */
+    public static long dispersaXXH64(byte[] llave) {
+        return dispersaXXH64(llave, 0, llave.length);
+    }
+
+    /**
+     * Función de dispersión xxHash64 para un subarreglo.
+     * @param llave el arreglo que contiene la llave a dispersar.
+     * @param off el índice donde empieza la llave.
+     * @param len el número de bytes de la llave.
+     * @return la dispersión xxHash64 de la llave.
+     * @throws ExcepcionIndiceInvalido si el subarreglo no está contenido en
+     *         el arreglo.
+     */
+    public static long dispersaXXH64(byte[] llave, int off, int len) {
+        return dispersaXXH64(llave, off, len, 0L);
+    }
+
+    /**
+     * Función de dispersión xxHash64 con semilla para un subarreglo.
+     * @param llave el arreglo que contiene la llave a dispersar.
+     * @param off el índice donde empieza la llave.
+     * @param len el número de bytes de la llave.
+     * @param semilla la semilla.
+     * @return la dispersión xxHash64 de la llave.
+     * @throws ExcepcionIndiceInvalido si el subarreglo no está contenido en
+     *         el arreglo.
+     */
+    public static long dispersaXXH64(byte[] llave, int off, int len,
+                                     long semilla) {
+        revisaRango(llave, off, len);
+        return dispersaXXH64(ByteBuffer.wrap(llave).order(ByteOrder.LITTLE_ENDIAN),
+                             off, len, semilla);
+    }
+
+    /**
+     * Función de dispersión xxHash64 para los bytes restantes de un buffer
+     * (de su posición a su límite). La posición del buffer no se modifica.
+     * @param llave el buffer que contiene la llave a dispersar.
+     * @return la dispersión xxHash64 de la llave.
+     */
+    public static long dispersaXXH64(ByteBuffer llave) {
+        return dispersaXXH64(llave, 0L);
+    }
+
+    /**
+     * Función de dispersión xxHash64 con semilla para los bytes restantes
+     * de un buffer (de su posición a su límite). La posición del buffer no
+     * se modifica.
+     * @param llave el buffer que contiene la llave a dispersar.
+     * @param semilla la semilla.
+     * @return la dispersión xxHash64 de la llave.
+     */
+    public static long dispersaXXH64(ByteBuffer llave, long semilla) {
+        ByteBuffer vista = llave.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        return dispersaXXH64(vista, llave.position(), llave.remaining(),
+                             semilla);
+    }
+
+    /* xxHash64 sobre una vista little endian. */
+    private static long dispersaXXH64(ByteBuffer vista, int off, int len,
+                                      long semilla) {
+        int i = off;
+        int fin = off + len;
+        long h;
+        if (len >= 32) {
+            long v1 = semilla + XXH_P1 + XXH_P2;
+            long v2 = semilla + XXH_P2;
+            long v3 = semilla;
+            long v4 = semilla - XXH_P1;
+            while (fin - i >= 32) {
+                v1 = rondaXXH(v1, vista.getLong(i));
+                v2 = rondaXXH(v2, vista.getLong(i+8));
+                v3 = rondaXXH(v3, vista.getLong(i+16));
+                v4 = rondaXXH(v4, vista.getLong(i+24));
+                i += 32;
+            }
+            h = Long.rotateLeft(v1, 1) + Long.rotateLeft(v2, 7) +
+                Long.rotateLeft(v3, 12) + Long.rotateLeft(v4, 18);
+            h = juntaXXH(h, v1);
+            h = juntaXXH(h, v2);
+            h = juntaXXH(h, v3);
+            h = juntaXXH(h, v4);
+        } else {
+            h = semilla + XXH_P5;
+        }
+        return terminaXXH64(h + len, vista, i, fin);
+    }
+
+    /* Termina xxHash64 con los menos de 32 bytes entre i y fin. */
+    private static long terminaXXH64(long h, ByteBuffer vista, int i,
+                                     int fin) {
+        while (fin - i >= 8) {
+            h ^= rondaXXH(0, vista.getLong(i));
+            h = Long.rotateLeft(h, 27) * XXH_P1 + XXH_P4;
+            i += 8;
+        }
+        if (fin - i >= 4) {
+            h ^= (vista.getInt(i) & 0xFFFFFFFFL) * XXH_P1;
+            h = Long.rotateLeft(h, 23) * XXH_P2 + XXH_P3;
+            i += 4;
+        }
+        while (i < fin) {
+            h ^= (vista.get(i) & 0xFF) * XXH_P5;
+            h = Long.rotateLeft(h, 11) * XXH_P1;
+            i++;
+        }
+        h ^= h >>> 33;
+        h *= XXH_P2;
+        h ^= h >>> 29;
+        h *= XXH_P3;
+        h ^= h >>> 32;
+        return h;
+    }
+
+    /* Constantes de MurmurHash3 de 128 bits. */
+    private static final long MURMUR_C1 = 0x87c37b91114253d5L;
+    private static final long MURMUR_C2 = 0x4cf5ad432745937fL;
+
+    //Mezcla final de MurmurHash3 de 64 bits
+    private static long fmix64(long k) {
+        k ^= k >>> 33;
+        k *= 0xff51afd7ed558ccdL;
+        k ^= k >>> 33;
+        k *= 0xc4ceb9fe1a85ec53L;
+        k ^= k >>> 33;
+        return k;
+    }
+
+    /**
+     * Función de dispersión MurmurHash3 de 128 bits (la variante
+     * <code>x64_128</code>, con semilla cero). Los bits bajos de la huella
+     * son los primeros 8 bytes de la salida de referencia.
+     * @param llave la llave a dispersar.
+     * @return la dispersión MurmurHash3 de 128 bits de la llave.
+     */
+    public static Huella128 dispersaMurmur128(byte[] llave) {
+        return dispersaMurmur128(llave, 0, llave.length);
+    }
+
+    /**
+     * Función de dispersión MurmurHash3 de 128 bits para un subarreglo.
+     * @param llave el arreglo que contiene la llave a dispersar.
+     * @param off el índice donde empieza la llave.
+     * @param len el número de bytes de la llave.
+     * @return la dispersión MurmurHash3 de 128 bits de la llave.
+     * @throws ExcepcionIndiceInvalido si el subarreglo no está contenido en
+     *         el arreglo.
+     */
+    public static Huella128 dispersaMurmur128(byte[] llave, int off, int len) {
+        return dispersaMurmur128(llave, off, len, 0L);
+    }
+
+    /**
+     * Función de dispersión MurmurHash3 de 128 bits con semilla para un
+     * subarreglo. La semilla es el valor inicial de <code>h1</code> y
+     * <code>h2</code>; para semillas entre 0 y 2<sup>32</sup>-1 el resultado
+     * es el de la implementación de referencia, que usa semillas de 32 bits.
+     * @param llave el arreglo que contiene la llave a dispersar.
+     * @param off el índice donde empieza la llave.
+     * @param len el número de bytes de la llave.
+     * @param semilla la semilla.
+     * @return la dispersión MurmurHash3 de 128 bits de la llave.
+     * @throws ExcepcionIndiceInvalido si el subarreglo no está contenido en
+     *         el arreglo.
+     */
+    public static Huella128 dispersaMurmur128(byte[] llave, int off, int len,
+                                              long semilla) {
+        revisaRango(llave, off, len);
+        return dispersaMurmur128(ByteBuffer.wrap(llave).order(ByteOrder.LITTLE_ENDIAN),
+                                 off, len, semilla);
+    }
+
+    /**
+     * Función de dispersión MurmurHash3 de 128 bits para los bytes
+     * restantes de un buffer (de su posición a su límite). La posición del
+     * buffer no se modifica.
+     * @param llave el buffer que contiene la llave a dispersar.
+     * @return la dispersión MurmurHash3 de 128 bits de la llave.
+     */
+    public static Huella128 dispersaMurmur128(ByteBuffer llave) {
+        return dispersaMurmur128(llave, 0L);
+    }
+
+    /**
+     * Función de dispersión MurmurHash3 de 128 bits con semilla para los
+     * bytes restantes de un buffer (de su posición a su límite). La
+     * posición del buffer no se modifica.
+     * @param llave el buffer que contiene la llave a dispersar.
+     * @param semilla la semilla.
+     * @return la dispersión MurmurHash3 de 128 bits de la llave.
+     */
+    public static Huella128 dispersaMurmur128(ByteBuffer llave, long semilla) {
+        ByteBuffer vista = llave.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        return dispersaMurmur128(vista, llave.position(), llave.remaining(),
+                                 semilla);
+    }
+
+    /* MurmurHash3 x64_128 sobre una vista little endian. */
+    private static Huella128 dispersaMurmur128(ByteBuffer vista, int off,
+                                               int len, long semilla) {
+        long h1 = semilla, h2 = semilla;
+        int i = off;
+        int fin = off + len;
+        while (fin - i >= 16) {
+            long k1 = vista.getLong(i);
+            long k2 = vista.getLong(i+8);
+            k1 *= MURMUR_C1; k1 = Long.rotateLeft(k1, 31); k1 *= MURMUR_C2;
+            h1 ^= k1;
+            h1 = Long.rotateLeft(h1, 27); h1 += h2; h1 = h1 * 5 + 0x52dce729;
+            k2 *= MURMUR_C2; k2 = Long.rotateLeft(k2, 33); k2 *= MURMUR_C1;
+            h2 ^= k2;
+            h2 = Long.rotateLeft(h2, 31); h2 += h1; h2 = h2 * 5 + 0x38495ab5;
+            i += 16;
+        }
+        return terminaMurmur128(h1, h2, vista, i, fin, len);
+    }
+
+    /* Termina MurmurHash3 con los menos de 16 bytes entre i y fin. */
+    private static Huella128 terminaMurmur128(long h1, long h2,
+                                              ByteBuffer vista, int i,
+                                              int fin, long len) {
+        long k1 = 0, k2 = 0;
+        switch (fin - i) {
+            case 15: k2 ^= (vista.get(i+14) & 0xFFL) << 48;
+            case 14: k2 ^= (vista.get(i+13) & 0xFFL) << 40;
+            case 13: k2 ^= (vista.get(i+12) & 0xFFL) << 32;
+            case 12: k2 ^= (vista.get(i+11) & 0xFFL) << 24;
+            case 11: k2 ^= (vista.get(i+10) & 0xFFL) << 16;
+            case 10: k2 ^= (vista.get(i+9) & 0xFFL)  << 8;
+            case  9: k2 ^= (vista.get(i+8) & 0xFFL);
+                k2 *= MURMUR_C2; k2 = Long.rotateLeft(k2, 33); k2 *= MURMUR_C1;
+                h2 ^= k2;
+
+            case  8: k1 ^= (vista.get(i+7) & 0xFFL)  << 56;
+            case  7: k1 ^= (vista.get(i+6) & 0xFFL)  << 48;
+            case  6: k1 ^= (vista.get(i+5) & 0xFFL)  << 40;
+            case  5: k1 ^= (vista.get(i+4) & 0xFFL)  << 32;
+            case  4: k1 ^= (vista.get(i+3) & 0xFFL)  << 24;
+            case  3: k1 ^= (vista.get(i+2) & 0xFFL)  << 16;
+            case  2: k1 ^= (vista.get(i+1) & 0xFFL)  << 8;
+            case  1: k1 ^= (vista.get(i) & 0xFFL);
+                k1 *= MURMUR_C1; k1 = Long.rotateLeft(k1, 31); k1 *= MURMUR_C2;
+                h1 ^= k1;
+        }
+        h1 ^= len;
+        h2 ^= len;
+        h1 += h2;
+        h2 += h1;
+        h1 = fmix64(h1);
+        h2 = fmix64(h2);
+        h1 += h2;
+        h2 += h1;
+        return new Huella128(h1, h2);
+    }
+
+    /* Primos de 32 bits de xxHash, como enteros sin signo de 64 bits. */
+    private static final long XXH_P32_1 = 0x9E3779B1L;
+    private static final long XXH_P32_2 = 0x85EBCA77L;
+    private static final long XXH_P32_3 = 0xC2B2AE3DL;
+    /* Multiplicadores de las mezclas de XXH3. */
+    private static final long XXH3_MX1 = 0x165667919E3779F9L;
+    private static final long XXH3_MX2 = 0x9FB21C651E98DF25L;
+
+    /* El secreto por omisión de XXH3 (192 bytes). */
+    private static final byte[] XXH3_SECRETO = {
+        (byte)0xb8, (byte)0xfe, (byte)0x6c, (byte)0x39,
+        (byte)0x23, (byte)0xa4, (byte)0x4b, (byte)0xbe,
+        (byte)0x7c, (byte)0x01, (byte)0x81, (byte)0x2c,
+        (byte)0xf7, (byte)0x21, (byte)0xad, (byte)0x1c,
+        (byte)0xde, (byte)0xd4, (byte)0x6d, (byte)0xe9,
+        (byte)0x83, (byte)0x90, (byte)0x97, (byte)0xdb,
+        (byte)0x72, (byte)0x40, (byte)0xa4, (byte)0xa4,
+        (byte)0xb7, (byte)0xb3, (byte)0x67, (byte)0x1f,
+        (byte)0xcb, (byte)0x79, (byte)0xe6, (byte)0x4e,
+        (byte)0xcc, (byte)0xc0, (byte)0xe5, (byte)0x78,
+        (byte)0x82, (byte)0x5a, (byte)0xd0, (byte)0x7d,
+        (byte)0xcc, (byte)0xff, (byte)0x72, (byte)0x21,
+        (byte)0xb8, (byte)0x08, (byte)0x46, (byte)0x74,
+        (byte)0xf7, (byte)0x43, (byte)0x24, (byte)0x8e,
+        (byte)0xe0, (byte)0x35, (byte)0x90, (byte)0xe6,
+        (byte)0x81, (byte)0x3a, (byte)0x26, (byte)0x4c,
+        (byte)0x3c, (byte)0x28, (byte)0x52, (byte)0xbb,
+        (byte)0x91, (byte)0xc3, (byte)0x00, (byte)0xcb,
+        (byte)0x88, (byte)0xd0, (byte)0x65, (byte)0x8b,
+        (byte)0x1b, (byte)0x53, (byte)0x2e, (byte)0xa3,
+        (byte)0x71, (byte)0x64, (byte)0x48, (byte)0x97,
+        (byte)0xa2, (byte)0x0d, (byte)0xf9, (byte)0x4e,
+        (byte)0x38, (byte)0x19, (byte)0xef, (byte)0x46,
+        (byte)0xa9, (byte)0xde, (byte)0xac, (byte)0xd8,
+        (byte)0xa8, (byte)0xfa, (byte)0x76, (byte)0x3f,
+        (byte)0xe3, (byte)0x9c, (byte)0x34, (byte)0x3f,
+        (byte)0xf9, (byte)0xdc, (byte)0xbb, (byte)0xc7,
+        (byte)0xc7, (byte)0x0b, (byte)0x4f, (byte)0x1d,
+        (byte)0x8a, (byte)0x51, (byte)0xe0, (byte)0x4b,
+        (byte)0xcd, (byte)0xb4, (byte)0x59, (byte)0x31,
+        (byte)0xc8, (byte)0x9f, (byte)0x7e, (byte)0xc9,
+        (byte)0xd9, (byte)0x78, (byte)0x73, (byte)0x64,
+        (byte)0xea, (byte)0xc5, (byte)0xac, (byte)0x83,
+        (byte)0x34, (byte)0xd3, (byte)0xeb, (byte)0xc3,
+        (byte)0xc5, (byte)0x81, (byte)0xa0, (byte)0xff,
+        (byte)0xfa, (byte)0x13, (byte)0x63, (byte)0xeb,
+        (byte)0x17, (byte)0x0d, (byte)0xdd, (byte)0x51,
+        (byte)0xb7, (byte)0xf0, (byte)0xda, (byte)0x49,
+        (byte)0xd3, (byte)0x16, (byte)0x55, (byte)0x26,
+        (byte)0x29, (byte)0xd4, (byte)0x68, (byte)0x9e,
+        (byte)0x2b, (byte)0x16, (byte)0xbe, (byte)0x58,
+        (byte)0x7d, (byte)0x47, (byte)0xa1, (byte)0xfc,
+        (byte)0x8f, (byte)0xf8, (byte)0xb8, (byte)0xd1,
+        (byte)0x7a, (byte)0xd0, (byte)0x31, (byte)0xce,
+        (byte)0x45, (byte)0xcb, (byte)0x3a, (byte)0x8f,
+        (byte)0x95, (byte)0x16, (byte)0x04, (byte)0x28,
+        (byte)0xaf, (byte)0xd7, (byte)0xfb, (byte)0xca,
+        (byte)0xbb, (byte)0x4b, (byte)0x40, (byte)0x7e
+    };
+    /* Número de franjas de 64 bytes en cada bloque de XXH3. */
+    private static final int XXH3_FRANJAS = (XXH3_SECRETO.length - 64) / 8;
+    /* Vista little endian del secreto; sólo se usa con lecturas absolutas. */
+    private static final ByteBuffer SECRETO =
+        ByteBuffer.wrap(XXH3_SECRETO).order(ByteOrder.LITTLE_ENDIAN);
+
+    //Los 64 bits altos del producto sin signo de 128 bits de a y b
+    private static long multiplicaAlto(long a, long b) {
+        long a0 = a & 0xFFFFFFFFL, a1 = a >>> 32;
+        long b0 = b & 0xFFFFFFFFL, b1 = b >>> 32;
+        long p00 = a0 * b0, p01 = a0 * b1, p10 = a1 * b0, p11 = a1 * b1;
+        long medio = (p00 >>> 32) + (p01 & 0xFFFFFFFFL) + (p10 & 0xFFFFFFFFL);
+        return p11 + (p01 >>> 32) + (p10 >>> 32) + (medio >>> 32);
+    }
+
+    //Producto de 128 bits doblado a 64 con XOR
+    private static long multiplicaDobla(long a, long b) {
+        return (a * b) ^ multiplicaAlto(a, b);
+    }
+
+    //Avalancha final de xxHash64
+    private static long avalanchaXXH64(long h) {
+        h ^= h >>> 33;
+        h *= XXH_P2;
+        h ^= h >>> 29;
+        h *= XXH_P3;
+        h ^= h >>> 32;
+        return h;
+    }
+
+    //Avalancha de XXH3
+    private static long avalanchaXXH3(long h) {
+        h ^= h >>> 37;
+        h *= XXH3_MX1;
+        h ^= h >>> 32;
+        return h;
+    }
+
+    //Mezcla de 16 bytes de XXH3
+    private static long mezcla16(ByteBuffer vista, int i, int s, long semilla) {
+        return multiplicaDobla(vista.getLong(i) ^ (SECRETO.getLong(s) + semilla),
+                               vista.getLong(i+8) ^ (SECRETO.getLong(s+8) - semilla));
+    }
+
+    /**
+     * Función de dispersión XXH3 de 128 bits (XXH128, con semilla cero y el
+     * secreto por omisión).
+     * @param llave la llave a dispersar.
+     * @return la dispersión XXH128 de la llave.
+     */
+    public static Huella128 dispersaXXH128(byte[] llave) {
+        return dispersaXXH128(llave, 0, llave.length);
+    }
+
+    /**
+     * Función de dispersión XXH3 de 128 bits para un subarreglo.
+     * @param llave el arreglo que contiene la llave a dispersar.
+     * @param off el índice donde empieza la llave.
+     * @param len el número de bytes de la llave.
+     * @return la dispersión XXH128 de la llave.
+     * @throws ExcepcionIndiceInvalido si el subarreglo no está contenido en
+     *         el arreglo.
+     */
+    public static Huella128 dispersaXXH128(byte[] llave, int off, int len) {
+        return dispersaXXH128(llave, off, len, 0L);
+    }
+
+    /**
+     * Función de dispersión XXH3 de 128 bits con semilla para un
+     * subarreglo. Para llaves de más de 240 bytes se usa el secreto
+     * derivado de la semilla, como en <code>XXH3_128bits_withSeed</code>.
+     * @param llave el arreglo que contiene la llave a dispersar.
+     * @param off el índice donde empieza la llave.
+     * @param len el número de bytes de la llave.
+     * @param semilla la semilla.
+     * @return la dispersión XXH128 de la llave.
+     * @throws ExcepcionIndiceInvalido si el subarreglo no está contenido en
+     *         el arreglo.
+     */
+    public static Huella128 dispersaXXH128(byte[] llave, int off, int len,
+                                           long semilla) {
+        revisaRango(llave, off, len);
+        return dispersaXXH128(ByteBuffer.wrap(llave).order(ByteOrder.LITTLE_ENDIAN),
+                              off, len, semilla);
+    }
+
+    /**
+     * Función de dispersión XXH3 de 128 bits para los bytes restantes de un
+     * buffer (de su posición a su límite). La posición del buffer no se
+     * modifica.
+     * @param llave el buffer que contiene la llave a dispersar.
+     * @return la dispersión XXH128 de la llave.
+     */
+    public static Huella128 dispersaXXH128(ByteBuffer llave) {
+        return dispersaXXH128(llave, 0L);
+    }
+
+    /**
+     * Función de dispersión XXH3 de 128 bits con semilla para los bytes
+     * restantes de un buffer (de su posición a su límite). La posición del
+     * buffer no se modifica.
+     * @param llave el buffer que contiene la llave a dispersar.
+     * @param semilla la semilla.
+     * @return la dispersión XXH128 de la llave.
+     */
+    public static Huella128 dispersaXXH128(ByteBuffer llave, long semilla) {
+        ByteBuffer vista = llave.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        return dispersaXXH128(vista, llave.position(), llave.remaining(),
+                              semilla);
+    }
+
+    /* XXH128 sobre una vista little endian; cada intervalo de longitudes
+       tiene su propio camino, como en la implementación de referencia. */
+    private static Huella128 dispersaXXH128(ByteBuffer vista, int off,
+                                            int len, long semilla) {
+        if (len <= 16)
+            return xxh128Corta(vista, off, len, semilla);
+        if (len <= 128)
+            return xxh128Media(vista, off, len, semilla);
+        if (len <= 240)
+            return xxh128Mediana(vista, off, len, semilla);
+        return xxh128Larga(vista, off, len,
+                           semilla == 0 ? SECRETO : secretoXXH3(semilla));
+    }
+
+    /* Regresa el secreto de XXH3 derivado de una semilla: a la primera
+       mitad de cada bloque de 16 bytes del secreto por omisión se le suma
+       la semilla, y a la segunda se le resta. */
+    private static ByteBuffer secretoXXH3(long semilla) {
+        ByteBuffer secreto = ByteBuffer.allocate(XXH3_SECRETO.length)
+            .order(ByteOrder.LITTLE_ENDIAN);
+        for (int s = 0; s < XXH3_SECRETO.length; s += 16) {
+            secreto.putLong(s, SECRETO.getLong(s) + semilla);
+            secreto.putLong(s+8, SECRETO.getLong(s+8) - semilla);
+        }
+        return secreto;
+    }
+
+    /* XXH128 para llaves de 0 a 16 bytes. */
+    private static Huella128 xxh128Corta(ByteBuffer vista, int i, int len,
+                                         long semilla) {
+        if (len > 8) {
+            long bitflipl = (SECRETO.getLong(32) ^ SECRETO.getLong(40)) - semilla;
+            long bitfliph = (SECRETO.getLong(48) ^ SECRETO.getLong(56)) + semilla;
+            long bajo = vista.getLong(i);
+            long alto = vista.getLong(i + len - 8);
+            long x = bajo ^ alto ^ bitflipl;
+            long mBajo = x * XXH_P1;
+            long mAlto = multiplicaAlto(x, XXH_P1);
+            mBajo += (long)(len - 1) << 54;
+            alto ^= bitfliph;
+            mAlto += alto + (alto & 0xFFFFFFFFL) * (XXH_P32_2 - 1);
+            mBajo ^= Long.reverseBytes(mAlto);
+            long hBajo = mBajo * XXH_P2;
+            long hAlto = multiplicaAlto(mBajo, XXH_P2) + mAlto * XXH_P2;
+            return new Huella128(avalanchaXXH3(hBajo), avalanchaXXH3(hAlto));
+        }
+        if (len >= 4) {
+            long bajo = vista.getInt(i) & 0xFFFFFFFFL;
+            long alto = vista.getInt(i + len - 4) & 0xFFFFFFFFL;
+            long entrada = bajo + (alto << 32);
+            semilla ^= (long)Integer.reverseBytes((int)semilla) << 32;
+            long bitflip = (SECRETO.getLong(16) ^ SECRETO.getLong(24)) + semilla;
+            long x = entrada ^ bitflip;
+            long m = XXH_P1 + ((long)len << 2);
+            long mBajo = x * m;
+            long mAlto = multiplicaAlto(x, m);
+            mAlto += mBajo << 1;
+            mBajo ^= mAlto >>> 3;
+            mBajo ^= mBajo >>> 35;
+            mBajo *= XXH3_MX2;
+            mBajo ^= mBajo >>> 28;
+            return new Huella128(mBajo, avalanchaXXH3(mAlto));
+        }
+        if (len > 0) {
+            int c1 = vista.get(i) & 0xFF;
+            int c2 = vista.get(i + (len >> 1)) & 0xFF;
+            int c3 = vista.get(i + len - 1) & 0xFF;
+            int combinadoBajo = (c1 << 16) | (c2 << 24) | c3 | (len << 8);
+            int combinadoAlto = Integer.rotateLeft(Integer.reverseBytes(combinadoBajo), 13);
+            long bitflipl = ((SECRETO.getInt(0) ^ SECRETO.getInt(4)) & 0xFFFFFFFFL)
+                + semilla;
+            long bitfliph = ((SECRETO.getInt(8) ^ SECRETO.getInt(12)) & 0xFFFFFFFFL)
+                - semilla;
+            long bajo = (combinadoBajo & 0xFFFFFFFFL) ^ bitflipl;
+            long alto = (combinadoAlto & 0xFFFFFFFFL) ^ bitfliph;
+            return new Huella128(avalanchaXXH64(bajo), avalanchaXXH64(alto));
+        }
+        long bitflipl = SECRETO.getLong(64) ^ SECRETO.getLong(72);
+        long bitfliph = SECRETO.getLong(80) ^ SECRETO.getLong(88);
+        return new Huella128(avalanchaXXH64(semilla ^ bitflipl),
+                             avalanchaXXH64(semilla ^ bitfliph));
+    }
+
+    /* Termina XXH128 a partir de los dos acumuladores. */
+    private static Huella128 xxh128Termina(long bajo, long alto, int len,
+                                           long semilla) {
+        long hBajo = bajo + alto;
+        long hAlto = bajo * XXH_P1 + alto * XXH_P4 + (len - semilla) * XXH_P2;
+        return new Huella128(avalanchaXXH3(hBajo), -avalanchaXXH3(hAlto));
+    }
+
+    /* XXH128 para llaves de 17 a 128 bytes. */
+    private static Huella128 xxh128Media(ByteBuffer vista, int i, int len,
+                                         long semilla) {
+        long bajo = len * XXH_P1;
+        long alto = 0;
+        int fin = i + len;
+        //Se mezclan pares de bloques de 16 bytes, del inicio y del final
+        for (int k = (len - 1) / 32; k >= 0; k--) {
+            int p = i + 16 * k;
+            int q = fin - 16 * (k + 1);
+            bajo += mezcla16(vista, p, 32 * k, semilla);
+            bajo ^= vista.getLong(q) + vista.getLong(q+8);
+            alto += mezcla16(vista, q, 32 * k + 16, semilla);
+            alto ^= vista.getLong(p) + vista.getLong(p+8);
+        }
+        return xxh128Termina(bajo, alto, len, semilla);
+    }
+
+    /* XXH128 para llaves de 129 a 240 bytes. */
+    private static Huella128 xxh128Mediana(ByteBuffer vista, int i, int len,
+                                           long semilla) {
+        long bajo = len * XXH_P1;
+        long alto = 0;
+        int rondas = len / 32;
+        for (int k = 0; k < rondas; k++) {
+            //Tras las primeras cuatro rondas se avalanchan los acumuladores
+            //y el secreto se reinicia con un desplazamiento de 3 bytes
+            if (k == 4) {
+                bajo = avalanchaXXH3(bajo);
+                alto = avalanchaXXH3(alto);
+            }
+            int p = i + 32 * k;
+            int s = k < 4 ? 32 * k : 3 + 32 * (k - 4);
+            bajo += mezcla16(vista, p, s, semilla);
+            bajo ^= vista.getLong(p+16) + vista.getLong(p+24);
+            alto += mezcla16(vista, p+16, s+16, semilla);
+            alto ^= vista.getLong(p) + vista.getLong(p+8);
+        }
+        if (rondas == 4) {
+            bajo = avalanchaXXH3(bajo);
+            alto = avalanchaXXH3(alto);
+        }
+        //Los últimos 32 bytes, con el orden de los bloques invertido y la
+        //semilla negada
+        int p = i + len - 16;
+        int q = i + len - 32;
+        int s = 136 - 17 - 16;
+        bajo += mezcla16(vista, p, s, -semilla);
+        bajo ^= vista.getLong(q) + vista.getLong(q+8);
+        alto += mezcla16(vista, q, s+16, -semilla);
+        alto ^= vista.getLong(p) + vista.getLong(p+8);
+        return xxh128Termina(bajo, alto, len, semilla);
+    }
+
+    /* Acumula una franja de 64 bytes de XXH3. */
+    private static void acumulaXXH3(long[] acc, ByteBuffer vista, int i,
+                                    ByteBuffer secreto, int s) {
+        for (int k = 0; k < 8; k++) {
+            long dato = vista.getLong(i + 8 * k);
+            long llave = dato ^ secreto.getLong(s + 8 * k);
+            acc[k ^ 1] += dato;
+            acc[k] += (llave & 0xFFFFFFFFL) * (llave >>> 32);
+        }
+    }
+
+    /* Junta los ocho acumuladores de XXH3 en 64 bits. */
+    private static long juntaXXH3(long[] acc, ByteBuffer secreto, int s,
+                                  long inicio) {
+        long r = inicio;
+        for (int k = 0; k < 4; k++)
+            r += multiplicaDobla(acc[2*k] ^ secreto.getLong(s + 16 * k),
+                                 acc[2*k+1] ^ secreto.getLong(s + 16 * k + 8));
+        return avalanchaXXH3(r);
+    }
+
+    /* Regresa los acumuladores iniciales de XXH3. */
+    private static long[] acumuladoresXXH3() {
+        return new long[] {
+            XXH_P32_3, XXH_P1, XXH_P2, XXH_P3,
+            XXH_P4, XXH_P32_2, XXH_P5, XXH_P32_1
+        };
+    }
+
+    /* XXH128 para llaves de más de 240 bytes. */
+    private static Huella128 xxh128Larga(ByteBuffer vista, int i, int len,
+                                         ByteBuffer secreto) {
+        long[] acc = acumuladoresXXH3();
+        int bloque = 64 * XXH3_FRANJAS;
+        int bloques = (len - 1) / bloque;
+        for (int b = 0; b < bloques; b++) {
+            for (int f = 0; f < XXH3_FRANJAS; f++)
+                acumulaXXH3(acc, vista, i + b * bloque + 64 * f, secreto, 8 * f);
+            revuelveXXH3(acc, secreto);
+        }
+        int franjas = ((len - 1) - bloque * bloques) / 64;
+        for (int f = 0; f < franjas; f++)
+            acumulaXXH3(acc, vista, i + bloques * bloque + 64 * f, secreto,
+                        8 * f);
+        return terminaXXH128Larga(acc, vista, i + len - 64, len, secreto);
+    }
+
+    /* Revuelve los acumuladores de XXH3 al terminar cada bloque. */
+    private static void revuelveXXH3(long[] acc, ByteBuffer secreto) {
+        for (int k = 0; k < 8; k++) {
+            long a = acc[k];
+            a ^= a >>> 47;
+            a ^= secreto.getLong(XXH3_SECRETO.length - 64 + 8 * k);
+            acc[k] = a * XXH_P32_1;
+        }
+    }
+
+    /* Termina XXH128 para llaves largas; la última franja siempre son los
+       últimos 64 bytes, que empiezan en ultima. */
+    private static Huella128 terminaXXH128Larga(long[] acc, ByteBuffer vista,
+                                                int ultima, long len,
+                                                ByteBuffer secreto) {
+        acumulaXXH3(acc, vista, ultima, secreto, XXH3_SECRETO.length - 64 - 7);
+        long bajo = juntaXXH3(acc, secreto, 11, len * XXH_P1);
+        long alto = juntaXXH3(acc, secreto, XXH3_SECRETO.length - 64 - 11,
+                              ~(len * XXH_P2));
+        return new Huella128(bajo, alto);
+    }
+
+    /* Constantes iniciales de SipHash. */
+    private static final long SIP_V0 = 0x736f6d6570736575L;
+    private static final long SIP_V1 = 0x646f72616e646f6dL;
+    private static final long SIP_V2 = 0x6c7967656e657261L;
+    private static final long SIP_V3 = 0x7465646279746573L;
+
+    /**
+     * Función de dispersión SipHash-1-3 con llave de 128 bits. A diferencia
+     * de los otros algoritmos, SipHash es una función pseudoaleatoria: sin
+     * conocer la llave, no es factible encontrar llaves que choquen.
+     * @param llave la llave a dispersar.
+     * @param k0 los 64 bits bajos de la llave de SipHash.
+     * @param k1 los 64 bits altos de la llave de SipHash.
+     * @return la dispersión SipHash-1-3 de la llave.
+     */
+    public static long dispersaSip13(byte[] llave, long k0, long k1) {
+        return dispersaSip13(llave, 0, llave.length, k0, k1);
+    }
+
+    /**
+     * Función de dispersión SipHash-1-3 para un subarreglo.
+     * @param llave el arreglo que contiene la llave a dispersar.
+     * @param off el índice donde empieza la llave.
+     * @param len el número de bytes de la llave.
+     * @param k0 los 64 bits bajos de la llave de SipHash.
+     * @param k1 los 64 bits altos de la llave de SipHash.
+     * @return la dispersión SipHash-1-3 de la llave.
+     * @throws ExcepcionIndiceInvalido si el subarreglo no está contenido en
+     *         el arreglo.
+     */
+    public static long dispersaSip13(byte[] llave, int off, int len,
+                                     long k0, long k1) {
+        revisaRango(llave, off, len);
+        return dispersaSip13(ByteBuffer.wrap(llave).order(ByteOrder.LITTLE_ENDIAN),
+                             off, len, k0, k1);
+    }
+
+    /**
+     * Función de dispersión SipHash-1-3 para los bytes restantes de un
+     * buffer (de su posición a su límite). La posición del buffer no se
+     * modifica.
+     * @param llave el buffer que contiene la llave a dispersar.
+     * @param k0 los 64 bits bajos de la llave de SipHash.
+     * @param k1 los 64 bits altos de la llave de SipHash.
+     * @return la dispersión SipHash-1-3 de la llave.
+     */
+    public static long dispersaSip13(ByteBuffer llave, long k0, long k1) {
+        ByteBuffer vista = llave.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        return dispersaSip13(vista, llave.position(), llave.remaining(),
+                             k0, k1);
+    }
+
+    /* SipHash-1-3 sobre una vista little endian: una ronda por palabra de 8
+       bytes y tres al final. La última palabra tiene los bytes que sobran y
+       la longitud en el byte más alto. */
+    private static long dispersaSip13(ByteBuffer vista, int off, int len,
+                                      long k0, long k1) {
+        long v0 = k0 ^ SIP_V0, v1 = k1 ^ SIP_V1;
+        long v2 = k0 ^ SIP_V2, v3 = k1 ^ SIP_V3;
+        int i = off;
+        int fin = off + len;
+        int completas = len / 8;
+        for (int w = 0; w <= completas; w++) {
+            long m;
+            if (w < completas) {
+                m = vista.getLong(i);
+                i += 8;
+            } else {
+                m = (long)len << 56;
+                switch (fin - i) {
+                    case 7: m |= (vista.get(i+6) & 0xFFL) << 48;
+                    case 6: m |= (vista.get(i+5) & 0xFFL) << 40;
+                    case 5: m |= (vista.get(i+4) & 0xFFL) << 32;
+                    case 4: m |= (vista.get(i+3) & 0xFFL) << 24;
+                    case 3: m |= (vista.get(i+2) & 0xFFL) << 16;
+                    case 2: m |= (vista.get(i+1) & 0xFFL) << 8;
+                    case 1: m |= (vista.get(i) & 0xFFL);
+                }
+            }
+            v3 ^= m;
+            v0 += v1; v1 = Long.rotateLeft(v1, 13); v1 ^= v0;
+            v0 = Long.rotateLeft(v0, 32);
+            v2 += v3; v3 = Long.rotateLeft(v3, 16); v3 ^= v2;
+            v0 += v3; v3 = Long.rotateLeft(v3, 21); v3 ^= v0;
+            v2 += v1; v1 = Long.rotateLeft(v1, 17); v1 ^= v2;
+            v2 = Long.rotateLeft(v2, 32);
+            v0 ^= m;
+        }
+        v2 ^= 0xFF;
+        for (int r = 0; r < 3; r++) {
+            v0 += v1; v1 = Long.rotateLeft(v1, 13); v1 ^= v0;
+            v0 = Long.rotateLeft(v0, 32);
+            v2 += v3; v3 = Long.rotateLeft(v3, 16); v3 ^= v2;
+            v0 += v3; v3 = Long.rotateLeft(v3, 21); v3 ^= v0;
+            v2 += v1; v1 = Long.rotateLeft(v1, 17); v1 ^= v2;
+            v2 = Long.rotateLeft(v2, 32);
+        }
+        return v0 ^ v1 ^ v2 ^ v3;
+    }
+
+    /**
+     * Mezclador final de 32 bits de MurmurHash3 (<code>fmix32</code>). Es
+     * una biyección que revuelve todos los bits del entero; sirve como
+     * dispersor rápido de enteros.
+     * @param k el entero a mezclar.
+     * @return el entero mezclado.
+     */
+    public static int mezclaMurmur32(int k) {
+        k ^= k >>> 16;
+        k *= 0x85ebca6b;
+        k ^= k >>> 13;
+        k *= 0xc2b2ae35;
+        k ^= k >>> 16;
+        return k;
+    }
+
+    /**
+     * Mezclador final de 64 bits de MurmurHash3 (<code>fmix64</code>). Es
+     * una biyección que revuelve todos los bits del entero.
+     * @param k el entero a mezclar.
+     * @return el entero mezclado.
+     */
+    public static long mezclaMurmur64(long k) {
+        return fmix64(k);
+    }
+
+    /**
+     * Mezclador de SplitMix64: suma la constante de oro al entero y le
+     * aplica el mezclador final de SplitMix64. A diferencia de {@link
+     * #mezclaMurmur64}, el cero no se queda en cero.
+     * @param z el entero a mezclar.
+     * @return el entero mezclado.
+     */
+    public static long mezclaSplitMix64(long z) {
+        z += 0x9e3779b97f4a7c15L;
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    /* Las siguientes funciones dispersan los 4 bytes (para enteros) u 8
+       bytes (para largos) little endian de una llave primitiva, sin crear
+       arreglos ni objetos; regresan lo mismo que el algoritmo
+       correspondiente sobre esos bytes. Los algoritmos de 128 bits
+       regresan sólo sus 64 bits bajos. */
+
+    /* XOR de un entero. */
+    static int dispersaXOR(int x) {
+        return Integer.reverseBytes(x);
+    }
+
+    /* XOR de un largo. */
+    static int dispersaXOR(long x) {
+        return Integer.reverseBytes((int)x) ^
+            Integer.reverseBytes((int)(x >>> 32));
+    }
+
+    /* Bob Jenkins de un entero. */
+    static int dispersaBJ(int x) {
+        return mezclaFinal(0x9e3779b9 + x, 0x9e3779b9, 0xFFFFFFFF + 4);
+    }
+
+    /* Bob Jenkins de un largo. */
+    static int dispersaBJ(long x) {
+        return mezclaFinal(0x9e3779b9 + (int)x, 0x9e3779b9 + (int)(x >>> 32),
+                           0xFFFFFFFF + 8);
+    }
+
+    /* Daniel J. Bernstein de un entero. */
+    static int dispersaDJB(int x) {
+        return 5381 * DJB_33_4 +
+            (x & 0xFF)          * DJB_33_3 +
+            ((x >>> 8) & 0xFF)  * DJB_33_2 +
+            ((x >>> 16) & 0xFF) * 33 +
+            (x >>> 24);
+    }
+
+    /* Daniel J. Bernstein de un largo. */
+    static int dispersaDJB(long x) {
+        return djb8(5381, Long.reverseBytes(x));
+    }
+
+    /* lookup3 de a, b y los n bytes de una llave de a lo más 12 bytes, ya
+       sumados en a y b. */
+    private static long bj64Corta(int a, int b, int c) {
+        c ^= b; c -= rota(b, 14);
+        a ^= c; a -= rota(c, 11);
+        b ^= a; b -= rota(a, 25);
+        c ^= b; c -= rota(b, 16);
+        a ^= c; a -= rota(c, 4);
+        b ^= a; b -= rota(a, 14);
+        c ^= b; c -= rota(b, 24);
+        return ((long)b << 32) | (c & 0xFFFFFFFFL);
+    }
+
+    /* lookup3 de un entero. */
+    static long dispersaBJ64(int x) {
+        int a = 0xdeadbeef + 4;
+        return bj64Corta(a + x, a, a);
+    }
+
+    /* lookup3 de un largo. */
+    static long dispersaBJ64(long x) {
+        int a = 0xdeadbeef + 8;
+        return bj64Corta(a + (int)x, a + (int)(x >>> 32), a);
+    }
+
+    /* FNV-1a de 64 bits de los n bytes bajos de x. */
+    private static long fnv64(long x, int n) {
+        long h = FNV_BASE;
+        for (int k = 0; k < n; k++) {
+            h ^= (x >>> (8 * k)) & 0xFF;
+            h *= FNV_PRIMO;
         }
         return h;
     }
+
+    /* FNV-1a de 64 bits de un entero. */
+    static long dispersaFNV64(int x) {
+        return fnv64(x, 4);
+    }
+
+    /* FNV-1a de 64 bits de un largo. */
+    static long dispersaFNV64(long x) {
+        return fnv64(x, 8);
+    }
+
+    /* xxHash64 de un entero. */
+    static long dispersaXXH64(int x) {
+        long h = XXH_P5 + 4;
+        h ^= (x & 0xFFFFFFFFL) * XXH_P1;
+        h = Long.rotateLeft(h, 23) * XXH_P2 + XXH_P3;
+        return avalanchaXXH64(h);
+    }
+
+    /* xxHash64 de un largo. */
+    static long dispersaXXH64(long x) {
+        long h = XXH_P5 + 8;
+        h ^= rondaXXH(0, x);
+        h = Long.rotateLeft(h, 27) * XXH_P1 + XXH_P4;
+        return avalanchaXXH64(h);
+    }
+
+    /* Los 64 bits bajos de MurmurHash3 de los n bytes bajos de x. */
+    private static long murmur128Bajos(long x, int n) {
+        long k1 = x * MURMUR_C1;
+        k1 = Long.rotateLeft(k1, 31) * MURMUR_C2;
+        long h1 = k1 ^ n;
+        long h2 = n;
+        h1 += h2;
+        h2 += h1;
+        return fmix64(h1) + fmix64(h2);
+    }
+
+    /* Los 64 bits bajos de MurmurHash3 de un entero. */
+    static long dispersaMurmur128Bajos(int x) {
+        return murmur128Bajos(x & 0xFFFFFFFFL, 4);
+    }
+
+    /* Los 64 bits bajos de MurmurHash3 de un largo. */
+    static long dispersaMurmur128Bajos(long x) {
+        return murmur128Bajos(x, 8);
+    }
+
+    /* Los 64 bits bajos de XXH128 para llaves de 4 a 8 bytes, con los
+       primeros y los últimos 4 bytes; es la mitad baja de xxh128Corta. */
+    private static long xxh128Bajos(long bajo, long alto, int len) {
+        long x = (bajo + (alto << 32)) ^
+            (SECRETO.getLong(16) ^ SECRETO.getLong(24));
+        long m = XXH_P1 + ((long)len << 2);
+        long mBajo = x * m;
+        long mAlto = multiplicaAlto(x, m) + (mBajo << 1);
+        mBajo ^= mAlto >>> 3;
+        mBajo ^= mBajo >>> 35;
+        mBajo *= XXH3_MX2;
+        return mBajo ^ (mBajo >>> 28);
+    }
+
+    /* Los 64 bits bajos de XXH128 de un entero. */
+    static long dispersaXXH128Bajos(int x) {
+        long y = x & 0xFFFFFFFFL;
+        return xxh128Bajos(y, y, 4);
+    }
+
+    /* Los 64 bits bajos de XXH128 de un largo. */
+    static long dispersaXXH128Bajos(long x) {
+        return xxh128Bajos(x & 0xFFFFFFFFL, x >>> 32, 8);
+    }
+
+    /* SipHash-1-3 con llave cero de una o dos palabras; la última tiene la
+       longitud en el byte más alto. */
+    private static long sip13(long m0, long m1, int palabras) {
+        long v0 = SIP_V0, v1 = SIP_V1, v2 = SIP_V2, v3 = SIP_V3;
+        for (int w = 0; w < palabras; w++) {
+            long m = w == 0 ? m0 : m1;
+            v3 ^= m;
+            v0 += v1; v1 = Long.rotateLeft(v1, 13); v1 ^= v0;
+            v0 = Long.rotateLeft(v0, 32);
+            v2 += v3; v3 = Long.rotateLeft(v3, 16); v3 ^= v2;
+            v0 += v3; v3 = Long.rotateLeft(v3, 21); v3 ^= v0;
+            v2 += v1; v1 = Long.rotateLeft(v1, 17); v1 ^= v2;
+            v2 = Long.rotateLeft(v2, 32);
+            v0 ^= m;
+        }
+        v2 ^= 0xFF;
+        for (int r = 0; r < 3; r++) {
+            v0 += v1; v1 = Long.rotateLeft(v1, 13); v1 ^= v0;
+            v0 = Long.rotateLeft(v0, 32);
+            v2 += v3; v3 = Long.rotateLeft(v3, 16); v3 ^= v2;
+            v0 += v3; v3 = Long.rotateLeft(v3, 21); v3 ^= v0;
+            v2 += v1; v1 = Long.rotateLeft(v1, 17); v1 ^= v2;
+            v2 = Long.rotateLeft(v2, 32);
+        }
+        return v0 ^ v1 ^ v2 ^ v3;
+    }
+
+    /* SipHash-1-3 con llave cero de un entero. */
+    static long dispersaSip13(int x) {
+        return sip13((4L << 56) | (x & 0xFFFFFFFFL), 0, 1);
+    }
+
+    /* SipHash-1-3 con llave cero de un largo. */
+    static long dispersaSip13(long x) {
+        return sip13(x, 8L << 56, 2);
+    }
+
+    /* Número de llaves en cada trozo de los lotes paralelos. */
+    private static final int TROZO = 4096;
+
+    //Dobla 64 bits a 32 con XOR, igual que FabricaDispersores
+    private static int dobla(long h) {
+        return (int)(h ^ (h >>> 32));
+    }
+
+    /**
+     * Dispersa un lote de llaves. La <em>i</em>-ésima dispersión se escribe
+     * en <code>salida[i]</code>, y es la misma que la del dispersor de
+     * {@link FabricaDispersores#dispersorCadena} para el algoritmo (así que
+     * los algoritmos de 64 bits o más se doblan a 32).
+     * @param algoritmo el algoritmo de dispersor que se desea.
+     * @param llaves las llaves a dispersar.
+     * @param salida el arreglo donde se escriben las dispersiones.
+     * @throws IllegalArgumentException si la salida tiene menos lugares que
+     *         llaves.
+     */
+    public static void dispersaLote(AlgoritmoDispersor algoritmo,
+                                    byte[][] llaves, int[] salida) {
+        revisaSalida(llaves.length, salida.length);
+        lote(algoritmo, llaves, null, null, salida, 0, llaves.length);
+    }
+
+    /**
+     * Dispersa un lote de llaves empacadas en un solo arreglo. La
+     * <em>i</em>-ésima llave son los bytes de <code>datos</code> entre
+     * <code>desplazamientos[i]</code> (inclusivo) y
+     * <code>desplazamientos[i+1]</code> (exclusivo), así que hay una llave
+     * menos que desplazamientos.
+     * @param algoritmo el algoritmo de dispersor que se desea.
+     * @param datos el arreglo con las llaves empacadas.
+     * @param desplazamientos los índices donde empieza cada llave, más el
+     *                        índice donde termina la última.
+     * @param salida el arreglo donde se escriben las dispersiones.
+     * @throws IllegalArgumentException si la salida tiene menos lugares que
+     *         llaves.
+     * @throws ExcepcionIndiceInvalido si alguna llave no está contenida en
+     *         los datos.
+     */
+    public static void dispersaLote(AlgoritmoDispersor algoritmo, byte[] datos,
+                                    int[] desplazamientos, int[] salida) {
+        int n = Math.max(0, desplazamientos.length - 1);
+        revisaSalida(n, salida.length);
+        lote(algoritmo, null, datos, desplazamientos, salida, 0, n);
+    }
+
+    /**
+     * Dispersa un lote de llaves en paralelo, partiéndolo en trozos que se
+     * reparten entre los procesadores. El resultado es el mismo que el de
+     * {@link #dispersaLote(AlgoritmoDispersor,byte[][],int[])}.
+     * @param algoritmo el algoritmo de dispersor que se desea.
+     * @param llaves las llaves a dispersar.
+     * @param salida el arreglo donde se escriben las dispersiones.
+     * @throws IllegalArgumentException si la salida tiene menos lugares que
+     *         llaves.
+     */
+    public static void dispersaLoteParalelo(AlgoritmoDispersor algoritmo,
+                                            byte[][] llaves, int[] salida) {
+        revisaSalida(llaves.length, salida.length);
+        int n = llaves.length;
+        IntStream.range(0, (n + TROZO - 1) / TROZO).parallel().forEach(
+            t -> lote(algoritmo, llaves, null, null, salida,
+                      t * TROZO, Math.min(n, (t + 1) * TROZO)));
+    }
+
+    /**
+     * Dispersa en paralelo un lote de llaves empacadas en un solo arreglo.
+     * El resultado es el mismo que el de {@link
+     * #dispersaLote(AlgoritmoDispersor,byte[],int[],int[])}.
+     * @param algoritmo el algoritmo de dispersor que se desea.
+     * @param datos el arreglo con las llaves empacadas.
+     * @param desplazamientos los índices donde empieza cada llave, más el
+     *                        índice donde termina la última.
+     * @param salida el arreglo donde se escriben las dispersiones.
+     * @throws IllegalArgumentException si la salida tiene menos lugares que
+     *         llaves.
+     * @throws ExcepcionIndiceInvalido si alguna llave no está contenida en
+     *         los datos.
+     */
+    public static void dispersaLoteParalelo(AlgoritmoDispersor algoritmo,
+                                            byte[] datos,
+                                            int[] desplazamientos,
+                                            int[] salida) {
+        int n = Math.max(0, desplazamientos.length - 1);
+        revisaSalida(n, salida.length);
+        IntStream.range(0, (n + TROZO - 1) / TROZO).parallel().forEach(
+            t -> lote(algoritmo, null, datos, desplazamientos, salida,
+                      t * TROZO, Math.min(n, (t + 1) * TROZO)));
+    }
+
+    /**
+     * Dispersa un lote de llaves con un algoritmo de 64 bits o más. La
+     * <em>i</em>-ésima dispersión se escribe en <code>salida[i]</code>, y
+     * es la misma que la del dispersor de {@link
+     * FabricaDispersores#dispersorCadena64} para el algoritmo.
+     * @param algoritmo el algoritmo de dispersor de 64 bits que se desea.
+     * @param llaves las llaves a dispersar.
+     * @param salida el arreglo donde se escriben las dispersiones.
+     * @throws IllegalArgumentException si la salida tiene menos lugares que
+     *         llaves, o si el algoritmo es de 32 bits.
+     */
+    public static void dispersaLote64(AlgoritmoDispersor algoritmo,
+                                      byte[][] llaves, long[] salida) {
+        revisaAlgoritmo64(algoritmo);
+        revisaSalida(llaves.length, salida.length);
+        lote64(algoritmo, llaves, null, null, salida, 0, llaves.length);
+    }
+
+    /**
+     * Dispersa con un algoritmo de 64 bits o más un lote de llaves
+     * empacadas en un solo arreglo, como en {@link
+     * #dispersaLote(AlgoritmoDispersor,byte[],int[],int[])}.
+     * @param algoritmo el algoritmo de dispersor de 64 bits que se desea.
+     * @param datos el arreglo con las llaves empacadas.
+     * @param desplazamientos los índices donde empieza cada llave, más el
+     *                        índice donde termina la última.
+     * @param salida el arreglo donde se escriben las dispersiones.
+     * @throws IllegalArgumentException si la salida tiene menos lugares que
+     *         llaves, o si el algoritmo es de 32 bits.
+     * @throws ExcepcionIndiceInvalido si alguna llave no está contenida en
+     *         los datos.
+     */
+    public static void dispersaLote64(AlgoritmoDispersor algoritmo,
+                                      byte[] datos, int[] desplazamientos,
+                                      long[] salida) {
+        revisaAlgoritmo64(algoritmo);
+        int n = Math.max(0, desplazamientos.length - 1);
+        revisaSalida(n, salida.length);
+        lote64(algoritmo, null, datos, desplazamientos, salida, 0, n);
+    }
+
+    /**
+     * Dispersa en paralelo un lote de llaves con un algoritmo de 64 bits o
+     * más. El resultado es el mismo que el de {@link
+     * #dispersaLote64(AlgoritmoDispersor,byte[][],long[])}.
+     * @param algoritmo el algoritmo de dispersor de 64 bits que se desea.
+     * @param llaves las llaves a dispersar.
+     * @param salida el arreglo donde se escriben las dispersiones.
+     * @throws IllegalArgumentException si la salida tiene menos lugares que
+     *         llaves, o si el algoritmo es de 32 bits.
+     */
+    public static void dispersaLoteParalelo64(AlgoritmoDispersor algoritmo,
+                                              byte[][] llaves, long[] salida) {
+        revisaAlgoritmo64(algoritmo);
+        revisaSalida(llaves.length, salida.length);
+        int n = llaves.length;
+        IntStream.range(0, (n + TROZO - 1) / TROZO).parallel().forEach(
+            t -> lote64(algoritmo, llaves, null, null, salida,
+                        t * TROZO, Math.min(n, (t + 1) * TROZO)));
+    }
+
+    /**
+     * Dispersa en paralelo con un algoritmo de 64 bits o más un lote de
+     * llaves empacadas en un solo arreglo. El resultado es el mismo que el
+     * de {@link #dispersaLote64(AlgoritmoDispersor,byte[],int[],long[])}.
+     * @param algoritmo el algoritmo de dispersor de 64 bits que se desea.
+     * @param datos el arreglo con las llaves empacadas.
+     * @param desplazamientos los índices donde empieza cada llave, más el
+     *                        índice donde termina la última.
+     * @param salida el arreglo donde se escriben las dispersiones.
+     * @throws IllegalArgumentException si la salida tiene menos lugares que
+     *         llaves, o si el algoritmo es de 32 bits.
+     * @throws ExcepcionIndiceInvalido si alguna llave no está contenida en
+     *         los datos.
+     */
+    public static void dispersaLoteParalelo64(AlgoritmoDispersor algoritmo,
+                                              byte[] datos,
+                                              int[] desplazamientos,
+                                              long[] salida) {
+        revisaAlgoritmo64(algoritmo);
+        int n = Math.max(0, desplazamientos.length - 1);
+        revisaSalida(n, salida.length);
+        IntStream.range(0, (n + TROZO - 1) / TROZO).parallel().forEach(
+            t -> lote64(algoritmo, null, datos, desplazamientos, salida,
+                        t * TROZO, Math.min(n, (t + 1) * TROZO)));
+    }
+
+    /* Revisa que el algoritmo sea de 64 bits o más antes de ver las llaves,
+       para que un lote vacío también lo rechace. */
+    private static void revisaAlgoritmo64(AlgoritmoDispersor algoritmo) {
+        if (algoritmo == null)
+            throw new IllegalArgumentException("Algoritmo inválido");
+        switch (algoritmo) {
+        case XOR_STRING:
+        case BJ_STRING:
+        case DJB_STRING:
+            throw new IllegalArgumentException("Algoritmo inválido");
+        default:
+        }
+    }
+
+    //Revisa que la salida alcance para todas las llaves
+    private static void revisaSalida(int llaves, int salida) {
+        if (salida < llaves)
+            throw new IllegalArgumentException("La salida tiene " + salida +
+                                               " lugares para " + llaves +
+                                               " llaves");
+    }
+
+    /* Dispersa las llaves en [desde, hasta); si llaves es null, las llaves
+       están empacadas en datos con los desplazamientos d. El algoritmo se
+       elige una vez por lote, y cada ciclo llama directamente a su
+       función. */
+    private static void lote(AlgoritmoDispersor algoritmo, byte[][] llaves,
+                             byte[] datos, int[] d, int[] salida,
+                             int desde, int hasta) {
+        switch (algoritmo) {
+        case XOR_STRING:
+            if (llaves != null)
+                for (int i = desde; i < hasta; i++)
+                    salida[i] = dispersaXOR(llaves[i]);
+            else
+                for (int i = desde; i < hasta; i++)
+                    salida[i] = dispersaXOR(datos, d[i], d[i+1] - d[i]);
+            break;
+        case BJ_STRING:
+            if (llaves != null)
+                for (int i = desde; i < hasta; i++)
+                    salida[i] = dispersaBJ(llaves[i]);
+            else
+                for (int i = desde; i < hasta; i++)
+                    salida[i] = dispersaBJ(datos, d[i], d[i+1] - d[i]);
+            break;
+        case DJB_STRING:
+            if (llaves != null)
+                for (int i = desde; i < hasta; i++)
+                    salida[i] = dispersaDJB(llaves[i]);
+            else
+                for (int i = desde; i < hasta; i++)
+                    salida[i] = dispersaDJB(datos, d[i], d[i+1] - d[i]);
+            break;
+        case BJ64_STRING:
+            if (llaves != null)
+                for (int i = desde; i < hasta; i++)
+                    salida[i] = dobla(dispersaBJ64(llaves[i]));
+            else
+                for (int i = desde; i < hasta; i++)
+                    salida[i] = dobla(dispersaBJ64(datos, d[i], d[i+1] - d[i]));
+            break;
+        case FNV64_STRING:
+            if (llaves != null)
+                for (int i = desde; i < hasta; i++)
+                    salida[i] = dobla(dispersaFNV64(llaves[i]));
+            else
+                for (int i = desde; i < hasta; i++)
+                    salida[i] = dobla(dispersaFNV64(datos, d[i], d[i+1] - d[i]));
+            break;
+        case XXH64_STRING:
+            if (llaves != null)
+                for (int i = desde; i < hasta; i++)
+                    salida[i] = dobla(dispersaXXH64(llaves[i]));
+            else
+                for (int i = desde; i < hasta; i++)
+                    salida[i] = dobla(dispersaXXH64(datos, d[i], d[i+1] - d[i]));
+            break;
+        case MURMUR128_STRING:
+            if (llaves != null)
+                for (int i = desde; i < hasta; i++)
+                    salida[i] = dobla(dispersaMurmur128(llaves[i]).getBajos());
+            else
+                for (int i = desde; i < hasta; i++)
+                    salida[i] = dobla(dispersaMurmur128(datos, d[i], d[i+1] - d[i]).getBajos());
+            break;
+        case XXH128_STRING:
+            if (llaves != null)
+                for (int i = desde; i < hasta; i++)
+                    salida[i] = dobla(dispersaXXH128(llaves[i]).getBajos());
+            else
+                for (int i = desde; i < hasta; i++)
+                    salida[i] = dobla(dispersaXXH128(datos, d[i], d[i+1] - d[i]).getBajos());
+            break;
+        case SIP13_STRING:
+            if (llaves != null)
+                for (int i = desde; i < hasta; i++)
+                    salida[i] = dobla(dispersaSip13(llaves[i], 0L, 0L));
+            else
+                for (int i = desde; i < hasta; i++)
+                    salida[i] = dobla(dispersaSip13(datos, d[i], d[i+1] - d[i],
+                                                    0L, 0L));
+            break;
+        default: throw new IllegalArgumentException("Algoritmo inválido");
+        }
+    }
+
+    /* Como lote, pero para algoritmos de 64 bits o más. */
+    private static void lote64(AlgoritmoDispersor algoritmo, byte[][] llaves,
+                               byte[] datos, int[] d, long[] salida,
+                               int desde, int hasta) {
+        switch (algoritmo) {
+        case BJ64_STRING:
+            if (llaves != null)
+                for (int i = desde; i < hasta; i++)
+                    salida[i] = dispersaBJ64(llaves[i]);
+            else
+                for (int i = desde; i < hasta; i++)
+                    salida[i] = dispersaBJ64(datos, d[i], d[i+1] - d[i]);
+            break;
+        case FNV64_STRING:
+            if (llaves != null)
+                for (int i = desde; i < hasta; i++)
+                    salida[i] = dispersaFNV64(llaves[i]);
+            else
+                for (int i = desde; i < hasta; i++)
+                    salida[i] = dispersaFNV64(datos, d[i], d[i+1] - d[i]);
+            break;
+        case XXH64_STRING:
+            if (llaves != null)
+                for (int i = desde; i < hasta; i++)
+                    salida[i] = dispersaXXH64(llaves[i]);
+            else
+                for (int i = desde; i < hasta; i++)
+                    salida[i] = dispersaXXH64(datos, d[i], d[i+1] - d[i]);
+            break;
+        case MURMUR128_STRING:
+            if (llaves != null)
+                for (int i = desde; i < hasta; i++)
+                    salida[i] = dispersaMurmur128(llaves[i]).getBajos();
+            else
+                for (int i = desde; i < hasta; i++)
+                    salida[i] = dispersaMurmur128(datos, d[i], d[i+1] - d[i]).getBajos();
+            break;
+        case XXH128_STRING:
+            if (llaves != null)
+                for (int i = desde; i < hasta; i++)
+                    salida[i] = dispersaXXH128(llaves[i]).getBajos();
+            else
+                for (int i = desde; i < hasta; i++)
+                    salida[i] = dispersaXXH128(datos, d[i], d[i+1] - d[i]).getBajos();
+            break;
+        case SIP13_STRING:
+            if (llaves != null)
+                for (int i = desde; i < hasta; i++)
+                    salida[i] = dispersaSip13(llaves[i], 0L, 0L);
+            else
+                for (int i = desde; i < hasta; i++)
+                    salida[i] = dispersaSip13(datos, d[i], d[i+1] - d[i],
+                                              0L, 0L);
+            break;
+        default: throw new IllegalArgumentException("Algoritmo inválido");
+        }
+    }
+
+    /* Clase abstracta para dispersores incrementales que procesan la llave
+       por bloques de tamaño fijo. Los bloques completos de la entrada se
+       procesan en su lugar, y sólo se copian los bytes que no alcanzan a
+       completar un bloque. */
+    abstract static class Incremental implements DispersorIncremental {
+
+        /* Los bytes pendientes, que no completan un bloque. */
+        protected final byte[] bloque;
+        /* Vista little endian de los bytes pendientes. */
+        protected final ByteBuffer vista;
+        /* Número de bytes pendientes. */
+        protected int pendientes;
+        /* Número total de bytes recibidos. */
+        protected long total;
+
+        /* Construye un dispersor incremental con bloques del tamaño dado. */
+        protected Incremental(int longitudBloque) {
+            bloque = new byte[longitudBloque];
+            vista = ByteBuffer.wrap(bloque).order(ByteOrder.LITTLE_ENDIAN);
+        }
+
+        /* Procesa el bloque que empieza en i. */
+        protected abstract void procesa(ByteBuffer entrada, int i);
+
+        /* Agrega un subarreglo a la llave. */
+        @Override public void actualiza(byte[] llave, int off, int len) {
+            revisaRango(llave, off, len);
+            actualiza(ByteBuffer.wrap(llave, off, len));
+        }
+
+        /* Agrega los bytes restantes del buffer a la llave. */
+        @Override public void actualiza(ByteBuffer llave) {
+            ByteBuffer entrada = llave.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+            int i = entrada.position();
+            int fin = entrada.limit();
+            int n = bloque.length;
+            total += fin - i;
+            while (i < fin) {
+                if (pendientes == 0) {
+                    while (fin - i >= n) {
+                        procesa(entrada, i);
+                        i += n;
+                    }
+                    if (i == fin)
+                        break;
+                }
+                int m = Math.min(n - pendientes, fin - i);
+                entrada.position(i);
+                entrada.get(bloque, pendientes, m);
+                pendientes += m;
+                i += m;
+                if (pendientes == n) {
+                    procesa(vista, 0);
+                    pendientes = 0;
+                }
+            }
+            llave.position(llave.limit());
+        }
+    }
+
+    /* Dispersor incremental XOR. */
+    static class IncrementalXOR extends Incremental {
+
+        /* El resultado de los bloques completos. */
+        private int r;
+
+        /* Construye un dispersor incremental XOR. */
+        public IncrementalXOR() {
+            super(4);
+        }
+
+        /* Procesa un bloque de 4 bytes. */
+        @Override protected void procesa(ByteBuffer entrada, int i) {
+            r ^= Integer.reverseBytes(entrada.getInt(i));
+        }
+
+        /* Regresa la dispersión XOR. */
+        @Override public long finaliza() {
+            int h = r;
+            switch (pendientes) {
+                case 3: h ^= ( (bloque[2] & 0xFF) << 8);
+                case 2: h ^= ( (bloque[1] & 0xFF) << 16);
+                case 1: h ^= ( (bloque[0] & 0xFF) << 24);
+            }
+            return h & 0xFFFFFFFFL;
+        }
+    }
+
+    /* Dispersor incremental de Bob Jenkins. */
+    static class IncrementalBJ extends Incremental {
+
+        /* El estado de Bob Jenkins. */
+        private int a = 0x9e3779b9, b = a, c = 0xFFFFFFFF;
+
+        /* Construye un dispersor incremental de Bob Jenkins. */
+        public IncrementalBJ() {
+            super(12);
+        }
+
+        /* Procesa un bloque de 12 bytes. */
+        @Override protected void procesa(ByteBuffer entrada, int i) {
+            int a = this.a + entrada.getInt(i);
+            int b = this.b + entrada.getInt(i+4);
+            int c = this.c + entrada.getInt(i+8);
+            a -= b; a -= c; a ^= (c>>>13);
+            b -= c; b -= a; b ^= (a<<8);
+            c -= a; c -= b; c ^= (b>>>13);
+            a -= b; a -= c; a ^= (c>>>12);
+            b -= c; b -= a; b ^= (a<<16);
+            c -= a; c -= b; c ^= (b>>>5);
+            a -= b; a -= c; a ^= (c>>>3);
+            b -= c; b -= a; b ^= (a<<10);
+            c -= a; c -= b; c ^= (b>>>15);
+            this.a = a;
+            this.b = b;
+            this.c = c;
+        }
+
+        /* Regresa la dispersión de Bob Jenkins. */
+        @Override public long finaliza() {
+            return terminaBJ(a, b, c, vista, 0, pendientes, (int)total)
+                & 0xFFFFFFFFL;
+        }
+    }
+
+    /* Dispersor incremental de Daniel J. Bernstein. */
+    static class IncrementalDJB extends Incremental {
+
+        /* El resultado de los bloques completos. */
+        private int h = 5381;
+
+        /* Construye un dispersor incremental de Daniel J. Bernstein. */
+        public IncrementalDJB() {
+            super(8);
+        }
+
+        /* Procesa un bloque de 8 bytes. */
+        @Override protected void procesa(ByteBuffer entrada, int i) {
+            h = djb8(h, Long.reverseBytes(entrada.getLong(i)));
+        }
+
+        /* Regresa la dispersión de Daniel J. Bernstein. */
+        @Override public long finaliza() {
+            int h = this.h;
+            for (int k = 0; k < pendientes; k++)
+                h = h * 33 + (bloque[k] & 0xFF);
+            return h & 0xFFFFFFFFL;
+        }
+    }
+
+    /* Dispersor incremental FNV-1a de 64 bits. */
+    static class IncrementalFNV64 extends Incremental {
+
+        /* El resultado de los bloques completos. */
+        private long h = FNV_BASE;
+
+        /* Construye un dispersor incremental FNV-1a de 64 bits. */
+        public IncrementalFNV64() {
+            super(8);
+        }
+
+        /* Procesa un bloque de 8 bytes. */
+        @Override protected void procesa(ByteBuffer entrada, int i) {
+            long h = this.h;
+            for (int k = i; k < i + 8; k++) {
+                h ^= (entrada.get(k) & 0xFF);
+                h *= FNV_PRIMO;
+            }
+            this.h = h;
+        }
+
+        /* Regresa la dispersión FNV-1a de 64 bits. */
+        @Override public long finaliza() {
+            long h = this.h;
+            for (int k = 0; k < pendientes; k++) {
+                h ^= (bloque[k] & 0xFF);
+                h *= FNV_PRIMO;
+            }
+            return h;
+        }
+    }
+
+    /* Dispersor incremental xxHash64. */
+    static class IncrementalXXH64 extends Incremental {
+
+        /* Los acumuladores. */
+        private long v1 = XXH_P1 + XXH_P2, v2 = XXH_P2, v3 = 0, v4 = -XXH_P1;
+
+        /* Construye un dispersor incremental xxHash64. */
+        public IncrementalXXH64() {
+            super(32);
+        }
+
+        /* Procesa un bloque de 32 bytes. */
+        @Override protected void procesa(ByteBuffer entrada, int i) {
+            v1 = rondaXXH(v1, entrada.getLong(i));
+            v2 = rondaXXH(v2, entrada.getLong(i+8));
+            v3 = rondaXXH(v3, entrada.getLong(i+16));
+            v4 = rondaXXH(v4, entrada.getLong(i+24));
+        }
+
+        /* Regresa la dispersión xxHash64. */
+        @Override public long finaliza() {
+            long h;
+            if (total >= 32) {
+                h = Long.rotateLeft(v1, 1) + Long.rotateLeft(v2, 7) +
+                    Long.rotateLeft(v3, 12) + Long.rotateLeft(v4, 18);
+                h = juntaXXH(h, v1);
+                h = juntaXXH(h, v2);
+                h = juntaXXH(h, v3);
+                h = juntaXXH(h, v4);
+            } else {
+                h = XXH_P5;
+            }
+            return terminaXXH64(h + total, vista, 0, pendientes);
+        }
+    }
+
+    /* Dispersor incremental MurmurHash3 de 128 bits. */
+    static class IncrementalMurmur128 extends Incremental {
+
+        /* El estado de MurmurHash3. */
+        private long h1, h2;
+
+        /* Construye un dispersor incremental MurmurHash3 de 128 bits. */
+        public IncrementalMurmur128() {
+            super(16);
+        }
+
+        /* Procesa un bloque de 16 bytes. */
+        @Override protected void procesa(ByteBuffer entrada, int i) {
+            long k1 = entrada.getLong(i);
+            long k2 = entrada.getLong(i+8);
+            k1 *= MURMUR_C1; k1 = Long.rotateLeft(k1, 31); k1 *= MURMUR_C2;
+            h1 ^= k1;
+            h1 = Long.rotateLeft(h1, 27); h1 += h2; h1 = h1 * 5 + 0x52dce729;
+            k2 *= MURMUR_C2; k2 = Long.rotateLeft(k2, 33); k2 *= MURMUR_C1;
+            h2 ^= k2;
+            h2 = Long.rotateLeft(h2, 31); h2 += h1; h2 = h2 * 5 + 0x38495ab5;
+        }
+
+        /* Regresa los 64 bits bajos de la dispersión. */
+        @Override public long finaliza() {
+            return finaliza128().getBajos();
+        }
+
+        /* Regresa la dispersión MurmurHash3 de 128 bits. */
+        @Override public Huella128 finaliza128() {
+            return terminaMurmur128(h1, h2, vista, 0, pendientes, total);
+        }
+    }
+
+    /* Dispersor incremental XXH128. Mientras se han recibido a lo más 240
+       bytes se guardan todos, porque el camino depende de la longitud;
+       después se procesan las franjas de 64 bytes en cuanto llega al menos
+       un byte más, y siempre se guardan los últimos 64 bytes para la franja
+       final. */
+    static class IncrementalXXH128 implements DispersorIncremental {
+
+        /* Los bytes guardados. */
+        private final byte[] buffer = new byte[256];
+        /* Vista little endian de los bytes guardados. */
+        private final ByteBuffer vista =
+            ByteBuffer.wrap(buffer).order(ByteOrder.LITTLE_ENDIAN);
+        /* Número de bytes guardados. */
+        private int guardados;
+        /* Índice del primer byte guardado sin procesar. */
+        private int inicio;
+        /* Número total de bytes recibidos. */
+        private long total;
+        /* Los acumuladores; null mientras no se pasen de 240 bytes. */
+        private long[] acc;
+        /* Número de franjas procesadas en el bloque actual. */
+        private int franjas;
+
+        /* Agrega un subarreglo a la llave. */
+        @Override public void actualiza(byte[] llave, int off, int len) {
+            revisaRango(llave, off, len);
+            actualiza(ByteBuffer.wrap(llave, off, len));
+        }
+
+        /* Agrega los bytes restantes del buffer a la llave. */
+        @Override public void actualiza(ByteBuffer llave) {
+            ByteBuffer entrada = llave.duplicate();
+            while (entrada.hasRemaining()) {
+                int m = Math.min(buffer.length - guardados,
+                                 entrada.remaining());
+                entrada.get(buffer, guardados, m);
+                guardados += m;
+                total += m;
+                if (total > 240)
+                    consume();
+            }
+            llave.position(llave.limit());
+        }
+
+        /* Procesa las franjas que ya no pueden ser la última, y recorre al
+           inicio los últimos 64 bytes. */
+        private void consume() {
+            if (acc == null)
+                acc = acumuladoresXXH3();
+            while (guardados - inicio > 64) {
+                acumulaXXH3(acc, vista, inicio, SECRETO, 8 * franjas);
+                inicio += 64;
+                if (++franjas == XXH3_FRANJAS) {
+                    revuelveXXH3(acc, SECRETO);
+                    franjas = 0;
+                }
+            }
+            int d = guardados - 64;
+            System.arraycopy(buffer, d, buffer, 0, 64);
+            inicio -= d;
+            guardados = 64;
+        }
+
+        /* Regresa los 64 bits bajos de la dispersión. */
+        @Override public long finaliza() {
+            return finaliza128().getBajos();
+        }
+
+        /* Regresa la dispersión XXH128. */
+        @Override public Huella128 finaliza128() {
+            if (acc == null)
+                return dispersaXXH128(vista, 0, guardados, 0L);
+            return terminaXXH128Larga(acc.clone(), vista, guardados - 64,
+                                      total, SECRETO);
+        }
+    }
 }
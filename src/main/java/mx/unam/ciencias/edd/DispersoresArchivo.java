@@ -0,0 +1,223 @@
+package mx.unam.ciencias.edd;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * <p>Clase para métodos estáticos que dispersan archivos completos.</p>
+ *
+ * <p>Los archivos se leen mapeándolos a memoria por ventanas con {@link
+ * FileChannel#map}, y cada ventana se pasa a un {@link DispersorIncremental};
+ * los bytes nunca se copian al <i>heap</i>.</p>
+ *
+ * <p>La versión paralela parte el archivo en segmentos de tamaño fijo, los
+ * dispersa en un {@link ForkJoinPool} y combina las huellas en un árbol
+ * binario: cada nodo interno es la dispersión de las huellas de sus dos
+ * hijos, y la raíz se dispersa junto con la longitud del archivo y el tamaño
+ * de segmento. Las hojas, los nodos internos y la raíz empiezan con un byte
+ * distinto cada uno, para que la huella de un nodo nunca sea la de un
+ * segmento cuyos bytes son las huellas de dos hijos. El resultado depende
+ * del tamaño de segmento, y no es el mismo que el de la versión
+ * secuencial.</p>
+ */
+public class DispersoresArchivo {
+
+    /** Tamaño por omisión de las ventanas mapeadas a memoria (64 MiB). */
+    public static final int VENTANA = 1 << 26;
+    /** Byte con el que empieza la dispersión de cada hoja del árbol. */
+    public static final byte HOJA = 0x00;
+    /** Byte con el que empieza la dispersión de cada nodo interno. */
+    public static final byte NODO = 0x01;
+    /** Byte con el que empieza la dispersión de la raíz. */
+    public static final byte RAIZ = 0x02;
+
+    /* Constructor privado para evitar instanciación. */
+    private DispersoresArchivo() {}
+
+    /**
+     * Dispersa el contenido de un archivo. Para los algoritmos de menos de
+     * 128 bits, el resultado está en los bits bajos de la huella.
+     * @param archivo el archivo a dispersar.
+     * @param algoritmo el algoritmo de dispersor que se desea.
+     * @return la dispersión del contenido del archivo.
+     * @throws IOException si ocurre un error leyendo el archivo.
+     * @throws IllegalArgumentException si el algoritmo no tiene versión
+     *         incremental.
+     */
+    public static Huella128 dispersa(Path archivo, AlgoritmoDispersor algoritmo)
+        throws IOException {
+        return dispersa(archivo, algoritmo, VENTANA);
+    }
+
+    /**
+     * Dispersa el contenido de un archivo, mapeando ventanas del tamaño
+     * dado.
+     * @param archivo el archivo a dispersar.
+     * @param algoritmo el algoritmo de dispersor que se desea.
+     * @param ventana el tamaño de las ventanas mapeadas a memoria.
+     * @return la dispersión del contenido del archivo.
+     * @throws IOException si ocurre un error leyendo el archivo.
+     * @throws IllegalArgumentException si el algoritmo no tiene versión
+     *         incremental, o si la ventana no es positiva.
+     */
+    public static Huella128 dispersa(Path archivo, AlgoritmoDispersor algoritmo,
+                                     int ventana) throws IOException {
+        if (ventana <= 0)
+            throw new IllegalArgumentException("Ventana inválida");
+        DispersorIncremental dispersor =
+            FabricaDispersores.dispersorIncremental(algoritmo);
+        try (FileChannel canal = FileChannel.open(archivo,
+                                                  StandardOpenOption.READ)) {
+            alimenta(dispersor, canal, 0, canal.size(), ventana);
+        }
+        return dispersor.finaliza128();
+    }
+
+    /**
+     * Dispersa el contenido de un archivo en paralelo, en el {@link
+     * ForkJoinPool} común.
+     * @param archivo el archivo a dispersar.
+     * @param algoritmo el algoritmo de dispersor que se desea.
+     * @param segmento el tamaño de los segmentos que se dispersan en
+     *                 paralelo.
+     * @return la dispersión en árbol del contenido del archivo.
+     * @throws IOException si ocurre un error leyendo el archivo.
+     * @throws IllegalArgumentException si el algoritmo no tiene versión
+     *         incremental, o si el segmento no es positivo.
+     */
+    public static Huella128 dispersaParalelo(Path archivo,
+                                             AlgoritmoDispersor algoritmo,
+                                             long segmento)
+        throws IOException {
+        return dispersaParalelo(archivo, algoritmo, segmento,
+                                ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Dispersa el contenido de un archivo en paralelo, en el {@link
+     * ForkJoinPool} dado. El resultado no depende del número de hilos.
+     * @param archivo el archivo a dispersar.
+     * @param algoritmo el algoritmo de dispersor que se desea.
+     * @param segmento el tamaño de los segmentos que se dispersan en
+     *                 paralelo.
+     * @param alberca la alberca de hilos donde se dispersan los segmentos.
+     * @return la dispersión en árbol del contenido del archivo.
+     * @throws IOException si ocurre un error leyendo el archivo.
+     * @throws IllegalArgumentException si el algoritmo no tiene versión
+     *         incremental, o si el segmento no es positivo.
+     */
+    public static Huella128 dispersaParalelo(Path archivo,
+                                             AlgoritmoDispersor algoritmo,
+                                             long segmento,
+                                             ForkJoinPool alberca)
+        throws IOException {
+        if (segmento <= 0)
+            throw new IllegalArgumentException("Segmento inválido");
+        //Revisamos el algoritmo antes de mandar tareas
+        FabricaDispersores.dispersorIncremental(algoritmo);
+        try (FileChannel canal = FileChannel.open(archivo,
+                                                  StandardOpenOption.READ)) {
+            long longitud = canal.size();
+            long segmentos = Math.max(1, (longitud + segmento - 1) / segmento);
+            Tarea tarea = new Tarea(canal, algoritmo, segmento, longitud,
+                                    0, segmentos);
+            Huella128 raiz;
+            try {
+                raiz = alberca.invoke(tarea);
+            } catch (UncheckedIOException uioe) {
+                throw uioe.getCause();
+            }
+            ByteBuffer raizYLongitud = ByteBuffer.allocate(33)
+                .order(ByteOrder.LITTLE_ENDIAN);
+            raizYLongitud.put(RAIZ)
+                .putLong(raiz.getBajos()).putLong(raiz.getAltos())
+                .putLong(longitud).putLong(segmento).flip();
+            DispersorIncremental dispersor =
+                FabricaDispersores.dispersorIncremental(algoritmo);
+            dispersor.actualiza(raizYLongitud);
+            return dispersor.finaliza128();
+        }
+    }
+
+    /* Alimenta el dispersor con los bytes del canal en [inicio, fin),
+       mapeando ventanas. */
+    private static void alimenta(DispersorIncremental dispersor,
+                                 FileChannel canal, long inicio, long fin,
+                                 int ventana) throws IOException {
+        long i = inicio;
+        while (i < fin) {
+            long n = Math.min(ventana, fin - i);
+            MappedByteBuffer mapeo =
+                canal.map(FileChannel.MapMode.READ_ONLY, i, n);
+            dispersor.actualiza(mapeo);
+            i += n;
+        }
+    }
+
+    /* Tarea para dispersar en árbol los segmentos en [inicio, fin). */
+    private static class Tarea extends RecursiveTask<Huella128> {
+
+        /* El canal del archivo. */
+        private final FileChannel canal;
+        /* El algoritmo. */
+        private final AlgoritmoDispersor algoritmo;
+        /* El tamaño de los segmentos. */
+        private final long segmento;
+        /* La longitud del archivo. */
+        private final long longitud;
+        /* El primer segmento de la tarea. */
+        private final long inicio;
+        /* Uno después del último segmento de la tarea. */
+        private final long fin;
+
+        /* Construye una nueva tarea. */
+        public Tarea(FileChannel canal, AlgoritmoDispersor algoritmo,
+                     long segmento, long longitud, long inicio, long fin) {
+            this.canal = canal;
+            this.algoritmo = algoritmo;
+            this.segmento = segmento;
+            this.longitud = longitud;
+            this.inicio = inicio;
+            this.fin = fin;
+        }
+
+        /* Dispersa un segmento, o parte la tarea en dos y combina. */
+        @Override protected Huella128 compute() {
+            DispersorIncremental dispersor =
+                FabricaDispersores.dispersorIncremental(algoritmo);
+            if (fin - inicio == 1) {
+                long a = inicio * segmento;
+                long b = Math.min(longitud, a + segmento);
+                dispersor.actualiza(new byte[] { HOJA }, 0, 1);
+                try {
+                    alimenta(dispersor, canal, a, b, VENTANA);
+                } catch (IOException ioe) {
+                    throw new UncheckedIOException(ioe);
+                }
+                return dispersor.finaliza128();
+            }
+            long m = (inicio + fin) / 2;
+            Tarea izquierda = new Tarea(canal, algoritmo, segmento, longitud,
+                                        inicio, m);
+            Tarea derecha = new Tarea(canal, algoritmo, segmento, longitud,
+                                      m, fin);
+            izquierda.fork();
+            Huella128 d = derecha.compute();
+            Huella128 i = izquierda.join();
+            ByteBuffer hijos = ByteBuffer.allocate(33)
+                .order(ByteOrder.LITTLE_ENDIAN);
+            hijos.put(NODO).putLong(i.getBajos()).putLong(i.getAltos())
+                .putLong(d.getBajos()).putLong(d.getAltos()).flip();
+            dispersor.actualiza(hijos);
+            return dispersor.finaliza128();
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package mx.unam.ciencias.edd;
+
+/**
+ * <p>Clase para encontrar los <i>k</i> elementos más frecuentes de un flujo
+ * (<i>heavy hitters</i>) usando memoria acotada.</p>
+ *
+ * <p>Las frecuencias se estiman con un {@link CountMin} conservador, y los
+ * <i>k</i> candidatos con mayor frecuencia estimada se guardan en un {@link
+ * MonticuloMinimo} acotado, junto con un {@link Diccionario} que va de cada
+ * candidato a su lugar en el montículo. Cuando llega un elemento que no es
+ * candidato y su estimación supera a la del candidato mínimo, éste se saca
+ * del montículo y el nuevo entra en su lugar; así cada aparición cuesta
+ * O(log <i>k</i>) además del bosquejo.</p>
+ */
+public class ElementosFrecuentes<T> {
+
+    /* El bosquejo con las frecuencias estimadas. */
+    private CountMin<T> bosquejo;
+    /* Los candidatos, con su frecuencia estimada como valor. */
+    private MonticuloMinimo<ValorIndexable<T>> monticulo;
+    /* Los candidatos, por elemento. */
+    private Diccionario<T, ValorIndexable<T>> candidatos;
+    /* El número máximo de candidatos. */
+    private int k;
+
+    /**
+     * Construye una estructura vacía para los <i>k</i> elementos más
+     * frecuentes.
+     * @param primero el primer dispersor.
+     * @param segundo el segundo dispersor, independiente del primero.
+     * @param k el número de elementos frecuentes a mantener.
+     * @param epsilon el error del bosquejo, relativo al total.
+     * @param delta la probabilidad de que el bosquejo exceda el error.
+     * @throws IllegalArgumentException si algún dispersor es
+     *         <code>null</code>, si <code>k</code> no es positivo, o si el
+     *         error o la probabilidad no están en (0, 1).
+     */
+    public ElementosFrecuentes(Dispersor<T> primero, Dispersor<T> segundo,
+                               int k, double epsilon, double delta) {
+        if (k <= 0)
+            throw new IllegalArgumentException("Número de elementos inválido");
+        bosquejo = new CountMin<T>(primero, segundo, epsilon, delta, true);
+        monticulo = new MonticuloMinimo<ValorIndexable<T>>();
+        candidatos = new Diccionario<T, ValorIndexable<T>>(primero, k + 1);
+        this.k = k;
+    }
+
+    /**
+     * Agrega una aparición de un elemento.
+     * @param elemento el elemento.
+     * @throws IllegalArgumentException si <code>elemento</code> es
+     *         <code>null</code>.
+     */
+    public void agrega(T elemento) {
+        agrega(elemento, 1);
+    }
+
+    /**
+     * Agrega varias apariciones de un elemento.
+     * @param elemento el elemento.
+     * @param cuenta el número de apariciones.
+     * @throws IllegalArgumentException si <code>elemento</code> es
+     *         <code>null</code>, o si la cuenta es negativa.
+     */
+    public void agrega(T elemento, long cuenta) {
+        long estimacion = bosquejo.agrega(elemento, cuenta);
+        ValorIndexable<T> candidato = candidatos.get(elemento);
+        if (candidato != null) {
+            // Sólo puede crecer, así que baja en el montículo.
+            candidato.setValor(estimacion);
+            monticulo.reordena(candidato);
+            return;
+        }
+        if (monticulo.getElementos() == k) {
+            if (estimacion <= monticulo.get(0).getValor())
+                return;
+            candidatos.elimina(monticulo.elimina().getElemento());
+        }
+        candidato = new ValorIndexable<T>(elemento, estimacion);
+        monticulo.agrega(candidato);
+        candidatos.agrega(elemento, candidato);
+    }
+
+    /**
+     * Regresa la frecuencia estimada de un elemento, sea o no candidato.
+     * @param elemento el elemento.
+     * @return la frecuencia estimada del elemento.
+     */
+    public long estima(T elemento) {
+        return bosquejo.estima(elemento);
+    }
+
+    /**
+     * Nos dice si un elemento está entre los candidatos a más frecuentes.
+     * @param elemento el elemento.
+     * @return <code>true</code> si el elemento es candidato,
+     *         <code>false</code> en otro caso.
+     */
+    public boolean contiene(T elemento) {
+        return elemento != null && candidatos.contiene(elemento);
+    }
+
+    /**
+     * Regresa los candidatos a más frecuentes, del más frecuente al menos
+     * frecuente según su estimación.
+     * @return una lista con a lo más <i>k</i> elementos.
+     */
+    public Lista<T> getFrecuentes() {
+        Lista<ValorIndexable<T>> valores = new Lista<ValorIndexable<T>>();
+        for (ValorIndexable<T> v : monticulo)
+            valores.agrega(v);
+        Lista<T> frecuentes = new Lista<T>();
+        for (ValorIndexable<T> v : valores.mergeSort((a, b) -> b.compareTo(a)))
+            frecuentes.agrega(v.getElemento());
+        return frecuentes;
+    }
+
+    /**
+     * Regresa el número de candidatos.
+     * @return el número de candidatos, a lo más <i>k</i>.
+     */
+    public int getElementos() {
+        return monticulo.getElementos();
+    }
+
+    /**
+     * Regresa el total de apariciones agregadas.
+     * @return el total de apariciones agregadas.
+     */
+    public long getTotal() {
+        return bosquejo.getTotal();
+    }
+
+    /**
+     * Limpia la estructura, dejándola vacía.
+     */
+    public void limpia() {
+        bosquejo.limpia();
+        monticulo.limpia();
+        candidatos.limpia();
+    }
+}
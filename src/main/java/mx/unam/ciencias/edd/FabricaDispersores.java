@@ -1,15 +1,61 @@
 package mx.unam.ciencias.edd;
 
+import java.security.SecureRandom;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+
 /**
- * Clase para fabricar dispersores.
+ * <p>Clase para fabricar dispersores.</p>
+ *
+ * <p>Los dispersores para cadenas dispersan los bytes de la codificación
+ * UTF-8 de la cadena, sin importar la codificación por omisión de la
+ * plataforma; la codificación se escribe en un arreglo reutilizable por
+ * hilo, por lo que dispersar una cadena no crea arreglos nuevos.</p>
+ *
+ * <p>Sólo {@link AlgoritmoDispersor#SIP13_STRING} con una semilla secreta y
+ * aleatoria, como las que regresa {@link #semillaAleatoria}, sirve contra
+ * ataques de inundación: SipHash es una función pseudoaleatoria con llave, y
+ * sin conocer la llave no se pueden calcular de antemano llaves que
+ * colisionen. La semilla se expande con SplitMix64 en las dos mitades
+ * independientes de la llave de 128 bits; para dar la llave completa está
+ * {@link #dispersorSecuenciaSip13}.</p>
+ *
+ * <p>Los demás dispersores con semilla sólo cambian el acomodo de las
+ * llaves en la tabla; no resisten a quien busca colisiones a propósito.
+ * MurmurHash3 tiene multicolisiones que no dependen de la semilla, y para
+ * BJ, FNV y xxHash no hay ninguna garantía de que la semilla las evite. Con
+ * semilla cero, cada uno de estos dispersores regresa lo mismo que su
+ * versión sin semilla.</p>
  */
 public class FabricaDispersores {
 
+    /* La constante de oro de SplitMix64, para expandir semillas. */
+    private static final long GAMMA = 0x9e3779b97f4a7c15L;
+    /* Arreglo reutilizable (uno por hilo) para codificar cadenas. */
+    private static final ThreadLocal<byte[]> BUFFER =
+        ThreadLocal.withInitial(() -> new byte[64]);
+
+    /* Generador de semillas aleatorias. */
+    private static final SecureRandom GENERADOR = new SecureRandom();
+
     /* Constructor privado para evitar instanciación. */
     private FabricaDispersores() {}
 
     /**
-     * Regresa una instancia de {@link Dispersor} para cadenas.
+     * Regresa una semilla aleatoria, criptográficamente segura, para los
+     * dispersores con semilla.
+     * @return una semilla aleatoria.
+     */
+    public static long semillaAleatoria() {
+        return GENERADOR.nextLong();
+    }
+
+    /**
+     * Regresa una instancia de {@link Dispersor} para cadenas. Si el
+     * algoritmo es de 64 bits o más, el resultado es la disyunción exclusiva
+     * de los 32 bits altos con los 32 bits bajos de su versión de 64 bits.
      * @param algoritmo el algoritmo de dispersor que se desea.
      * @return una instancia de {@link Dispersor} para cadenas.
      * @throws IllegalArgumentException si recibe un identificador no
@@ -17,14 +63,629 @@ public class FabricaDispersores {
      */
     public static Dispersor<String>
     dispersorCadena(AlgoritmoDispersor algoritmo) {
+        Dispersor<CharSequence> dispersor = dispersorSecuencia(algoritmo);
+        return c -> dispersor.dispersa(c);
+    }
+
+    /**
+     * Regresa una instancia de {@link Dispersor} para secuencias de
+     * caracteres. El resultado para una secuencia es el mismo que para la
+     * cadena con los mismos caracteres. Si el algoritmo es de 64 bits o más,
+     * el resultado es la disyunción exclusiva de los 32 bits altos con los 32
+     * bits bajos de su versión de 64 bits.
+     * @param algoritmo el algoritmo de dispersor que se desea.
+     * @return una instancia de {@link Dispersor} para secuencias de
+     *         caracteres.
+     * @throws IllegalArgumentException si recibe un identificador no
+     *         reconocido.
+     */
+    public static Dispersor<CharSequence>
+    dispersorSecuencia(AlgoritmoDispersor algoritmo) {
         switch (algoritmo) {
         case XOR_STRING:
-            return c -> Dispersores.dispersaXOR(c.getBytes());
+            return c -> {
+                int n = codifica(c);
+                return Dispersores.dispersaXOR(BUFFER.get(), 0, n);
+            };
         case BJ_STRING:
-            return c -> Dispersores.dispersaBJ(c.getBytes());
+            return c -> {
+                int n = codifica(c);
+                return Dispersores.dispersaBJ(BUFFER.get(), 0, n);
+            };
         case DJB_STRING:
-            return c -> Dispersores.dispersaDJB(c.getBytes());
+            return c -> {
+                int n = codifica(c);
+                return Dispersores.dispersaDJB(BUFFER.get(), 0, n);
+            };
+        case BJ64_STRING:
+        case FNV64_STRING:
+        case XXH64_STRING:
+        case MURMUR128_STRING:
+        case XXH128_STRING:
+        case SIP13_STRING:
+            Dispersor64<CharSequence> d = dispersorSecuencia64(algoritmo);
+            return c -> {
+                long h = d.dispersa(c);
+                return (int)(h ^ (h >>> 32));
+            };
+        default: throw new IllegalArgumentException("Algoritmo inválido");
+        }
+    }
+
+    /**
+     * Regresa una instancia de {@link Dispersor} para cadenas con semilla.
+     * Si el algoritmo es de 64 bits o más, el resultado es la disyunción
+     * exclusiva de los 32 bits altos con los 32 bits bajos de su versión de
+     * 64 bits con la misma semilla.
+     * @param algoritmo el algoritmo de dispersor que se desea.
+     * @param semilla la semilla.
+     * @return una instancia de {@link Dispersor} para cadenas.
+     * @throws IllegalArgumentException si recibe un identificador no
+     *         reconocido, o {@link AlgoritmoDispersor#XOR_STRING} o {@link
+     *         AlgoritmoDispersor#DJB_STRING}, cuyas colisiones no dependen
+     *         de la semilla.
+     */
+    public static Dispersor<String>
+    dispersorCadena(AlgoritmoDispersor algoritmo, long semilla) {
+        Dispersor<CharSequence> dispersor = dispersorSecuencia(algoritmo,
+                                                               semilla);
+        return c -> dispersor.dispersa(c);
+    }
+
+    /**
+     * Regresa una instancia de {@link Dispersor} para secuencias de
+     * caracteres con semilla. El resultado para una secuencia es el mismo
+     * que para la cadena con los mismos caracteres.
+     * @param algoritmo el algoritmo de dispersor que se desea.
+     * @param semilla la semilla.
+     * @return una instancia de {@link Dispersor} para secuencias de
+     *         caracteres.
+     * @throws IllegalArgumentException si recibe un identificador no
+     *         reconocido, o {@link AlgoritmoDispersor#XOR_STRING} o {@link
+     *         AlgoritmoDispersor#DJB_STRING}, cuyas colisiones no dependen
+     *         de la semilla.
+     */
+    public static Dispersor<CharSequence>
+    dispersorSecuencia(AlgoritmoDispersor algoritmo, long semilla) {
+        switch (algoritmo) {
+        case BJ_STRING:
+            return c -> {
+                int n = codifica(c);
+                return Dispersores.dispersaBJ(BUFFER.get(), 0, n, semilla);
+            };
+        case BJ64_STRING:
+        case FNV64_STRING:
+        case XXH64_STRING:
+        case MURMUR128_STRING:
+        case XXH128_STRING:
+        case SIP13_STRING:
+            Dispersor64<CharSequence> d = dispersorSecuencia64(algoritmo,
+                                                               semilla);
+            return c -> {
+                long h = d.dispersa(c);
+                return (int)(h ^ (h >>> 32));
+            };
+        default: throw new IllegalArgumentException("Algoritmo inválido");
+        }
+    }
+
+    /**
+     * Regresa una instancia de {@link Dispersor64} para cadenas. Si el
+     * algoritmo es de 128 bits, el resultado son sus 64 bits bajos.
+     * @param algoritmo el algoritmo de dispersor de 64 bits que se desea.
+     * @return una instancia de {@link Dispersor64} para cadenas.
+     * @throws IllegalArgumentException si recibe un identificador no
+     *         reconocido, o uno de un algoritmo de 32 bits.
+     */
+    public static Dispersor64<String>
+    dispersorCadena64(AlgoritmoDispersor algoritmo) {
+        Dispersor64<CharSequence> dispersor = dispersorSecuencia64(algoritmo);
+        return c -> dispersor.dispersa(c);
+    }
+
+    /**
+     * Regresa una instancia de {@link Dispersor64} para secuencias de
+     * caracteres. El resultado para una secuencia es el mismo que para la
+     * cadena con los mismos caracteres. Si el algoritmo es de 128 bits, el
+     * resultado son sus 64 bits bajos.
+     * @param algoritmo el algoritmo de dispersor de 64 bits que se desea.
+     * @return una instancia de {@link Dispersor64} para secuencias de
+     *         caracteres.
+     * @throws IllegalArgumentException si recibe un identificador no
+     *         reconocido, o uno de un algoritmo de 32 bits.
+     */
+    public static Dispersor64<CharSequence>
+    dispersorSecuencia64(AlgoritmoDispersor algoritmo) {
+        switch (algoritmo) {
+        case BJ64_STRING:
+            return c -> {
+                int n = codifica(c);
+                return Dispersores.dispersaBJ64(BUFFER.get(), 0, n);
+            };
+        case FNV64_STRING:
+            return c -> {
+                int n = codifica(c);
+                return Dispersores.dispersaFNV64(BUFFER.get(), 0, n);
+            };
+        case XXH64_STRING:
+            return c -> {
+                int n = codifica(c);
+                return Dispersores.dispersaXXH64(BUFFER.get(), 0, n);
+            };
+        case SIP13_STRING:
+            return c -> {
+                int n = codifica(c);
+                return Dispersores.dispersaSip13(BUFFER.get(), 0, n, 0L, 0L);
+            };
+        case MURMUR128_STRING:
+        case XXH128_STRING:
+            Dispersor128<CharSequence> d = dispersorSecuencia128(algoritmo);
+            return c -> d.dispersa(c).getBajos();
         default: throw new IllegalArgumentException("Algoritmo inválido");
         }
     }
+
+    /**
+     * Regresa una instancia de {@link Dispersor64} para cadenas con
+     * semilla. Si el algoritmo es de 128 bits, el resultado son sus 64 bits
+     * bajos; para {@link AlgoritmoDispersor#SIP13_STRING} la semilla se
+     * expande con SplitMix64 en las dos mitades de la llave de SipHash.
+     * @param algoritmo el algoritmo de dispersor de 64 bits que se desea.
+     * @param semilla la semilla.
+     * @return una instancia de {@link Dispersor64} para cadenas.
+     * @throws IllegalArgumentException si recibe un identificador no
+     *         reconocido, o uno de un algoritmo de 32 bits.
+     */
+    public static Dispersor64<String>
+    dispersorCadena64(AlgoritmoDispersor algoritmo, long semilla) {
+        Dispersor64<CharSequence> dispersor = dispersorSecuencia64(algoritmo,
+                                                                   semilla);
+        return c -> dispersor.dispersa(c);
+    }
+
+    /**
+     * Regresa una instancia de {@link Dispersor64} para secuencias de
+     * caracteres con semilla. El resultado para una secuencia es el mismo
+     * que para la cadena con los mismos caracteres.
+     * @param algoritmo el algoritmo de dispersor de 64 bits que se desea.
+     * @param semilla la semilla.
+     * @return una instancia de {@link Dispersor64} para secuencias de
+     *         caracteres.
+     * @throws IllegalArgumentException si recibe un identificador no
+     *         reconocido, o uno de un algoritmo de 32 bits.
+     */
+    public static Dispersor64<CharSequence>
+    dispersorSecuencia64(AlgoritmoDispersor algoritmo, long semilla) {
+        switch (algoritmo) {
+        case BJ64_STRING:
+            return c -> {
+                int n = codifica(c);
+                return Dispersores.dispersaBJ64(BUFFER.get(), 0, n, semilla);
+            };
+        case FNV64_STRING:
+            return c -> {
+                int n = codifica(c);
+                return Dispersores.dispersaFNV64(BUFFER.get(), 0, n, semilla);
+            };
+        case XXH64_STRING:
+            return c -> {
+                int n = codifica(c);
+                return Dispersores.dispersaXXH64(BUFFER.get(), 0, n, semilla);
+            };
+        case SIP13_STRING:
+            return dispersorSecuenciaSip13(Dispersores.mezclaSplitMix64(semilla),
+                                           Dispersores.mezclaSplitMix64(
+                                               semilla + GAMMA));
+        case MURMUR128_STRING:
+        case XXH128_STRING:
+            Dispersor128<CharSequence> d = dispersorSecuencia128(algoritmo,
+                                                                 semilla);
+            return c -> d.dispersa(c).getBajos();
+        default: throw new IllegalArgumentException("Algoritmo inválido");
+        }
+    }
+
+    /**
+     * Regresa una instancia de {@link Dispersor64} para cadenas que usa
+     * SipHash-1-3 con la llave de 128 bits dada.
+     * @param k0 los 64 bits bajos de la llave.
+     * @param k1 los 64 bits altos de la llave.
+     * @return una instancia de {@link Dispersor64} para cadenas.
+     */
+    public static Dispersor64<String> dispersorCadenaSip13(long k0, long k1) {
+        Dispersor64<CharSequence> dispersor = dispersorSecuenciaSip13(k0, k1);
+        return c -> dispersor.dispersa(c);
+    }
+
+    /**
+     * Regresa una instancia de {@link Dispersor64} para secuencias de
+     * caracteres que usa SipHash-1-3 con la llave de 128 bits dada. El
+     * resultado para una secuencia es el mismo que para la cadena con los
+     * mismos caracteres.
+     * @param k0 los 64 bits bajos de la llave.
+     * @param k1 los 64 bits altos de la llave.
+     * @return una instancia de {@link Dispersor64} para secuencias de
+     *         caracteres.
+     */
+    public static Dispersor64<CharSequence>
+    dispersorSecuenciaSip13(long k0, long k1) {
+        return c -> {
+            int n = codifica(c);
+            return Dispersores.dispersaSip13(BUFFER.get(), 0, n, k0, k1);
+        };
+    }
+
+    /**
+     * Regresa una instancia de {@link Dispersor128} para cadenas.
+     * @param algoritmo el algoritmo de dispersor de 128 bits que se desea.
+     * @return una instancia de {@link Dispersor128} para cadenas.
+     * @throws IllegalArgumentException si recibe un identificador no
+     *         reconocido, o uno de un algoritmo de 32 o 64 bits.
+     */
+    public static Dispersor128<String>
+    dispersorCadena128(AlgoritmoDispersor algoritmo) {
+        Dispersor128<CharSequence> dispersor = dispersorSecuencia128(algoritmo);
+        return c -> dispersor.dispersa(c);
+    }
+
+    /**
+     * Regresa una instancia de {@link Dispersor128} para secuencias de
+     * caracteres. El resultado para una secuencia es el mismo que para la
+     * cadena con los mismos caracteres.
+     * @param algoritmo el algoritmo de dispersor de 128 bits que se desea.
+     * @return una instancia de {@link Dispersor128} para secuencias de
+     *         caracteres.
+     * @throws IllegalArgumentException si recibe un identificador no
+     *         reconocido, o uno de un algoritmo de 32 o 64 bits.
+     */
+    public static Dispersor128<CharSequence>
+    dispersorSecuencia128(AlgoritmoDispersor algoritmo) {
+        switch (algoritmo) {
+        case MURMUR128_STRING:
+            return c -> {
+                int n = codifica(c);
+                return Dispersores.dispersaMurmur128(BUFFER.get(), 0, n);
+            };
+        case XXH128_STRING:
+            return c -> {
+                int n = codifica(c);
+                return Dispersores.dispersaXXH128(BUFFER.get(), 0, n);
+            };
+        default: throw new IllegalArgumentException("Algoritmo inválido");
+        }
+    }
+
+    /**
+     * Regresa una instancia de {@link Dispersor128} para cadenas con
+     * semilla.
+     * @param algoritmo el algoritmo de dispersor de 128 bits que se desea.
+     * @param semilla la semilla.
+     * @return una instancia de {@link Dispersor128} para cadenas.
+     * @throws IllegalArgumentException si recibe un identificador no
+     *         reconocido, o uno de un algoritmo de 32 o 64 bits.
+     */
+    public static Dispersor128<String>
+    dispersorCadena128(AlgoritmoDispersor algoritmo, long semilla) {
+        Dispersor128<CharSequence> dispersor =
+            dispersorSecuencia128(algoritmo, semilla);
+        return c -> dispersor.dispersa(c);
+    }
+
+    /**
+     * Regresa una instancia de {@link Dispersor128} para secuencias de
+     * caracteres con semilla. El resultado para una secuencia es el mismo
+     * que para la cadena con los mismos caracteres.
+     * @param algoritmo el algoritmo de dispersor de 128 bits que se desea.
+     * @param semilla la semilla.
+     * @return una instancia de {@link Dispersor128} para secuencias de
+     *         caracteres.
+     * @throws IllegalArgumentException si recibe un identificador no
+     *         reconocido, o uno de un algoritmo de 32 o 64 bits.
+     */
+    public static Dispersor128<CharSequence>
+    dispersorSecuencia128(AlgoritmoDispersor algoritmo, long semilla) {
+        switch (algoritmo) {
+        case MURMUR128_STRING:
+            return c -> {
+                int n = codifica(c);
+                return Dispersores.dispersaMurmur128(BUFFER.get(), 0, n,
+                                                     semilla);
+            };
+        case XXH128_STRING:
+            return c -> {
+                int n = codifica(c);
+                return Dispersores.dispersaXXH128(BUFFER.get(), 0, n, semilla);
+            };
+        default: throw new IllegalArgumentException("Algoritmo inválido");
+        }
+    }
+
+    /**
+     * Regresa un {@link DispersorInt} que mezcla el entero con {@link
+     * Dispersores#mezclaMurmur32}; es el dispersor de enteros más rápido, y
+     * no tiene colisiones.
+     * @return un {@link DispersorInt} rápido.
+     */
+    public static DispersorInt dispersorInt() {
+        return x -> Dispersores.mezclaMurmur32(x);
+    }
+
+    /**
+     * Regresa un {@link DispersorInt} que dispersa los 4 bytes little
+     * endian del entero con el algoritmo dado, sin crear arreglos ni
+     * objetos. El resultado es el mismo que el de {@link
+     * Dispersores#dispersaLote(AlgoritmoDispersor,byte[][],int[])} sobre
+     * esos bytes.
+     * @param algoritmo el algoritmo de dispersor que se desea.
+     * @return un {@link DispersorInt}.
+     * @throws IllegalArgumentException si recibe un identificador no
+     *         reconocido.
+     */
+    public static DispersorInt dispersorInt(AlgoritmoDispersor algoritmo) {
+        switch (algoritmo) {
+        case XOR_STRING:
+            return x -> Dispersores.dispersaXOR(x);
+        case BJ_STRING:
+            return x -> Dispersores.dispersaBJ(x);
+        case DJB_STRING:
+            return x -> Dispersores.dispersaDJB(x);
+        case BJ64_STRING:
+            return x -> dobla(Dispersores.dispersaBJ64(x));
+        case FNV64_STRING:
+            return x -> dobla(Dispersores.dispersaFNV64(x));
+        case XXH64_STRING:
+            return x -> dobla(Dispersores.dispersaXXH64(x));
+        case MURMUR128_STRING:
+            return x -> dobla(Dispersores.dispersaMurmur128Bajos(x));
+        case XXH128_STRING:
+            return x -> dobla(Dispersores.dispersaXXH128Bajos(x));
+        case SIP13_STRING:
+            return x -> dobla(Dispersores.dispersaSip13(x));
+        default: throw new IllegalArgumentException("Algoritmo inválido");
+        }
+    }
+
+    /**
+     * Regresa un {@link DispersorLong} que mezcla el largo con {@link
+     * Dispersores#mezclaMurmur64} y dobla el resultado a 32 bits.
+     * @return un {@link DispersorLong} rápido.
+     */
+    public static DispersorLong dispersorLong() {
+        return x -> dobla(Dispersores.mezclaMurmur64(x));
+    }
+
+    /**
+     * Regresa un {@link DispersorLong} que dispersa los 8 bytes little
+     * endian del largo con el algoritmo dado, sin crear arreglos ni
+     * objetos. El resultado es el mismo que el de {@link
+     * Dispersores#dispersaLote(AlgoritmoDispersor,byte[][],int[])} sobre
+     * esos bytes.
+     * @param algoritmo el algoritmo de dispersor que se desea.
+     * @return un {@link DispersorLong}.
+     * @throws IllegalArgumentException si recibe un identificador no
+     *         reconocido.
+     */
+    public static DispersorLong dispersorLong(AlgoritmoDispersor algoritmo) {
+        switch (algoritmo) {
+        case XOR_STRING:
+            return x -> Dispersores.dispersaXOR(x);
+        case BJ_STRING:
+            return x -> Dispersores.dispersaBJ(x);
+        case DJB_STRING:
+            return x -> Dispersores.dispersaDJB(x);
+        case BJ64_STRING:
+            return x -> dobla(Dispersores.dispersaBJ64(x));
+        case FNV64_STRING:
+            return x -> dobla(Dispersores.dispersaFNV64(x));
+        case XXH64_STRING:
+            return x -> dobla(Dispersores.dispersaXXH64(x));
+        case MURMUR128_STRING:
+            return x -> dobla(Dispersores.dispersaMurmur128Bajos(x));
+        case XXH128_STRING:
+            return x -> dobla(Dispersores.dispersaXXH128Bajos(x));
+        case SIP13_STRING:
+            return x -> dobla(Dispersores.dispersaSip13(x));
+        default: throw new IllegalArgumentException("Algoritmo inválido");
+        }
+    }
+
+    /**
+     * Regresa un {@link DispersorDouble} rápido, que dispersa los bits del
+     * doble (como {@link Double#doubleToLongBits}) con {@link
+     * #dispersorLong()}.
+     * @return un {@link DispersorDouble} rápido.
+     */
+    public static DispersorDouble dispersorDouble() {
+        DispersorLong dispersor = dispersorLong();
+        return x -> dispersor.dispersa(Double.doubleToLongBits(x));
+    }
+
+    /**
+     * Regresa un {@link DispersorDouble} que dispersa los bits del doble
+     * con {@link #dispersorLong(AlgoritmoDispersor)}. Los bits son los de
+     * {@link Double#doubleToLongBits}, así que dos dobles iguales según
+     * {@link Double#equals} tienen la misma dispersión: todos los NaN son
+     * iguales, y 0.0 y -0.0 son distintos.
+     * @param algoritmo el algoritmo de dispersor que se desea.
+     * @return un {@link DispersorDouble}.
+     * @throws IllegalArgumentException si recibe un identificador no
+     *         reconocido.
+     */
+    public static DispersorDouble
+    dispersorDouble(AlgoritmoDispersor algoritmo) {
+        DispersorLong dispersor = dispersorLong(algoritmo);
+        return x -> dispersor.dispersa(Double.doubleToLongBits(x));
+    }
+
+    /**
+     * Regresa un {@link Dispersor} para objetos que dispersa uno de sus
+     * campos. Sirve para armar dispersores compuestos con {@link
+     * #dispersorCompuesto}. Si el campo es <code>null</code>, su dispersión
+     * es 0.
+     * @param <T> el tipo de los objetos.
+     * @param <C> el tipo del campo.
+     * @param campo la función que extrae el campo del objeto.
+     * @param dispersor el dispersor para el campo.
+     * @return un {@link Dispersor} que dispersa el campo del objeto.
+     */
+    public static <T, C> Dispersor<T> campo(Function<? super T, ? extends C> campo,
+                                            Dispersor<? super C> dispersor) {
+        return o -> {
+            C c = campo.apply(o);
+            return c == null ? 0 : dispersor.dispersa(c);
+        };
+    }
+
+    /**
+     * Regresa un {@link Dispersor} para objetos que dispersa uno de sus
+     * campos de tipo <code>int</code>, sin envolverlo.
+     * @param <T> el tipo de los objetos.
+     * @param campo la función que extrae el campo del objeto.
+     * @param dispersor el dispersor para el campo.
+     * @return un {@link Dispersor} que dispersa el campo del objeto.
+     */
+    public static <T> Dispersor<T> campoInt(ToIntFunction<? super T> campo,
+                                            DispersorInt dispersor) {
+        return o -> dispersor.dispersa(campo.applyAsInt(o));
+    }
+
+    /**
+     * Regresa un {@link Dispersor} para objetos que dispersa uno de sus
+     * campos de tipo <code>long</code>, sin envolverlo.
+     * @param <T> el tipo de los objetos.
+     * @param campo la función que extrae el campo del objeto.
+     * @param dispersor el dispersor para el campo.
+     * @return un {@link Dispersor} que dispersa el campo del objeto.
+     */
+    public static <T> Dispersor<T> campoLong(ToLongFunction<? super T> campo,
+                                             DispersorLong dispersor) {
+        return o -> dispersor.dispersa(campo.applyAsLong(o));
+    }
+
+    /**
+     * Regresa un {@link Dispersor} para objetos que dispersa uno de sus
+     * campos de tipo <code>double</code>, sin envolverlo.
+     * @param <T> el tipo de los objetos.
+     * @param campo la función que extrae el campo del objeto.
+     * @param dispersor el dispersor para el campo.
+     * @return un {@link Dispersor} que dispersa el campo del objeto.
+     */
+    public static <T> Dispersor<T> campoDouble(ToDoubleFunction<? super T> campo,
+                                               DispersorDouble dispersor) {
+        return o -> dispersor.dispersa(campo.applyAsDouble(o));
+    }
+
+    /**
+     * Regresa un {@link Dispersor} compuesto, que combina las dispersiones
+     * de varios campos de un objeto, por ejemplo:
+     *
+     * <pre>
+     * Dispersor&lt;Llave&gt; d = FabricaDispersores.dispersorCompuesto(
+     *     FabricaDispersores.campoLong(Llave::getInquilino,
+     *                                  FabricaDispersores.dispersorLong()),
+     *     FabricaDispersores.campo(Llave::getNombre,
+     *                              FabricaDispersores.dispersorCadena(
+     *                                  AlgoritmoDispersor.XXH64_STRING)),
+     *     FabricaDispersores.campoLong(Llave::getTiempo,
+     *                                  FabricaDispersores.dispersorLong()));
+     * </pre>
+     *
+     * <p>Cada dispersión se mezcla en un acumulador de 64 bits con una
+     * multiplicación y una rotación, y el acumulador se termina con {@link
+     * Dispersores#mezclaMurmur64}; el resultado depende del orden de los
+     * campos. No se crean cadenas ni arreglos intermedios.</p>
+     * @param <T> el tipo de los objetos.
+     * @param campos los dispersores de los campos.
+     * @return un {@link Dispersor} compuesto.
+     */
+    @SafeVarargs
+    public static <T> Dispersor<T> dispersorCompuesto(Dispersor<? super T>... campos) {
+        Dispersor<? super T>[] c = campos.clone();
+        return o -> {
+            long h = c.length;
+            for (Dispersor<? super T> campo : c)
+                h = combina(h, campo.dispersa(o));
+            return dobla(Dispersores.mezclaMurmur64(h));
+        };
+    }
+
+    /* Mezcla la dispersión de un campo en el acumulador. */
+    private static long combina(long h, int k) {
+        h ^= (k & 0xFFFFFFFFL) * 0x9e3779b97f4a7c15L;
+        return Long.rotateLeft(h, 31) * 0xbf58476d1ce4e5b9L;
+    }
+
+    /* Dobla 64 bits a 32 con XOR. */
+    private static int dobla(long h) {
+        return (int)(h ^ (h >>> 32));
+    }
+
+    /**
+     * Regresa un nuevo {@link DispersorIncremental} para bytes, que da el
+     * mismo resultado que el algoritmo correspondiente de {@link
+     * Dispersores} sobre todos los bytes que recibe.
+     * @param algoritmo el algoritmo de dispersor que se desea.
+     * @return un nuevo {@link DispersorIncremental}.
+     * @throws IllegalArgumentException si recibe un identificador no
+     *         reconocido, {@link AlgoritmoDispersor#BJ64_STRING}, que
+     *         necesita la longitud de la llave antes de empezar, o {@link
+     *         AlgoritmoDispersor#SIP13_STRING}, que necesita una llave.
+     */
+    public static DispersorIncremental
+    dispersorIncremental(AlgoritmoDispersor algoritmo) {
+        switch (algoritmo) {
+        case XOR_STRING:
+            return new Dispersores.IncrementalXOR();
+        case BJ_STRING:
+            return new Dispersores.IncrementalBJ();
+        case DJB_STRING:
+            return new Dispersores.IncrementalDJB();
+        case FNV64_STRING:
+            return new Dispersores.IncrementalFNV64();
+        case XXH64_STRING:
+            return new Dispersores.IncrementalXXH64();
+        case MURMUR128_STRING:
+            return new Dispersores.IncrementalMurmur128();
+        case XXH128_STRING:
+            return new Dispersores.IncrementalXXH128();
+        default: throw new IllegalArgumentException("Algoritmo inválido");
+        }
+    }
+
+    /* Escribe la codificación UTF-8 de la secuencia al inicio del arreglo
+       del hilo, creciéndolo si no cabe, y regresa el número de bytes
+       escritos. Los sustitutos sin pareja se codifican como '?', igual que
+       String.getBytes. */
+    private static int codifica(CharSequence c) {
+        int n = c.length();
+        byte[] b = BUFFER.get();
+        if (b.length < 3 * n) {
+            b = new byte[Math.max(3 * n, 2 * b.length)];
+            BUFFER.set(b);
+        }
+        int j = 0;
+        for (int i = 0; i < n; i++) {
+            char x = c.charAt(i);
+            if (x < 0x80) {
+                b[j++] = (byte)x;
+            } else if (x < 0x800) {
+                b[j++] = (byte)(0xC0 | (x >> 6));
+                b[j++] = (byte)(0x80 | (x & 0x3F));
+            } else if (Character.isHighSurrogate(x) && i + 1 < n &&
+                       Character.isLowSurrogate(c.charAt(i+1))) {
+                int p = Character.toCodePoint(x, c.charAt(++i));
+                b[j++] = (byte)(0xF0 | (p >> 18));
+                b[j++] = (byte)(0x80 | ((p >> 12) & 0x3F));
+                b[j++] = (byte)(0x80 | ((p >> 6) & 0x3F));
+                b[j++] = (byte)(0x80 | (p & 0x3F));
+            } else if (Character.isSurrogate(x)) {
+                b[j++] = (byte)'?';
+            } else {
+                b[j++] = (byte)(0xE0 | (x >> 12));
+                b[j++] = (byte)(0x80 | ((x >> 6) & 0x3F));
+                b[j++] = (byte)(0x80 | (x & 0x3F));
+            }
+        }
+        return j;
+    }
 }
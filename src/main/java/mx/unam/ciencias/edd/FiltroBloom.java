@@ -0,0 +1,219 @@
+package mx.unam.ciencias.edd;
+
+/**
+ * <p>Clase para filtros de Bloom. Un filtro de Bloom nos dice si un elemento
+ * <i>puede</i> estar en un conjunto: si dice que no, el elemento seguro no se
+ * agregó; si dice que sí, puede equivocarse con una probabilidad
+ * acotada.</p>
+ *
+ * <p>El filtro es un arreglo de <i>m</i> bits guardado en un
+ * <code>long[]</code>. Cada elemento enciende <i>k</i> bits, en las posiciones
+ * <i>g<sub>i</sub></i> = <i>h</i><sub>1</sub> + <i>i</i>·<i>h</i><sub>2</sub>
+ * mod <i>m</i>, donde <i>h</i><sub>1</sub> y <i>h</i><sub>2</sub> son las
+ * dispersiones de dos {@link Dispersor} (dispersión doble de Kirsch y
+ * Mitzenmacher), así que sólo se dispersa dos veces por elemento sin importar
+ * <i>k</i>. Los valores de <i>m</i> y <i>k</i> se calculan a partir del
+ * número de elementos esperado y la probabilidad de falsos positivos
+ * deseada.</p>
+ *
+ * <p>Dos filtros con los mismos dispersores y los mismos parámetros se pueden
+ * unir, por ejemplo si se construyeron en fragmentos distintos de los
+ * datos.</p>
+ */
+public class FiltroBloom<T> {
+
+    /* Semilla fija para el primer dispersor de cadenas. */
+    static final long SEMILLA_PRIMERA = 0x736f6d6570736575L;
+    /* Semilla fija para el segundo dispersor de cadenas. */
+    static final long SEMILLA_SEGUNDA = 0x646f72616e646f6dL;
+
+    /* El primer dispersor. */
+    private Dispersor<T> primero;
+    /* El segundo dispersor. */
+    private Dispersor<T> segundo;
+    /* Los bits. */
+    private long[] bits;
+    /* El número de bits. */
+    private long m;
+    /* El número de funciones de dispersión. */
+    private int k;
+
+    /**
+     * Construye un filtro de Bloom vacío.
+     * @param primero el primer dispersor.
+     * @param segundo el segundo dispersor, independiente del primero.
+     * @param elementos el número de elementos esperado.
+     * @param probabilidad la probabilidad de falsos positivos deseada con
+     *                     ese número de elementos, en el intervalo (0, 1).
+     * @throws IllegalArgumentException si algún dispersor es
+     *         <code>null</code>, si el número de elementos no es positivo o
+     *         si la probabilidad no está en (0, 1).
+     */
+    public FiltroBloom(Dispersor<T> primero, Dispersor<T> segundo,
+                       long elementos, double probabilidad) {
+        if (primero == null || segundo == null)
+            throw new IllegalArgumentException("Dispersor inválido");
+        this.primero = primero;
+        this.segundo = segundo;
+        m = bits(elementos, probabilidad);
+        k = funciones(m, elementos);
+        bits = new long[(int)(m >>> 6)];
+    }
+
+    /**
+     * Construye un filtro de Bloom vacío para cadenas, dispersando con el
+     * algoritmo dado y dos semillas fijas. Dos filtros construidos así con
+     * los mismos parámetros se pueden unir.
+     * @param <T> el tipo de las cadenas.
+     * @param algoritmo el algoritmo de dispersión, que debe aceptar
+     *                  semillas.
+     * @param elementos el número de elementos esperado.
+     * @param probabilidad la probabilidad de falsos positivos deseada.
+     * @return un filtro de Bloom vacío.
+     * @throws IllegalArgumentException si el algoritmo no acepta semillas, si
+     *         el número de elementos no es positivo o si la probabilidad no
+     *         está en (0, 1).
+     */
+    public static <T extends CharSequence> FiltroBloom<T>
+    deCadenas(AlgoritmoDispersor algoritmo, long elementos,
+              double probabilidad) {
+        Dispersor<CharSequence> a =
+            FabricaDispersores.dispersorSecuencia(algoritmo, SEMILLA_PRIMERA);
+        Dispersor<CharSequence> b =
+            FabricaDispersores.dispersorSecuencia(algoritmo, SEMILLA_SEGUNDA);
+        return new FiltroBloom<T>(a::dispersa, b::dispersa, elementos,
+                                  probabilidad);
+    }
+
+    /* Regresa el número de bits para n elementos con probabilidad p,
+       redondeado a un múltiplo de 64; a lo más 2^32. */
+    static long bits(long n, double p) {
+        if (n <= 0)
+            throw new IllegalArgumentException("Número de elementos inválido");
+        if (!(p > 0.0 && p < 1.0))
+            throw new IllegalArgumentException("Probabilidad inválida");
+        double ln2 = Math.log(2);
+        double m = Math.ceil(-n * Math.log(p) / (ln2 * ln2));
+        // Las dispersiones son de 32 bits, así que más bits no servirían.
+        if (m > (double)(1L << 32))
+            throw new IllegalArgumentException("Filtro demasiado grande");
+        return Math.max(64, ((long)m + 63) & ~63L);
+    }
+
+    /* Regresa el número de funciones para m bits y n elementos. */
+    static int funciones(long m, long n) {
+        return Math.max(1, (int)Math.round((double)m / n * Math.log(2)));
+    }
+
+    /* Regresa la dispersión mezclada del elemento, sin signo. */
+    static <T> long dispersa(Dispersor<T> dispersor, T elemento) {
+        return Dispersores.mezclaMurmur32(dispersor.dispersa(elemento)) &
+            0xFFFFFFFFL;
+    }
+
+    /* Regresa la posición i de la dispersión doble. Quien llama hace impar
+       a b, para que nunca sea múltiplo de m (que es par) y las k posiciones
+       no colapsen en una. */
+    static long posicion(long a, long b, int i, long m) {
+        return (a + i * b) % m;
+    }
+
+    /**
+     * Agrega un elemento al filtro.
+     * @param elemento el elemento a agregar.
+     * @throws IllegalArgumentException si <code>elemento</code> es
+     *         <code>null</code>.
+     */
+    public void agrega(T elemento) {
+        if (elemento == null)
+            throw new IllegalArgumentException("Elemento nulo");
+        long a = dispersa(primero, elemento);
+        long b = dispersa(segundo, elemento) | 1;
+        for (int i = 0; i < k; i++) {
+            long p = posicion(a, b, i, m);
+            bits[(int)(p >>> 6)] |= 1L << p;
+        }
+    }
+
+    /**
+     * Nos dice si un elemento puede estar en el filtro.
+     * @param elemento el elemento.
+     * @return <code>false</code> si el elemento seguro no se agregó al
+     *         filtro, <code>true</code> si pudo haberse agregado.
+     */
+    public boolean contiene(T elemento) {
+        if (elemento == null)
+            return false;
+        long a = dispersa(primero, elemento);
+        long b = dispersa(segundo, elemento) | 1;
+        for (int i = 0; i < k; i++) {
+            long p = posicion(a, b, i, m);
+            if ((bits[(int)(p >>> 6)] & (1L << p)) == 0)
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * Une otro filtro a éste, haciendo el O de sus bits. Después de la unión,
+     * el filtro contiene a los elementos de los dos. Los filtros deben usar
+     * los mismos dispersores.
+     * @param filtro el filtro a unir.
+     * @throws IllegalArgumentException si los filtros no tienen el mismo
+     *         número de bits y de funciones.
+     */
+    public void une(FiltroBloom<T> filtro) {
+        if (filtro.m != m || filtro.k != k)
+            throw new IllegalArgumentException("Filtros incompatibles");
+        for (int i = 0; i < bits.length; i++)
+            bits[i] |= filtro.bits[i];
+    }
+
+    /**
+     * Regresa el número de bits del filtro.
+     * @return el número de bits del filtro.
+     */
+    public long getBits() {
+        return m;
+    }
+
+    /**
+     * Regresa el número de funciones de dispersión del filtro.
+     * @return el número de funciones de dispersión del filtro.
+     */
+    public int getFunciones() {
+        return k;
+    }
+
+    /**
+     * Regresa la probabilidad estimada de falsos positivos, a partir de la
+     * fracción de bits encendidos.
+     * @return la probabilidad estimada de falsos positivos.
+     */
+    public double probabilidadFalsoPositivo() {
+        long encendidos = 0;
+        for (long b : bits)
+            encendidos += Long.bitCount(b);
+        return Math.pow((double)encendidos / m, k);
+    }
+
+    /**
+     * Nos dice si el filtro es vacío.
+     * @return <code>true</code> si no se ha agregado ningún elemento,
+     *         <code>false</code> en otro caso.
+     */
+    public boolean esVacio() {
+        for (long b : bits)
+            if (b != 0)
+                return false;
+        return true;
+    }
+
+    /**
+     * Limpia el filtro, dejándolo vacío.
+     */
+    public void limpia() {
+        for (int i = 0; i < bits.length; i++)
+            bits[i] = 0;
+    }
+}
@@ -0,0 +1,179 @@
+package mx.unam.ciencias.edd;
+
+/**
+ * <p>Clase para filtros de Bloom con contadores, que a diferencia de {@link
+ * FiltroBloom} permiten eliminar elementos.</p>
+ *
+ * <p>Cada posición del filtro es un contador de 4 bits en lugar de un bit,
+ * y se guardan 16 contadores en cada <code>long</code>. Agregar un elemento
+ * incrementa sus <i>k</i> contadores y eliminarlo los decrementa; las
+ * posiciones se calculan igual que en {@link FiltroBloom}, con dispersión
+ * doble. Un contador que llega a 15 se queda ahí para siempre, porque ya no
+ * sabemos cuántos elementos lo usan; con los tamaños que calcula el filtro
+ * esto casi nunca pasa.</p>
+ *
+ * <p>Sólo deben eliminarse elementos que se agregaron; eliminar uno que no
+ * se agregó pero que el filtro dice que puede contener produce falsos
+ * negativos.</p>
+ */
+public class FiltroBloomContador<T> {
+
+    /* Valor máximo de un contador. */
+    private static final long MAXIMO = 0xF;
+
+    /* El primer dispersor. */
+    private Dispersor<T> primero;
+    /* El segundo dispersor. */
+    private Dispersor<T> segundo;
+    /* Los contadores. */
+    private long[] contadores;
+    /* El número de contadores. */
+    private long m;
+    /* El número de funciones de dispersión. */
+    private int k;
+
+    /**
+     * Construye un filtro de Bloom con contadores vacío.
+     * @param primero el primer dispersor.
+     * @param segundo el segundo dispersor, independiente del primero.
+     * @param elementos el número de elementos esperado.
+     * @param probabilidad la probabilidad de falsos positivos deseada con
+     *                     ese número de elementos, en el intervalo (0, 1).
+     * @throws IllegalArgumentException si algún dispersor es
+     *         <code>null</code>, si el número de elementos no es positivo o
+     *         si la probabilidad no está en (0, 1).
+     */
+    public FiltroBloomContador(Dispersor<T> primero, Dispersor<T> segundo,
+                               long elementos, double probabilidad) {
+        if (primero == null || segundo == null)
+            throw new IllegalArgumentException("Dispersor inválido");
+        this.primero = primero;
+        this.segundo = segundo;
+        m = FiltroBloom.bits(elementos, probabilidad);
+        if (m > (long)Integer.MAX_VALUE * 16)
+            throw new IllegalArgumentException("Filtro demasiado grande");
+        k = FiltroBloom.funciones(m, elementos);
+        contadores = new long[(int)(m >>> 4)];
+    }
+
+    /* Regresa el contador en la posición p. */
+    private long contador(long p) {
+        return (contadores[(int)(p >>> 4)] >>> ((p & 15) << 2)) & MAXIMO;
+    }
+
+    /* Suma d al contador en la posición p. */
+    private void suma(long p, long d) {
+        contadores[(int)(p >>> 4)] += d << ((p & 15) << 2);
+    }
+
+    /**
+     * Agrega un elemento al filtro.
+     * @param elemento el elemento a agregar.
+     * @throws IllegalArgumentException si <code>elemento</code> es
+     *         <code>null</code>.
+     */
+    public void agrega(T elemento) {
+        if (elemento == null)
+            throw new IllegalArgumentException("Elemento nulo");
+        long a = FiltroBloom.dispersa(primero, elemento);
+        long b = FiltroBloom.dispersa(segundo, elemento) | 1;
+        for (int i = 0; i < k; i++) {
+            long p = FiltroBloom.posicion(a, b, i, m);
+            if (contador(p) < MAXIMO)
+                suma(p, 1);
+        }
+    }
+
+    /**
+     * Elimina un elemento del filtro. Si el filtro dice que no contiene al
+     * elemento, el método no lo modifica.
+     * @param elemento el elemento a eliminar.
+     */
+    public void elimina(T elemento) {
+        if (!contiene(elemento))
+            return;
+        long a = FiltroBloom.dispersa(primero, elemento);
+        long b = FiltroBloom.dispersa(segundo, elemento) | 1;
+        for (int i = 0; i < k; i++) {
+            long p = FiltroBloom.posicion(a, b, i, m);
+            if (contador(p) < MAXIMO)
+                suma(p, -1);
+        }
+    }
+
+    /**
+     * Nos dice si un elemento puede estar en el filtro.
+     * @param elemento el elemento.
+     * @return <code>false</code> si el elemento seguro no está en el filtro,
+     *         <code>true</code> si puede estar.
+     */
+    public boolean contiene(T elemento) {
+        if (elemento == null)
+            return false;
+        long a = FiltroBloom.dispersa(primero, elemento);
+        long b = FiltroBloom.dispersa(segundo, elemento) | 1;
+        for (int i = 0; i < k; i++)
+            if (contador(FiltroBloom.posicion(a, b, i, m)) == 0)
+                return false;
+        return true;
+    }
+
+    /**
+     * Une otro filtro a éste, sumando sus contadores (sin pasar de 15).
+     * Después de la unión, el filtro contiene a los elementos de los dos. Los
+     * filtros deben usar los mismos dispersores.
+     * @param filtro el filtro a unir.
+     * @throws IllegalArgumentException si los filtros no tienen el mismo
+     *         número de contadores y de funciones.
+     */
+    public void une(FiltroBloomContador<T> filtro) {
+        if (filtro.m != m || filtro.k != k)
+            throw new IllegalArgumentException("Filtros incompatibles");
+        for (int i = 0; i < contadores.length; i++) {
+            long x = contadores[i];
+            long y = filtro.contadores[i];
+            long r = 0;
+            for (int j = 0; j < 64; j += 4) {
+                long c = ((x >>> j) & MAXIMO) + ((y >>> j) & MAXIMO);
+                r |= Math.min(c, MAXIMO) << j;
+            }
+            contadores[i] = r;
+        }
+    }
+
+    /**
+     * Regresa el número de contadores del filtro.
+     * @return el número de contadores del filtro.
+     */
+    public long getContadores() {
+        return m;
+    }
+
+    /**
+     * Regresa el número de funciones de dispersión del filtro.
+     * @return el número de funciones de dispersión del filtro.
+     */
+    public int getFunciones() {
+        return k;
+    }
+
+    /**
+     * Nos dice si el filtro es vacío.
+     * @return <code>true</code> si todos los contadores son cero,
+     *         <code>false</code> en otro caso.
+     */
+    public boolean esVacio() {
+        for (long c : contadores)
+            if (c != 0)
+                return false;
+        return true;
+    }
+
+    /**
+     * Limpia el filtro, dejándolo vacío.
+     */
+    public void limpia() {
+        for (int i = 0; i < contadores.length; i++)
+            contadores[i] = 0;
+    }
+}
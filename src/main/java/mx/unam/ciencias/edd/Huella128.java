@@ -0,0 +1,69 @@
+package mx.unam.ciencias.edd;
+
+/**
+ * Clase para huellas digitales de 128 bits. Una huella es inmutable, y está
+ * formada por sus 64 bits bajos y sus 64 bits altos.
+ */
+public class Huella128 {
+
+    /* Los 64 bits bajos. */
+    private final long bajos;
+    /* Los 64 bits altos. */
+    private final long altos;
+
+    /**
+     * Crea una nueva huella con los bits dados.
+     * @param bajos los 64 bits bajos de la huella.
+     * @param altos los 64 bits altos de la huella.
+     */
+    public Huella128(long bajos, long altos) {
+        this.bajos = bajos;
+        this.altos = altos;
+    }
+
+    /**
+     * Regresa los 64 bits bajos de la huella.
+     * @return los 64 bits bajos de la huella.
+     */
+    public long getBajos() {
+        return bajos;
+    }
+
+    /**
+     * Regresa los 64 bits altos de la huella.
+     * @return los 64 bits altos de la huella.
+     */
+    public long getAltos() {
+        return altos;
+    }
+
+    /**
+     * Nos dice si la huella es igual al objeto recibido.
+     * @param objeto el objeto con el que queremos comparar la huella.
+     * @return <code>true</code> si el objeto recibido es una huella con los
+     *         mismos 128 bits; <code>false</code> en otro caso.
+     */
+    @Override public boolean equals(Object objeto) {
+        if (objeto == null || getClass() != objeto.getClass())
+            return false;
+        Huella128 huella = (Huella128)objeto;
+        return bajos == huella.bajos && altos == huella.altos;
+    }
+
+    /**
+     * Regresa un código de dispersión para la huella.
+     * @return un código de dispersión para la huella.
+     */
+    @Override public int hashCode() {
+        return (int)bajos;
+    }
+
+    /**
+     * Regresa una representación en cadena de la huella, como 32 dígitos
+     * hexadecimales empezando por los bits altos.
+     * @return una representación en cadena de la huella.
+     */
+    @Override public String toString() {
+        return String.format("%016x%016x", altos, bajos);
+    }
+}
@@ -0,0 +1,335 @@
+package mx.unam.ciencias.edd;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+
+/**
+ * <p>Clase para bosquejos HyperLogLog, que estiman el número de elementos
+ * distintos en un flujo usando una cantidad fija de memoria.</p>
+ *
+ * <p>Cada elemento se dispersa a 64 bits con un algoritmo de {@link
+ * AlgoritmoDispersor} (o se agrega ya dispersado con {@link
+ * #agregaDispersion}), y la dispersión se pasa por {@link
+ * Dispersores#mezclaMurmur64}. Con precisión <i>p</i> hay <i>m</i> =
+ * 2<sup><i>p</i></sup> registros; los <i>p</i> bits altos escogen un
+ * registro, que guarda el máximo de la posición del primer 1 en los bits
+ * restantes. El error estándar de la estimación es alrededor de
+ * 1.04/√<i>m</i>.</p>
+ *
+ * <p>Mientras hay pocos elementos, el bosquejo usa una representación
+ * dispersa, como en HyperLogLog++: un {@link DiccionarioIntInt} que guarda,
+ * para cada índice de 25 bits que ha aparecido, su máximo; la estimación es
+ * por conteo lineal sobre 2<sup>25</sup> registros, y es casi exacta. Cuando
+ * la representación dispersa ocuparía más que la densa, el bosquejo se
+ * convierte a la representación densa, con un <code>byte</code> por
+ * registro.</p>
+ *
+ * <p>Dos bosquejos con la misma precisión y el mismo algoritmo se pueden
+ * unir, y se pueden serializar a un arreglo compacto de bytes: los registros
+ * densos ocupan 6 bits cada uno, y los dispersos se ordenan y se guardan como
+ * diferencias de longitud variable.</p>
+ */
+public class HyperLogLog {
+
+    /** Precisión mínima. */
+    public static final int PRECISION_MINIMA = 4;
+    /** Precisión máxima. */
+    public static final int PRECISION_MAXIMA = 18;
+    /* Precisión de la representación dispersa. */
+    private static final int PRECISION_DISPERSA = 25;
+    /* Marca de la serialización dispersa. */
+    private static final byte DISPERSA = 0;
+    /* Marca de la serialización densa. */
+    private static final byte DENSA = 1;
+
+    /* El algoritmo, o null si sólo se agregan dispersiones. */
+    private AlgoritmoDispersor algoritmo;
+    /* El dispersor para cadenas. */
+    private Dispersor64<CharSequence> dispersor;
+    /* La precisión. */
+    private int p;
+    /* Los registros densos, o null si el bosquejo es disperso. */
+    private byte[] registros;
+    /* Los registros dispersos, o null si el bosquejo es denso. */
+    private DiccionarioIntInt dispersos;
+
+    /**
+     * Construye un bosquejo vacío que sólo recibe dispersiones de 64 bits,
+     * con {@link #agregaDispersion}.
+     * @param precision la precisión, entre {@link #PRECISION_MINIMA} y
+     *                  {@link #PRECISION_MAXIMA}.
+     * @throws IllegalArgumentException si la precisión es inválida.
+     */
+    public HyperLogLog(int precision) {
+        if (precision < PRECISION_MINIMA || precision > PRECISION_MAXIMA)
+            throw new IllegalArgumentException("Precisión inválida");
+        p = precision;
+        dispersos = new DiccionarioIntInt();
+    }
+
+    /**
+     * Construye un bosquejo vacío que dispersa con el algoritmo dado.
+     * @param algoritmo el algoritmo de dispersión, de 64 bits o más.
+     * @param precision la precisión, entre {@link #PRECISION_MINIMA} y
+     *                  {@link #PRECISION_MAXIMA}.
+     * @throws IllegalArgumentException si el algoritmo es de 32 bits, o si
+     *         la precisión es inválida.
+     */
+    public HyperLogLog(AlgoritmoDispersor algoritmo, int precision) {
+        this(precision);
+        this.algoritmo = algoritmo;
+        dispersor = FabricaDispersores.dispersorSecuencia64(algoritmo);
+    }
+
+    /**
+     * Agrega una cadena al bosquejo.
+     * @param elemento la cadena a agregar.
+     * @throws IllegalStateException si el bosquejo no tiene algoritmo.
+     */
+    public void agrega(CharSequence elemento) {
+        if (dispersor == null)
+            throw new IllegalStateException("El bosquejo no tiene algoritmo");
+        agregaDispersion(dispersor.dispersa(elemento));
+    }
+
+    /**
+     * Agrega un lote de llaves al bosquejo, dispersándolas con {@link
+     * Dispersores#dispersaLote64(AlgoritmoDispersor,byte[][],long[])}.
+     * @param llaves las llaves a agregar.
+     * @throws IllegalStateException si el bosquejo no tiene algoritmo.
+     */
+    public void agregaLote(byte[][] llaves) {
+        if (algoritmo == null)
+            throw new IllegalStateException("El bosquejo no tiene algoritmo");
+        long[] dispersiones = new long[llaves.length];
+        Dispersores.dispersaLote64(algoritmo, llaves, dispersiones);
+        for (long h : dispersiones)
+            agregaDispersion(h);
+    }
+
+    /**
+     * Agrega al bosquejo un elemento ya dispersado a 64 bits.
+     * @param dispersion la dispersión del elemento.
+     */
+    public void agregaDispersion(long dispersion) {
+        long h = Dispersores.mezclaMurmur64(dispersion);
+        if (registros != null) {
+            int i = (int)(h >>> (64 - p));
+            byte r = (byte)rango(h, p);
+            if (registros[i] < r)
+                registros[i] = r;
+            return;
+        }
+        int i = (int)(h >>> (64 - PRECISION_DISPERSA));
+        int r = rango(h, PRECISION_DISPERSA);
+        if (dispersos.get(i, 0) < r)
+            dispersos.agrega(i, r);
+        if (dispersos.getElementos() > (1 << p) / 16)
+            densifica();
+    }
+
+    /* Regresa la posición del primer 1 después de los q bits altos. */
+    private static int rango(long h, int q) {
+        return Long.numberOfLeadingZeros((h << q) | (1L << (q - 1))) + 1;
+    }
+
+    /* Agrega a registros densos un registro disperso. */
+    private static void agregaDisperso(byte[] registros, int p, int i, int r) {
+        int q = PRECISION_DISPERSA - p;
+        int j = i >>> q;
+        int bajos = i & ((1 << q) - 1);
+        int rango = bajos != 0 ?
+            Integer.numberOfLeadingZeros(bajos) - (32 - q) + 1 : q + r;
+        if (registros[j] < rango)
+            registros[j] = (byte)rango;
+    }
+
+    /* Convierte la representación dispersa a densa. */
+    private void densifica() {
+        registros = new byte[1 << p];
+        for (int i : dispersos.llaves())
+            agregaDisperso(registros, p, i, dispersos.get(i));
+        dispersos = null;
+    }
+
+    /**
+     * Regresa la estimación del número de elementos distintos agregados.
+     * @return la estimación del número de elementos distintos.
+     */
+    public long estima() {
+        if (registros == null) {
+            double m = 1 << PRECISION_DISPERSA;
+            return Math.round(m * Math.log(m / (m - dispersos.getElementos())));
+        }
+        int m = registros.length;
+        double suma = 0;
+        int ceros = 0;
+        for (byte r : registros) {
+            suma += Double.longBitsToDouble((1023L - r) << 52);
+            if (r == 0)
+                ceros++;
+        }
+        double alfa;
+        switch (m) {
+        case 16: alfa = 0.673; break;
+        case 32: alfa = 0.697; break;
+        case 64: alfa = 0.709; break;
+        default: alfa = 0.7213 / (1 + 1.079 / m);
+        }
+        double e = alfa * m * m / suma;
+        if (e <= 2.5 * m && ceros != 0)
+            e = m * Math.log((double)m / ceros);
+        return Math.round(e);
+    }
+
+    /**
+     * Une otro bosquejo a éste. Después de la unión, el bosquejo estima el
+     * número de elementos distintos agregados a cualquiera de los dos.
+     * @param bosquejo el bosquejo a unir.
+     * @throws IllegalArgumentException si los bosquejos no tienen la misma
+     *         precisión y el mismo algoritmo.
+     */
+    public void une(HyperLogLog bosquejo) {
+        if (bosquejo.p != p || bosquejo.algoritmo != algoritmo)
+            throw new IllegalArgumentException("Bosquejos incompatibles");
+        if (registros == null && bosquejo.registros == null) {
+            for (int i : bosquejo.dispersos.llaves()) {
+                int r = bosquejo.dispersos.get(i);
+                if (dispersos.get(i, 0) < r)
+                    dispersos.agrega(i, r);
+            }
+            if (dispersos.getElementos() > (1 << p) / 16)
+                densifica();
+            return;
+        }
+        if (registros == null)
+            densifica();
+        if (bosquejo.registros == null) {
+            for (int i : bosquejo.dispersos.llaves())
+                agregaDisperso(registros, p, i, bosquejo.dispersos.get(i));
+            return;
+        }
+        for (int i = 0; i < registros.length; i++)
+            if (registros[i] < bosquejo.registros[i])
+                registros[i] = bosquejo.registros[i];
+    }
+
+    /**
+     * Regresa la precisión del bosquejo.
+     * @return la precisión del bosquejo.
+     */
+    public int getPrecision() {
+        return p;
+    }
+
+    /**
+     * Nos dice si el bosquejo usa la representación dispersa.
+     * @return <code>true</code> si el bosquejo usa la representación
+     *         dispersa, <code>false</code> si usa la densa.
+     */
+    public boolean esDisperso() {
+        return registros == null;
+    }
+
+    /**
+     * Serializa el bosquejo a un arreglo de bytes. El arreglo no incluye el
+     * algoritmo.
+     * @return el bosquejo serializado.
+     */
+    public byte[] serializa() {
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+        salida.write(registros == null ? DISPERSA : DENSA);
+        salida.write(p);
+        if (registros == null) {
+            int[] llaves = dispersos.llaves();
+            Arrays.sort(llaves);
+            escribeVariable(salida, llaves.length);
+            int anterior = 0;
+            for (int i : llaves) {
+                escribeVariable(salida, i - anterior);
+                salida.write(dispersos.get(i));
+                anterior = i;
+            }
+            return salida.toByteArray();
+        }
+        // Cuatro registros de 6 bits en cada tres bytes.
+        for (int i = 0; i < registros.length; i += 4) {
+            int x = registros[i] << 18 | registros[i+1] << 12 |
+                registros[i+2] << 6 | registros[i+3];
+            salida.write(x >>> 16);
+            salida.write(x >>> 8);
+            salida.write(x);
+        }
+        return salida.toByteArray();
+    }
+
+    /* Escribe un entero no negativo con 7 bits por byte. */
+    private static void escribeVariable(ByteArrayOutputStream salida, int x) {
+        while ((x & ~0x7F) != 0) {
+            salida.write((x & 0x7F) | 0x80);
+            x >>>= 7;
+        }
+        salida.write(x);
+    }
+
+    /**
+     * Reconstruye un bosquejo serializado con {@link #serializa}.
+     * @param bytes el bosquejo serializado.
+     * @param algoritmo el algoritmo del bosquejo, o <code>null</code> si
+     *                  sólo recibe dispersiones.
+     * @return el bosquejo reconstruido.
+     * @throws IllegalArgumentException si los bytes no son un bosquejo
+     *         válido.
+     */
+    public static HyperLogLog deserializa(byte[] bytes,
+                                          AlgoritmoDispersor algoritmo) {
+        if (bytes.length < 2)
+            throw new IllegalArgumentException("Bosquejo inválido");
+        HyperLogLog bosquejo = algoritmo == null ? new HyperLogLog(bytes[1]) :
+            new HyperLogLog(algoritmo, bytes[1]);
+        int[] posicion = { 2 };
+        try {
+            if (bytes[0] == DISPERSA) {
+                int n = leeVariable(bytes, posicion);
+                int i = 0;
+                for (int j = 0; j < n; j++) {
+                    i += leeVariable(bytes, posicion);
+                    bosquejo.dispersos.agrega(i, bytes[posicion[0]++]);
+                }
+            } else if (bytes[0] == DENSA) {
+                byte[] registros = new byte[1 << bosquejo.p];
+                for (int i = 0; i < registros.length; i += 4) {
+                    int k = posicion[0];
+                    int x = (bytes[k] & 0xFF) << 16 |
+                        (bytes[k+1] & 0xFF) << 8 | (bytes[k+2] & 0xFF);
+                    registros[i] = (byte)(x >>> 18);
+                    registros[i+1] = (byte)((x >>> 12) & 0x3F);
+                    registros[i+2] = (byte)((x >>> 6) & 0x3F);
+                    registros[i+3] = (byte)(x & 0x3F);
+                    posicion[0] += 3;
+                }
+                bosquejo.registros = registros;
+                bosquejo.dispersos = null;
+            } else {
+                throw new IllegalArgumentException("Bosquejo inválido");
+            }
+        } catch (ArrayIndexOutOfBoundsException aioobe) {
+            throw new IllegalArgumentException("Bosquejo inválido");
+        }
+        if (posicion[0] != bytes.length)
+            throw new IllegalArgumentException("Bosquejo inválido");
+        return bosquejo;
+    }
+
+    /* Lee un entero escrito con escribeVariable. */
+    private static int leeVariable(byte[] bytes, int[] posicion) {
+        int x = 0;
+        for (int s = 0; s < 35; s += 7) {
+            byte b = bytes[posicion[0]++];
+            x |= (b & 0x7F) << s;
+            if (b >= 0)
+                return x;
+        }
+        throw new IllegalArgumentException("Bosquejo inválido");
+    }
+}
@@ -0,0 +1,308 @@
+package mx.unam.ciencias.edd;
+
+import java.io.PrintStream;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * <p>Programa para comparar la latencia de las búsquedas de {@link
+ * DiccionarioCuco} con las de {@link Diccionario}, que usa direccionamiento
+ * abierto con sondeo lineal.</p>
+ *
+ * <p>Los dos diccionarios se llenan con las mismas llaves (cadenas generadas
+ * con una semilla fija) y se dispersan con el mismo algoritmo. Luego se
+ * hacen búsquedas exitosas y fallidas en orden aleatorio, y se mide cada una
+ * por separado con {@link System#nanoTime}. Para cada diccionario y tipo de
+ * búsqueda se reporta:</p>
+ *
+ * <ul>
+ *   <li>el factor de carga de la tabla;</li>
+ *   <li>el promedio y los percentiles 50, 90, 99 y 99.9 de la latencia, y
+ *       la máxima, en nanosegundos;</li>
+ *   <li>el costo de medir (dos llamadas seguidas a
+ *       <code>nanoTime</code>), que está incluido en cada latencia;</li>
+ *   <li>el histograma de latencias, con las cuentas de los intervalos
+ *       [2<sup><i>k</i></sup>, 2<sup><i>k</i>+1</sup>) nanosegundos para
+ *       <i>k</i> = 0, 1, 2, …, separadas por punto y coma.</li>
+ * </ul>
+ *
+ * <p>La salida es CSV o JSON:</p>
+ *
+ * <pre>
+ * $ java -cp target/practica9.jar mx.unam.ciencias.edd.LatenciaDiccionarios \
+ *       [-n llaves] [-b búsquedas] [-c carga] [-f csv|json]
+ * </pre>
+ *
+ * <p>La carga es la de {@link Diccionario}; la de {@link DiccionarioCuco}
+ * es la que resulta de reservar espacio para las llaves. Las tablas deben
+ * ser mucho más grandes que la caché para que las fallas de caché se
+ * noten.</p>
+ */
+public class LatenciaDiccionarios {
+
+    /* Número de llaves por omisión. */
+    private static final int LLAVES = 1000000;
+    /* Número de búsquedas de cada tipo por omisión. */
+    private static final int BUSQUEDAS = 1000000;
+    /* Semilla para generar las llaves. */
+    private static final long SEMILLA = 0x5EED;
+    /* Número de rondas de calentamiento. */
+    private static final int CALENTAMIENTO = 2;
+    /* El algoritmo de dispersión. */
+    private static final AlgoritmoDispersor ALGORITMO =
+        AlgoritmoDispersor.XXH64_STRING;
+
+    /* Las columnas de la salida. */
+    private static final String[] COLUMNAS = {
+        "diccionario", "busqueda", "llaves", "carga", "ns_promedio",
+        "ns_p50", "ns_p90", "ns_p99", "ns_p999", "ns_max", "ns_reloj",
+        "histograma"
+    };
+
+    /* Constructor privado para evitar instanciación. */
+    private LatenciaDiccionarios() {}
+
+    /**
+     * Corre las mediciones e imprime los resultados en la salida estándar.
+     * @param args las opciones: <code>-n</code> para el número de llaves,
+     *             <code>-b</code> para el número de búsquedas de cada tipo,
+     *             <code>-c</code> para la carga de {@link Diccionario} y
+     *             <code>-f</code> para el formato (<code>csv</code> o
+     *             <code>json</code>).
+     */
+    public static void main(String[] args) {
+        int n = LLAVES;
+        int b = BUSQUEDAS;
+        double carga = Diccionario.CARGA;
+        boolean json = false;
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("-n") && i + 1 < args.length) {
+                n = Integer.parseInt(args[++i]);
+            } else if (args[i].equals("-b") && i + 1 < args.length) {
+                b = Integer.parseInt(args[++i]);
+            } else if (args[i].equals("-c") && i + 1 < args.length) {
+                carga = Double.parseDouble(args[++i]);
+            } else if (args[i].equals("-f") && i + 1 < args.length) {
+                json = args[++i].equals("json");
+            } else {
+                System.err.println("Uso: LatenciaDiccionarios [-n llaves] " +
+                                   "[-b búsquedas] [-c carga] " +
+                                   "[-f csv|json]");
+                System.exit(1);
+            }
+        }
+        Random random = new Random(SEMILLA);
+        String[] presentes = llaves(random, n, 0);
+        String[] ausentes = llaves(random, n, 1);
+        String[] aciertos = muestra(random, presentes, b);
+        String[] fallos = muestra(random, ausentes, b);
+
+        long sl = FabricaDispersores.semillaAleatoria();
+        Diccionario<String, String> lineal = new Diccionario<String, String>(
+            FabricaDispersores.dispersorCadena(ALGORITMO, sl), n, carga);
+        DiccionarioCuco<String, String> cuco =
+            new DiccionarioCuco<String, String>(
+                FabricaDispersores.dispersorCadena(ALGORITMO,
+                                                   sl ^ 0x5555555555555555L),
+                FabricaDispersores.dispersorCadena(ALGORITMO,
+                                                   sl ^ 0xAAAAAAAAAAAAAAAAL),
+                n);
+        for (String llave : presentes) {
+            lineal.agrega(llave, llave);
+            cuco.agrega(llave, llave);
+        }
+        double cargaLineal = (double)n / Diccionario.capacidad(n, carga);
+        double cargaCuco = (double)n / capacidadCuco(n);
+
+        PrintStream salida = System.out;
+        if (json)
+            salida.println("[");
+        else
+            salida.println(String.join(",", COLUMNAS));
+        long reloj = costoReloj();
+        long[] t = new long[b];
+        Object[][] renglones = new Object[4][];
+        for (int r = 0; r <= CALENTAMIENTO; r++) {
+            mideLineal(lineal, aciertos, t);
+            renglones[0] = renglon("lineal", "exitosa", n, cargaLineal,
+                                   t, reloj);
+            mideCuco(cuco, aciertos, t);
+            renglones[1] = renglon("cuco", "exitosa", n, cargaCuco, t, reloj);
+            mideLineal(lineal, fallos, t);
+            renglones[2] = renglon("lineal", "fallida", n, cargaLineal,
+                                   t, reloj);
+            mideCuco(cuco, fallos, t);
+            renglones[3] = renglon("cuco", "fallida", n, cargaCuco, t, reloj);
+        }
+        for (int i = 0; i < renglones.length; i++) {
+            if (json) {
+                salida.print(i == 0 ? "" : ",\n");
+                salida.print(objetoJSON(renglones[i]));
+            } else {
+                salida.println(renglonCSV(renglones[i]));
+            }
+        }
+        if (json)
+            salida.println("\n]");
+    }
+
+    /* Mide cada búsqueda en el diccionario lineal. */
+    private static void mideLineal(Diccionario<String, String> d,
+                                   String[] llaves, long[] t) {
+        int s = 0;
+        for (int i = 0; i < llaves.length; i++) {
+            long a = System.nanoTime();
+            String v = d.get(llaves[i]);
+            t[i] = System.nanoTime() - a;
+            s += v == null ? 0 : 1;
+        }
+        consume(s);
+    }
+
+    /* Mide cada búsqueda en el diccionario cuco. */
+    private static void mideCuco(DiccionarioCuco<String, String> d,
+                                 String[] llaves, long[] t) {
+        int s = 0;
+        for (int i = 0; i < llaves.length; i++) {
+            long a = System.nanoTime();
+            String v = d.get(llaves[i]);
+            t[i] = System.nanoTime() - a;
+            s += v == null ? 0 : 1;
+        }
+        consume(s);
+    }
+
+    /* Usa el resultado para que el compilador no quite las búsquedas. */
+    private static void consume(int s) {
+        if (s == -1)
+            System.err.println(s);
+    }
+
+    /* Regresa la mediana del costo de dos llamadas seguidas a nanoTime. */
+    private static long costoReloj() {
+        long[] t = new long[100000];
+        for (int i = 0; i < t.length; i++) {
+            long a = System.nanoTime();
+            t[i] = System.nanoTime() - a;
+        }
+        Arrays.sort(t);
+        return percentil(t, 50);
+    }
+
+    /* Hace el renglón de una medición; ordena las latencias. */
+    private static Object[] renglon(String diccionario, String busqueda,
+                                    int n, double carga, long[] t,
+                                    long reloj) {
+        long[] histograma = histograma(t);
+        Arrays.sort(t);
+        double suma = 0;
+        for (long x : t)
+            suma += x;
+        StringBuilder sb = new StringBuilder();
+        for (int k = 0; k < histograma.length; k++)
+            sb.append(k == 0 ? "" : ";").append(histograma[k]);
+        return new Object[] {
+            diccionario, busqueda, n, carga,
+            t.length == 0 ? 0.0 : suma / t.length,
+            percentil(t, 50), percentil(t, 90), percentil(t, 99),
+            percentil(t, 99.9), t.length == 0 ? 0 : t[t.length - 1],
+            reloj, sb.toString()
+        };
+    }
+
+    /**
+     * Regresa el percentil dado de un arreglo ordenado, por el método del
+     * rango más cercano.
+     * @param ordenado el arreglo ordenado.
+     * @param p el percentil, entre 0 y 100.
+     * @return el menor elemento tal que al menos <code>p</code> por ciento
+     *         de los elementos son menores o iguales que él, o 0 si el
+     *         arreglo es vacío.
+     */
+    public static long percentil(long[] ordenado, double p) {
+        if (ordenado.length == 0)
+            return 0;
+        // Restamos un poco para que el redondeo de p no salte un lugar.
+        int i = (int)Math.ceil(p * ordenado.length / 100.0 - 1e-9) - 1;
+        return ordenado[Math.max(0, Math.min(ordenado.length - 1, i))];
+    }
+
+    /**
+     * Regresa el histograma logarítmico de las latencias: el elemento
+     * <i>k</i> cuenta las latencias en [2<sup><i>k</i></sup>,
+     * 2<sup><i>k</i>+1</sup>), y las latencias menores que 1 cuentan en el
+     * elemento 0. El histograma termina en el último intervalo no vacío.
+     * @param latencias las latencias.
+     * @return el histograma de las latencias.
+     */
+    public static long[] histograma(long[] latencias) {
+        long[] cuentas = new long[64];
+        int ultimo = -1;
+        for (long x : latencias) {
+            int k = x < 1 ? 0 : 63 - Long.numberOfLeadingZeros(x);
+            cuentas[k]++;
+            ultimo = Math.max(ultimo, k);
+        }
+        return Arrays.copyOf(cuentas, ultimo + 1);
+    }
+
+    /* Regresa el número de lugares de un DiccionarioCuco para n
+       elementos. */
+    private static int capacidadCuco(int n) {
+        int cubetas = 2;
+        while (cubetas * DiccionarioCuco.CUBETA * DiccionarioCuco.CARGA < n)
+            cubetas <<= 1;
+        return cubetas * DiccionarioCuco.CUBETA;
+    }
+
+    /* Genera n llaves distintas; las llaves con distinto tipo también son
+       distintas. */
+    private static String[] llaves(Random random, int n, int tipo) {
+        String[] llaves = new String[n];
+        for (int i = 0; i < n; i++)
+            llaves[i] = "llave-" + tipo + "-" + i + "-" +
+                Integer.toHexString(random.nextInt());
+        return llaves;
+    }
+
+    /* Regresa b llaves escogidas al azar de las llaves dadas. */
+    private static String[] muestra(Random random, String[] llaves, int b) {
+        String[] m = new String[b];
+        for (int i = 0; i < b; i++)
+            m[i] = llaves[random.nextInt(llaves.length)];
+        return m;
+    }
+
+    /* Regresa el renglón en formato CSV. */
+    private static String renglonCSV(Object[] renglon) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < renglon.length; i++) {
+            if (i > 0)
+                sb.append(',');
+            sb.append(valor(renglon[i], false));
+        }
+        return sb.toString();
+    }
+
+    /* Regresa el renglón como un objeto JSON. */
+    private static String objetoJSON(Object[] renglon) {
+        StringBuilder sb = new StringBuilder("  {");
+        for (int i = 0; i < renglon.length; i++) {
+            if (i > 0)
+                sb.append(", ");
+            sb.append('"').append(COLUMNAS[i]).append("\": ");
+            sb.append(valor(renglon[i], true));
+        }
+        return sb.append('}').toString();
+    }
+
+    /* Regresa un valor como texto; las cadenas se entrecomillan en JSON. */
+    private static String valor(Object v, boolean json) {
+        if (v instanceof Double)
+            return String.format(Locale.ROOT, "%.6g", (Double)v);
+        if (v instanceof String && json)
+            return "\"" + v + "\"";
+        return v.toString();
+    }
+}
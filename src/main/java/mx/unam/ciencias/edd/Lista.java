@@ -13,6 +13,15 @@ import java.util.NoSuchElementException;
  *
  * <p>Las listas no aceptan a <code>null</code> como elemento.</p>
  *
+ * <p>Por omisión, {@link #get} e {@link #inserta} recorren la lista desde la
+ * cabeza. Una lista {@link #setIndexada indexada} recuerda además el último
+ * nodo visitado por índice (un <i>dedo</i>) y camina desde el más cercano de
+ * la cabeza, el rabo y el dedo, así que recorrer la lista con <code>get(i)</code>
+ * para <i>i</i> consecutivos toma tiempo lineal en total. Para accesos
+ * aleatorios en listas grandes se puede activar también un {@link
+ * #setPasoSaltos índice de saltos}, que guarda uno de cada <i>k</i> nodos y
+ * acota cada caminata por <i>k</i>.</p>
+ *
  * @param <T> El tipo de los elementos de la lista.
  */
 public class Lista<T> implements Coleccion<T> {
@@ -105,6 +114,18 @@ public class Lista<T> implements Coleccion<T> {
     private Nodo rabo;
     /* Número de elementos en la lista. */
     private int longitud;
+    /* Si la lista recuerda el último nodo visitado por índice. */
+    private boolean indexada;
+    /* El último nodo visitado por índice, o null. */
+    private Nodo dedo;
+    /* La posición del dedo. */
+    private int posicionDedo;
+    /* El índice de saltos: el nodo en la posición k·paso está en saltos[k]. */
+    private Nodo[] saltos;
+    /* La distancia entre saltos, o 0 si no hay índice de saltos. */
+    private int paso;
+    /* El número de saltos válidos, desde el primero. */
+    private int saltosValidos;
 
     /**
      * Regresa la longitud de la lista. El método es idéntico a {@link
@@ -175,6 +196,7 @@ public class Lista<T> implements Coleccion<T> {
             rabo = nuevo;
         }
         longitud++; //Aumentamos la longitud
+        insertado(longitud - 1);
     }
 
     /**
@@ -199,6 +221,7 @@ public class Lista<T> implements Coleccion<T> {
             cabeza = nuevo;
         }
         longitud++; //Aumentamos la longitud
+        insertado(0);
     }
 
     /**
@@ -228,16 +251,13 @@ public class Lista<T> implements Coleccion<T> {
             agregaFinal(elemento);  
         } else {
             Nodo n = new Nodo(elemento); //Nodo a agregar
-            Nodo m = cabeza; //Pasamos referencia para iterar desde el inicio
-            int j = 0;
-            while (j++ < i) {
-                m = m.siguiente;
-            }
+            Nodo m = nodo(i); //El nodo que queda después del nuevo
             m.anterior.siguiente = n;
             n.anterior = m.anterior;
             n.siguiente = m;
             m.anterior = n;
             longitud++; //Aumentamos la longitud
+            insertado(i);
         }
     }
 
@@ -251,8 +271,14 @@ public class Lista<T> implements Coleccion<T> {
      */
     @Override public void elimina(T elemento) {
         // Aquí va su código.
-        Nodo eliminar = buscaNodo(cabeza, elemento);
+        Nodo eliminar = cabeza;
+        int i = 0; //La posición del nodo a eliminar
+        while (eliminar != null && !eliminar.elemento.equals(elemento)) {
+            eliminar = eliminar.siguiente;
+            i++;
+        }
         if(eliminar != null ) {
+            eliminado(eliminar, i);
             if(cabeza == rabo){ //Si solo hay un elemento
                 cabeza = null;
                 rabo = null;
@@ -291,6 +317,7 @@ public class Lista<T> implements Coleccion<T> {
             throw new NoSuchElementException("No puedes eliminar porque la lista es vacia!");
         }
         Nodo elemen = new Nodo(cabeza.elemento);//Almacenamos el elemento de Cabeza
+        eliminado(cabeza, 0);
         if (this.longitud == 1) { //Si solo hay un elemento 
             cabeza = null;
             rabo = null;
@@ -313,6 +340,7 @@ public class Lista<T> implements Coleccion<T> {
             throw new NoSuchElementException("No puedes eliminar porque la lista es vacia!");
         }
         Nodo elemen = new Nodo(rabo.elemento); //Almacenamos el elemento del rabo
+        eliminado(rabo, longitud - 1);
         if (this.longitud == 1) { //Si solo hay un elemento
             rabo = null;
             cabeza = null;
@@ -375,6 +403,8 @@ public class Lista<T> implements Coleccion<T> {
         cabeza = null;
         rabo = null;
         longitud = 0;
+        dedo = null;
+        saltosValidos = 0;
     }
 
     /**
@@ -415,12 +445,7 @@ public class Lista<T> implements Coleccion<T> {
         if (i < 0 || i >= longitud) {
             throw new ExcepcionIndiceInvalido("Indice invalido!");
         }
-        Nodo m = cabeza; //Pasamos referencia para iterar desde el inicio
-        int j = 0;
-        while (j++ < i) {
-            m = m.siguiente;
-        } 
-        return m.elemento;
+        return nodo(i).elemento;
     }
 
     /**
@@ -435,6 +460,10 @@ public class Lista<T> implements Coleccion<T> {
         int j = 0;
         while (n != null) {
             if (n.elemento.equals(elemento)) {
+                if (indexada) { //Así get(indiceDe(e)) no vuelve a caminar
+                    dedo = n;
+                    posicionDedo = j;
+                }
                 return j;
             }
             n = n.siguiente;
@@ -443,6 +472,147 @@ public class Lista<T> implements Coleccion<T> {
         return -1;
     }
 
+    /**
+     * Define si la lista es indexada. Una lista indexada recuerda el último
+     * nodo visitado por índice, y {@link #get} e {@link #inserta} caminan
+     * desde el más cercano de la cabeza, el rabo y ese nodo; así recorrer la
+     * lista con índices consecutivos toma tiempo lineal en total, en lugar de
+     * cuadrático.
+     * @param indexada si la lista debe ser indexada.
+     */
+    public void setIndexada(boolean indexada) {
+        this.indexada = indexada;
+        dedo = null;
+    }
+
+    /**
+     * Nos dice si la lista es indexada.
+     * @return <code>true</code> si la lista es indexada, <code>false</code>
+     *         en otro caso.
+     */
+    public boolean esIndexada() {
+        return indexada;
+    }
+
+    /**
+     * Define la distancia entre los nodos del índice de saltos. Con un paso
+     * <i>k</i> positivo, la lista guarda uno de cada <i>k</i> nodos, y ningún
+     * acceso por índice camina más de <i>k</i> nodos desde el salto anterior.
+     * El índice se construye conforme se usa, y una modificación en la
+     * posición <i>i</i> sólo invalida los saltos después de <i>i</i>. Con un
+     * paso de cero el índice se desactiva.
+     * @param paso la distancia entre saltos, o 0 para no tener índice.
+     * @throws IllegalArgumentException si el paso es negativo.
+     */
+    public void setPasoSaltos(int paso) {
+        if (paso < 0)
+            throw new IllegalArgumentException("Paso inválido");
+        this.paso = paso;
+        saltos = paso == 0 ? null : nuevoArreglo(16);
+        saltosValidos = 0;
+    }
+
+    /**
+     * Regresa la distancia entre los nodos del índice de saltos.
+     * @return la distancia entre saltos, o 0 si no hay índice de saltos.
+     */
+    public int getPasoSaltos() {
+        return paso;
+    }
+
+    /* Regresa el nodo en la posición i, que debe ser válida. */
+    private Nodo nodo(int i) {
+        if (!indexada && paso == 0) {
+            Nodo m = cabeza;
+            for (int j = 0; j < i; j++)
+                m = m.siguiente;
+            return m;
+        }
+        // Empezamos desde el más cercano de la cabeza, el rabo, el dedo y
+        // el último salto válido antes de i.
+        Nodo n = cabeza;
+        int p = 0;
+        if (longitud - 1 - i < i) {
+            n = rabo;
+            p = longitud - 1;
+        }
+        if (dedo != null && Math.abs(i - posicionDedo) < Math.abs(i - p)) {
+            n = dedo;
+            p = posicionDedo;
+        }
+        if (paso > 0) {
+            if (saltosValidos == 0)
+                registraSalto(cabeza);
+            int k = Math.min(i / paso, saltosValidos - 1);
+            if (i - k * paso < Math.abs(i - p)) {
+                n = saltos[k];
+                p = k * paso;
+            }
+        }
+        while (p < i) {
+            n = n.siguiente;
+            p++;
+            // Caminando hacia adelante extendemos el índice de saltos.
+            if (paso > 0 && p == saltosValidos * paso)
+                registraSalto(n);
+        }
+        while (p > i) {
+            n = n.anterior;
+            p--;
+        }
+        if (indexada) {
+            dedo = n;
+            posicionDedo = i;
+        }
+        return n;
+    }
+
+    /* Agrega un nodo al final de los saltos válidos. */
+    private void registraSalto(Nodo nodo) {
+        if (saltosValidos == saltos.length) {
+            Nodo[] nuevos = nuevoArreglo(saltos.length * 2);
+            System.arraycopy(saltos, 0, nuevos, 0, saltosValidos);
+            saltos = nuevos;
+        }
+        saltos[saltosValidos++] = nodo;
+    }
+
+    /* Actualiza el dedo y los saltos después de insertar en la posición i. */
+    private void insertado(int i) {
+        if (dedo != null && i <= posicionDedo)
+            posicionDedo++;
+        invalidaSaltos(i);
+    }
+
+    /* Actualiza el dedo y los saltos antes de eliminar el nodo en la
+       posición i. */
+    private void eliminado(Nodo nodo, int i) {
+        if (dedo == nodo)
+            dedo = null;
+        else if (dedo != null && i < posicionDedo)
+            posicionDedo--;
+        invalidaSaltos(i);
+    }
+
+    /* Invalida los saltos en posiciones mayores o iguales que i; los
+       anteriores no se movieron. */
+    private void invalidaSaltos(int i) {
+        if (paso == 0)
+            return;
+        int validos = (i + paso - 1) / paso;
+        for (int k = validos; k < saltosValidos; k++)
+            saltos[k] = null;
+        if (validos < saltosValidos)
+            saltosValidos = validos;
+    }
+
+    /* Truco para crear arreglos genéricos. Es necesario hacerlo así por cómo
+       Java implementa sus genéricos; de otra forma obtenemos advertencias del
+       compilador. */
+    @SuppressWarnings("unchecked") private Nodo[] nuevoArreglo(int n) {
+        return (Nodo[])new Lista.Nodo[n];
+    }
+
     /**
      * Regresa una representación en cadena de la lista.
      * @return una representación en cadena de la lista.
@@ -522,55 +692,113 @@ public class Lista<T> implements Coleccion<T> {
      * @return una copia de la lista, pero ordenada.
      */
     public Lista<T> mergeSort(Comparator<T> comparador) {
-        // Aquí va su código.
-        if (cabeza == rabo || cabeza == null) { //Si solo tiene un elemento o ninguno  ya esta ordenada
-            return this.copia();
-        }
-
-
-        int m = longitud / 2;
-        int contador = 0;
-        Lista<T> lista1 = new Lista<>();
-        Lista<T> lista2 = new Lista<>();
-        Nodo n = this.cabeza;
+        Lista<T> ordenada = copia();
+        ordenada.ordena(comparador);
+        return ordenada;
+    }
 
-        while (contador < m) {
-            lista1.agrega(n.elemento);
-            n = n.siguiente;
-            contador++;
+    /**
+     * Ordena la lista usando el comparador recibido. El ordenamiento es
+     * estable y se hace en la lista misma, reacomodando sus nodos sin crear
+     * nuevos. Es un MergeSort natural de abajo hacia arriba: recorre la lista
+     * una vez separando las corridas que ya están ordenadas (o en orden
+     * estrictamente decreciente, que se voltean), y las va mezclando en una
+     * pila de corridas en la que cada una es más del doble de larga que la
+     * siguiente. Así una lista ordenada o en reversa se ordena en tiempo
+     * lineal, y las mezclas se hacen mientras sus nodos siguen en caché.
+     * @param comparador el comparador con el que se ordenará la lista.
+     */
+    public void ordena(Comparator<T> comparador) {
+        if (longitud < 2)
+            return;
+        // La pila nunca tiene más de 32 corridas, porque sus longitudes se
+        // duplican de arriba hacia abajo.
+        Nodo[] pila = nuevoArreglo(34);
+        int[] longitudes = new int[34];
+        int tope = 0;
+        // Sólo usamos los enlaces siguientes; los anteriores y el rabo se
+        // reconstruyen al final.
+        Nodo n = cabeza;
+        while (n != null) {
+            Nodo corrida = n;
+            Nodo siguiente = n.siguiente;
+            int k = 1;
+            if (siguiente != null &&
+                comparador.compare(n.elemento, siguiente.elemento) > 0) {
+                // Volteamos la corrida estrictamente decreciente; como no
+                // tiene elementos iguales, sigue siendo estable.
+                n.siguiente = null;
+                while (siguiente != null &&
+                       comparador.compare(n.elemento, siguiente.elemento) > 0) {
+                    Nodo m = siguiente.siguiente;
+                    siguiente.siguiente = corrida;
+                    corrida = siguiente;
+                    n = siguiente;
+                    siguiente = m;
+                    k++;
+                }
+                n = siguiente;
+            } else {
+                while (siguiente != null &&
+                       comparador.compare(n.elemento,
+                                          siguiente.elemento) <= 0) {
+                    n = siguiente;
+                    siguiente = n.siguiente;
+                    k++;
+                }
+                n.siguiente = null;
+                n = siguiente;
+            }
+            pila[tope] = corrida;
+            longitudes[tope++] = k;
+            while (tope > 1 &&
+                   longitudes[tope - 2] <= 2 * longitudes[tope - 1]) {
+                pila[tope - 2] = mezcla(pila[tope - 2], pila[tope - 1],
+                                        comparador);
+                longitudes[tope - 2] += longitudes[tope - 1];
+                pila[--tope] = null;
+            }
         }
-        while ( n != null) {
-            lista2.agrega(n.elemento);
-            n = n.siguiente;
+        while (tope > 1) {
+            pila[tope - 2] = mezcla(pila[tope - 2], pila[tope - 1],
+                                    comparador);
+            tope--;
         }
-        
-        return merge(comparador, lista1.mergeSort(comparador), lista2.mergeSort(comparador));
-    
+        cabeza = pila[0];
+        Nodo anterior = null;
+        for (n = cabeza; n != null; n = n.siguiente) {
+            n.anterior = anterior;
+            anterior = n;
+        }
+        rabo = anterior;
+        dedo = null;
+        invalidaSaltos(0);
     }
-    private Lista<T> merge(Comparator<T> comparador, Lista<T> lista1, Lista<T> lista2){
-        Lista<T> nueva = new Lista<>();
-        Nodo i = lista1.cabeza;
-        Nodo j = lista2.cabeza;
-        while (i != null && j != null) {
-            if (comparador.compare(i.elemento, j.elemento) <= 0) {
-                nueva.agrega(i.elemento);
-                i = i.siguiente;
+
+    /* Mezcla dos corridas ordenadas terminadas en null y regresa la cabeza
+       del resultado. Con empate va primero a, para que sea estable. */
+    private Nodo mezcla(Nodo a, Nodo b, Comparator<T> comparador) {
+        Nodo inicio;
+        if (comparador.compare(a.elemento, b.elemento) <= 0) {
+            inicio = a;
+            a = a.siguiente;
+        } else {
+            inicio = b;
+            b = b.siguiente;
+        }
+        Nodo ultimo = inicio;
+        while (a != null && b != null) {
+            if (comparador.compare(a.elemento, b.elemento) <= 0) {
+                ultimo.siguiente = a;
+                a = a.siguiente;
             } else {
-                nueva.agrega(j.elemento);
-                j = j.siguiente;
+                ultimo.siguiente = b;
+                b = b.siguiente;
             }
+            ultimo = ultimo.siguiente;
         }
-        //Agregamos los elementos restantes
-
-        while (i != null) { //Si i es la que no esta vacia
-            nueva.agrega(i.elemento);
-            i = i.siguiente;
-        }
-        while (j != null) { //Si j es la que no esta vacia
-            nueva.agrega(j.elemento);
-            j = j.siguiente;
-        }
-        return nueva;
+        ultimo.siguiente = a != null ? a : b;
+        return inicio;
     }
 
     /**
@@ -586,6 +814,17 @@ public class Lista<T> implements Coleccion<T> {
         return lista.mergeSort((a, b) -> a.compareTo(b));
     }
 
+    /**
+     * Ordena la lista recibida, que tiene que contener nada más elementos que
+     * implementan la interfaz {@link Comparable}. El ordenamiento es estable y
+     * no crea nodos nuevos.
+     * @param <T> tipo del que puede ser la lista.
+     * @param lista la lista que se ordenará.
+     */
+    public static <T extends Comparable<T>> void ordena(Lista<T> lista) {
+        lista.ordena((a, b) -> a.compareTo(b));
+    }
+
     /**
      * Busca un elemento en la lista ordenada, usando el comparador recibido. El
      * método supone que la lista está ordenada usando el mismo comparador.
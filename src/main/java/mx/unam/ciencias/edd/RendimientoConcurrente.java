@@ -0,0 +1,327 @@
+package mx.unam.ciencias.edd;
+
+import java.io.PrintStream;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <p>Programa para medir el rendimiento de {@link DiccionarioConcurrente}
+ * con varios hilos, comparado con {@link ConcurrentHashMap}.</p>
+ *
+ * <p>El diccionario se llena con la mitad de un universo de llaves (cadenas
+ * generadas con una semilla fija). Luego cada hilo hace operaciones al azar
+ * sobre llaves del universo durante un tiempo fijo: con la proporción de
+ * lecturas dada hace búsquedas, y si no, agrega o elimina con la misma
+ * probabilidad, así que el número de elementos se mantiene cerca de la
+ * mitad del universo y la mitad de las búsquedas fallan. Para cada
+ * estructura, número de hilos y proporción de lecturas se reporta:</p>
+ *
+ * <ul>
+ *   <li>el número total de operaciones;</li>
+ *   <li>los millones de operaciones por segundo de todos los hilos;</li>
+ *   <li>los nanosegundos por operación de cada hilo.</li>
+ * </ul>
+ *
+ * <p>Antes de cada medición hay una corrida de calentamiento del mismo
+ * tiempo. La salida es CSV o JSON:</p>
+ *
+ * <pre>
+ * $ java -cp target/practica9.jar mx.unam.ciencias.edd.RendimientoConcurrente \
+ *       [-n llaves] [-h hilos,...] [-l lecturas,...] [-t milisegundos] \
+ *       [-f csv|json]
+ * </pre>
+ *
+ * <p>Los hilos van de 1 a 64 y las lecturas de 0 a 1; por ejemplo
+ * <code>-h 1,2,4,8 -l 0.5,0.9,0.99</code>. Con más hilos que procesadores
+ * la medición sólo muestra el costo de la contención.</p>
+ */
+public class RendimientoConcurrente {
+
+    /* Número de llaves del universo por omisión. */
+    private static final int LLAVES = 1000000;
+    /* Los números de hilos por omisión. */
+    private static final String HILOS = "1,2,4,8";
+    /* Las proporciones de lecturas por omisión. */
+    private static final String LECTURAS = "0.5,0.9,0.99";
+    /* Milisegundos por medición por omisión. */
+    private static final long MILISEGUNDOS = 2000;
+    /* Semilla para generar las llaves. */
+    private static final long SEMILLA = 0x5EED;
+    /* Número máximo de hilos. */
+    private static final int MAXIMO_HILOS = 64;
+    /* Cada cuántas operaciones revisa un hilo si ya debe parar. */
+    private static final int LOTE = 256;
+
+    /* Las columnas de la salida. */
+    private static final String[] COLUMNAS = {
+        "estructura", "hilos", "lecturas", "llaves", "operaciones",
+        "mops", "ns_por_operacion"
+    };
+
+    /* Constructor privado para evitar instanciación. */
+    private RendimientoConcurrente() {}
+
+    /* Las operaciones que se miden, para usar la misma carga con las dos
+       estructuras. */
+    private interface Tabla {
+
+        /* Busca la llave. */
+        Object get(String llave);
+
+        /* Agrega la llave. */
+        void agrega(String llave);
+
+        /* Elimina la llave. */
+        void elimina(String llave);
+    }
+
+    /**
+     * Corre las mediciones e imprime los resultados en la salida estándar.
+     * @param args las opciones: <code>-n</code> para el número de llaves del
+     *             universo, <code>-h</code> para los números de hilos,
+     *             <code>-l</code> para las proporciones de lecturas,
+     *             <code>-t</code> para los milisegundos de cada medición y
+     *             <code>-f</code> para el formato (<code>csv</code> o
+     *             <code>json</code>).
+     */
+    public static void main(String[] args) {
+        int n = LLAVES;
+        String hilos = HILOS;
+        String lecturas = LECTURAS;
+        long milisegundos = MILISEGUNDOS;
+        boolean json = false;
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("-n") && i + 1 < args.length) {
+                n = Integer.parseInt(args[++i]);
+            } else if (args[i].equals("-h") && i + 1 < args.length) {
+                hilos = args[++i];
+            } else if (args[i].equals("-l") && i + 1 < args.length) {
+                lecturas = args[++i];
+            } else if (args[i].equals("-t") && i + 1 < args.length) {
+                milisegundos = Long.parseLong(args[++i]);
+            } else if (args[i].equals("-f") && i + 1 < args.length) {
+                json = args[++i].equals("json");
+            } else {
+                System.err.println("Uso: RendimientoConcurrente " +
+                                   "[-n llaves] [-h hilos,...] " +
+                                   "[-l lecturas,...] [-t milisegundos] " +
+                                   "[-f csv|json]");
+                System.exit(1);
+            }
+        }
+        String[] llaves = llaves(n);
+        PrintStream salida = System.out;
+        if (json)
+            salida.println("[");
+        else
+            salida.println(String.join(",", COLUMNAS));
+        boolean primero = true;
+        for (String l : lecturas.split(",")) {
+            double lectura = Double.parseDouble(l);
+            for (String h : hilos.split(",")) {
+                int k = Integer.parseInt(h);
+                for (int e = 0; e < 2; e++) {
+                    String estructura = e == 0 ? "concurrente" :
+                        "ConcurrentHashMap";
+                    Tabla tabla = e == 0 ? concurrente(n, k) : referencia(n);
+                    llena(tabla, llaves);
+                    corre(tabla, llaves, k, lectura, milisegundos);
+                    long ops = corre(tabla, llaves, k, lectura, milisegundos);
+                    Object[] renglon = {
+                        estructura, k, lectura, n, ops,
+                        ops / (milisegundos * 1000.0),
+                        milisegundos * 1e6 * k / Math.max(1, ops)
+                    };
+                    if (json) {
+                        salida.print(primero ? "" : ",\n");
+                        salida.print(objetoJSON(renglon));
+                    } else {
+                        salida.println(renglonCSV(renglon));
+                    }
+                    salida.flush();
+                    primero = false;
+                }
+            }
+        }
+        if (json)
+            salida.println("\n]");
+    }
+
+    /**
+     * Hace operaciones al azar sobre un diccionario concurrente con varios
+     * hilos durante el tiempo dado, y regresa cuántas hicieron en total.
+     * Con la proporción de lecturas dada se busca una llave, y si no, se
+     * agrega o se elimina con la misma probabilidad.
+     * @param diccionario el diccionario.
+     * @param llaves el universo de llaves.
+     * @param hilos el número de hilos, entre 1 y 64.
+     * @param lecturas la proporción de búsquedas, entre 0 y 1.
+     * @param milisegundos el tiempo que corren los hilos.
+     * @return el número total de operaciones.
+     * @throws IllegalArgumentException si el universo es vacío, o si el
+     *         número de hilos, la proporción de lecturas o el tiempo son
+     *         inválidos.
+     */
+    public static long mide(DiccionarioConcurrente<String, String> diccionario,
+                            String[] llaves, int hilos, double lecturas,
+                            long milisegundos) {
+        return corre(envuelve(diccionario), llaves, hilos, lecturas,
+                     milisegundos);
+    }
+
+    /* Corre los hilos sobre la tabla y regresa el total de operaciones. */
+    private static long corre(Tabla tabla, String[] llaves, int hilos,
+                              double lecturas, long milisegundos) {
+        if (llaves.length == 0)
+            throw new IllegalArgumentException("Universo vacío");
+        if (hilos < 1 || hilos > MAXIMO_HILOS)
+            throw new IllegalArgumentException("Número de hilos inválido");
+        if (!(lecturas >= 0.0 && lecturas <= 1.0))
+            throw new IllegalArgumentException("Proporción inválida");
+        if (milisegundos <= 0)
+            throw new IllegalArgumentException("Tiempo inválido");
+        // Las lecturas como umbral de 32 bits, para decidir sin dobles.
+        long umbral = (long)(lecturas * (1L << 32));
+        long n = llaves.length;
+        CountDownLatch salida = new CountDownLatch(1);
+        AtomicLong total = new AtomicLong();
+        long[] fin = new long[1];
+        Thread[] t = new Thread[hilos];
+        for (int i = 0; i < hilos; i++) {
+            long semilla = SEMILLA + i * 0x9e3779b97f4a7c15L;
+            t[i] = new Thread(() -> {
+                try {
+                    salida.await();
+                } catch (InterruptedException ie) {
+                    return;
+                }
+                long x = semilla;
+                long ops = 0;
+                int s = 0;
+                long limite = fin[0];
+                do {
+                    for (int j = 0; j < LOTE; j++) {
+                        // Los bits altos escogen la llave y los bajos la
+                        // operación.
+                        x = Dispersores.mezclaSplitMix64(x);
+                        String llave = llaves[(int)(((x >>> 32) * n) >>> 32)];
+                        if ((x & 0xFFFFFFFFL) < umbral)
+                            s += tabla.get(llave) == null ? 0 : 1;
+                        else if ((x & 1) == 0)
+                            tabla.agrega(llave);
+                        else
+                            tabla.elimina(llave);
+                    }
+                    ops += LOTE;
+                } while (System.nanoTime() < limite);
+                total.addAndGet(ops + (s == -1 ? 1 : 0));
+            });
+            t[i].start();
+        }
+        // El arreglo se escribe antes de soltar el cerrojo, así que los
+        // hilos lo ven.
+        fin[0] = System.nanoTime() + milisegundos * 1000000L;
+        salida.countDown();
+        for (Thread hilo : t) {
+            try {
+                hilo.join();
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        return total.get();
+    }
+
+    /* Agrega la mitad de las llaves del universo, una sí y una no. */
+    private static void llena(Tabla tabla, String[] llaves) {
+        for (int i = 0; i < llaves.length; i += 2)
+            tabla.agrega(llaves[i]);
+    }
+
+    /* Regresa un diccionario concurrente vacío envuelto. Dispersa con
+       hashCode, que String guarda, igual que ConcurrentHashMap; así sólo
+       se comparan las estructuras y no los dispersores. */
+    private static Tabla concurrente(int n, int hilos) {
+        Dispersor<String> d = s -> s.hashCode();
+        int concurrencia = Math.max(hilos, DiccionarioConcurrente.SEGMENTOS);
+        return envuelve(new DiccionarioConcurrente<String, String>(
+                            d, n / 2, concurrencia));
+    }
+
+    /* Envuelve un diccionario concurrente. */
+    private static Tabla envuelve(DiccionarioConcurrente<String, String> d) {
+        return new Tabla() {
+            @Override public Object get(String llave) {
+                return d.get(llave);
+            }
+            @Override public void agrega(String llave) {
+                d.agrega(llave, llave);
+            }
+            @Override public void elimina(String llave) {
+                d.elimina(llave);
+            }
+        };
+    }
+
+    /* Regresa un ConcurrentHashMap vacío envuelto. */
+    private static Tabla referencia(int n) {
+        ConcurrentHashMap<String, String> m =
+            new ConcurrentHashMap<String, String>(n / 2);
+        return new Tabla() {
+            @Override public Object get(String llave) {
+                return m.get(llave);
+            }
+            @Override public void agrega(String llave) {
+                m.put(llave, llave);
+            }
+            @Override public void elimina(String llave) {
+                m.remove(llave);
+            }
+        };
+    }
+
+    /* Genera el universo de n llaves distintas. */
+    private static String[] llaves(int n) {
+        Random random = new Random(SEMILLA);
+        String[] llaves = new String[n];
+        for (int i = 0; i < n; i++)
+            llaves[i] = "llave-" + i + "-" +
+                Integer.toHexString(random.nextInt());
+        return llaves;
+    }
+
+    /* Regresa el renglón en formato CSV. */
+    private static String renglonCSV(Object[] renglon) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < renglon.length; i++) {
+            if (i > 0)
+                sb.append(',');
+            sb.append(valor(renglon[i], false));
+        }
+        return sb.toString();
+    }
+
+    /* Regresa el renglón como un objeto JSON. */
+    private static String objetoJSON(Object[] renglon) {
+        StringBuilder sb = new StringBuilder("  {");
+        for (int i = 0; i < renglon.length; i++) {
+            if (i > 0)
+                sb.append(", ");
+            sb.append('"').append(COLUMNAS[i]).append("\": ");
+            sb.append(valor(renglon[i], true));
+        }
+        return sb.append('}').toString();
+    }
+
+    /* Regresa un valor como texto; las cadenas se entrecomillan en JSON. */
+    private static String valor(Object v, boolean json) {
+        if (v instanceof Double)
+            return String.format(Locale.ROOT, "%.6g", (Double)v);
+        if (v instanceof String && json)
+            return "\"" + v + "\"";
+        return v.toString();
+    }
+}
@@ -0,0 +1,388 @@
+package mx.unam.ciencias.edd;
+
+import java.io.PrintStream;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Random;
+import java.util.function.Consumer;
+
+/**
+ * <p>Programa para comparar {@link AnilloConsistente}, {@link
+ * SaltoConsistente} y {@link SelectorRendezvous}: el costo de una búsqueda y
+ * cuántas llaves se mueven al agregar o quitar un nodo.</p>
+ *
+ * <p>Las llaves son cadenas generadas con una semilla fija, y los nodos se
+ * llaman <code>nodo-0</code>, <code>nodo-1</code>, …; para {@link
+ * SaltoConsistente} el nodo <i>i</i> es la cubeta <i>i</i>. Para cada
+ * estructura y número de nodos <i>k</i> se reporta:</p>
+ *
+ * <ul>
+ *   <li>la mediana y el mínimo de los nanosegundos por búsqueda, medidos en
+ *       pasadas separadas sobre una muestra de las llaves después de unas
+ *       pasadas de calentamiento sin medir;</li>
+ *   <li>la carga máxima: las llaves del nodo con más llaves entre el
+ *       promedio <i>n</i>/<i>k</i> (1 es ideal);</li>
+ *   <li>la fracción de llaves que cambian de nodo al agregar un nodo, y la
+ *       ideal 1/(<i>k</i> + 1);</li>
+ *   <li>la fracción de llaves que cambian de nodo al quitar un nodo, y la
+ *       ideal 1/<i>k</i>. Del anillo y del selector se quita un nodo de en
+ *       medio; de {@link SaltoConsistente}, que sólo puede quitar cubetas
+ *       al final, se quita la última.</li>
+ * </ul>
+ *
+ * <p>La salida es CSV o JSON:</p>
+ *
+ * <pre>
+ * $ java -cp target/practica9.jar mx.unam.ciencias.edd.RendimientoConsistente \
+ *       [-n llaves] [-b búsquedas] [-k nodos,...] [-v virtuales] \
+ *       [-f csv|json]
+ * </pre>
+ *
+ * <p>Las búsquedas de {@link SelectorRendezvous} cuestan O(<i>k</i>), así
+ * que con miles de nodos conviene bajar el número de llaves.</p>
+ */
+public class RendimientoConsistente {
+
+    /* Número de llaves por omisión. */
+    private static final int LLAVES = 200000;
+    /* Número de búsquedas medidas por pasada por omisión. */
+    private static final int BUSQUEDAS = 100000;
+    /* Los números de nodos por omisión. */
+    private static final String NODOS = "8,64,512";
+    /* Número de nodos virtuales del anillo por omisión. */
+    private static final int VIRTUALES = 160;
+    /* Número de pasadas medidas. */
+    private static final int REPETICIONES = 11;
+    /* Número de pasadas de calentamiento. */
+    private static final int CALENTAMIENTO = 3;
+    /* Semilla para generar las llaves. */
+    private static final long SEMILLA = 0x5EED;
+    /* El algoritmo de dispersión. */
+    private static final AlgoritmoDispersor ALGORITMO =
+        AlgoritmoDispersor.XXH64_STRING;
+
+    /* Las estructuras que se comparan. */
+    private static final String[] ESTRUCTURAS = {
+        "anillo", "salto", "rendezvous"
+    };
+
+    /* Las columnas de la salida. */
+    private static final String[] COLUMNAS = {
+        "estructura", "nodos", "llaves", "ns_busqueda_mediana",
+        "ns_busqueda_minimo", "carga_maxima", "movidas_al_agregar",
+        "ideal_al_agregar", "movidas_al_quitar", "ideal_al_quitar"
+    };
+
+    /* Constructor privado para evitar instanciación. */
+    private RendimientoConsistente() {}
+
+    /* Las operaciones que se miden, para tratar igual a las tres
+       estructuras. */
+    private interface Selector {
+
+        /* Busca la llave y regresa un entero que depende del nodo, sin
+           traducirlo a su índice; es lo que se mide. */
+        int busca(String llave);
+
+        /* Regresa el índice del nodo que le toca a la llave. */
+        int nodo(String llave);
+
+        /* Agrega el nodo con el siguiente índice. */
+        void agrega();
+
+        /* Quita un nodo. */
+        void quita();
+    }
+
+    /**
+     * Corre las mediciones e imprime los resultados en la salida estándar.
+     * @param args las opciones: <code>-n</code> para el número de llaves,
+     *             <code>-b</code> para el número de búsquedas medidas por
+     *             pasada, <code>-k</code> para los números de nodos,
+     *             <code>-v</code> para los nodos virtuales del anillo y
+     *             <code>-f</code> para el formato (<code>csv</code> o
+     *             <code>json</code>).
+     */
+    public static void main(String[] args) {
+        int n = LLAVES;
+        int b = BUSQUEDAS;
+        String nodos = NODOS;
+        int virtuales = VIRTUALES;
+        boolean json = false;
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("-n") && i + 1 < args.length) {
+                n = Integer.parseInt(args[++i]);
+            } else if (args[i].equals("-b") && i + 1 < args.length) {
+                b = Integer.parseInt(args[++i]);
+            } else if (args[i].equals("-k") && i + 1 < args.length) {
+                nodos = args[++i];
+            } else if (args[i].equals("-v") && i + 1 < args.length) {
+                virtuales = Integer.parseInt(args[++i]);
+            } else if (args[i].equals("-f") && i + 1 < args.length) {
+                json = args[++i].equals("json");
+            } else {
+                System.err.println("Uso: RendimientoConsistente " +
+                                   "[-n llaves] [-b búsquedas] " +
+                                   "[-k nodos,...] [-v virtuales] " +
+                                   "[-f csv|json]");
+                System.exit(1);
+            }
+        }
+        for (String s : nodos.split(",")) {
+            // Con un solo nodo no hay nodo que quitar.
+            if (Integer.parseInt(s) < 2) {
+                System.err.println("Se necesitan al menos dos nodos");
+                System.exit(1);
+            }
+        }
+        Random random = new Random(SEMILLA);
+        String[] llaves = llaves(random, n);
+        String[] muestra = muestra(random, llaves, b);
+        PrintStream salida = System.out;
+        if (json)
+            salida.println("[");
+        else
+            salida.println(String.join(",", COLUMNAS));
+        boolean primero = true;
+        for (String s : nodos.split(",")) {
+            int k = Integer.parseInt(s);
+            for (String estructura : ESTRUCTURAS) {
+                Object[] renglon = mide(estructura, k, virtuales, llaves,
+                                        muestra);
+                if (json) {
+                    salida.print(primero ? "" : ",\n");
+                    salida.print(objetoJSON(renglon));
+                } else {
+                    salida.println(renglonCSV(renglon));
+                }
+                salida.flush();
+                primero = false;
+            }
+        }
+        if (json)
+            salida.println("\n]");
+    }
+
+    /* Hace todas las mediciones de una estructura con k nodos. */
+    private static Object[] mide(String estructura, int k, int virtuales,
+                                 String[] llaves, String[] muestra) {
+        Selector selector = selector(estructura, k, virtuales);
+        int s = 0;
+        for (int r = 0; r < CALENTAMIENTO; r++)
+            s += busca(selector, muestra);
+        double[] ns = new double[REPETICIONES];
+        double minimo = Double.MAX_VALUE;
+        for (int r = 0; r < REPETICIONES; r++) {
+            long t = System.nanoTime();
+            s += busca(selector, muestra);
+            ns[r] = (double)(System.nanoTime() - t) /
+                Math.max(1, muestra.length);
+            minimo = Math.min(minimo, ns[r]);
+        }
+        if (s == -1)
+            System.err.println(s);
+
+        int[] antes = asigna(selector, llaves);
+        selector.agrega();
+        double agregar = fraccionMovida(antes, asigna(selector, llaves));
+        selector = selector(estructura, k, virtuales);
+        selector.quita();
+        double quitar = fraccionMovida(antes, asigna(selector, llaves));
+        return new Object[] {
+            estructura, k, llaves.length, VelocidadDispersores.mediana(ns),
+            minimo, cargaMaxima(antes, k), agregar, 1.0 / (k + 1), quitar,
+            1.0 / k
+        };
+    }
+
+    /* Busca todas las llaves y regresa una suma de los resultados, para
+       que el compilador no quite las búsquedas. */
+    private static int busca(Selector selector, String[] llaves) {
+        int s = 0;
+        for (String llave : llaves)
+            s += selector.busca(llave);
+        return s;
+    }
+
+    /* Regresa el índice del nodo de cada llave. */
+    private static int[] asigna(Selector selector, String[] llaves) {
+        int[] a = new int[llaves.length];
+        for (int i = 0; i < llaves.length; i++)
+            a[i] = selector.nodo(llaves[i]);
+        return a;
+    }
+
+    /**
+     * Regresa la fracción de llaves que cambian de nodo entre dos
+     * asignaciones.
+     * @param antes el índice del nodo de cada llave antes del cambio.
+     * @param despues el índice del nodo de cada llave después del cambio.
+     * @return la fracción de llaves cuyo nodo es distinto, o 0 si no hay
+     *         llaves.
+     * @throws IllegalArgumentException si las asignaciones tienen distinta
+     *         longitud.
+     */
+    public static double fraccionMovida(int[] antes, int[] despues) {
+        if (antes.length != despues.length)
+            throw new IllegalArgumentException("Asignaciones incompatibles");
+        if (antes.length == 0)
+            return 0;
+        int movidas = 0;
+        for (int i = 0; i < antes.length; i++)
+            if (antes[i] != despues[i])
+                movidas++;
+        return (double)movidas / antes.length;
+    }
+
+    /**
+     * Regresa las llaves del nodo con más llaves entre el promedio de llaves
+     * por nodo.
+     * @param asignacion el índice del nodo de cada llave, entre 0 y
+     *                   <code>nodos</code> − 1.
+     * @param nodos el número de nodos.
+     * @return la carga máxima relativa al promedio, o 0 si no hay llaves.
+     * @throws IllegalArgumentException si el número de nodos no es
+     *         positivo.
+     */
+    public static double cargaMaxima(int[] asignacion, int nodos) {
+        if (nodos <= 0)
+            throw new IllegalArgumentException("Número de nodos inválido");
+        if (asignacion.length == 0)
+            return 0;
+        int[] cuentas = new int[nodos];
+        int maxima = 0;
+        for (int x : asignacion)
+            maxima = Math.max(maxima, ++cuentas[x]);
+        return maxima * (double)nodos / asignacion.length;
+    }
+
+    /* Regresa la estructura dada con k nodos. */
+    private static Selector selector(String estructura, int k,
+                                     int virtuales) {
+        switch (estructura) {
+        case "anillo": return anillo(k, virtuales);
+        case "salto": return salto(k);
+        default: return rendezvous(k);
+        }
+    }
+
+    /* Regresa un anillo con k nodos envuelto. */
+    private static Selector anillo(int k, int virtuales) {
+        AnilloConsistente anillo = new AnilloConsistente(ALGORITMO, virtuales);
+        HashMap<String, Integer> indices = new HashMap<String, Integer>();
+        for (int i = 0; i < k; i++)
+            agregaNodo(anillo::agregaNodo, indices, i);
+        return new Selector() {
+            @Override public int busca(String llave) {
+                return anillo.nodo(llave).hashCode();
+            }
+            @Override public int nodo(String llave) {
+                return indices.get(anillo.nodo(llave));
+            }
+            @Override public void agrega() {
+                agregaNodo(anillo::agregaNodo, indices, indices.size());
+            }
+            @Override public void quita() {
+                anillo.eliminaNodo("nodo-" + k / 2);
+            }
+        };
+    }
+
+    /* Regresa un SaltoConsistente con k cubetas envuelto. */
+    private static Selector salto(int k) {
+        SaltoConsistente salto = new SaltoConsistente(ALGORITMO, k);
+        return new Selector() {
+            @Override public int busca(String llave) {
+                return salto.cubeta(llave);
+            }
+            @Override public int nodo(String llave) {
+                return salto.cubeta(llave);
+            }
+            @Override public void agrega() {
+                salto.setCubetas(salto.getCubetas() + 1);
+            }
+            @Override public void quita() {
+                salto.setCubetas(salto.getCubetas() - 1);
+            }
+        };
+    }
+
+    /* Regresa un selector por rendezvous con k nodos envuelto. */
+    private static Selector rendezvous(int k) {
+        SelectorRendezvous selector = new SelectorRendezvous(ALGORITMO);
+        HashMap<String, Integer> indices = new HashMap<String, Integer>();
+        for (int i = 0; i < k; i++)
+            agregaNodo(selector::agregaNodo, indices, i);
+        return new Selector() {
+            @Override public int busca(String llave) {
+                return selector.nodo(llave).hashCode();
+            }
+            @Override public int nodo(String llave) {
+                return indices.get(selector.nodo(llave));
+            }
+            @Override public void agrega() {
+                agregaNodo(selector::agregaNodo, indices, indices.size());
+            }
+            @Override public void quita() {
+                selector.eliminaNodo("nodo-" + k / 2);
+            }
+        };
+    }
+
+    /* Agrega el nodo con el índice dado y recuerda su índice. */
+    private static void agregaNodo(Consumer<String> agrega,
+                                   HashMap<String, Integer> indices, int i) {
+        String nodo = "nodo-" + i;
+        agrega.accept(nodo);
+        indices.put(nodo, i);
+    }
+
+    /* Genera n llaves distintas. */
+    private static String[] llaves(Random random, int n) {
+        String[] llaves = new String[n];
+        for (int i = 0; i < n; i++)
+            llaves[i] = "llave-" + i + "-" +
+                Integer.toHexString(random.nextInt());
+        return llaves;
+    }
+
+    /* Regresa b llaves escogidas al azar de las llaves dadas. */
+    private static String[] muestra(Random random, String[] llaves, int b) {
+        String[] m = new String[b];
+        for (int i = 0; i < b; i++)
+            m[i] = llaves[random.nextInt(llaves.length)];
+        return m;
+    }
+
+    /* Regresa el renglón en formato CSV. */
+    private static String renglonCSV(Object[] renglon) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < renglon.length; i++) {
+            if (i > 0)
+                sb.append(',');
+            sb.append(valor(renglon[i], false));
+        }
+        return sb.toString();
+    }
+
+    /* Regresa el renglón como un objeto JSON. */
+    private static String objetoJSON(Object[] renglon) {
+        StringBuilder sb = new StringBuilder("  {");
+        for (int i = 0; i < renglon.length; i++) {
+            if (i > 0)
+                sb.append(", ");
+            sb.append('"').append(COLUMNAS[i]).append("\": ");
+            sb.append(valor(renglon[i], true));
+        }
+        return sb.append('}').toString();
+    }
+
+    /* Regresa un valor como texto; las cadenas se entrecomillan en JSON. */
+    private static String valor(Object v, boolean json) {
+        if (v instanceof Double)
+            return String.format(Locale.ROOT, "%.6g", (Double)v);
+        if (v instanceof String && json)
+            return "\"" + v + "\"";
+        return v.toString();
+    }
+}
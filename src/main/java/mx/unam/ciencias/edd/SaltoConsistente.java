@@ -0,0 +1,83 @@
+package mx.unam.ciencias.edd;
+
+/**
+ * <p>Clase para la dispersión consistente por saltos de Lamping y Veach, que
+ * reparte llaves entre <i>n</i> cubetas numeradas de 0 a <i>n</i> − 1 sin
+ * guardar nada más que <i>n</i>.</p>
+ *
+ * <p>Al pasar de <i>n</i> a <i>n</i> + 1 cubetas, sólo 1/(<i>n</i> + 1) de
+ * las llaves se mueven, todas a la cubeta nueva. A cambio, las cubetas sólo se
+ * pueden agregar o quitar al final; para quitar nodos arbitrarios conviene
+ * {@link AnilloConsistente} o {@link SelectorRendezvous}.</p>
+ */
+public class SaltoConsistente {
+
+    /* El dispersor de llaves. */
+    private Dispersor64<CharSequence> dispersor;
+    /* El número de cubetas. */
+    private int cubetas;
+
+    /**
+     * Construye un selector con el número de cubetas dado.
+     * @param algoritmo el algoritmo de dispersión; puede ser de cualquier
+     *                  número de bits.
+     * @param cubetas el número de cubetas.
+     * @throws IllegalArgumentException si el número de cubetas no es
+     *         positivo.
+     */
+    public SaltoConsistente(AlgoritmoDispersor algoritmo, int cubetas) {
+        dispersor = AnilloConsistente.dispersor(algoritmo);
+        setCubetas(cubetas);
+    }
+
+    /**
+     * Regresa la cubeta que le toca a una dispersión de 64 bits entre el
+     * número de cubetas dado.
+     * @param llave la dispersión de la llave.
+     * @param cubetas el número de cubetas.
+     * @return un entero entre 0 y <code>cubetas</code> − 1.
+     * @throws IllegalArgumentException si el número de cubetas no es
+     *         positivo.
+     */
+    public static int cubeta(long llave, int cubetas) {
+        if (cubetas <= 0)
+            throw new IllegalArgumentException("Número de cubetas inválido");
+        long b = -1, j = 0;
+        while (j < cubetas) {
+            b = j;
+            llave = llave * 2862933555777941757L + 1;
+            j = (long)((b + 1) * ((double)(1L << 31) /
+                                  (double)((llave >>> 33) + 1)));
+        }
+        return (int)b;
+    }
+
+    /**
+     * Regresa la cubeta que le toca a una llave.
+     * @param llave la llave.
+     * @return un entero entre 0 y el número de cubetas − 1.
+     */
+    public int cubeta(CharSequence llave) {
+        return cubeta(dispersor.dispersa(llave), cubetas);
+    }
+
+    /**
+     * Define el número de cubetas.
+     * @param cubetas el nuevo número de cubetas.
+     * @throws IllegalArgumentException si el número de cubetas no es
+     *         positivo.
+     */
+    public void setCubetas(int cubetas) {
+        if (cubetas <= 0)
+            throw new IllegalArgumentException("Número de cubetas inválido");
+        this.cubetas = cubetas;
+    }
+
+    /**
+     * Regresa el número de cubetas.
+     * @return el número de cubetas.
+     */
+    public int getCubetas() {
+        return cubetas;
+    }
+}
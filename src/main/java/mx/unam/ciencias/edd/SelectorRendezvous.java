@@ -0,0 +1,134 @@
+package mx.unam.ciencias.edd;
+
+/**
+ * <p>Clase para la dispersión por rendezvous, o de mayor peso aleatorio
+ * (HRW): a cada llave le toca el nodo con la mayor mezcla de la dispersión de
+ * la llave y la del nodo.</p>
+ *
+ * <p>Agregar o quitar un nodo sólo mueve las llaves que le tocan a ese nodo,
+ * y la carga queda balanceada sin nodos virtuales. A cambio, una búsqueda
+ * cuesta O(<i>n</i>) mezclas en lugar de O(log <i>n</i>), lo que conviene
+ * con pocos nodos.</p>
+ */
+public class SelectorRendezvous {
+
+    /* El dispersor de llaves y nodos. */
+    private Dispersor64<CharSequence> dispersor;
+    /* Los nodos. */
+    private String[] nodos;
+    /* Las dispersiones de los nodos. */
+    private long[] dispersiones;
+
+    /**
+     * Construye un selector sin nodos.
+     * @param algoritmo el algoritmo de dispersión; puede ser de cualquier
+     *                  número de bits.
+     */
+    public SelectorRendezvous(AlgoritmoDispersor algoritmo) {
+        dispersor = AnilloConsistente.dispersor(algoritmo);
+        nodos = new String[0];
+        dispersiones = new long[0];
+    }
+
+    /* Regresa el índice del nodo, o -1 si no está. */
+    private int indice(String nodo) {
+        for (int i = 0; i < nodos.length; i++)
+            if (nodos[i].equals(nodo))
+                return i;
+        return -1;
+    }
+
+    /**
+     * Agrega un nodo al selector.
+     * @param nodo el nombre del nodo.
+     * @throws IllegalArgumentException si el nodo es <code>null</code> o ya
+     *         está en el selector.
+     */
+    public void agregaNodo(String nodo) {
+        if (nodo == null || indice(nodo) != -1)
+            throw new IllegalArgumentException("Nodo inválido");
+        int n = nodos.length;
+        String[] d = new String[n + 1];
+        long[] h = new long[n + 1];
+        System.arraycopy(nodos, 0, d, 0, n);
+        System.arraycopy(dispersiones, 0, h, 0, n);
+        d[n] = nodo;
+        h[n] = dispersor.dispersa(nodo);
+        nodos = d;
+        dispersiones = h;
+    }
+
+    /**
+     * Elimina un nodo del selector. Si el nodo no está en el selector, no
+     * hace nada.
+     * @param nodo el nombre del nodo.
+     */
+    public void eliminaNodo(String nodo) {
+        int i = nodo == null ? -1 : indice(nodo);
+        if (i == -1)
+            return;
+        int n = nodos.length - 1;
+        String[] d = new String[n];
+        long[] h = new long[n];
+        System.arraycopy(nodos, 0, d, 0, i);
+        System.arraycopy(dispersiones, 0, h, 0, i);
+        System.arraycopy(nodos, i + 1, d, i, n - i);
+        System.arraycopy(dispersiones, i + 1, h, i, n - i);
+        nodos = d;
+        dispersiones = h;
+    }
+
+    /**
+     * Nos dice si un nodo está en el selector.
+     * @param nodo el nombre del nodo.
+     * @return <code>true</code> si el nodo está en el selector,
+     *         <code>false</code> en otro caso.
+     */
+    public boolean contieneNodo(String nodo) {
+        return nodo != null && indice(nodo) != -1;
+    }
+
+    /**
+     * Regresa el nodo al que le toca una llave.
+     * @param llave la llave.
+     * @return el nombre del nodo al que le toca la llave.
+     * @throws IllegalStateException si el selector no tiene nodos.
+     */
+    public String nodo(CharSequence llave) {
+        if (nodos.length == 0)
+            throw new IllegalStateException("Selector vacío");
+        long h = dispersor.dispersa(llave);
+        int mejor = 0;
+        long peso = Dispersores.mezclaMurmur64(h ^ dispersiones[0]);
+        for (int i = 1; i < nodos.length; i++) {
+            long p = Dispersores.mezclaMurmur64(h ^ dispersiones[i]);
+            // Con empate gana el nombre menor, para no depender del orden.
+            if (p > peso ||
+                (p == peso && nodos[i].compareTo(nodos[mejor]) < 0)) {
+                mejor = i;
+                peso = p;
+            }
+        }
+        return nodos[mejor];
+    }
+
+    /**
+     * Regresa una lista con los nodos del selector, en el orden en que se
+     * agregaron.
+     * @return una lista con los nodos del selector.
+     */
+    public Lista<String> getNodos() {
+        Lista<String> lista = new Lista<String>();
+        for (String nodo : nodos)
+            lista.agrega(nodo);
+        return lista;
+    }
+
+    /**
+     * Regresa el número de nodos del selector.
+     * @return el número de nodos del selector.
+     */
+    public int getNumeroNodos() {
+        return nodos.length;
+    }
+}
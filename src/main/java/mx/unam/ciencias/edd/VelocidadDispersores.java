@@ -0,0 +1,289 @@
+package mx.unam.ciencias.edd;
+
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * <p>Programa para medir la velocidad de los algoritmos de {@link
+ * AlgoritmoDispersor} por longitud de llave, comparando la versión para
+ * arreglos con la versión para {@link ByteBuffer}.</p>
+ *
+ * <p>Para cada algoritmo y longitud se generan llaves aleatorias con una
+ * semilla fija, unas 2<sup>20</sup> bytes en total, y se dispersan en
+ * lote: las de arreglos con {@link
+ * Dispersores#dispersaLote(AlgoritmoDispersor,byte[][],int[])}, y las de
+ * buffers (envueltos antes de medir) con la versión para {@link ByteBuffer}
+ * de cada algoritmo. Antes de medir se hacen pasadas de calentamiento sin
+ * medir, y luego se mide cada pasada por separado. Para cada algoritmo,
+ * entrada y longitud se reporta:</p>
+ *
+ * <ul>
+ *   <li>la mediana y el mínimo de los nanosegundos por llave;</li>
+ *   <li>los gigabytes por segundo de la mediana;</li>
+ *   <li>los bytes asignados por llave en una pasada extra, o -1 si la
+ *       máquina virtual no sabe contarlos. Deberían ser 0, salvo los
+ *       objetos que regresan los algoritmos de 128 bits.</li>
+ * </ul>
+ *
+ * <p>La salida es CSV o JSON:</p>
+ *
+ * <pre>
+ * $ java -cp target/practica9.jar mx.unam.ciencias.edd.VelocidadDispersores \
+ *       [-l longitudes,...] [-r repeticiones] [-c calentamiento] \
+ *       [-f csv|json]
+ * </pre>
+ */
+public class VelocidadDispersores {
+
+    /* Las longitudes de llave por omisión. */
+    private static final String LONGITUDES = "4,16,64,256,1024,4096";
+    /* Número de pasadas medidas por omisión. */
+    private static final int REPETICIONES = 21;
+    /* Número de pasadas de calentamiento por omisión. */
+    private static final int CALENTAMIENTO = 10;
+    /* Número aproximado de bytes por pasada. */
+    private static final int BYTES_PASADA = 1 << 20;
+    /* Semilla para generar las llaves. */
+    private static final long SEMILLA = 0x5EED;
+
+    /* Las columnas de la salida. */
+    private static final String[] COLUMNAS = {
+        "algoritmo", "entrada", "bytes_llave", "llaves", "ns_mediana",
+        "ns_minimo", "gb_por_segundo", "bytes_asignados_por_llave"
+    };
+
+    /* Constructor privado para evitar instanciación. */
+    private VelocidadDispersores() {}
+
+    /**
+     * Corre las mediciones e imprime los resultados en la salida estándar.
+     * @param args las opciones: <code>-l</code> para las longitudes de
+     *             llave, <code>-r</code> para el número de pasadas medidas,
+     *             <code>-c</code> para el número de pasadas de calentamiento
+     *             y <code>-f</code> para el formato (<code>csv</code> o
+     *             <code>json</code>).
+     */
+    public static void main(String[] args) {
+        String longitudes = LONGITUDES;
+        int repeticiones = REPETICIONES;
+        int calentamiento = CALENTAMIENTO;
+        boolean json = false;
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("-l") && i + 1 < args.length) {
+                longitudes = args[++i];
+            } else if (args[i].equals("-r") && i + 1 < args.length) {
+                repeticiones = Integer.parseInt(args[++i]);
+            } else if (args[i].equals("-c") && i + 1 < args.length) {
+                calentamiento = Integer.parseInt(args[++i]);
+            } else if (args[i].equals("-f") && i + 1 < args.length) {
+                json = args[++i].equals("json");
+            } else {
+                System.err.println("Uso: VelocidadDispersores " +
+                                   "[-l longitudes,...] [-r repeticiones] " +
+                                   "[-c calentamiento] [-f csv|json]");
+                System.exit(1);
+            }
+        }
+        PrintStream salida = System.out;
+        if (json)
+            salida.println("[");
+        else
+            salida.println(String.join(",", COLUMNAS));
+        boolean primero = true;
+        for (String l : longitudes.split(",")) {
+            int longitud = Integer.parseInt(l);
+            byte[][] llaves = llaves(longitud);
+            ByteBuffer[] buffers = new ByteBuffer[llaves.length];
+            for (int i = 0; i < llaves.length; i++)
+                buffers[i] = ByteBuffer.wrap(llaves[i]);
+            for (AlgoritmoDispersor algoritmo : AlgoritmoDispersor.values()) {
+                for (int e = 0; e < 2; e++) {
+                    Object[] renglon = mide(algoritmo, e == 0, llaves, buffers,
+                                            repeticiones, calentamiento);
+                    if (json) {
+                        salida.print(primero ? "" : ",\n");
+                        salida.print(objetoJSON(renglon));
+                    } else {
+                        salida.println(renglonCSV(renglon));
+                    }
+                    salida.flush();
+                    primero = false;
+                }
+            }
+        }
+        if (json)
+            salida.println("\n]");
+    }
+
+    /* Mide un algoritmo con arreglos o con buffers. */
+    private static Object[] mide(AlgoritmoDispersor algoritmo,
+                                 boolean arreglos, byte[][] llaves,
+                                 ByteBuffer[] buffers, int repeticiones,
+                                 int calentamiento) {
+        int n = llaves.length;
+        int[] h = new int[n];
+        for (int r = 0; r < calentamiento; r++)
+            pasada(algoritmo, arreglos, llaves, buffers, h);
+        double[] ns = new double[Math.max(1, repeticiones)];
+        for (int r = 0; r < ns.length; r++) {
+            long t = System.nanoTime();
+            pasada(algoritmo, arreglos, llaves, buffers, h);
+            ns[r] = (double)(System.nanoTime() - t) / n;
+        }
+        long asignados = asignados(algoritmo, arreglos, llaves, buffers, h);
+        double mediana = mediana(ns);
+        double minimo = ns[0];
+        for (double x : ns)
+            minimo = Math.min(minimo, x);
+        int longitud = llaves[0].length;
+        return new Object[] {
+            algoritmo.name(), arreglos ? "arreglo" : "buffer", longitud, n,
+            mediana, minimo, mediana == 0 ? 0.0 : longitud / mediana,
+            asignados < 0 ? -1.0 : (double)asignados / n
+        };
+    }
+
+    /* Dispersa todas las llaves una vez. */
+    private static void pasada(AlgoritmoDispersor algoritmo, boolean arreglos,
+                               byte[][] llaves, ByteBuffer[] buffers,
+                               int[] h) {
+        if (arreglos)
+            Dispersores.dispersaLote(algoritmo, llaves, h);
+        else
+            lote(algoritmo, buffers, h);
+    }
+
+    /* Regresa los bytes que asigna el hilo en una pasada, o -1 si la
+       máquina virtual no sabe contarlos. */
+    private static long asignados(AlgoritmoDispersor algoritmo,
+                                  boolean arreglos, byte[][] llaves,
+                                  ByteBuffer[] buffers, int[] h) {
+        java.lang.management.ThreadMXBean mx =
+            ManagementFactory.getThreadMXBean();
+        if (!(mx instanceof com.sun.management.ThreadMXBean))
+            return -1;
+        com.sun.management.ThreadMXBean hilos =
+            (com.sun.management.ThreadMXBean)mx;
+        if (!hilos.isThreadAllocatedMemorySupported() ||
+            !hilos.isThreadAllocatedMemoryEnabled())
+            return -1;
+        long id = Thread.currentThread().getId();
+        long antes = hilos.getThreadAllocatedBytes(id);
+        pasada(algoritmo, arreglos, llaves, buffers, h);
+        return hilos.getThreadAllocatedBytes(id) - antes;
+    }
+
+    /* Dispersa los buffers con la versión para ByteBuffer del algoritmo,
+       doblando a 32 bits como Dispersores.dispersaLote. */
+    private static void lote(AlgoritmoDispersor algoritmo,
+                             ByteBuffer[] buffers, int[] h) {
+        switch (algoritmo) {
+        case XOR_STRING:
+            for (int i = 0; i < buffers.length; i++)
+                h[i] = Dispersores.dispersaXOR(buffers[i]);
+            break;
+        case BJ_STRING:
+            for (int i = 0; i < buffers.length; i++)
+                h[i] = Dispersores.dispersaBJ(buffers[i]);
+            break;
+        case DJB_STRING:
+            for (int i = 0; i < buffers.length; i++)
+                h[i] = Dispersores.dispersaDJB(buffers[i]);
+            break;
+        case BJ64_STRING:
+            for (int i = 0; i < buffers.length; i++)
+                h[i] = dobla(Dispersores.dispersaBJ64(buffers[i]));
+            break;
+        case FNV64_STRING:
+            for (int i = 0; i < buffers.length; i++)
+                h[i] = dobla(Dispersores.dispersaFNV64(buffers[i]));
+            break;
+        case XXH64_STRING:
+            for (int i = 0; i < buffers.length; i++)
+                h[i] = dobla(Dispersores.dispersaXXH64(buffers[i]));
+            break;
+        case MURMUR128_STRING:
+            for (int i = 0; i < buffers.length; i++)
+                h[i] = dobla(Dispersores.dispersaMurmur128(buffers[i])
+                             .getBajos());
+            break;
+        case XXH128_STRING:
+            for (int i = 0; i < buffers.length; i++)
+                h[i] = dobla(Dispersores.dispersaXXH128(buffers[i])
+                             .getBajos());
+            break;
+        case SIP13_STRING:
+            for (int i = 0; i < buffers.length; i++)
+                h[i] = dobla(Dispersores.dispersaSip13(buffers[i], 0L, 0L));
+            break;
+        default: throw new IllegalArgumentException("Algoritmo inválido");
+        }
+    }
+
+    /* Dobla 64 bits a 32 con XOR. */
+    private static int dobla(long h) {
+        return (int)(h ^ (h >>> 32));
+    }
+
+    /**
+     * Regresa la mediana de las mediciones, sin modificar el arreglo. Con
+     * un número par de mediciones es el promedio de las dos centrales.
+     * @param mediciones las mediciones.
+     * @return la mediana de las mediciones, o 0 si no hay mediciones.
+     */
+    public static double mediana(double[] mediciones) {
+        int n = mediciones.length;
+        if (n == 0)
+            return 0;
+        double[] m = Arrays.copyOf(mediciones, n);
+        Arrays.sort(m);
+        return n % 2 == 1 ? m[n/2] : (m[n/2 - 1] + m[n/2]) / 2;
+    }
+
+    /* Genera llaves aleatorias de la longitud dada, unos BYTES_PASADA
+       bytes en total. */
+    private static byte[][] llaves(int longitud) {
+        Random random = new Random(SEMILLA);
+        int n = Math.max(64, BYTES_PASADA / Math.max(1, longitud));
+        byte[][] llaves = new byte[n][longitud];
+        for (byte[] llave : llaves)
+            random.nextBytes(llave);
+        return llaves;
+    }
+
+    /* Regresa el renglón en formato CSV. */
+    private static String renglonCSV(Object[] renglon) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < renglon.length; i++) {
+            if (i > 0)
+                sb.append(',');
+            sb.append(valor(renglon[i], false));
+        }
+        return sb.toString();
+    }
+
+    /* Regresa el renglón como un objeto JSON. */
+    private static String objetoJSON(Object[] renglon) {
+        StringBuilder sb = new StringBuilder("  {");
+        for (int i = 0; i < renglon.length; i++) {
+            if (i > 0)
+                sb.append(", ");
+            sb.append('"').append(COLUMNAS[i]).append("\": ");
+            sb.append(valor(renglon[i], true));
+        }
+        return sb.append('}').toString();
+    }
+
+    /* Regresa un valor como texto; las cadenas se entrecomillan en JSON. */
+    private static String valor(Object v, boolean json) {
+        if (v instanceof Double)
+            return String.format(Locale.ROOT, "%.6g", (Double)v);
+        if (v instanceof String && json)
+            return "\"" + v + "\"";
+        return v.toString();
+    }
+}
@@ -0,0 +1,142 @@
+package mx.unam.ciencias.edd.test;
+
+import java.util.HashMap;
+import java.util.Random;
+import mx.unam.ciencias.edd.AlgoritmoDispersor;
+import mx.unam.ciencias.edd.AnilloConsistente;
+import mx.unam.ciencias.edd.Lista;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+/**
+ * Clase para pruebas unitarias de la clase {@link AnilloConsistente}.
+ */
+public class TestAnilloConsistente {
+
+    /** Expiración para que ninguna prueba tarde más de 5 segundos. */
+    @Rule public Timeout expiracion = Timeout.seconds(5);
+
+    /* Generador de números aleatorios. */
+    private Random random;
+    /* Las llaves de prueba. */
+    private String[] llaves;
+
+    /**
+     * Crea las llaves para cada prueba.
+     */
+    public TestAnilloConsistente() {
+        random = new Random();
+        llaves = new String[20000];
+        long base = random.nextLong();
+        for (int i = 0; i < llaves.length; i++)
+            llaves[i] = "llave:" + (base + i);
+    }
+
+    /* Regresa el nodo de cada llave. */
+    private String[] asigna(AnilloConsistente anillo) {
+        String[] asignados = new String[llaves.length];
+        for (int i = 0; i < llaves.length; i++)
+            asignados[i] = anillo.nodo(llaves[i]);
+        return asignados;
+    }
+
+    /**
+     * Prueba unitaria para {@link AnilloConsistente#AnilloConsistente},
+     * {@link AnilloConsistente#agregaNodo} y {@link
+     * AnilloConsistente#eliminaNodo}.
+     */
+    @Test public void testNodos() {
+        AnilloConsistente anillo =
+            new AnilloConsistente(AlgoritmoDispersor.XXH64_STRING, 100);
+        Assert.assertTrue(anillo.getNumeroNodos() == 0);
+        Assert.assertTrue(anillo.getVirtuales() == 100);
+        try {
+            anillo.nodo("a");
+            Assert.fail();
+        } catch (IllegalStateException ise) {}
+        for (int i = 0; i < 5; i++)
+            anillo.agregaNodo("nodo" + i);
+        try {
+            anillo.agregaNodo("nodo3");
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+        try {
+            new AnilloConsistente(AlgoritmoDispersor.XXH64_STRING, 0);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+        Assert.assertTrue(anillo.getNumeroNodos() == 5);
+        Assert.assertTrue(anillo.contieneNodo("nodo3"));
+        anillo.eliminaNodo("nodo3");
+        anillo.eliminaNodo("nodo9");
+        Assert.assertFalse(anillo.contieneNodo("nodo3"));
+        Lista<String> nodos = anillo.getNodos();
+        Assert.assertTrue(nodos.getLongitud() == 4);
+        Assert.assertFalse(nodos.contiene("nodo3"));
+        for (String llave : llaves)
+            Assert.assertFalse(anillo.nodo(llave).equals("nodo3"));
+    }
+
+    /**
+     * Prueba unitaria para {@link AnilloConsistente#nodo}: las llaves se
+     * reparten de forma balanceada con cualquier algoritmo razonable, y el
+     * resultado no depende del orden en que se agregaron los nodos.
+     */
+    @Test public void testBalance() {
+        for (AlgoritmoDispersor algoritmo : AlgoritmoDispersor.values()) {
+            AnilloConsistente a = new AnilloConsistente(algoritmo, 200);
+            AnilloConsistente b = new AnilloConsistente(algoritmo, 200);
+            int n = 8;
+            for (int i = 0; i < n; i++) {
+                a.agregaNodo("nodo" + i);
+                b.agregaNodo("nodo" + (n - 1 - i));
+            }
+            HashMap<String, Integer> cargas = new HashMap<String, Integer>();
+            for (String llave : llaves) {
+                String nodo = a.nodo(llave);
+                Assert.assertTrue(nodo.equals(b.nodo(llave)));
+                cargas.merge(nodo, 1, Integer::sum);
+            }
+            // XOR sólo tiene 256 dispersiones distintas; no puede balancear.
+            if (algoritmo == AlgoritmoDispersor.XOR_STRING)
+                continue;
+            Assert.assertTrue(cargas.size() == n);
+            double promedio = (double)llaves.length / n;
+            for (int carga : cargas.values())
+                Assert.assertTrue(Math.abs(carga - promedio) < 0.35 * promedio);
+        }
+    }
+
+    /**
+     * Prueba unitaria para {@link AnilloConsistente#agregaNodo} y {@link
+     * AnilloConsistente#eliminaNodo}: sólo se mueven las llaves del nodo
+     * agregado o eliminado, alrededor de 1/n de ellas.
+     */
+    @Test public void testRemapeo() {
+        AnilloConsistente anillo =
+            new AnilloConsistente(AlgoritmoDispersor.MURMUR128_STRING, 160);
+        int n = 10;
+        for (int i = 0; i < n; i++)
+            anillo.agregaNodo("nodo" + i);
+        String[] antes = asigna(anillo);
+        anillo.agregaNodo("nuevo");
+        String[] despues = asigna(anillo);
+        int movidas = 0;
+        for (int i = 0; i < llaves.length; i++) {
+            if (!antes[i].equals(despues[i])) {
+                Assert.assertTrue(despues[i].equals("nuevo"));
+                movidas++;
+            }
+        }
+        double esperadas = (double)llaves.length / (n + 1);
+        Assert.assertTrue(Math.abs(movidas - esperadas) < 0.35 * esperadas);
+        anillo.eliminaNodo("nuevo");
+        Assert.assertArrayEquals(antes, asigna(anillo));
+        anillo.eliminaNodo("nodo4");
+        despues = asigna(anillo);
+        for (int i = 0; i < llaves.length; i++)
+            if (!antes[i].equals(despues[i]))
+                Assert.assertTrue(antes[i].equals("nodo4"));
+    }
+}
@@ -0,0 +1,55 @@
+package mx.unam.ciencias.edd.test;
+
+import java.util.Random;
+import mx.unam.ciencias.edd.CalidadDispersores;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+/**
+ * Clase para pruebas unitarias de la clase {@link CalidadDispersores}.
+ */
+public class TestCalidadDispersores {
+
+    /** Expiración para que ninguna prueba tarde más de 5 segundos. */
+    @Rule public Timeout expiracion = Timeout.seconds(5);
+
+    /**
+     * Prueba unitaria para {@link CalidadDispersores#jiCuadrada}.
+     */
+    @Test public void testJiCuadrada() {
+        int[] h = new int[64];
+        for (int i = 0; i < h.length; i++)
+            h[i] = i;
+        Assert.assertTrue(CalidadDispersores.jiCuadrada(h, 16) == 0.0);
+        Assert.assertTrue(CalidadDispersores.jiCuadrada(h, 64) == 0.0);
+        //Todas en la misma cubeta: (n - n/m)^2/(n/m) + (m-1)(n/m)
+        int[] g = new int[64];
+        Assert.assertTrue(CalidadDispersores.jiCuadrada(g, 16) == 64 * 15);
+        //Con módulo sin signo, -1 cae en la cubeta 4294967295 % 13 = 8
+        int[] f = { -1, 8 };
+        Assert.assertTrue(CalidadDispersores.jiCuadrada(f, 13) ==
+                          CalidadDispersores.jiCuadrada(new int[] { 8, 8 }, 13));
+        Random random = new Random();
+        int[] r = new int[1 << 16];
+        for (int i = 0; i < r.length; i++)
+            r[i] = random.nextInt();
+        double ji = CalidadDispersores.jiCuadrada(r, 1024);
+        Assert.assertTrue(Math.abs(ji - 1023) < 10 * Math.sqrt(2 * 1023));
+    }
+
+    /**
+     * Prueba unitaria para {@link CalidadDispersores#colisiones} y {@link
+     * CalidadDispersores#colisionesEsperadas}.
+     */
+    @Test public void testColisiones() {
+        int[] h = { 5, 1, 5, 7, 1, 5 };
+        Assert.assertTrue(CalidadDispersores.colisiones(h) == 3);
+        Assert.assertTrue(CalidadDispersores.colisiones(new int[0]) == 0);
+        Assert.assertTrue(CalidadDispersores.colisionesEsperadas(1) < 1e-9);
+        //Aproximadamente n^2 / 2^33 cuando n es pequeño comparado con 2^32
+        double e = CalidadDispersores.colisionesEsperadas(1000000);
+        Assert.assertTrue(Math.abs(e - 1e12 / 8589934592.0) < 0.01);
+    }
+}
@@ -0,0 +1,194 @@
+package mx.unam.ciencias.edd.test;
+
+import java.util.HashSet;
+import java.util.Random;
+import mx.unam.ciencias.edd.Conjunto;
+import mx.unam.ciencias.edd.Dispersor;
+import mx.unam.ciencias.edd.FabricaDispersores;
+import mx.unam.ciencias.edd.Lista;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+/**
+ * Clase para pruebas unitarias de la clase {@link Conjunto}.
+ */
+public class TestConjunto {
+
+    /** Expiración para que ninguna prueba tarde más de 5 segundos. */
+    @Rule public Timeout expiracion = Timeout.seconds(5);
+
+    /* Generador de números aleatorios. */
+    private Random random;
+    /* El dispersor. */
+    private Dispersor<Integer> dispersor;
+
+    /**
+     * Crea un generador de números aleatorios para cada prueba.
+     */
+    public TestConjunto() {
+        random = new Random();
+        dispersor = FabricaDispersores.dispersorInt()::dispersa;
+    }
+
+    /* Regresa un conjunto aleatorio y llena la referencia. */
+    private Conjunto<Integer> conjuntoAleatorio(int n, int rango,
+                                                HashSet<Integer> referencia) {
+        Conjunto<Integer> conjunto = new Conjunto<Integer>(dispersor);
+        for (int i = 0; i < n; i++) {
+            int e = random.nextInt(rango);
+            conjunto.agrega(e);
+            referencia.add(e);
+        }
+        return conjunto;
+    }
+
+    /* Compara el conjunto con la referencia. */
+    private static void compara(Conjunto<Integer> conjunto,
+                                HashSet<Integer> referencia) {
+        Assert.assertTrue(conjunto.getElementos() == referencia.size());
+        HashSet<Integer> vistos = new HashSet<Integer>();
+        for (Integer e : conjunto) {
+            Assert.assertTrue(referencia.contains(e));
+            Assert.assertTrue(vistos.add(e));
+        }
+        for (Integer e : referencia)
+            Assert.assertTrue(conjunto.contiene(e));
+    }
+
+    /**
+     * Prueba unitaria para {@link Conjunto#agrega}, {@link Conjunto#elimina}
+     * y {@link Conjunto#contiene}.
+     */
+    @Test public void testAgregaElimina() {
+        Conjunto<Integer> conjunto = new Conjunto<Integer>(dispersor);
+        HashSet<Integer> referencia = new HashSet<Integer>();
+        Assert.assertTrue(conjunto.esVacia());
+        for (int i = 0; i < 5000; i++) {
+            int e = random.nextInt(500);
+            if (random.nextBoolean()) {
+                conjunto.agrega(e);
+                referencia.add(e);
+            } else {
+                conjunto.elimina(e);
+                referencia.remove(e);
+            }
+            Assert.assertTrue(conjunto.contiene(e) == referencia.contains(e));
+        }
+        compara(conjunto, referencia);
+        try {
+            conjunto.agrega(null);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+        conjunto.limpia();
+        Assert.assertTrue(conjunto.esVacia());
+        Assert.assertTrue(conjunto.getElementos() == 0);
+    }
+
+    /**
+     * Prueba unitaria para {@link Conjunto#Conjunto(Dispersor,Coleccion)}.
+     */
+    @Test public void testConstructorColeccion() {
+        Lista<Integer> lista = new Lista<Integer>();
+        HashSet<Integer> referencia = new HashSet<Integer>();
+        for (int i = 0; i < 1000; i++) {
+            int e = random.nextInt(300);
+            lista.agrega(e);
+            referencia.add(e);
+        }
+        compara(new Conjunto<Integer>(dispersor, lista), referencia);
+    }
+
+    /**
+     * Prueba unitaria para {@link Conjunto#union}.
+     */
+    @Test public void testUnion() {
+        HashSet<Integer> a = new HashSet<Integer>();
+        HashSet<Integer> b = new HashSet<Integer>();
+        Conjunto<Integer> ca = conjuntoAleatorio(100, 1000, a);
+        Conjunto<Integer> cb = conjuntoAleatorio(1000, 1000, b);
+        a.addAll(b);
+        compara(ca.union(cb), a);
+        compara(cb.union(ca), a);
+    }
+
+    /**
+     * Prueba unitaria para {@link Conjunto#interseccion}.
+     */
+    @Test public void testInterseccion() {
+        HashSet<Integer> a = new HashSet<Integer>();
+        HashSet<Integer> b = new HashSet<Integer>();
+        Conjunto<Integer> ca = conjuntoAleatorio(100, 1000, a);
+        Conjunto<Integer> cb = conjuntoAleatorio(1000, 1000, b);
+        a.retainAll(b);
+        compara(ca.interseccion(cb), a);
+        compara(cb.interseccion(ca), a);
+        Conjunto<Integer> vacio = new Conjunto<Integer>(dispersor);
+        Assert.assertTrue(ca.interseccion(vacio).esVacia());
+    }
+
+    /**
+     * Prueba unitaria para {@link Conjunto#diferencia}.
+     */
+    @Test public void testDiferencia() {
+        HashSet<Integer> a = new HashSet<Integer>();
+        HashSet<Integer> b = new HashSet<Integer>();
+        Conjunto<Integer> ca = conjuntoAleatorio(100, 1000, a);
+        Conjunto<Integer> cb = conjuntoAleatorio(1000, 1000, b);
+        HashSet<Integer> ab = new HashSet<Integer>(a);
+        ab.removeAll(b);
+        HashSet<Integer> ba = new HashSet<Integer>(b);
+        ba.removeAll(a);
+        compara(ca.diferencia(cb), ab);
+        compara(cb.diferencia(ca), ba);
+        Assert.assertTrue(ca.diferencia(ca).esVacia());
+    }
+
+    /**
+     * Prueba unitaria para {@link Conjunto#esSubconjunto} y {@link
+     * Conjunto#equals}.
+     */
+    @Test public void testSubconjuntoEquals() {
+        HashSet<Integer> a = new HashSet<Integer>();
+        Conjunto<Integer> ca = conjuntoAleatorio(500, 1000, a);
+        Conjunto<Integer> cb = ca.union(new Conjunto<Integer>(dispersor));
+        Assert.assertTrue(ca.esSubconjunto(cb));
+        Assert.assertTrue(ca.equals(cb));
+        cb.agrega(1000);
+        Assert.assertTrue(ca.esSubconjunto(cb));
+        Assert.assertFalse(cb.esSubconjunto(ca));
+        Assert.assertFalse(ca.equals(cb));
+        Assert.assertFalse(ca.equals(null));
+        Assert.assertFalse(ca.equals("conjunto"));
+    }
+
+    /**
+     * Prueba unitaria para {@link Conjunto#hashCode}.
+     */
+    @Test public void testHashCode() {
+        HashSet<Integer> a = new HashSet<Integer>();
+        Conjunto<Integer> ca = conjuntoAleatorio(500, 1000, a);
+        Assert.assertTrue(ca.hashCode() == a.hashCode());
+        // Otro orden de inserción y otro dispersor.
+        Conjunto<Integer> cb = new Conjunto<Integer>(x -> x % 7);
+        Lista<Integer> elementos = new Lista<Integer>();
+        for (Integer e : a)
+            elementos.agregaInicio(e);
+        for (Integer e : elementos)
+            cb.agrega(e);
+        Assert.assertTrue(ca.equals(cb));
+        Assert.assertTrue(ca.hashCode() == cb.hashCode());
+        Assert.assertTrue(new Conjunto<Integer>(dispersor).hashCode() == 0);
+    }
+
+    /**
+     * Prueba unitaria para {@link Conjunto#toString}.
+     */
+    @Test public void testToString() {
+        Conjunto<Integer> conjunto = new Conjunto<Integer>(dispersor);
+        Assert.assertTrue(conjunto.toString().equals("{}"));
+        conjunto.agrega(1);
+        Assert.assertTrue(conjunto.toString().equals("{1}"));
+    }
+}
@@ -0,0 +1,79 @@
+package mx.unam.ciencias.edd.test;
+
+import java.util.HashSet;
+import java.util.Random;
+import mx.unam.ciencias.edd.ConjuntoInt;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+/**
+ * Clase para pruebas unitarias de la clase {@link ConjuntoInt}.
+ */
+public class TestConjuntoInt {
+
+    /** Expiración para que ninguna prueba tarde más de 5 segundos. */
+    @Rule public Timeout expiracion = Timeout.seconds(5);
+
+    /* Generador de números aleatorios. */
+    private Random random;
+
+    /**
+     * Crea un generador de números aleatorios para cada prueba.
+     */
+    public TestConjuntoInt() {
+        random = new Random();
+    }
+
+    /* Hace operaciones aleatorias en el conjunto y en la referencia. */
+    private void opera(ConjuntoInt conjunto, int rango, int n) {
+        HashSet<Integer> referencia = new HashSet<Integer>();
+        for (int i = 0; i < n; i++) {
+            int e = random.nextInt(rango) - rango / 2;
+            if (random.nextBoolean()) {
+                conjunto.agrega(e);
+                referencia.add(e);
+            } else {
+                conjunto.elimina(e);
+                referencia.remove(e);
+            }
+            Assert.assertTrue(conjunto.contiene(e) == referencia.contains(e));
+            Assert.assertTrue(conjunto.getElementos() == referencia.size());
+        }
+        int[] arreglo = conjunto.aArreglo();
+        Assert.assertTrue(arreglo.length == referencia.size());
+        HashSet<Integer> vistos = new HashSet<Integer>();
+        for (int e : arreglo) {
+            Assert.assertTrue(referencia.contains(e));
+            Assert.assertTrue(vistos.add(e));
+        }
+    }
+
+    /**
+     * Prueba unitaria para {@link ConjuntoInt#agrega}, {@link
+     * ConjuntoInt#elimina} y {@link ConjuntoInt#contiene}.
+     */
+    @Test public void testOperaciones() {
+        opera(new ConjuntoInt(), 2000, 20000);
+        opera(new ConjuntoInt(x -> x & 1, 0, 0.5), 200, 5000);
+    }
+
+    /**
+     * Prueba unitaria para {@link ConjuntoInt#limpia} y el 0.
+     */
+    @Test public void testLimpia() {
+        ConjuntoInt conjunto = new ConjuntoInt(10);
+        Assert.assertTrue(conjunto.esVacia());
+        conjunto.agrega(0);
+        conjunto.agrega(0);
+        conjunto.agrega(1);
+        Assert.assertTrue(conjunto.getElementos() == 2);
+        Assert.assertTrue(conjunto.contiene(0));
+        conjunto.limpia();
+        Assert.assertTrue(conjunto.esVacia());
+        Assert.assertFalse(conjunto.contiene(0));
+        Assert.assertFalse(conjunto.contiene(1));
+        Assert.assertTrue(conjunto.aArreglo().length == 0);
+    }
+}
@@ -0,0 +1,157 @@
+package mx.unam.ciencias.edd.test;
+
+import java.util.HashMap;
+import java.util.Random;
+import mx.unam.ciencias.edd.AlgoritmoDispersor;
+import mx.unam.ciencias.edd.CountMin;
+import mx.unam.ciencias.edd.Dispersor;
+import mx.unam.ciencias.edd.FabricaDispersores;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+/**
+ * Clase para pruebas unitarias de la clase {@link CountMin}.
+ */
+public class TestCountMin {
+
+    /** Expiración para que ninguna prueba tarde más de 5 segundos. */
+    @Rule public Timeout expiracion = Timeout.seconds(5);
+
+    /* Generador de números aleatorios. */
+    private Random random;
+    /* El primer dispersor. */
+    private Dispersor<Integer> primero;
+    /* El segundo dispersor. */
+    private Dispersor<Integer> segundo;
+
+    /**
+     * Crea los dispersores para cada prueba.
+     */
+    public TestCountMin() {
+        random = new Random();
+        primero = FabricaDispersores.dispersorInt()::dispersa;
+        segundo = i -> FabricaDispersores.dispersorLong().dispersa(~i);
+    }
+
+    /* Llena el bosquejo y el mapa con un flujo sesgado de n apariciones. */
+    private void llena(CountMin<Integer> bosquejo,
+                       HashMap<Integer, Long> exactas, int n) {
+        for (int i = 0; i < n; i++) {
+            // Los elementos pequeños aparecen mucho más que los grandes.
+            int e = (int)Math.abs(random.nextGaussian() * 200);
+            bosquejo.agrega(e);
+            exactas.merge(e, 1L, Long::sum);
+        }
+    }
+
+    /**
+     * Prueba unitaria para {@link CountMin#CountMin}.
+     */
+    @Test public void testConstructor() {
+        CountMin<Integer> bosquejo =
+            new CountMin<Integer>(primero, segundo, 0.01, 0.01, false);
+        // w = ⌈e/0.01⌉ = 272, redondeado a 512; d = ⌈ln 100⌉ = 5.
+        Assert.assertTrue(bosquejo.getAncho() == 512);
+        Assert.assertTrue(bosquejo.getProfundidad() == 5);
+        Assert.assertTrue(bosquejo.getTotal() == 0);
+        Assert.assertTrue(bosquejo.estima(random.nextInt()) == 0);
+        bosquejo = new CountMin<Integer>(primero, segundo, 100, 3, true);
+        Assert.assertTrue(bosquejo.getAncho() == 128);
+        Assert.assertTrue(bosquejo.getProfundidad() == 3);
+        try {
+            new CountMin<Integer>(primero, segundo, 0.0, 0.01, false);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+        try {
+            new CountMin<Integer>(primero, segundo, 0.01, 1.0, false);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+        try {
+            new CountMin<Integer>(null, segundo, 0.01, 0.01, false);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+        try {
+            new CountMin<Integer>(primero, segundo, 0, 4, false);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+        try {
+            bosquejo.agrega(1, -1);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link CountMin#agrega} y {@link
+     * CountMin#estima}: las estimaciones nunca son menores que las
+     * frecuencias reales, casi nunca las exceden por más de εN, y la
+     * actualización conservadora nunca estima más que la normal.
+     */
+    @Test public void testEstima() {
+        double epsilon = 0.005;
+        int n = 100000;
+        CountMin<Integer> normal =
+            new CountMin<Integer>(primero, segundo, epsilon, 0.01, false);
+        CountMin<Integer> conservador =
+            new CountMin<Integer>(primero, segundo, epsilon, 0.01, true);
+        HashMap<Integer, Long> exactas = new HashMap<Integer, Long>();
+        for (int i = 0; i < n; i++) {
+            int e = (int)Math.abs(random.nextGaussian() * 2000);
+            long a = normal.agrega(e);
+            long b = conservador.agrega(e);
+            exactas.merge(e, 1L, Long::sum);
+            Assert.assertTrue(b <= a);
+        }
+        Assert.assertTrue(normal.getTotal() == n);
+        Assert.assertTrue(conservador.getTotal() == n);
+        int excedidas = 0;
+        long errorNormal = 0, errorConservador = 0;
+        for (Integer e : exactas.keySet()) {
+            long real = exactas.get(e);
+            long a = normal.estima(e);
+            long b = conservador.estima(e);
+            Assert.assertTrue(real <= b && b <= a);
+            if (a - real > epsilon * n)
+                excedidas++;
+            errorNormal += a - real;
+            errorConservador += b - real;
+        }
+        Assert.assertTrue(excedidas <= 0.02 * exactas.size());
+        Assert.assertTrue(errorConservador <= errorNormal);
+        normal.limpia();
+        Assert.assertTrue(normal.getTotal() == 0);
+        Assert.assertTrue(normal.estima(0) == 0);
+    }
+
+    /**
+     * Prueba unitaria para {@link CountMin#une}.
+     */
+    @Test public void testUne() {
+        CountMin<Integer> a = new CountMin<Integer>(primero, segundo,
+                                                    0.01, 0.01, true);
+        CountMin<Integer> b = new CountMin<Integer>(primero, segundo,
+                                                    0.01, 0.01, true);
+        HashMap<Integer, Long> exactas = new HashMap<Integer, Long>();
+        llena(a, exactas, 5000);
+        llena(b, exactas, 5000);
+        a.une(b);
+        Assert.assertTrue(a.getTotal() == 10000);
+        for (Integer e : exactas.keySet())
+            Assert.assertTrue(a.estima(e) >= exactas.get(e));
+        CountMin<String> c =
+            CountMin.deCadenas(AlgoritmoDispersor.XXH64_STRING, 0.01, 0.01,
+                               false);
+        CountMin<String> d =
+            CountMin.deCadenas(AlgoritmoDispersor.XXH64_STRING, 0.01, 0.01,
+                               false);
+        c.agrega("a", 3);
+        d.agrega("a", 4);
+        c.une(d);
+        Assert.assertTrue(c.estima("a") >= 7);
+        try {
+            a.une(new CountMin<Integer>(primero, segundo, 0.1, 0.01, true));
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+    }
+}
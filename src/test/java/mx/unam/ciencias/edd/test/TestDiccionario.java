@@ -0,0 +1,332 @@
+package mx.unam.ciencias.edd.test;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import mx.unam.ciencias.edd.AlgoritmoDispersor;
+import mx.unam.ciencias.edd.Diccionario;
+import mx.unam.ciencias.edd.Dispersor;
+import mx.unam.ciencias.edd.FabricaDispersores;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+/**
+ * Clase para pruebas unitarias de la clase {@link Diccionario}.
+ */
+public class TestDiccionario {
+
+    /** Expiración para que ninguna prueba tarde más de 5 segundos. */
+    @Rule public Timeout expiracion = Timeout.seconds(5);
+
+    /* Generador de números aleatorios. */
+    private Random random;
+    /* El diccionario. */
+    private Diccionario<String, Integer> diccionario;
+
+    /**
+     * Crea un diccionario para cada prueba.
+     */
+    public TestDiccionario() {
+        random = new Random();
+        Dispersor<String> d =
+            FabricaDispersores.dispersorCadena(AlgoritmoDispersor.BJ_STRING);
+        diccionario = new Diccionario<String, Integer>(d);
+    }
+
+    /* Compara el diccionario con el mapa de referencia. */
+    private static void compara(Diccionario<String, Integer> diccionario,
+                                HashMap<String, Integer> mapa) {
+        Assert.assertTrue(diccionario.getElementos() == mapa.size());
+        Assert.assertTrue(diccionario.esVacia() == mapa.isEmpty());
+        HashSet<String> vistas = new HashSet<String>();
+        Iterator<String> i = diccionario.iteradorLlaves();
+        while (i.hasNext()) {
+            String llave = i.next();
+            Assert.assertTrue(vistas.add(llave));
+            Assert.assertTrue(diccionario.get(llave).equals(mapa.get(llave)));
+        }
+        Assert.assertTrue(vistas.size() == mapa.size());
+        int valores = 0;
+        for (Integer v : diccionario) {
+            Assert.assertTrue(v != null);
+            valores++;
+        }
+        Assert.assertTrue(valores == mapa.size());
+    }
+
+    /**
+     * Prueba unitaria para {@link Diccionario#Diccionario(Dispersor,int,double)}.
+     */
+    @Test public void testConstructor() {
+        Assert.assertTrue(diccionario.esVacia());
+        Assert.assertTrue(diccionario.getElementos() == 0);
+        Assert.assertFalse(diccionario.iterator().hasNext());
+        Dispersor<String> d = FabricaDispersores.dispersorCadena(
+            AlgoritmoDispersor.XXH64_STRING);
+        try {
+            new Diccionario<String, Integer>(d, -1);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+        try {
+            new Diccionario<String, Integer>(d, 10, 0.0);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+        try {
+            new Diccionario<String, Integer>(d, 10, 1.0);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+        try {
+            new Diccionario<String, Integer>(d, 10, Double.NaN);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+        try {
+            new Diccionario<String, Integer>(null);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link Diccionario#agrega} y {@link
+     * Diccionario#get}.
+     */
+    @Test public void testAgrega() {
+        HashMap<String, Integer> mapa = new HashMap<String, Integer>();
+        int n = 1000 + random.nextInt(1000);
+        for (int i = 0; i < n; i++) {
+            String llave = String.valueOf(random.nextInt(n));
+            Assert.assertTrue(diccionario.contiene(llave) ==
+                              mapa.containsKey(llave));
+            diccionario.agrega(llave, i);
+            mapa.put(llave, i);
+            Assert.assertTrue(diccionario.get(llave) == i);
+            Assert.assertTrue(diccionario.getElementos() == mapa.size());
+        }
+        compara(diccionario, mapa);
+        Assert.assertTrue(diccionario.get("no está") == null);
+        Assert.assertFalse(diccionario.contiene(null));
+        try {
+            diccionario.agrega(null, 1);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+        try {
+            diccionario.agrega("a", null);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link Diccionario#elimina}.
+     */
+    @Test public void testElimina() {
+        HashMap<String, Integer> mapa = new HashMap<String, Integer>();
+        int n = 2000;
+        for (int i = 0; i < 20 * n; i++) {
+            String llave = String.valueOf(random.nextInt(n));
+            if (random.nextInt(3) == 0) {
+                diccionario.elimina(llave);
+                mapa.remove(llave);
+                Assert.assertFalse(diccionario.contiene(llave));
+            } else {
+                diccionario.agrega(llave, i);
+                mapa.put(llave, i);
+            }
+            Assert.assertTrue(diccionario.getElementos() == mapa.size());
+        }
+        compara(diccionario, mapa);
+        for (String llave : mapa.keySet())
+            diccionario.elimina(llave);
+        Assert.assertTrue(diccionario.esVacia());
+        Assert.assertFalse(diccionario.iteradorLlaves().hasNext());
+        diccionario.elimina(null);
+    }
+
+    /**
+     * Prueba unitaria para {@link Diccionario} con un dispersor que manda
+     * todas las llaves al mismo lugar.
+     */
+    @Test public void testColisiones() {
+        Diccionario<String, Integer> malo =
+            new Diccionario<String, Integer>(s -> 0, 0, 0.9);
+        HashMap<String, Integer> mapa = new HashMap<String, Integer>();
+        for (int i = 0; i < 2000; i++) {
+            String llave = String.valueOf(random.nextInt(200));
+            if (random.nextBoolean()) {
+                malo.elimina(llave);
+                mapa.remove(llave);
+            } else {
+                malo.agrega(llave, i);
+                mapa.put(llave, i);
+            }
+        }
+        compara(malo, mapa);
+    }
+
+    /**
+     * Prueba unitaria para {@link Diccionario} mientras crece de manera
+     * incremental: las llaves deben encontrarse en cualquiera de las dos
+     * tablas.
+     */
+    @Test public void testCrecimientoIncremental() {
+        Diccionario<Integer, Integer> d =
+            new Diccionario<Integer, Integer>(i -> i, 0, 0.5);
+        HashMap<Integer, Integer> mapa = new HashMap<Integer, Integer>();
+        for (int i = 0; i < 5000; i++) {
+            int llave = random.nextInt(10000);
+            d.agrega(llave, i);
+            mapa.put(llave, i);
+            int otra = random.nextInt(10000);
+            Assert.assertTrue(d.contiene(otra) == mapa.containsKey(otra));
+            if (random.nextInt(4) == 0) {
+                d.elimina(otra);
+                mapa.remove(otra);
+            }
+            if (i % 97 == 0) {
+                Assert.assertTrue(d.getElementos() == mapa.size());
+                int n = 0;
+                for (Integer v : d)
+                    n++;
+                Assert.assertTrue(n == mapa.size());
+            }
+        }
+        for (Integer llave : mapa.keySet())
+            Assert.assertTrue(d.get(llave).equals(mapa.get(llave)));
+    }
+
+    /* Inverso multiplicativo módulo 2^32 de un entero impar. */
+    private static int inverso(int a) {
+        int x = a;
+        for (int i = 0; i < 5; i++)
+            x *= 2 - a * x;
+        return x;
+    }
+
+    /* Inverso de Dispersores.mezclaMurmur32, para que el diccionario mande
+       una llave al lugar que queramos. */
+    private static int desmezcla(int h) {
+        h ^= h >>> 16;
+        h *= inverso(0xc2b2ae35);
+        h ^= (h >>> 13) ^ (h >>> 26);
+        h *= inverso(0x85ebca6b);
+        h ^= h >>> 16;
+        return h;
+    }
+
+    /**
+     * Prueba unitaria para {@link Diccionario} mientras crece, con un cúmulo
+     * que da la vuelta del final al principio de la tabla vieja: las llaves
+     * del cúmulo deben encontrarse mientras se migran las primeras entradas.
+     */
+    @Test public void testCumuloCircular() {
+        // La llave (l << 8) | n va a la entrada l de cualquier tabla.
+        Diccionario<Integer, Integer> d =
+            new Diccionario<Integer, Integer>(k -> desmezcla(k >>> 8), 47);
+        HashMap<Integer, Integer> mapa = new HashMap<Integer, Integer>();
+        // Con 47 elementos la tabla es de 64 y crece al llegar a 49; 14
+        // llaves en la entrada 60 ocupan de la 60 a la 9.
+        for (int n = 0; n < 14; n++) {
+            d.agrega((60 << 8) | n, n);
+            mapa.put((60 << 8) | n, n);
+        }
+        for (int n = 0; n < 34; n++) {
+            int llave = ((10 + n) << 8) | 100;
+            d.agrega(llave, n);
+            mapa.put(llave, n);
+        }
+        for (int n = 0; n < 40; n++) {
+            int llave = ((10 + n) << 8) | 200;
+            d.agrega(llave, n);
+            mapa.put(llave, n);
+            if (n % 5 == 4) {
+                int otra = (60 << 8) | (n / 5);
+                d.elimina(otra);
+                mapa.remove(otra);
+            }
+            Assert.assertTrue(d.getElementos() == mapa.size());
+            for (Integer k : mapa.keySet())
+                Assert.assertTrue(d.get(k).equals(mapa.get(k)));
+            for (int m = 0; m < 14; m++) {
+                int k = (60 << 8) | m;
+                Assert.assertTrue(d.contiene(k) == mapa.containsKey(k));
+            }
+        }
+    }
+
+    /**
+     * Prueba unitaria para {@link Diccionario} con factores de carga altos,
+     * creciendo y eliminando al mismo tiempo, contra un mapa de referencia.
+     */
+    @Test public void testCargaAlta() {
+        double[] cargas = { 0.9, 0.95 };
+        for (double carga : cargas) {
+            for (int corrida = 0; corrida < 150; corrida++) {
+                Diccionario<Integer, Integer> d =
+                    new Diccionario<Integer, Integer>(i -> i, 0, carga);
+                HashMap<Integer, Integer> mapa =
+                    new HashMap<Integer, Integer>();
+                for (int i = 0; i < 300; i++) {
+                    int llave = random.nextInt(400);
+                    if (random.nextInt(3) == 0) {
+                        d.elimina(llave);
+                        mapa.remove(llave);
+                    } else {
+                        d.agrega(llave, i);
+                        mapa.put(llave, i);
+                    }
+                    Assert.assertTrue(d.getElementos() == mapa.size());
+                }
+                for (int llave = 0; llave < 400; llave++) {
+                    Integer v = mapa.get(llave);
+                    Assert.assertTrue(v == null ? d.get(llave) == null :
+                                      v.equals(d.get(llave)));
+                }
+            }
+        }
+    }
+
+    /**
+     * Prueba unitaria para {@link Diccionario#limpia}.
+     */
+    @Test public void testLimpia() {
+        for (int i = 0; i < 100; i++)
+            diccionario.agrega(String.valueOf(i), i);
+        diccionario.limpia();
+        Assert.assertTrue(diccionario.esVacia());
+        Assert.assertFalse(diccionario.contiene("1"));
+        Assert.assertFalse(diccionario.iterator().hasNext());
+        diccionario.agrega("1", 1);
+        Assert.assertTrue(diccionario.get("1") == 1);
+    }
+
+    /**
+     * Prueba unitaria para {@link Diccionario#iterator} y {@link
+     * Diccionario#iteradorLlaves}.
+     */
+    @Test public void testIteradores() {
+        Iterator<Integer> i = diccionario.iterator();
+        try {
+            i.next();
+            Assert.fail();
+        } catch (NoSuchElementException nsee) {}
+        diccionario.agrega("a", 1);
+        Iterator<String> j = diccionario.iteradorLlaves();
+        Assert.assertTrue(j.hasNext());
+        Assert.assertTrue(j.next().equals("a"));
+        Assert.assertFalse(j.hasNext());
+    }
+
+    /**
+     * Prueba unitaria para {@link Diccionario#toString}.
+     */
+    @Test public void testToString() {
+        Assert.assertTrue(diccionario.toString().equals("{}"));
+        diccionario.agrega("a", 1);
+        Assert.assertTrue(diccionario.toString().equals("{a: 1}"));
+        diccionario.agrega("b", 2);
+        String s = diccionario.toString();
+        Assert.assertTrue(s.equals("{a: 1, b: 2}") || s.equals("{b: 2, a: 1}"));
+    }
+}
@@ -0,0 +1,187 @@
+package mx.unam.ciencias.edd.test;
+
+import java.util.HashMap;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+import mx.unam.ciencias.edd.DiccionarioConcurrente;
+import mx.unam.ciencias.edd.Dispersor;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+/**
+ * Clase para pruebas unitarias de la clase {@link DiccionarioConcurrente}.
+ */
+public class TestDiccionarioConcurrente {
+
+    /** Expiración para que ninguna prueba tarde más de 5 segundos. */
+    @Rule public Timeout expiracion = Timeout.seconds(5);
+
+    /* Número de hilos. */
+    private static final int HILOS = 4;
+
+    /* Generador de números aleatorios. */
+    private Random random;
+    /* El dispersor. */
+    private Dispersor<Integer> dispersor;
+
+    /**
+     * Crea un generador de números aleatorios para cada prueba.
+     */
+    public TestDiccionarioConcurrente() {
+        random = new Random();
+        dispersor = i -> i;
+    }
+
+    /**
+     * Prueba unitaria para {@link DiccionarioConcurrente} con un solo hilo.
+     */
+    @Test public void testOperaciones() {
+        DiccionarioConcurrente<Integer, Integer> diccionario =
+            new DiccionarioConcurrente<Integer, Integer>(dispersor);
+        HashMap<Integer, Integer> mapa = new HashMap<Integer, Integer>();
+        Assert.assertTrue(diccionario.esVacia());
+        for (int i = 0; i < 20000; i++) {
+            int llave = random.nextInt(2000);
+            switch (random.nextInt(3)) {
+            case 0:
+                Assert.assertTrue(eq(diccionario.agrega(llave, i),
+                                     mapa.put(llave, i)));
+                break;
+            case 1:
+                Assert.assertTrue(eq(diccionario.elimina(llave),
+                                     mapa.remove(llave)));
+                break;
+            default:
+                Assert.assertTrue(eq(diccionario.agregaSiAusente(llave, i),
+                                     mapa.putIfAbsent(llave, i)));
+            }
+            Assert.assertTrue(eq(diccionario.get(llave), mapa.get(llave)));
+            Assert.assertTrue(diccionario.getElementos() == mapa.size());
+        }
+        int n = 0;
+        for (Integer v : diccionario) {
+            Assert.assertTrue(mapa.containsValue(v));
+            n++;
+        }
+        Assert.assertTrue(n == mapa.size());
+        diccionario.limpia();
+        Assert.assertTrue(diccionario.esVacia());
+        Assert.assertFalse(diccionario.iterator().hasNext());
+        try {
+            diccionario.agrega(null, 1);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+        try {
+            new DiccionarioConcurrente<Integer, Integer>(dispersor, 0, 0);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+    }
+
+    /* Compara dos enteros que pueden ser null. */
+    private static boolean eq(Integer a, Integer b) {
+        return a == null ? b == null : a.equals(b);
+    }
+
+    /* Corre las tareas en hilos y espera a que terminen. */
+    private static void corre(Runnable... tareas) throws InterruptedException {
+        Thread[] hilos = new Thread[tareas.length];
+        for (int i = 0; i < tareas.length; i++) {
+            hilos[i] = new Thread(tareas[i]);
+            hilos[i].start();
+        }
+        for (Thread hilo : hilos)
+            hilo.join();
+    }
+
+    /**
+     * Prueba unitaria para {@link DiccionarioConcurrente#agrega} desde varios
+     * hilos.
+     * @throws InterruptedException si se interrumpe la prueba.
+     */
+    @Test public void testAgregaConcurrente() throws InterruptedException {
+        DiccionarioConcurrente<Integer, Integer> diccionario =
+            new DiccionarioConcurrente<Integer, Integer>(dispersor, 0, HILOS);
+        int n = 20000;
+        Runnable[] tareas = new Runnable[HILOS];
+        for (int t = 0; t < HILOS; t++) {
+            int hilo = t;
+            tareas[t] = () -> {
+                for (int i = hilo; i < n; i += HILOS)
+                    diccionario.agrega(i, -i);
+            };
+        }
+        corre(tareas);
+        Assert.assertTrue(diccionario.getElementos() == n);
+        for (int i = 0; i < n; i++)
+            Assert.assertTrue(diccionario.get(i) == -i);
+    }
+
+    /**
+     * Prueba unitaria para {@link DiccionarioConcurrente#agregaSiAusente}
+     * desde varios hilos: sólo un hilo gana cada llave.
+     * @throws InterruptedException si se interrumpe la prueba.
+     */
+    @Test public void testAgregaSiAusenteConcurrente()
+        throws InterruptedException {
+        DiccionarioConcurrente<Integer, Integer> diccionario =
+            new DiccionarioConcurrente<Integer, Integer>(dispersor, 0, 2);
+        int n = 10000;
+        int[] ganadas = new int[HILOS];
+        Runnable[] tareas = new Runnable[HILOS];
+        for (int t = 0; t < HILOS; t++) {
+            int hilo = t;
+            tareas[t] = () -> {
+                for (int i = 0; i < n; i++)
+                    if (diccionario.agregaSiAusente(i, hilo) == null)
+                        ganadas[hilo]++;
+            };
+        }
+        corre(tareas);
+        int total = 0;
+        for (int g : ganadas)
+            total += g;
+        Assert.assertTrue(total == n);
+        for (int i = 0; i < n; i++)
+            Assert.assertTrue(ganadas[diccionario.get(i)] > 0);
+    }
+
+    /**
+     * Prueba unitaria para {@link DiccionarioConcurrente#get} mientras otros
+     * hilos agregan y eliminan llaves y las tablas crecen: las lecturas sin
+     * candado siempre encuentran las llaves que no se modifican.
+     * @throws InterruptedException si se interrumpe la prueba.
+     */
+    @Test public void testLecturasConcurrentes() throws InterruptedException {
+        DiccionarioConcurrente<Integer, Integer> diccionario =
+            new DiccionarioConcurrente<Integer, Integer>(dispersor, 0, 4);
+        int fijas = 1000;
+        for (int i = 0; i < fijas; i++)
+            diccionario.agrega(i, i);
+        AtomicBoolean error = new AtomicBoolean();
+        AtomicBoolean termina = new AtomicBoolean();
+        Runnable escritor = () -> {
+            Random r = new Random();
+            for (int i = 0; i < 50000; i++) {
+                int llave = fijas + r.nextInt(20000);
+                if (r.nextBoolean())
+                    diccionario.agrega(llave, llave);
+                else
+                    diccionario.elimina(llave);
+            }
+            termina.set(true);
+        };
+        Runnable lector = () -> {
+            Random r = new Random();
+            while (!termina.get()) {
+                int llave = r.nextInt(fijas);
+                Integer v = diccionario.get(llave);
+                if (v == null || v != llave)
+                    error.set(true);
+            }
+        };
+        corre(escritor, escritor, lector, lector);
+        Assert.assertFalse(error.get());
+    }
+}
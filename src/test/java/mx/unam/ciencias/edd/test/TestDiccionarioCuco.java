@@ -0,0 +1,139 @@
+package mx.unam.ciencias.edd.test;
+
+import java.util.HashMap;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import mx.unam.ciencias.edd.AlgoritmoDispersor;
+import mx.unam.ciencias.edd.DiccionarioCuco;
+import mx.unam.ciencias.edd.FabricaDispersores;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+/**
+ * Clase para pruebas unitarias de la clase {@link DiccionarioCuco}.
+ */
+public class TestDiccionarioCuco {
+
+    /** Expiración para que ninguna prueba tarde más de 5 segundos. */
+    @Rule public Timeout expiracion = Timeout.seconds(5);
+
+    /* Generador de números aleatorios. */
+    private Random random;
+
+    /**
+     * Crea un generador de números aleatorios para cada prueba.
+     */
+    public TestDiccionarioCuco() {
+        random = new Random();
+    }
+
+    /* Hace operaciones aleatorias en el diccionario y en la referencia. */
+    private void opera(DiccionarioCuco<Integer, Integer> diccionario,
+                       int rango, int n) {
+        HashMap<Integer, Integer> mapa = new HashMap<Integer, Integer>();
+        for (int i = 0; i < n; i++) {
+            int llave = random.nextInt(rango);
+            if (random.nextInt(3) != 0) {
+                diccionario.agrega(llave, i);
+                mapa.put(llave, i);
+            } else {
+                diccionario.elimina(llave);
+                mapa.remove(llave);
+            }
+            Assert.assertTrue(diccionario.contiene(llave) ==
+                              mapa.containsKey(llave));
+            Assert.assertTrue(diccionario.getElementos() == mapa.size());
+            Assert.assertTrue(diccionario.getEscondidos() <=
+                              DiccionarioCuco.ESCONDITE);
+        }
+        for (Integer llave : mapa.keySet())
+            Assert.assertTrue(diccionario.get(llave).equals(mapa.get(llave)));
+        int valores = 0;
+        for (Integer v : diccionario)
+            valores++;
+        Assert.assertTrue(valores == mapa.size());
+    }
+
+    /**
+     * Prueba unitaria para {@link DiccionarioCuco#agrega}, {@link
+     * DiccionarioCuco#get} y {@link DiccionarioCuco#elimina}.
+     */
+    @Test public void testOperaciones() {
+        opera(new DiccionarioCuco<Integer, Integer>(
+                  FabricaDispersores.dispersorInt()::dispersa,
+                  i -> FabricaDispersores.dispersorLong().dispersa(i)),
+              5000, 30000);
+    }
+
+    /**
+     * Prueba unitaria para {@link DiccionarioCuco} con dispersores que
+     * producen muchas colisiones, para usar desalojos y el escondite.
+     */
+    @Test public void testColisiones() {
+        opera(new DiccionarioCuco<Integer, Integer>(i -> i & 31,
+                                                    i -> (i >>> 5) & 31),
+              150, 3000);
+    }
+
+    /**
+     * Prueba unitaria para {@link DiccionarioCuco} con dispersores que no
+     * distribuyen las llaves.
+     */
+    @Test public void testDispersoresDegenerados() {
+        DiccionarioCuco<Integer, Integer> diccionario =
+            new DiccionarioCuco<Integer, Integer>(i -> 0, i -> 0);
+        try {
+            for (int i = 0; i < 100; i++)
+                diccionario.agrega(i, i);
+            Assert.fail();
+        } catch (IllegalStateException ise) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link DiccionarioCuco#deCadenas}.
+     */
+    @Test public void testDeCadenas() {
+        DiccionarioCuco<String, Integer> diccionario =
+            DiccionarioCuco.deCadenas(AlgoritmoDispersor.BJ_STRING,
+                                      AlgoritmoDispersor.BJ_STRING);
+        for (int i = 0; i < 5000; i++)
+            diccionario.agrega("llave" + i, i);
+        Assert.assertTrue(diccionario.getElementos() == 5000);
+        for (int i = 0; i < 5000; i++)
+            Assert.assertTrue(diccionario.get("llave" + i) == i);
+        Assert.assertTrue(diccionario.get("otra") == null);
+        try {
+            DiccionarioCuco.deCadenas(AlgoritmoDispersor.DJB_STRING,
+                                      AlgoritmoDispersor.BJ_STRING);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link DiccionarioCuco#limpia} y {@link
+     * DiccionarioCuco#iterator}.
+     */
+    @Test public void testLimpia() {
+        DiccionarioCuco<String, Integer> diccionario =
+            DiccionarioCuco.deCadenas(AlgoritmoDispersor.XXH64_STRING,
+                                      AlgoritmoDispersor.MURMUR128_STRING);
+        Assert.assertTrue(diccionario.esVacia());
+        try {
+            diccionario.iterator().next();
+            Assert.fail();
+        } catch (NoSuchElementException nsee) {}
+        diccionario.agrega("a", 1);
+        diccionario.agrega("a", 2);
+        Assert.assertTrue(diccionario.get("a") == 2);
+        Assert.assertTrue(diccionario.getElementos() == 1);
+        diccionario.limpia();
+        Assert.assertTrue(diccionario.esVacia());
+        Assert.assertFalse(diccionario.contiene("a"));
+        try {
+            diccionario.agrega("b", null);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+    }
+}
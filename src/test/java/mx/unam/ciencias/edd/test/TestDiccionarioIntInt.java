@@ -0,0 +1,108 @@
+package mx.unam.ciencias.edd.test;
+
+import java.util.HashMap;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import mx.unam.ciencias.edd.DiccionarioIntInt;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+/**
+ * Clase para pruebas unitarias de la clase {@link DiccionarioIntInt}.
+ */
+public class TestDiccionarioIntInt {
+
+    /** Expiración para que ninguna prueba tarde más de 5 segundos. */
+    @Rule public Timeout expiracion = Timeout.seconds(5);
+
+    /* Generador de números aleatorios. */
+    private Random random;
+
+    /**
+     * Crea un generador de números aleatorios para cada prueba.
+     */
+    public TestDiccionarioIntInt() {
+        random = new Random();
+    }
+
+    /* Hace operaciones aleatorias en el diccionario y en la referencia. */
+    private void opera(DiccionarioIntInt diccionario, int rango, int n) {
+        HashMap<Integer, Integer> mapa = new HashMap<Integer, Integer>();
+        for (int i = 0; i < n; i++) {
+            int llave = random.nextInt(rango) - rango / 2;
+            switch (random.nextInt(3)) {
+            case 0:
+                diccionario.agrega(llave, i);
+                mapa.put(llave, i);
+                break;
+            case 1:
+                diccionario.elimina(llave);
+                mapa.remove(llave);
+                break;
+            default:
+                Integer v = mapa.get(llave);
+                int nuevo = v == null ? 1 : v + 1;
+                Assert.assertTrue(diccionario.incrementa(llave, 1) == nuevo);
+                mapa.put(llave, nuevo);
+            }
+            Assert.assertTrue(diccionario.contiene(llave) ==
+                              mapa.containsKey(llave));
+            Assert.assertTrue(diccionario.getElementos() == mapa.size());
+        }
+        int[] llaves = diccionario.llaves();
+        Assert.assertTrue(llaves.length == mapa.size());
+        for (int llave : llaves)
+            Assert.assertTrue(diccionario.get(llave) == mapa.get(llave));
+        for (Integer llave : mapa.keySet())
+            Assert.assertTrue(diccionario.get(llave, -1) == mapa.get(llave));
+    }
+
+    /**
+     * Prueba unitaria para {@link DiccionarioIntInt#agrega}, {@link
+     * DiccionarioIntInt#elimina} y {@link DiccionarioIntInt#incrementa}.
+     */
+    @Test public void testOperaciones() {
+        opera(new DiccionarioIntInt(), 2000, 20000);
+        opera(new DiccionarioIntInt(100), 20, 2000);
+    }
+
+    /**
+     * Prueba unitaria para {@link DiccionarioIntInt} con un dispersor que
+     * produce muchas colisiones.
+     */
+    @Test public void testColisiones() {
+        opera(new DiccionarioIntInt(x -> x & 3, 0, 0.9), 300, 5000);
+    }
+
+    /**
+     * Prueba unitaria para {@link DiccionarioIntInt#get} y la llave 0.
+     */
+    @Test public void testGet() {
+        DiccionarioIntInt diccionario = new DiccionarioIntInt();
+        try {
+            diccionario.get(0);
+            Assert.fail();
+        } catch (NoSuchElementException nsee) {}
+        try {
+            diccionario.get(7);
+            Assert.fail();
+        } catch (NoSuchElementException nsee) {}
+        Assert.assertTrue(diccionario.get(0, -1) == -1);
+        diccionario.agrega(0, 5);
+        Assert.assertTrue(diccionario.get(0) == 5);
+        Assert.assertTrue(diccionario.incrementa(0, 2) == 7);
+        Assert.assertTrue(diccionario.getElementos() == 1);
+        diccionario.elimina(0);
+        Assert.assertTrue(diccionario.esVacia());
+        diccionario.agrega(3, 3);
+        diccionario.limpia();
+        Assert.assertTrue(diccionario.esVacia());
+        Assert.assertFalse(diccionario.contiene(3));
+        try {
+            new DiccionarioIntInt(-1);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+    }
+}
@@ -0,0 +1,95 @@
+package mx.unam.ciencias.edd.test;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import mx.unam.ciencias.edd.DiccionarioLongObj;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+/**
+ * Clase para pruebas unitarias de la clase {@link DiccionarioLongObj}.
+ */
+public class TestDiccionarioLongObj {
+
+    /** Expiración para que ninguna prueba tarde más de 5 segundos. */
+    @Rule public Timeout expiracion = Timeout.seconds(5);
+
+    /* Generador de números aleatorios. */
+    private Random random;
+
+    /**
+     * Crea un generador de números aleatorios para cada prueba.
+     */
+    public TestDiccionarioLongObj() {
+        random = new Random();
+    }
+
+    /* Hace operaciones aleatorias en el diccionario y en la referencia. */
+    private void opera(DiccionarioLongObj<String> diccionario, int rango,
+                       int n) {
+        HashMap<Long, String> mapa = new HashMap<Long, String>();
+        for (int i = 0; i < n; i++) {
+            long llave = (random.nextInt(rango) - rango / 2) * 0x100000001L;
+            if (random.nextInt(3) != 0) {
+                diccionario.agrega(llave, "v" + i);
+                mapa.put(llave, "v" + i);
+            } else {
+                diccionario.elimina(llave);
+                mapa.remove(llave);
+            }
+            Assert.assertTrue(diccionario.contiene(llave) ==
+                              mapa.containsKey(llave));
+            Assert.assertTrue(diccionario.getElementos() == mapa.size());
+        }
+        long[] llaves = diccionario.llaves();
+        Assert.assertTrue(llaves.length == mapa.size());
+        Iterator<String> iterador = diccionario.iterator();
+        for (long llave : llaves) {
+            Assert.assertTrue(diccionario.get(llave).equals(mapa.get(llave)));
+            Assert.assertTrue(iterador.next().equals(mapa.get(llave)));
+        }
+        Assert.assertFalse(iterador.hasNext());
+    }
+
+    /**
+     * Prueba unitaria para {@link DiccionarioLongObj#agrega} y {@link
+     * DiccionarioLongObj#elimina}.
+     */
+    @Test public void testOperaciones() {
+        opera(new DiccionarioLongObj<String>(), 2000, 20000);
+        opera(new DiccionarioLongObj<String>(x -> (int)x & 3, 0, 0.9),
+              300, 5000);
+    }
+
+    /**
+     * Prueba unitaria para {@link DiccionarioLongObj#iterator} y la llave 0.
+     */
+    @Test public void testIterador() {
+        DiccionarioLongObj<String> diccionario =
+            new DiccionarioLongObj<String>(4);
+        Iterator<String> i = diccionario.iterator();
+        Assert.assertFalse(i.hasNext());
+        try {
+            i.next();
+            Assert.fail();
+        } catch (NoSuchElementException nsee) {}
+        diccionario.agrega(0, "cero");
+        diccionario.agrega(Long.MIN_VALUE, "mínimo");
+        Assert.assertTrue(diccionario.get(0).equals("cero"));
+        int n = 0;
+        for (String s : diccionario)
+            n++;
+        Assert.assertTrue(n == 2);
+        try {
+            diccionario.agrega(1, null);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+        diccionario.limpia();
+        Assert.assertTrue(diccionario.esVacia());
+        Assert.assertTrue(diccionario.get(0) == null);
+    }
+}
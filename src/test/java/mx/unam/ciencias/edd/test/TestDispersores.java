@@ -1,8 +1,15 @@
 package mx.unam.ciencias.edd.test;
 
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.Random;
+import mx.unam.ciencias.edd.AlgoritmoDispersor;
 import mx.unam.ciencias.edd.Dispersores;
+import mx.unam.ciencias.edd.Huella128;
+import mx.unam.ciencias.edd.ExcepcionIndiceInvalido;
 import org.junit.Assert;
+import org.junit.Assume;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.Timeout;
@@ -135,6 +142,98 @@ public class TestDispersores {
         }
     }
 
+    /* Implementación de referencia de XOR, que rellena con ceros. */
+    private static int referenciaXOR(byte[] llave) {
+        int m = (llave.length + 3) / 4 * 4;
+        byte[] relleno = new byte[m];
+        for (int i = 0; i < llave.length; i++)
+            relleno[i] = llave[i];
+        int r = 0;
+        for (int i = 0; i < m; i += 4)
+            r ^= ((relleno[i] & 0xFF) << 24) | ((relleno[i+1] & 0xFF) << 16) |
+                ((relleno[i+2] & 0xFF) << 8) | (relleno[i+3] & 0xFF);
+        return r;
+    }
+
+    /**
+     * Prueba unitaria para {@link Dispersores#dispersaXOR} con llaves
+     * aleatorias, comparando contra la versión que rellena con ceros.
+     */
+    @Test public void testDispersaXORSinRelleno() {
+        Random random = new Random();
+        for (int i = 0; i < 1000; i++) {
+            byte[] llave = new byte[random.nextInt(1024)];
+            random.nextBytes(llave);
+            Assert.assertTrue(referenciaXOR(llave) ==
+                              Dispersores.dispersaXOR(llave));
+        }
+    }
+
+    /* Acumula las dispersiones de las pruebas de asignación, para que no se
+       descarten. */
+    private static int sumidero;
+
+    /* Corre la acción las veces dadas y regresa los bytes que asignó el
+       hilo, o -1 si la máquina virtual no sabe contarlos. */
+    private static long bytesAsignados(Runnable accion, int veces) {
+        java.lang.management.ThreadMXBean mx =
+            ManagementFactory.getThreadMXBean();
+        if (!(mx instanceof com.sun.management.ThreadMXBean))
+            return -1;
+        com.sun.management.ThreadMXBean hilos =
+            (com.sun.management.ThreadMXBean)mx;
+        if (!hilos.isThreadAllocatedMemorySupported() ||
+            !hilos.isThreadAllocatedMemoryEnabled())
+            return -1;
+        long id = Thread.currentThread().getId();
+        for (int i = 0; i < veces; i++)
+            accion.run();
+        long antes = hilos.getThreadAllocatedBytes(id);
+        for (int i = 0; i < veces; i++)
+            accion.run();
+        return hilos.getThreadAllocatedBytes(id) - antes;
+    }
+
+    /**
+     * Prueba que {@link Dispersores#dispersaXOR(byte[],int,int)} y {@link
+     * Dispersores#dispersaDJB(byte[],int,int)} no asignan memoria, también
+     * con llaves de longitud impar.
+     */
+    @Test public void testDispersaXORDJBSinAsignar() {
+        byte[] llave = subArreglo(7);
+        byte[] larga = new byte[77];
+        new Random().nextBytes(larga);
+        long xor = bytesAsignados(() -> {
+                sumidero += Dispersores.dispersaXOR(llave, 0, 7);
+                sumidero += Dispersores.dispersaXOR(larga, 3, 71);
+            }, 20000);
+        Assume.assumeTrue(xor >= 0);
+        long djb = bytesAsignados(() -> {
+                sumidero += Dispersores.dispersaDJB(llave, 0, 7);
+                sumidero += Dispersores.dispersaDJB(larga, 3, 71);
+            }, 20000);
+        // Unos cuantos bytes de ruido, pero no uno por llamada.
+        Assert.assertTrue(xor < 1000);
+        Assert.assertTrue(djb < 1000);
+    }
+
+    /**
+     * Prueba que {@link Dispersores#dispersaBJ(byte[],int,int)} no asigna
+     * memoria, con llaves que no son múltiplo de 12 bytes.
+     */
+    @Test public void testDispersaBJSinAsignar() {
+        byte[] llave = subArreglo(7);
+        byte[] larga = new byte[77];
+        new Random().nextBytes(larga);
+        long bj = bytesAsignados(() -> {
+                sumidero += Dispersores.dispersaBJ(llave, 0, 7);
+                sumidero += Dispersores.dispersaBJ(larga, 3, 71);
+            }, 20000);
+        Assume.assumeTrue(bj >= 0);
+        // Unos cuantos bytes de ruido, pero no uno por llamada.
+        Assert.assertTrue(bj < 1000);
+    }
+
     /**
      * Prueba unitaria para {@link Dispersores#dispersaBJ}.
      */
@@ -156,4 +255,593 @@ public class TestDispersores {
             Assert.assertTrue(RESULTADOS_DJB[i-1] == r);
         }
     }
+
+    /**
+     * Prueba unitaria para {@link Dispersores#dispersaDJB} con llaves
+     * aleatorias largas, comparando contra la versión byte por byte.
+     */
+    @Test public void testDispersaDJBLargas() {
+        Random random = new Random();
+        for (int i = 0; i < 1000; i++) {
+            byte[] llave = new byte[random.nextInt(1024)];
+            random.nextBytes(llave);
+            int h = 5381;
+            for (byte b : llave)
+                h = h * 33 + (b & 0xFF);
+            Assert.assertTrue(h == Dispersores.dispersaDJB(llave));
+            ByteBuffer directo = ByteBuffer.allocateDirect(llave.length);
+            directo.put(llave).flip();
+            Assert.assertTrue(h == Dispersores.dispersaDJB(directo));
+        }
+    }
+
+    /* Regresa un arreglo con el subarreglo de tamaño n, rodeado de basura. */
+    private byte[] envuelto(int n, int off) {
+        byte[] arreglo = new byte[off + n + 7];
+        new Random().nextBytes(arreglo);
+        for (int i = 0; i < n; i++)
+            arreglo[off+i] = ARREGLO[i];
+        return arreglo;
+    }
+
+    /* Regresa un buffer directo con el subarreglo de tamaño n en su
+       posición, rodeado de basura. */
+    private ByteBuffer directo(int n, int off) {
+        byte[] arreglo = envuelto(n, off);
+        ByteBuffer buffer = ByteBuffer.allocateDirect(arreglo.length);
+        buffer.put(arreglo);
+        buffer.position(off);
+        buffer.limit(off + n);
+        return buffer;
+    }
+
+    /**
+     * Prueba unitaria para {@link Dispersores#dispersaXOR(byte[],int,int)} y
+     * {@link Dispersores#dispersaXOR(ByteBuffer)}.
+     */
+    @Test public void testDispersaXORRango() {
+        for (int i = 1; i < ARREGLO.length; i++) {
+            int off = i % 5;
+            byte[] arreglo = envuelto(i, off);
+            Assert.assertTrue(RESULTADOS_XOR[i-1] ==
+                              Dispersores.dispersaXOR(arreglo, off, i));
+            ByteBuffer heap = ByteBuffer.wrap(arreglo, off, i);
+            Assert.assertTrue(RESULTADOS_XOR[i-1] ==
+                              Dispersores.dispersaXOR(heap.slice()));
+            Assert.assertTrue(RESULTADOS_XOR[i-1] ==
+                              Dispersores.dispersaXOR(heap));
+            ByteBuffer directo = directo(i, off);
+            Assert.assertTrue(RESULTADOS_XOR[i-1] ==
+                              Dispersores.dispersaXOR(directo));
+            Assert.assertTrue(directo.position() == off);
+        }
+    }
+
+    /**
+     * Prueba unitaria para {@link Dispersores#dispersaBJ(byte[],int,int)} y
+     * {@link Dispersores#dispersaBJ(ByteBuffer)}.
+     */
+    @Test public void testDispersaBJRango() {
+        for (int i = 1; i < ARREGLO.length; i++) {
+            int off = i % 5;
+            byte[] arreglo = envuelto(i, off);
+            Assert.assertTrue(RESULTADOS_BJ[i-1] ==
+                              Dispersores.dispersaBJ(arreglo, off, i));
+            ByteBuffer heap = ByteBuffer.wrap(arreglo, off, i);
+            Assert.assertTrue(RESULTADOS_BJ[i-1] ==
+                              Dispersores.dispersaBJ(heap.slice()));
+            Assert.assertTrue(RESULTADOS_BJ[i-1] ==
+                              Dispersores.dispersaBJ(heap));
+            ByteBuffer directo = directo(i, off);
+            Assert.assertTrue(RESULTADOS_BJ[i-1] ==
+                              Dispersores.dispersaBJ(directo));
+            Assert.assertTrue(directo.position() == off);
+        }
+    }
+
+    /**
+     * Prueba unitaria para {@link Dispersores#dispersaDJB(byte[],int,int)} y
+     * {@link Dispersores#dispersaDJB(ByteBuffer)}.
+     */
+    @Test public void testDispersaDJBRango() {
+        for (int i = 1; i < ARREGLO.length; i++) {
+            int off = i % 5;
+            byte[] arreglo = envuelto(i, off);
+            Assert.assertTrue(RESULTADOS_DJB[i-1] ==
+                              Dispersores.dispersaDJB(arreglo, off, i));
+            ByteBuffer heap = ByteBuffer.wrap(arreglo, off, i);
+            Assert.assertTrue(RESULTADOS_DJB[i-1] ==
+                              Dispersores.dispersaDJB(heap.slice()));
+            Assert.assertTrue(RESULTADOS_DJB[i-1] ==
+                              Dispersores.dispersaDJB(heap));
+            ByteBuffer directo = directo(i, off);
+            Assert.assertTrue(RESULTADOS_DJB[i-1] ==
+                              Dispersores.dispersaDJB(directo));
+            Assert.assertTrue(directo.position() == off);
+        }
+    }
+
+    /**
+     * Prueba unitaria para rangos inválidos en {@link
+     * Dispersores#dispersaDJB(byte[],int,int)}.
+     */
+    @Test public void testRangoInvalido() {
+        byte[] arreglo = new byte[8];
+        int[][] rangos = { { -1, 2 }, { 0, -1 }, { 4, 5 }, { 9, 0 } };
+        for (int[] rango : rangos) {
+            try {
+                Dispersores.dispersaDJB(arreglo, rango[0], rango[1]);
+                Assert.fail();
+            } catch (ExcepcionIndiceInvalido eii) {}
+        }
+    }
+
+    /* Regresa los bytes en ASCII de la cadena. */
+    private static byte[] bytes(String cadena) {
+        return cadena.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Prueba unitaria para {@link Dispersores#dispersaBJ64}.
+     */
+    @Test public void testDispersaBJ64() {
+        Assert.assertTrue(Dispersores.dispersaBJ64(new byte[0]) ==
+                          0xdeadbeefdeadbeefL);
+        byte[] llave = bytes("Four score and seven years ago");
+        Assert.assertTrue(Dispersores.dispersaBJ64(llave) ==
+                          0xce7226e617770551L);
+        for (int i = 0; i < ARREGLO.length; i++) {
+            long r = Dispersores.dispersaBJ64(subArreglo(i));
+            Assert.assertTrue(r == Dispersores.dispersaBJ64(envuelto(i, 3), 3, i));
+            Assert.assertTrue(r == Dispersores.dispersaBJ64(directo(i, 3)));
+        }
+    }
+
+    /**
+     * Prueba unitaria para {@link Dispersores#dispersaFNV64}.
+     */
+    @Test public void testDispersaFNV64() {
+        Assert.assertTrue(Dispersores.dispersaFNV64(new byte[0]) ==
+                          0xcbf29ce484222325L);
+        Assert.assertTrue(Dispersores.dispersaFNV64(bytes("a")) ==
+                          0xaf63dc4c8601ec8cL);
+        Assert.assertTrue(Dispersores.dispersaFNV64(bytes("foobar")) ==
+                          0x85944171f73967e8L);
+        for (int i = 0; i < ARREGLO.length; i++) {
+            long r = Dispersores.dispersaFNV64(subArreglo(i));
+            Assert.assertTrue(r == Dispersores.dispersaFNV64(envuelto(i, 3), 3, i));
+            Assert.assertTrue(r == Dispersores.dispersaFNV64(directo(i, 3)));
+        }
+    }
+
+    /**
+     * Prueba unitaria para {@link Dispersores#dispersaXXH64}.
+     */
+    @Test public void testDispersaXXH64() {
+        Assert.assertTrue(Dispersores.dispersaXXH64(new byte[0]) ==
+                          0xef46db3751d8e999L);
+        Assert.assertTrue(Dispersores.dispersaXXH64(bytes("abc")) ==
+                          0x44bc2cf5ad770999L);
+        byte[] llave = bytes("Nobody inspects the spammish repetition");
+        Assert.assertTrue(Dispersores.dispersaXXH64(llave) ==
+                          0xfbcea83c8a378bf1L);
+        for (int i = 0; i < ARREGLO.length; i++) {
+            long r = Dispersores.dispersaXXH64(subArreglo(i));
+            Assert.assertTrue(r == Dispersores.dispersaXXH64(envuelto(i, 3), 3, i));
+            Assert.assertTrue(r == Dispersores.dispersaXXH64(directo(i, 3)));
+        }
+    }
+
+    /* Longitudes para los vectores de 128 bits; cubren todos los caminos de
+       XXH128. */
+    private static final int[] LONGITUDES_128 = {
+        0, 1, 3, 5, 12, 16, 17, 100, 129, 200, 240, 241, 1024, 1500, 3000
+    };
+
+    /* Los resultados MurmurHash3 de 128 bits (bajos, altos). */
+    private static final long[][] RESULTADOS_MURMUR128 = {
+        { 0x0000000000000000L, 0x0000000000000000L },
+        { 0xc427909d8972bd17L, 0x5c15702a45b199ddL },
+        { 0x33ff6eda4da0a23bL, 0x5f905e8bd93c3afbL },
+        { 0x634332548738e00fL, 0x05368e5c33ad8afcL },
+        { 0x46f0c933f9efbf04L, 0x4d994cfc42e108f5L },
+        { 0x466b79ebf689da14L, 0x8c548b02b805858aL },
+        { 0xeb322f84309de524L, 0x082aa01f2728481bL },
+        { 0x024e0b490a12c598L, 0x6dbbc2144bf00383L },
+        { 0xd8c4559255418dbfL, 0x04f5576945d1c9ecL },
+        { 0x047bf0d4869caaf1L, 0xd0c1fb789e922a92L },
+        { 0xc2648c943e77a081L, 0x79537ed1125bebfaL },
+        { 0xb82a1bc82254c360L, 0x7a81894e62b4b65fL },
+        { 0x81a9a5a4204401e6L, 0x81dff2b157e1f185L },
+        { 0x674883d342448aa0L, 0x3e00179140acb6c7L },
+        { 0x7058259ea99f3442L, 0x5726f9d5b5c8c5a7L }
+    };
+
+    /* Los resultados XXH128 (bajos, altos). */
+    private static final long[][] RESULTADOS_XXH128 = {
+        { 0x6001c324468d497fL, 0x99aa06d3014798d8L },
+        { 0x4c5cca45d0f4811fL, 0x495b62073ef70ca4L },
+        { 0x15f7093b173d005cL, 0x46f66cb935381565L },
+        { 0x752a86982353f4f3L, 0x2fbb16712b4bf1d5L },
+        { 0x2f65dbab90c80af2L, 0x48480c880e4976fdL },
+        { 0xf853dd94614dfa07L, 0x650fe308c566747dL },
+        { 0x78c349fe81b2f26cL, 0x18217300b5132d5aL },
+        { 0xd61d8dbff22d515fL, 0x7f5a1f03462e52b4L },
+        { 0xc51bc887976aef63L, 0x6881633650cd8924L },
+        { 0x60ea018811f9a437L, 0x8d8629a1aef9ef90L },
+        { 0x93e173833f75ab66L, 0xde57aab31e77a2ffL },
+        { 0x0b3b630948ce4a00L, 0x92b991a7192f3f08L },
+        { 0x23bc880ebf0d29c6L, 0x4c17271c906df792L },
+        { 0x486b334c5917c521L, 0x9521dd6c24bb71d0L },
+        { 0x6eb4b5bfe14d9786L, 0xc3fae71e29f0c4afL }
+    };
+
+    /* Regresa una llave determinista de tamaño n. */
+    private static byte[] llave128(int n) {
+        byte[] llave = new byte[n];
+        for (int i = 0; i < n; i++)
+            llave[i] = (byte)(i * 31 + 7);
+        return llave;
+    }
+
+    /**
+     * Prueba unitaria para {@link Dispersores#dispersaMurmur128}.
+     */
+    @Test public void testDispersaMurmur128() {
+        byte[] zorro = bytes("The quick brown fox jumps over the lazy dog");
+        Assert.assertTrue(Dispersores.dispersaMurmur128(zorro).equals(
+                              new Huella128(0xe34bbc7bbc071b6cL,
+                                            0x7a433ca9c49a9347L)));
+        for (int i = 0; i < LONGITUDES_128.length; i++) {
+            byte[] llave = llave128(LONGITUDES_128[i]);
+            Huella128 h = new Huella128(RESULTADOS_MURMUR128[i][0],
+                                        RESULTADOS_MURMUR128[i][1]);
+            Assert.assertTrue(h.equals(Dispersores.dispersaMurmur128(llave)));
+            ByteBuffer directo = ByteBuffer.allocateDirect(llave.length);
+            directo.put(llave).flip();
+            Assert.assertTrue(h.equals(Dispersores.dispersaMurmur128(directo)));
+        }
+    }
+
+    /**
+     * Prueba unitaria para {@link Dispersores#dispersaXXH128}.
+     */
+    @Test public void testDispersaXXH128() {
+        for (int i = 0; i < LONGITUDES_128.length; i++) {
+            byte[] llave = llave128(LONGITUDES_128[i]);
+            Huella128 h = new Huella128(RESULTADOS_XXH128[i][0],
+                                        RESULTADOS_XXH128[i][1]);
+            Assert.assertTrue(h.equals(Dispersores.dispersaXXH128(llave)));
+            ByteBuffer directo = ByteBuffer.allocateDirect(llave.length);
+            directo.put(llave).flip();
+            Assert.assertTrue(h.equals(Dispersores.dispersaXXH128(directo)));
+        }
+    }
+
+    /* La semilla para los resultados con semilla. */
+    private static final long SEMILLA = 0x0123456789abcdefL;
+
+    /* Longitudes de las llaves para los resultados con semilla. */
+    private static final int[] LONGITUDES_SEMILLA = {
+        0, 3, 8, 16, 17, 128, 200, 240, 241, 1024, 2000
+    };
+
+    /* Los resultados xxHash64 con semilla. */
+    private static final long[] RESULTADOS_XXH64_SEMILLA = {
+        0x51e24c0e9077a48cL, 0x2dd3de03d79b780fL, 0x1727919cb64b240fL,
+        0x2c6db85a21a7021bL, 0x0ad12dede1a3ca78L, 0x029e60720f65cb77L,
+        0xfce61bf48026aeffL, 0xb4d3e5109a9168ecL, 0x738b78e68a285b05L,
+        0x139ae90e5158218aL, 0x17944fdd4ea7406fL
+    };
+
+    /* Los resultados MurmurHash3 con semilla (bajos, altos). */
+    private static final long[][] RESULTADOS_MURMUR128_SEMILLA = {
+        { 0x4b8fc375ee6d1ca7L, 0x666f9bfdaaa22b49L },
+        { 0x6924a54324aecc23L, 0x2ae3a5ffb4edd3d9L },
+        { 0x9086bdbae442cdf6L, 0x65ffc9d2b268947aL },
+        { 0xfd83bea4a45ea6a4L, 0xb63f418a285069e7L },
+        { 0x0d0d580da5f9174cL, 0xe46b4a70262c689bL },
+        { 0x036824fe26b30001L, 0xa65966c14d851d20L },
+        { 0x9b4be39aed5652e9L, 0xf6f3f62a2559add2L },
+        { 0xccb4691aa89f50daL, 0xd850db17a9cf0b91L },
+        { 0xfde0bb27d55db778L, 0xad6cd1865cba2786L },
+        { 0x2b03db84fe7fe09bL, 0xa04c6231a1263e87L },
+        { 0x9442ab4f86131defL, 0xf53db75b21cadb84L }
+    };
+
+    /* Los resultados XXH128 con semilla (bajos, altos). */
+    private static final long[][] RESULTADOS_XXH128_SEMILLA = {
+        { 0xaaa287af24a9bb3aL, 0xa4cb05dbbf09907aL },
+        { 0x2c39b392abaacc0eL, 0x23fb72a959bf4818L },
+        { 0x571078620377afd7L, 0x8c09234177f35fb8L },
+        { 0x1998cb6eb60bcb7fL, 0x7b220e947528f5a6L },
+        { 0x695eb6f3aef50f82L, 0x2a36696cda554afeL },
+        { 0x635222ce474ebf0aL, 0xf2809b6e286e993dL },
+        { 0x1a20a6e4c750075cL, 0x891ee174d9cc8857L },
+        { 0xcdea99acc9980148L, 0xd3afd36e072de973L },
+        { 0x8a0d480f36059169L, 0x24150c6edd923bc6L },
+        { 0x47af4fe460c9956fL, 0x2b55cf616487d1bbL },
+        { 0x345278fa563641afL, 0xe3f26ea5cca3827dL }
+    };
+
+    /**
+     * Prueba unitaria para las versiones con semilla de {@link
+     * Dispersores#dispersaXXH64}, {@link Dispersores#dispersaMurmur128} y
+     * {@link Dispersores#dispersaXXH128}.
+     */
+    @Test public void testDispersaConSemilla() {
+        for (int i = 0; i < LONGITUDES_SEMILLA.length; i++) {
+            int n = LONGITUDES_SEMILLA[i];
+            byte[] llave = llave128(n);
+            ByteBuffer directo = ByteBuffer.allocateDirect(n);
+            directo.put(llave).flip();
+            long x = RESULTADOS_XXH64_SEMILLA[i];
+            Assert.assertTrue(x == Dispersores.dispersaXXH64(llave, 0, n,
+                                                             SEMILLA));
+            Assert.assertTrue(x == Dispersores.dispersaXXH64(directo, SEMILLA));
+            Huella128 m = new Huella128(RESULTADOS_MURMUR128_SEMILLA[i][0],
+                                        RESULTADOS_MURMUR128_SEMILLA[i][1]);
+            Assert.assertTrue(m.equals(Dispersores.dispersaMurmur128(
+                                           llave, 0, n, SEMILLA)));
+            Assert.assertTrue(m.equals(Dispersores.dispersaMurmur128(
+                                           directo, SEMILLA)));
+            Huella128 h = new Huella128(RESULTADOS_XXH128_SEMILLA[i][0],
+                                        RESULTADOS_XXH128_SEMILLA[i][1]);
+            Assert.assertTrue(h.equals(Dispersores.dispersaXXH128(
+                                           llave, 0, n, SEMILLA)));
+            Assert.assertTrue(h.equals(Dispersores.dispersaXXH128(
+                                           directo, SEMILLA)));
+        }
+    }
+
+    /**
+     * Prueba unitaria para las versiones con semilla de todos los
+     * algoritmos: con semilla cero regresan lo mismo que sin semilla, y con
+     * otra semilla regresan otra cosa.
+     */
+    @Test public void testSemillaCero() {
+        Random random = new Random();
+        for (int i = 0; i < 100; i++) {
+            byte[] llave = new byte[1 + random.nextInt(500)];
+            random.nextBytes(llave);
+            int n = llave.length;
+            long s = random.nextLong() | 1;
+            ByteBuffer b = ByteBuffer.wrap(llave);
+            Assert.assertTrue(Dispersores.dispersaBJ(llave) ==
+                              Dispersores.dispersaBJ(llave, 0, n, 0));
+            Assert.assertTrue(Dispersores.dispersaBJ(b, s) ==
+                              Dispersores.dispersaBJ(llave, 0, n, s));
+            Assert.assertTrue(Dispersores.dispersaBJ64(llave) ==
+                              Dispersores.dispersaBJ64(llave, 0, n, 0));
+            Assert.assertTrue(Dispersores.dispersaBJ64(b, s) ==
+                              Dispersores.dispersaBJ64(llave, 0, n, s));
+            Assert.assertTrue(Dispersores.dispersaFNV64(llave) ==
+                              Dispersores.dispersaFNV64(llave, 0, n, 0));
+            Assert.assertTrue(Dispersores.dispersaFNV64(b, s) ==
+                              Dispersores.dispersaFNV64(llave, 0, n, s));
+            Assert.assertTrue(Dispersores.dispersaXXH64(llave) ==
+                              Dispersores.dispersaXXH64(llave, 0, n, 0));
+            Assert.assertTrue(Dispersores.dispersaMurmur128(llave).equals(
+                                  Dispersores.dispersaMurmur128(llave, 0, n,
+                                                                0)));
+            Assert.assertTrue(Dispersores.dispersaXXH128(llave).equals(
+                                  Dispersores.dispersaXXH128(llave, 0, n, 0)));
+            Assert.assertFalse(Dispersores.dispersaBJ64(llave) ==
+                               Dispersores.dispersaBJ64(llave, 0, n, s));
+            Assert.assertFalse(Dispersores.dispersaFNV64(llave) ==
+                               Dispersores.dispersaFNV64(llave, 0, n, s));
+            Assert.assertFalse(Dispersores.dispersaXXH128(llave).equals(
+                                   Dispersores.dispersaXXH128(llave, 0, n, s)));
+        }
+    }
+
+    /* Longitudes de las llaves para los resultados de SipHash. */
+    private static final int[] LONGITUDES_SIP = {
+        0, 1, 7, 8, 15, 16, 63, 64
+    };
+
+    /* Los resultados SipHash-1-3 con llave cero y con la llave 00..0f. */
+    private static final long[][] RESULTADOS_SIP13 = {
+        { 0xd1fba762150c532cL, 0xabac0158050fc4dcL },
+        { 0xfff3eb0c707197bfL, 0xe8f92ff638a47677L },
+        { 0x4f1706122bfd8504L, 0x83a2b372b542ab4bL },
+        { 0x1baeec38bf237654L, 0x2f118db522bca3feL },
+        { 0x9723d18c8d9383f8L, 0x319284eba2c8eb26L },
+        { 0x2566751bc9090402L, 0x9b535172a850bcb9L },
+        { 0x85a27054d08d6e78L, 0xcd8490dee1323c07L },
+        { 0xc1f83ca91db7992eL, 0xdd5bab56980765a1L }
+    };
+
+    /**
+     * Prueba unitaria para {@link Dispersores#dispersaSip13}.
+     */
+    @Test public void testDispersaSip13() {
+        long k0 = 0x0706050403020100L, k1 = 0x0f0e0d0c0b0a0908L;
+        for (int i = 0; i < LONGITUDES_SIP.length; i++) {
+            byte[] llave = llave128(LONGITUDES_SIP[i]);
+            Assert.assertTrue(RESULTADOS_SIP13[i][0] ==
+                              Dispersores.dispersaSip13(llave, 0L, 0L));
+            Assert.assertTrue(RESULTADOS_SIP13[i][1] ==
+                              Dispersores.dispersaSip13(llave, k0, k1));
+            ByteBuffer directo = ByteBuffer.allocateDirect(llave.length);
+            directo.put(llave).flip();
+            Assert.assertTrue(RESULTADOS_SIP13[i][1] ==
+                              Dispersores.dispersaSip13(directo, k0, k1));
+            byte[] arreglo = new byte[llave.length + 5];
+            System.arraycopy(llave, 0, arreglo, 3, llave.length);
+            Assert.assertTrue(RESULTADOS_SIP13[i][1] ==
+                              Dispersores.dispersaSip13(arreglo, 3, llave.length,
+                                                        k0, k1));
+        }
+    }
+
+    /**
+     * Prueba unitaria para {@link Dispersores#mezclaMurmur32}, {@link
+     * Dispersores#mezclaMurmur64} y {@link Dispersores#mezclaSplitMix64}.
+     */
+    @Test public void testMezcladores() {
+        Assert.assertTrue(Dispersores.mezclaMurmur32(0) == 0);
+        Assert.assertTrue(Dispersores.mezclaMurmur32(1) == 0x514e28b7);
+        Assert.assertTrue(Dispersores.mezclaMurmur32(0xdeadbeef) == 0x0de5c6a9);
+        Assert.assertTrue(Dispersores.mezclaMurmur64(0) == 0);
+        Assert.assertTrue(Dispersores.mezclaMurmur64(1) == 0xb456bcfc34c2cb2cL);
+        //La primera salida de SplitMix64 con estado inicial cero
+        Assert.assertTrue(Dispersores.mezclaSplitMix64(0) ==
+                          0xe220a8397b1dcdafL);
+    }
+
+    /* Regresa n llaves aleatorias de longitudes entre 0 y 99. */
+    private static byte[][] llavesAleatorias(Random random, int n) {
+        byte[][] llaves = new byte[n][];
+        for (int i = 0; i < n; i++) {
+            llaves[i] = new byte[random.nextInt(100)];
+            random.nextBytes(llaves[i]);
+        }
+        return llaves;
+    }
+
+    /* Empaca las llaves en un arreglo, con desplazamientos en d. */
+    private static byte[] empaca(byte[][] llaves, int[] d) {
+        for (int i = 0; i < llaves.length; i++)
+            d[i+1] = d[i] + llaves[i].length;
+        byte[] datos = new byte[d[llaves.length]];
+        for (int i = 0; i < llaves.length; i++)
+            System.arraycopy(llaves[i], 0, datos, d[i], llaves[i].length);
+        return datos;
+    }
+
+    /**
+     * Prueba unitaria para {@link
+     * Dispersores#dispersaLote(AlgoritmoDispersor,byte[][],int[])}, {@link
+     * Dispersores#dispersaLote(AlgoritmoDispersor,byte[],int[],int[])} y
+     * sus versiones paralelas.
+     */
+    @Test public void testDispersaLote() {
+        Random random = new Random();
+        byte[][] llaves = llavesAleatorias(random, 10000);
+        int[] d = new int[llaves.length + 1];
+        byte[] datos = empaca(llaves, d);
+        int[] salida = new int[llaves.length];
+        Dispersores.dispersaLote(AlgoritmoDispersor.BJ_STRING, llaves, salida);
+        for (int i = 0; i < llaves.length; i++)
+            Assert.assertTrue(salida[i] == Dispersores.dispersaBJ(llaves[i]));
+        Dispersores.dispersaLote(AlgoritmoDispersor.XXH64_STRING,
+                                 llaves, salida);
+        for (int i = 0; i < llaves.length; i++) {
+            long h = Dispersores.dispersaXXH64(llaves[i]);
+            Assert.assertTrue(salida[i] == (int)(h ^ (h >>> 32)));
+        }
+        for (AlgoritmoDispersor algoritmo : AlgoritmoDispersor.values()) {
+            int[] a = new int[llaves.length];
+            int[] b = new int[llaves.length];
+            int[] c = new int[llaves.length];
+            int[] e = new int[llaves.length];
+            Dispersores.dispersaLote(algoritmo, llaves, a);
+            Dispersores.dispersaLote(algoritmo, datos, d, b);
+            Dispersores.dispersaLoteParalelo(algoritmo, llaves, c);
+            Dispersores.dispersaLoteParalelo(algoritmo, datos, d, e);
+            for (int i = 0; i < llaves.length; i++)
+                Assert.assertTrue(a[i] == b[i] && a[i] == c[i] &&
+                                  a[i] == e[i]);
+        }
+        try {
+            Dispersores.dispersaLote(AlgoritmoDispersor.XOR_STRING, llaves,
+                                     new int[llaves.length - 1]);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+        d[1] = datos.length + 1;
+        try {
+            Dispersores.dispersaLote(AlgoritmoDispersor.XOR_STRING,
+                                     datos, d, salida);
+            Assert.fail();
+        } catch (ExcepcionIndiceInvalido eii) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link
+     * Dispersores#dispersaLote64(AlgoritmoDispersor,byte[][],long[])},
+     * {@link
+     * Dispersores#dispersaLote64(AlgoritmoDispersor,byte[],int[],long[])} y
+     * {@link
+     * Dispersores#dispersaLoteParalelo64(AlgoritmoDispersor,byte[][],long[])}.
+     */
+    @Test public void testDispersaLote64() {
+        Random random = new Random();
+        byte[][] llaves = llavesAleatorias(random, 10000);
+        int[] d = new int[llaves.length + 1];
+        byte[] datos = empaca(llaves, d);
+        long[] a = new long[llaves.length];
+        long[] b = new long[llaves.length];
+        long[] c = new long[llaves.length];
+        long[] e = new long[llaves.length];
+        Dispersores.dispersaLote64(AlgoritmoDispersor.FNV64_STRING, llaves, a);
+        Dispersores.dispersaLote64(AlgoritmoDispersor.FNV64_STRING,
+                                   datos, d, b);
+        Dispersores.dispersaLoteParalelo64(AlgoritmoDispersor.FNV64_STRING,
+                                           llaves, c);
+        Dispersores.dispersaLoteParalelo64(AlgoritmoDispersor.FNV64_STRING,
+                                           datos, d, e);
+        for (int i = 0; i < llaves.length; i++) {
+            long h = Dispersores.dispersaFNV64(llaves[i]);
+            Assert.assertTrue(a[i] == h && b[i] == h && c[i] == h &&
+                              e[i] == h);
+        }
+        Dispersores.dispersaLoteParalelo64(AlgoritmoDispersor.SIP13_STRING,
+                                           datos, d, e);
+        for (int i = 0; i < llaves.length; i++)
+            Assert.assertTrue(e[i] ==
+                              Dispersores.dispersaSip13(llaves[i], 0L, 0L));
+        Dispersores.dispersaLote64(AlgoritmoDispersor.XXH128_STRING, llaves, a);
+        for (int i = 0; i < llaves.length; i++)
+            Assert.assertTrue(a[i] ==
+                              Dispersores.dispersaXXH128(llaves[i]).getBajos());
+        try {
+            Dispersores.dispersaLote64(AlgoritmoDispersor.DJB_STRING,
+                                       llaves, a);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+        try {
+            Dispersores.dispersaLoteParalelo64(AlgoritmoDispersor.BJ_STRING,
+                                               datos, d, e);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+        try {
+            Dispersores.dispersaLote64(AlgoritmoDispersor.FNV64_STRING, datos,
+                                       d, new long[llaves.length - 1]);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+    }
+
+    /**
+     * Prueba que los lotes de 64 bits rechazan un algoritmo inválido aunque
+     * no haya llaves.
+     */
+    @Test public void testDispersaLote64VacioAlgoritmoInvalido() {
+        byte[][] ninguna = new byte[0][];
+        int[] d = { 0 };
+        long[] salida = new long[0];
+        for (AlgoritmoDispersor a : new AlgoritmoDispersor[] {
+                AlgoritmoDispersor.XOR_STRING, null }) {
+            try {
+                Dispersores.dispersaLote64(a, ninguna, salida);
+                Assert.fail();
+            } catch (IllegalArgumentException iae) {}
+            try {
+                Dispersores.dispersaLote64(a, new byte[0], d, salida);
+                Assert.fail();
+            } catch (IllegalArgumentException iae) {}
+            try {
+                Dispersores.dispersaLoteParalelo64(a, ninguna, salida);
+                Assert.fail();
+            } catch (IllegalArgumentException iae) {}
+            try {
+                Dispersores.dispersaLoteParalelo64(a, new byte[0], d, salida);
+                Assert.fail();
+            } catch (IllegalArgumentException iae) {}
+        }
+        Dispersores.dispersaLoteParalelo64(AlgoritmoDispersor.XXH64_STRING,
+                                           ninguna, salida);
+        Dispersores.dispersaLoteParalelo64(AlgoritmoDispersor.XXH64_STRING,
+                                           new byte[0], d, salida);
+    }
 }
@@ -0,0 +1,135 @@
+package mx.unam.ciencias.edd.test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import mx.unam.ciencias.edd.AlgoritmoDispersor;
+import mx.unam.ciencias.edd.Dispersores;
+import mx.unam.ciencias.edd.DispersoresArchivo;
+import mx.unam.ciencias.edd.Huella128;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.rules.Timeout;
+
+/**
+ * Clase para pruebas unitarias de la clase {@link DispersoresArchivo}.
+ */
+public class TestDispersoresArchivo {
+
+    /** Expiración para que ninguna prueba tarde más de 5 segundos. */
+    @Rule public Timeout expiracion = Timeout.seconds(5);
+    /** Directorio temporal para los archivos de las pruebas. */
+    @Rule public TemporaryFolder directorio = new TemporaryFolder();
+
+    /* Generador de números aleatorios. */
+    private Random random;
+
+    /**
+     * Crea un generador de números aleatorios para cada prueba.
+     */
+    public TestDispersoresArchivo() {
+        random = new Random();
+    }
+
+    /* Crea un archivo temporal con el contenido dado. */
+    private Path archivo(byte[] contenido) throws IOException {
+        Path archivo = directorio.newFile().toPath();
+        Files.write(archivo, contenido);
+        return archivo;
+    }
+
+    /**
+     * Prueba unitaria para {@link DispersoresArchivo#dispersa(Path,
+     * AlgoritmoDispersor,int)}.
+     * @throws IOException si ocurre un error de entrada/salida.
+     */
+    @Test public void testDispersa() throws IOException {
+        int[] longitudes = { 0, 1, 63, 4096, 10000 + random.nextInt(100000) };
+        for (int n : longitudes) {
+            byte[] contenido = new byte[n];
+            random.nextBytes(contenido);
+            Path a = archivo(contenido);
+            int ventana = 1 + random.nextInt(5000);
+            Huella128 xxh = DispersoresArchivo.dispersa(
+                a, AlgoritmoDispersor.XXH128_STRING, ventana);
+            Assert.assertTrue(xxh.equals(Dispersores.dispersaXXH128(contenido)));
+            Huella128 murmur = DispersoresArchivo.dispersa(
+                a, AlgoritmoDispersor.MURMUR128_STRING);
+            Assert.assertTrue(murmur.equals(
+                                  Dispersores.dispersaMurmur128(contenido)));
+            Huella128 bj = DispersoresArchivo.dispersa(
+                a, AlgoritmoDispersor.BJ_STRING, ventana);
+            Assert.assertTrue((int)bj.getBajos() ==
+                              Dispersores.dispersaBJ(contenido));
+            Assert.assertTrue(bj.getAltos() == 0);
+        }
+    }
+
+    /* Regresa la huella de la hoja con los bytes en [a, b). */
+    private static Huella128 hoja(byte[] contenido, int a, int b) {
+        ByteBuffer hoja = ByteBuffer.allocate(1 + b - a);
+        hoja.put(DispersoresArchivo.HOJA).put(contenido, a, b - a).flip();
+        return Dispersores.dispersaXXH128(hoja);
+    }
+
+    /* Regresa la huella de la raíz del árbol. */
+    private static Huella128 raiz(Huella128 arbol, long longitud,
+                                  long segmento) {
+        ByteBuffer raiz = ByteBuffer.allocate(33).order(ByteOrder.LITTLE_ENDIAN);
+        raiz.put(DispersoresArchivo.RAIZ)
+            .putLong(arbol.getBajos()).putLong(arbol.getAltos())
+            .putLong(longitud).putLong(segmento).flip();
+        return Dispersores.dispersaXXH128(raiz);
+    }
+
+    /**
+     * Prueba unitaria para {@link DispersoresArchivo#dispersaParalelo(Path,
+     * AlgoritmoDispersor,long,ForkJoinPool)}.
+     * @throws IOException si ocurre un error de entrada/salida.
+     */
+    @Test public void testDispersaParalelo() throws IOException {
+        byte[] contenido = new byte[50000 + random.nextInt(50000)];
+        random.nextBytes(contenido);
+        Path a = archivo(contenido);
+        AlgoritmoDispersor xxh = AlgoritmoDispersor.XXH128_STRING;
+        ForkJoinPool uno = new ForkJoinPool(1);
+        ForkJoinPool cuatro = new ForkJoinPool(4);
+        Huella128 h1 = DispersoresArchivo.dispersaParalelo(a, xxh, 1000, uno);
+        Huella128 h4 = DispersoresArchivo.dispersaParalelo(a, xxh, 1000, cuatro);
+        Assert.assertTrue(h1.equals(h4));
+        Assert.assertFalse(h1.equals(
+                               DispersoresArchivo.dispersaParalelo(a, xxh, 999)));
+        uno.shutdown();
+        cuatro.shutdown();
+
+        //Con un solo segmento, la raíz es la hoja
+        int n = contenido.length;
+        Huella128 hoja = hoja(contenido, 0, n);
+        Assert.assertTrue(raiz(hoja, n, n).equals(
+                              DispersoresArchivo.dispersaParalelo(a, xxh, n)));
+
+        //Con dos segmentos, la raíz es un nodo con las dos hojas
+        int s = (n + 1) / 2;
+        ByteBuffer hijos = ByteBuffer.allocate(33)
+            .order(ByteOrder.LITTLE_ENDIAN);
+        Huella128 i = hoja(contenido, 0, s);
+        Huella128 d = hoja(contenido, s, n);
+        hijos.put(DispersoresArchivo.NODO)
+            .putLong(i.getBajos()).putLong(i.getAltos())
+            .putLong(d.getBajos()).putLong(d.getAltos()).flip();
+        Huella128 nodo = Dispersores.dispersaXXH128(hijos);
+        Assert.assertTrue(raiz(nodo, n, s).equals(
+                              DispersoresArchivo.dispersaParalelo(a, xxh, s)));
+
+        try {
+            DispersoresArchivo.dispersaParalelo(a, xxh, 0);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+    }
+}
@@ -0,0 +1,129 @@
+package mx.unam.ciencias.edd.test;
+
+import java.util.Random;
+import mx.unam.ciencias.edd.Dispersor;
+import mx.unam.ciencias.edd.ElementosFrecuentes;
+import mx.unam.ciencias.edd.FabricaDispersores;
+import mx.unam.ciencias.edd.Lista;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+/**
+ * Clase para pruebas unitarias de la clase {@link ElementosFrecuentes}.
+ */
+public class TestElementosFrecuentes {
+
+    /** Expiración para que ninguna prueba tarde más de 5 segundos. */
+    @Rule public Timeout expiracion = Timeout.seconds(5);
+
+    /* Generador de números aleatorios. */
+    private Random random;
+    /* El primer dispersor. */
+    private Dispersor<Integer> primero;
+    /* El segundo dispersor. */
+    private Dispersor<Integer> segundo;
+
+    /**
+     * Crea los dispersores para cada prueba.
+     */
+    public TestElementosFrecuentes() {
+        random = new Random();
+        primero = FabricaDispersores.dispersorInt()::dispersa;
+        segundo = i -> FabricaDispersores.dispersorLong().dispersa(~i);
+    }
+
+    /**
+     * Prueba unitaria para {@link ElementosFrecuentes#ElementosFrecuentes}.
+     */
+    @Test public void testConstructor() {
+        ElementosFrecuentes<Integer> frecuentes =
+            new ElementosFrecuentes<Integer>(primero, segundo, 10, 0.01, 0.01);
+        Assert.assertTrue(frecuentes.getElementos() == 0);
+        Assert.assertTrue(frecuentes.getTotal() == 0);
+        Assert.assertTrue(frecuentes.getFrecuentes().esVacia());
+        try {
+            new ElementosFrecuentes<Integer>(primero, segundo, 0, 0.01, 0.01);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+        try {
+            frecuentes.agrega(null);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link ElementosFrecuentes#agrega} y {@link
+     * ElementosFrecuentes#getFrecuentes}: los elementos muy frecuentes
+     * escondidos en ruido se encuentran, en orden.
+     */
+    @Test public void testFrecuentes() {
+        int k = 5;
+        ElementosFrecuentes<Integer> frecuentes =
+            new ElementosFrecuentes<Integer>(primero, segundo, k, 0.001, 0.01);
+        int base = random.nextInt(1 << 20);
+        // El elemento base + i aparece (k - i)·1000 veces, revuelto con
+        // 50000 elementos que aparecen una sola vez.
+        int[] restantes = new int[k];
+        int pesados = 0;
+        for (int i = 0; i < k; i++) {
+            restantes[i] = (k - i) * 1000;
+            pesados += restantes[i];
+        }
+        int ruido = 50000;
+        int siguiente = base + k;
+        while (pesados + ruido > 0) {
+            if (random.nextInt(pesados + ruido) < pesados) {
+                int i = random.nextInt(k);
+                while (restantes[i] == 0)
+                    i = (i + 1) % k;
+                restantes[i]--;
+                pesados--;
+                frecuentes.agrega(base + i);
+            } else {
+                ruido--;
+                frecuentes.agrega(siguiente++);
+            }
+        }
+        Assert.assertTrue(frecuentes.getElementos() == k);
+        Assert.assertTrue(frecuentes.getTotal() == 15000 + 50000);
+        Lista<Integer> lista = frecuentes.getFrecuentes();
+        Assert.assertTrue(lista.getLongitud() == k);
+        int i = 0;
+        for (Integer e : lista) {
+            Assert.assertTrue(e == base + i);
+            Assert.assertTrue(frecuentes.contiene(e));
+            Assert.assertTrue(frecuentes.estima(e) >= (k - i) * 1000);
+            i++;
+        }
+        Assert.assertFalse(frecuentes.contiene(base + k + 1));
+        frecuentes.limpia();
+        Assert.assertTrue(frecuentes.getElementos() == 0);
+        Assert.assertFalse(frecuentes.contiene(base));
+    }
+
+    /**
+     * Prueba unitaria para {@link ElementosFrecuentes#agrega} con cuentas:
+     * nunca hay más de k candidatos, y un elemento nuevo con cuenta grande
+     * desplaza al mínimo.
+     */
+    @Test public void testDesplaza() {
+        ElementosFrecuentes<Integer> frecuentes =
+            new ElementosFrecuentes<Integer>(primero, segundo, 3, 0.01, 0.01);
+        frecuentes.agrega(1, 10);
+        frecuentes.agrega(2, 20);
+        frecuentes.agrega(3, 30);
+        frecuentes.agrega(4, 5);
+        Assert.assertTrue(frecuentes.getElementos() == 3);
+        Assert.assertFalse(frecuentes.contiene(4));
+        frecuentes.agrega(5, 25);
+        Assert.assertTrue(frecuentes.getElementos() == 3);
+        Assert.assertFalse(frecuentes.contiene(1));
+        frecuentes.agrega(2, 20);
+        Lista<Integer> lista = frecuentes.getFrecuentes();
+        Assert.assertTrue(lista.get(0) == 2);
+        Assert.assertTrue(lista.get(1) == 3);
+        Assert.assertTrue(lista.get(2) == 5);
+    }
+}
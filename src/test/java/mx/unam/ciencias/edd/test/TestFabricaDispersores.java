@@ -1,9 +1,19 @@
 package mx.unam.ciencias.edd.test;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import java.util.Random;
 import mx.unam.ciencias.edd.AlgoritmoDispersor;
+import mx.unam.ciencias.edd.Dispersores;
 import mx.unam.ciencias.edd.FabricaDispersores;
 import mx.unam.ciencias.edd.Dispersor;
+import mx.unam.ciencias.edd.Dispersor128;
+import mx.unam.ciencias.edd.Dispersor64;
+import mx.unam.ciencias.edd.DispersorDouble;
+import mx.unam.ciencias.edd.DispersorInt;
+import mx.unam.ciencias.edd.DispersorLong;
+import mx.unam.ciencias.edd.DispersorIncremental;
 import org.junit.Assert;
 import org.junit.Rule;
 import org.junit.Test;
@@ -115,4 +125,419 @@ public class TestFabricaDispersores {
         for (String mensaje : MENSAJES)
             Assert.assertTrue(djb.dispersa(mensaje) == DISPERSORES_DJB[i++]);
     }
+
+    /* Regresa una cadena aleatoria con caracteres de uno a cuatro bytes en
+       UTF-8, incluyendo sustitutos sin pareja. */
+    private static String cadenaAleatoria(Random random) {
+        StringBuilder sb = new StringBuilder();
+        int n = random.nextInt(200);
+        for (int i = 0; i < n; i++) {
+            switch (random.nextInt(5)) {
+            case 0: sb.append((char)random.nextInt(0x80)); break;
+            case 1: sb.append((char)(0x80 + random.nextInt(0x780))); break;
+            case 2: sb.append((char)(0x800 + random.nextInt(0xd000))); break;
+            case 3: sb.appendCodePoint(0x10000 + random.nextInt(0xfffff));
+                break;
+            default: sb.append((char)(0xd800 + random.nextInt(0x800)));
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Prueba unitaria para {@link FabricaDispersores#dispersorCadena} y
+     * {@link FabricaDispersores#dispersorSecuencia}, comparando contra los
+     * bytes en UTF-8 de la cadena.
+     */
+    @Test public void testDispersorCadenaUTF8() {
+        Random random = new Random();
+        Dispersor<String> xor =
+            FabricaDispersores.dispersorCadena(AlgoritmoDispersor.XOR_STRING);
+        Dispersor<String> bj =
+            FabricaDispersores.dispersorCadena(AlgoritmoDispersor.BJ_STRING);
+        Dispersor<CharSequence> djb =
+            FabricaDispersores.dispersorSecuencia(AlgoritmoDispersor.DJB_STRING);
+        for (int i = 0; i < 500; i++) {
+            String cadena = cadenaAleatoria(random);
+            byte[] bytes = cadena.getBytes(StandardCharsets.UTF_8);
+            Assert.assertTrue(xor.dispersa(cadena) ==
+                              Dispersores.dispersaXOR(bytes));
+            Assert.assertTrue(bj.dispersa(cadena) ==
+                              Dispersores.dispersaBJ(bytes));
+            Assert.assertTrue(djb.dispersa(new StringBuilder(cadena)) ==
+                              Dispersores.dispersaDJB(bytes));
+        }
+    }
+
+    /**
+     * Prueba unitaria para {@link FabricaDispersores#dispersorCadena64}.
+     */
+    @Test public void testDispersorCadena64() {
+        Dispersor64<String> bj =
+            FabricaDispersores.dispersorCadena64(AlgoritmoDispersor.BJ64_STRING);
+        Dispersor64<String> fnv =
+            FabricaDispersores.dispersorCadena64(AlgoritmoDispersor.FNV64_STRING);
+        Dispersor64<String> xxh =
+            FabricaDispersores.dispersorCadena64(AlgoritmoDispersor.XXH64_STRING);
+        Dispersor<String> xxh32 =
+            FabricaDispersores.dispersorCadena(AlgoritmoDispersor.XXH64_STRING);
+        for (String mensaje : MENSAJES) {
+            byte[] bytes = mensaje.getBytes(StandardCharsets.UTF_8);
+            Assert.assertTrue(bj.dispersa(mensaje) ==
+                              Dispersores.dispersaBJ64(bytes));
+            Assert.assertTrue(fnv.dispersa(mensaje) ==
+                              Dispersores.dispersaFNV64(bytes));
+            long h = Dispersores.dispersaXXH64(bytes);
+            Assert.assertTrue(xxh.dispersa(mensaje) == h);
+            Assert.assertTrue(xxh32.dispersa(mensaje) == (int)(h ^ (h >>> 32)));
+        }
+        try {
+            FabricaDispersores.dispersorCadena64(AlgoritmoDispersor.DJB_STRING);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link FabricaDispersores#dispersorCadena128}.
+     */
+    @Test public void testDispersorCadena128() {
+        Dispersor128<String> murmur =
+            FabricaDispersores.dispersorCadena128(AlgoritmoDispersor.MURMUR128_STRING);
+        Dispersor128<String> xxh =
+            FabricaDispersores.dispersorCadena128(AlgoritmoDispersor.XXH128_STRING);
+        Dispersor64<String> xxh64 =
+            FabricaDispersores.dispersorCadena64(AlgoritmoDispersor.XXH128_STRING);
+        for (String mensaje : MENSAJES) {
+            byte[] bytes = mensaje.getBytes(StandardCharsets.UTF_8);
+            Assert.assertTrue(murmur.dispersa(mensaje).equals(
+                                  Dispersores.dispersaMurmur128(bytes)));
+            Assert.assertTrue(xxh.dispersa(mensaje).equals(
+                                  Dispersores.dispersaXXH128(bytes)));
+            Assert.assertTrue(xxh64.dispersa(mensaje) ==
+                              Dispersores.dispersaXXH128(bytes).getBajos());
+        }
+        try {
+            FabricaDispersores.dispersorCadena128(AlgoritmoDispersor.XXH64_STRING);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link
+     * FabricaDispersores#dispersorCadena(AlgoritmoDispersor,long)} y sus
+     * versiones de 64 y 128 bits.
+     */
+    @Test public void testDispersorCadenaConSemilla() {
+        long semilla = FabricaDispersores.semillaAleatoria() | 1;
+        Dispersor<String> bj =
+            FabricaDispersores.dispersorCadena(AlgoritmoDispersor.BJ_STRING,
+                                               semilla);
+        Dispersor<String> sip =
+            FabricaDispersores.dispersorCadena(AlgoritmoDispersor.SIP13_STRING,
+                                               semilla);
+        Dispersor64<String> sip64 =
+            FabricaDispersores.dispersorCadena64(AlgoritmoDispersor.SIP13_STRING,
+                                                 semilla);
+        long k0 = Dispersores.mezclaSplitMix64(semilla);
+        long k1 = Dispersores.mezclaSplitMix64(semilla + 0x9e3779b97f4a7c15L);
+        Assert.assertTrue(k0 != k1);
+        Dispersor64<String> sipLlave =
+            FabricaDispersores.dispersorCadenaSip13(k0, k1);
+        Dispersor64<String> sip0 =
+            FabricaDispersores.dispersorCadena64(AlgoritmoDispersor.SIP13_STRING,
+                                                 0L);
+        Dispersor64<String> sipSinSemilla =
+            FabricaDispersores.dispersorCadena64(AlgoritmoDispersor.SIP13_STRING);
+        Dispersor64<String> xxh0 =
+            FabricaDispersores.dispersorCadena64(AlgoritmoDispersor.XXH64_STRING,
+                                                 0L);
+        Dispersor64<String> xxhSinSemilla =
+            FabricaDispersores.dispersorCadena64(AlgoritmoDispersor.XXH64_STRING);
+        Dispersor64<String> xxh =
+            FabricaDispersores.dispersorCadena64(AlgoritmoDispersor.XXH64_STRING,
+                                                 semilla);
+        Dispersor128<String> murmur =
+            FabricaDispersores.dispersorCadena128(AlgoritmoDispersor.MURMUR128_STRING,
+                                                  semilla);
+        for (String mensaje : MENSAJES) {
+            byte[] bytes = mensaje.getBytes(StandardCharsets.UTF_8);
+            int n = bytes.length;
+            Assert.assertTrue(bj.dispersa(mensaje) ==
+                              Dispersores.dispersaBJ(bytes, 0, n, semilla));
+            long h = Dispersores.dispersaSip13(bytes, k0, k1);
+            Assert.assertTrue(sip.dispersa(mensaje) == (int)(h ^ (h >>> 32)));
+            Assert.assertTrue(sip64.dispersa(mensaje) == h);
+            Assert.assertTrue(sipLlave.dispersa(mensaje) == h);
+            // La semilla cero también se expande; la llave ya no es cero.
+            Assert.assertTrue(sip0.dispersa(mensaje) !=
+                              sipSinSemilla.dispersa(mensaje));
+            Assert.assertTrue(xxh0.dispersa(mensaje) ==
+                              xxhSinSemilla.dispersa(mensaje));
+            Assert.assertTrue(xxh.dispersa(mensaje) ==
+                              Dispersores.dispersaXXH64(bytes, 0, n, semilla));
+            Assert.assertTrue(murmur.dispersa(mensaje).equals(
+                                  Dispersores.dispersaMurmur128(bytes, 0, n,
+                                                                semilla)));
+        }
+        try {
+            FabricaDispersores.dispersorCadena(AlgoritmoDispersor.DJB_STRING,
+                                               semilla);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+        try {
+            FabricaDispersores.dispersorCadena128(AlgoritmoDispersor.SIP13_STRING,
+                                                  semilla);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+    }
+
+    /* Valores de prueba para los dispersores de primitivos. */
+    private static long[] primitivos(Random random) {
+        long[] valores = new long[1000];
+        valores[0] = 0;
+        valores[1] = -1;
+        valores[2] = Long.MIN_VALUE;
+        valores[3] = Long.MAX_VALUE;
+        valores[4] = Integer.MIN_VALUE;
+        for (int i = 5; i < valores.length; i++)
+            valores[i] = random.nextLong();
+        return valores;
+    }
+
+    /* Regresa los n bytes bajos de x, en little endian. */
+    private static byte[] littleEndian(long x, int n) {
+        byte[] b = new byte[n];
+        for (int i = 0; i < n; i++)
+            b[i] = (byte)(x >>> (8 * i));
+        return b;
+    }
+
+    /**
+     * Prueba unitaria para {@link
+     * FabricaDispersores#dispersorInt(AlgoritmoDispersor)}, {@link
+     * FabricaDispersores#dispersorLong(AlgoritmoDispersor)} y {@link
+     * FabricaDispersores#dispersorDouble(AlgoritmoDispersor)}.
+     */
+    @Test public void testDispersoresPrimitivos() {
+        long[] valores = primitivos(new Random());
+        byte[][] enteros = new byte[valores.length][];
+        byte[][] largos = new byte[valores.length][];
+        byte[][] dobles = new byte[valores.length][];
+        for (int i = 0; i < valores.length; i++) {
+            enteros[i] = littleEndian(valores[i], 4);
+            largos[i] = littleEndian(valores[i], 8);
+            double d = Double.longBitsToDouble(valores[i]);
+            dobles[i] = littleEndian(Double.doubleToLongBits(d), 8);
+        }
+        int[] h = new int[valores.length];
+        for (AlgoritmoDispersor algoritmo : AlgoritmoDispersor.values()) {
+            DispersorInt di = FabricaDispersores.dispersorInt(algoritmo);
+            DispersorLong dl = FabricaDispersores.dispersorLong(algoritmo);
+            DispersorDouble dd = FabricaDispersores.dispersorDouble(algoritmo);
+            Dispersores.dispersaLote(algoritmo, enteros, h);
+            for (int i = 0; i < valores.length; i++)
+                Assert.assertTrue(h[i] == di.dispersa((int)valores[i]));
+            Dispersores.dispersaLote(algoritmo, largos, h);
+            for (int i = 0; i < valores.length; i++)
+                Assert.assertTrue(h[i] == dl.dispersa(valores[i]));
+            Dispersores.dispersaLote(algoritmo, dobles, h);
+            for (int i = 0; i < valores.length; i++)
+                Assert.assertTrue(h[i] == dd.dispersa(
+                                      Double.longBitsToDouble(valores[i])));
+            Assert.assertTrue(dd.dispersa(Double.NaN) ==
+                              dd.dispersa(Double.longBitsToDouble(
+                                              0x7ff8000000000001L)));
+        }
+    }
+
+    /**
+     * Prueba unitaria para {@link FabricaDispersores#dispersorInt()},
+     * {@link FabricaDispersores#dispersorLong()} y {@link
+     * FabricaDispersores#dispersorDouble()}.
+     */
+    @Test public void testDispersoresPrimitivosRapidos() {
+        DispersorInt di = FabricaDispersores.dispersorInt();
+        DispersorLong dl = FabricaDispersores.dispersorLong();
+        DispersorDouble dd = FabricaDispersores.dispersorDouble();
+        for (long x : primitivos(new Random())) {
+            Assert.assertTrue(di.dispersa((int)x) ==
+                              Dispersores.mezclaMurmur32((int)x));
+            long h = Dispersores.mezclaMurmur64(x);
+            Assert.assertTrue(dl.dispersa(x) == (int)(h ^ (h >>> 32)));
+            double d = Double.longBitsToDouble(x);
+            Assert.assertTrue(dd.dispersa(d) ==
+                              dl.dispersa(Double.doubleToLongBits(d)));
+        }
+        //Enteros consecutivos quedan repartidos en las cubetas
+        int[] cubetas = new int[16];
+        for (int i = 0; i < 1600; i++)
+            cubetas[di.dispersa(i) & 15]++;
+        for (int c : cubetas)
+            Assert.assertTrue(c > 50 && c < 150);
+    }
+
+    /* Clase para llaves compuestas. */
+    private static class Llave {
+        /* El inquilino. */
+        private long inquilino;
+        /* El nombre. */
+        private String nombre;
+        /* El tiempo. */
+        private double tiempo;
+        /* La versión. */
+        private int version;
+
+        /* Construye una llave. */
+        public Llave(long inquilino, String nombre, double tiempo, int version) {
+            this.inquilino = inquilino;
+            this.nombre = nombre;
+            this.tiempo = tiempo;
+            this.version = version;
+        }
+
+        /* Regresa el inquilino. */
+        public long getInquilino() { return inquilino; }
+        /* Regresa el nombre. */
+        public String getNombre() { return nombre; }
+        /* Regresa el tiempo. */
+        public double getTiempo() { return tiempo; }
+        /* Regresa la versión. */
+        public int getVersion() { return version; }
+    }
+
+    /* Regresa un dispersor compuesto para llaves. */
+    private static Dispersor<Llave> dispersorLlave() {
+        return FabricaDispersores.dispersorCompuesto(
+            FabricaDispersores.campoLong(Llave::getInquilino,
+                                         FabricaDispersores.dispersorLong()),
+            FabricaDispersores.campo(Llave::getNombre,
+                                     FabricaDispersores.dispersorCadena(
+                                         AlgoritmoDispersor.XXH64_STRING)),
+            FabricaDispersores.campoDouble(Llave::getTiempo,
+                                           FabricaDispersores.dispersorDouble()),
+            FabricaDispersores.campoInt(Llave::getVersion,
+                                        FabricaDispersores.dispersorInt()));
+    }
+
+    /**
+     * Prueba unitaria para {@link FabricaDispersores#dispersorCompuesto}.
+     */
+    @Test public void testDispersorCompuesto() {
+        Random random = new Random();
+        Dispersor<Llave> d = dispersorLlave();
+        Dispersor<Llave> otro = dispersorLlave();
+        int n = 10000;
+        int[] h = new int[n];
+        for (int i = 0; i < n; i++) {
+            long inquilino = random.nextInt(16);
+            String nombre = cadenaAleatoria(random);
+            double tiempo = random.nextInt(1000);
+            int version = random.nextInt(4);
+            Llave a = new Llave(inquilino, nombre, tiempo, version);
+            Llave b = new Llave(inquilino, new String(nombre), tiempo, version);
+            h[i] = d.dispersa(a);
+            Assert.assertTrue(h[i] == d.dispersa(b));
+            Assert.assertTrue(h[i] == otro.dispersa(b));
+        }
+        Arrays.sort(h);
+        int colisiones = 0;
+        for (int i = 1; i < n; i++)
+            if (h[i] == h[i-1])
+                colisiones++;
+        // Esperamos ~0.01 colisiones, salvo por llaves repetidas.
+        Assert.assertTrue(colisiones < 10);
+
+        Llave a = new Llave(7, "edd", 1.5, 2);
+        Assert.assertTrue(d.dispersa(a) !=
+                          d.dispersa(new Llave(7, "edd", 1.5, 3)));
+        Assert.assertTrue(d.dispersa(a) !=
+                          d.dispersa(new Llave(8, "edd", 1.5, 2)));
+        Assert.assertTrue(d.dispersa(a) !=
+                          d.dispersa(new Llave(7, "ede", 1.5, 2)));
+        Assert.assertTrue(d.dispersa(a) !=
+                          d.dispersa(new Llave(7, "edd", 2.5, 2)));
+        Assert.assertTrue(d.dispersa(a) !=
+                          d.dispersa(new Llave(7, null, 1.5, 2)));
+
+        // El resultado depende del orden de los campos.
+        Dispersor<Llave> v = FabricaDispersores.campoInt(
+            Llave::getVersion, FabricaDispersores.dispersorInt());
+        Dispersor<Llave> i = FabricaDispersores.campoLong(
+            Llave::getInquilino, FabricaDispersores.dispersorLong());
+        Dispersor<Llave> vi = FabricaDispersores.dispersorCompuesto(v, i);
+        Dispersor<Llave> iv = FabricaDispersores.dispersorCompuesto(i, v);
+        Llave b = new Llave(3, "", 0, 5);
+        Assert.assertTrue(vi.dispersa(b) != iv.dispersa(b));
+        Assert.assertTrue(vi.dispersa(b) ==
+                          FabricaDispersores.dispersorCompuesto(v, i).dispersa(b));
+    }
+
+    /* Alimenta el dispersor incremental con la llave partida en pedazos
+       aleatorios, alternando arreglos y buffers directos. */
+    private static void alimenta(DispersorIncremental dispersor, byte[] llave,
+                                 Random random) {
+        int i = 0;
+        while (i < llave.length) {
+            int n = Math.min(llave.length - i, random.nextInt(300));
+            if (random.nextBoolean()) {
+                dispersor.actualiza(llave, i, n);
+            } else {
+                ByteBuffer buffer = ByteBuffer.allocateDirect(n);
+                buffer.put(llave, i, n).flip();
+                dispersor.actualiza(buffer);
+                Assert.assertFalse(buffer.hasRemaining());
+            }
+            i += n;
+        }
+    }
+
+    /**
+     * Prueba unitaria para {@link FabricaDispersores#dispersorIncremental}.
+     */
+    @Test public void testDispersorIncremental() {
+        Random random = new Random();
+        for (int i = 0; i < 200; i++) {
+            byte[] llave = new byte[random.nextInt(i < 100 ? 300 : 5000)];
+            random.nextBytes(llave);
+            DispersorIncremental xor =
+                FabricaDispersores.dispersorIncremental(AlgoritmoDispersor.XOR_STRING);
+            DispersorIncremental bj =
+                FabricaDispersores.dispersorIncremental(AlgoritmoDispersor.BJ_STRING);
+            DispersorIncremental djb =
+                FabricaDispersores.dispersorIncremental(AlgoritmoDispersor.DJB_STRING);
+            DispersorIncremental fnv =
+                FabricaDispersores.dispersorIncremental(AlgoritmoDispersor.FNV64_STRING);
+            DispersorIncremental xxh =
+                FabricaDispersores.dispersorIncremental(AlgoritmoDispersor.XXH64_STRING);
+            DispersorIncremental murmur =
+                FabricaDispersores.dispersorIncremental(AlgoritmoDispersor.MURMUR128_STRING);
+            DispersorIncremental xxh128 =
+                FabricaDispersores.dispersorIncremental(AlgoritmoDispersor.XXH128_STRING);
+            alimenta(xor, llave, random);
+            alimenta(bj, llave, random);
+            alimenta(djb, llave, random);
+            alimenta(fnv, llave, random);
+            alimenta(xxh, llave, random);
+            alimenta(murmur, llave, random);
+            alimenta(xxh128, llave, random);
+            Assert.assertTrue((int)xor.finaliza() ==
+                              Dispersores.dispersaXOR(llave));
+            Assert.assertTrue((int)bj.finaliza() ==
+                              Dispersores.dispersaBJ(llave));
+            Assert.assertTrue((int)djb.finaliza() ==
+                              Dispersores.dispersaDJB(llave));
+            Assert.assertTrue(fnv.finaliza() ==
+                              Dispersores.dispersaFNV64(llave));
+            Assert.assertTrue(xxh.finaliza() ==
+                              Dispersores.dispersaXXH64(llave));
+            Assert.assertTrue(murmur.finaliza128().equals(
+                                  Dispersores.dispersaMurmur128(llave)));
+            Assert.assertTrue(xxh128.finaliza128().equals(
+                                  Dispersores.dispersaXXH128(llave)));
+        }
+        try {
+            FabricaDispersores.dispersorIncremental(AlgoritmoDispersor.BJ64_STRING);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+    }
 }
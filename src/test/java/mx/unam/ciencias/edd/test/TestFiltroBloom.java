@@ -0,0 +1,113 @@
+package mx.unam.ciencias.edd.test;
+
+import java.util.Random;
+import mx.unam.ciencias.edd.AlgoritmoDispersor;
+import mx.unam.ciencias.edd.Dispersor;
+import mx.unam.ciencias.edd.FabricaDispersores;
+import mx.unam.ciencias.edd.FiltroBloom;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+/**
+ * Clase para pruebas unitarias de la clase {@link FiltroBloom}.
+ */
+public class TestFiltroBloom {
+
+    /** Expiración para que ninguna prueba tarde más de 5 segundos. */
+    @Rule public Timeout expiracion = Timeout.seconds(5);
+
+    /* Generador de números aleatorios. */
+    private Random random;
+    /* El primer dispersor. */
+    private Dispersor<Integer> primero;
+    /* El segundo dispersor. */
+    private Dispersor<Integer> segundo;
+
+    /**
+     * Crea los dispersores para cada prueba.
+     */
+    public TestFiltroBloom() {
+        random = new Random();
+        primero = FabricaDispersores.dispersorInt()::dispersa;
+        segundo = i -> FabricaDispersores.dispersorLong().dispersa(~i);
+    }
+
+    /**
+     * Prueba unitaria para {@link FiltroBloom#FiltroBloom}.
+     */
+    @Test public void testConstructor() {
+        FiltroBloom<Integer> filtro =
+            new FiltroBloom<Integer>(primero, segundo, 1000, 0.01);
+        // m = -n ln p / ln² 2 ≈ 9.59 n, k = m/n ln 2 ≈ 7.
+        Assert.assertTrue(filtro.getBits() == 9600);
+        Assert.assertTrue(filtro.getFunciones() == 7);
+        Assert.assertTrue(filtro.esVacio());
+        try {
+            new FiltroBloom<Integer>(primero, segundo, 0, 0.01);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+        try {
+            new FiltroBloom<Integer>(primero, segundo, 10, 1.0);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+        try {
+            new FiltroBloom<Integer>(primero, null, 10, 0.1);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link FiltroBloom#agrega} y {@link
+     * FiltroBloom#contiene}: no hay falsos negativos, y la proporción de
+     * falsos positivos es cercana a la deseada.
+     */
+    @Test public void testFalsosPositivos() {
+        int n = 20000;
+        double p = 0.01;
+        FiltroBloom<Integer> filtro =
+            new FiltroBloom<Integer>(primero, segundo, n, p);
+        int base = random.nextInt(1 << 20);
+        for (int i = 0; i < n; i++)
+            filtro.agrega(base + i);
+        for (int i = 0; i < n; i++)
+            Assert.assertTrue(filtro.contiene(base + i));
+        int falsos = 0;
+        for (int i = 0; i < n; i++)
+            if (filtro.contiene(base + n + i))
+                falsos++;
+        Assert.assertTrue(falsos < 2 * p * n);
+        double estimada = filtro.probabilidadFalsoPositivo();
+        Assert.assertTrue(estimada > p / 2 && estimada < 2 * p);
+        Assert.assertFalse(filtro.contiene(null));
+        filtro.limpia();
+        Assert.assertTrue(filtro.esVacio());
+        Assert.assertFalse(filtro.contiene(base));
+    }
+
+    /**
+     * Prueba unitaria para {@link FiltroBloom#une}.
+     */
+    @Test public void testUne() {
+        FiltroBloom<String> a =
+            FiltroBloom.deCadenas(AlgoritmoDispersor.XXH64_STRING, 1000, 0.01);
+        FiltroBloom<String> b =
+            FiltroBloom.deCadenas(AlgoritmoDispersor.XXH64_STRING, 1000, 0.01);
+        for (int i = 0; i < 500; i++) {
+            a.agrega("a" + i);
+            b.agrega("b" + i);
+        }
+        a.une(b);
+        for (int i = 0; i < 500; i++) {
+            Assert.assertTrue(a.contiene("a" + i));
+            Assert.assertTrue(a.contiene("b" + i));
+        }
+        FiltroBloom<String> c =
+            FiltroBloom.deCadenas(AlgoritmoDispersor.XXH64_STRING, 2000, 0.01);
+        try {
+            a.une(c);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+    }
+}
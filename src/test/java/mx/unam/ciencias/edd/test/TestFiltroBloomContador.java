@@ -0,0 +1,104 @@
+package mx.unam.ciencias.edd.test;
+
+import java.util.Random;
+import mx.unam.ciencias.edd.Dispersor;
+import mx.unam.ciencias.edd.FabricaDispersores;
+import mx.unam.ciencias.edd.FiltroBloomContador;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+/**
+ * Clase para pruebas unitarias de la clase {@link FiltroBloomContador}.
+ */
+public class TestFiltroBloomContador {
+
+    /** Expiración para que ninguna prueba tarde más de 5 segundos. */
+    @Rule public Timeout expiracion = Timeout.seconds(5);
+
+    /* Generador de números aleatorios. */
+    private Random random;
+    /* El primer dispersor. */
+    private Dispersor<Integer> primero;
+    /* El segundo dispersor. */
+    private Dispersor<Integer> segundo;
+
+    /**
+     * Crea los dispersores para cada prueba.
+     */
+    public TestFiltroBloomContador() {
+        random = new Random();
+        primero = FabricaDispersores.dispersorInt()::dispersa;
+        segundo = i -> FabricaDispersores.dispersorLong().dispersa(~i);
+    }
+
+    /**
+     * Prueba unitaria para {@link FiltroBloomContador#agrega}, {@link
+     * FiltroBloomContador#elimina} y {@link FiltroBloomContador#contiene}.
+     */
+    @Test public void testElimina() {
+        int n = 10000;
+        FiltroBloomContador<Integer> filtro =
+            new FiltroBloomContador<Integer>(primero, segundo, n, 0.01);
+        int base = random.nextInt(1 << 20);
+        for (int i = 0; i < n; i++)
+            filtro.agrega(base + i);
+        for (int i = 0; i < n; i += 2)
+            filtro.elimina(base + i);
+        int falsos = 0;
+        for (int i = 0; i < n; i++) {
+            if (i % 2 == 1)
+                Assert.assertTrue(filtro.contiene(base + i));
+            else if (filtro.contiene(base + i))
+                falsos++;
+        }
+        Assert.assertTrue(falsos < n / 50);
+        for (int i = 1; i < n; i += 2)
+            filtro.elimina(base + i);
+        Assert.assertTrue(filtro.esVacio());
+    }
+
+    /**
+     * Prueba unitaria para {@link FiltroBloomContador} con contadores
+     * saturados: no hay falsos negativos.
+     */
+    @Test public void testSaturacion() {
+        FiltroBloomContador<Integer> filtro =
+            new FiltroBloomContador<Integer>(primero, segundo, 10, 0.1);
+        for (int i = 0; i < 20; i++)
+            filtro.agrega(7);
+        for (int i = 0; i < 19; i++)
+            filtro.elimina(7);
+        Assert.assertTrue(filtro.contiene(7));
+        filtro.limpia();
+        Assert.assertFalse(filtro.contiene(7));
+    }
+
+    /**
+     * Prueba unitaria para {@link FiltroBloomContador#une}.
+     */
+    @Test public void testUne() {
+        FiltroBloomContador<Integer> a =
+            new FiltroBloomContador<Integer>(primero, segundo, 1000, 0.01);
+        FiltroBloomContador<Integer> b =
+            new FiltroBloomContador<Integer>(primero, segundo, 1000, 0.01);
+        for (int i = 0; i < 500; i++) {
+            a.agrega(i);
+            b.agrega(1000 + i);
+        }
+        a.une(b);
+        for (int i = 0; i < 500; i++) {
+            Assert.assertTrue(a.contiene(i));
+            Assert.assertTrue(a.contiene(1000 + i));
+        }
+        for (int i = 0; i < 500; i++)
+            a.elimina(1000 + i);
+        for (int i = 0; i < 500; i++)
+            Assert.assertTrue(a.contiene(i));
+        try {
+            a.une(new FiltroBloomContador<Integer>(primero, segundo, 10, 0.01));
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+    }
+}
@@ -0,0 +1,182 @@
+package mx.unam.ciencias.edd.test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import mx.unam.ciencias.edd.AlgoritmoDispersor;
+import mx.unam.ciencias.edd.HyperLogLog;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+/**
+ * Clase para pruebas unitarias de la clase {@link HyperLogLog}.
+ */
+public class TestHyperLogLog {
+
+    /** Expiración para que ninguna prueba tarde más de 5 segundos. */
+    @Rule public Timeout expiracion = Timeout.seconds(5);
+
+    /* Generador de números aleatorios. */
+    private Random random;
+
+    /**
+     * Crea un generador de números aleatorios para cada prueba.
+     */
+    public TestHyperLogLog() {
+        random = new Random();
+    }
+
+    /* Nos dice si la estimación está dentro del error relativo dado. */
+    private static boolean cerca(long estimacion, long exacto, double error) {
+        return Math.abs(estimacion - exacto) <= error * exacto;
+    }
+
+    /**
+     * Prueba unitaria para {@link HyperLogLog#HyperLogLog}.
+     */
+    @Test public void testConstructor() {
+        HyperLogLog hll = new HyperLogLog(AlgoritmoDispersor.XXH64_STRING, 14);
+        Assert.assertTrue(hll.getPrecision() == 14);
+        Assert.assertTrue(hll.esDisperso());
+        Assert.assertTrue(hll.estima() == 0);
+        try {
+            new HyperLogLog(3);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+        try {
+            new HyperLogLog(19);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+        try {
+            new HyperLogLog(AlgoritmoDispersor.BJ_STRING, 10);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+        try {
+            new HyperLogLog(10).agrega("a");
+            Assert.fail();
+        } catch (IllegalStateException ise) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link HyperLogLog#estima} con pocos elementos,
+     * en la representación dispersa: la estimación es casi exacta.
+     */
+    @Test public void testEstimaDisperso() {
+        HyperLogLog hll = new HyperLogLog(AlgoritmoDispersor.XXH64_STRING, 14);
+        int n = 1000;
+        int base = random.nextInt();
+        for (int i = 0; i < n; i++) {
+            hll.agrega("e" + (base + i));
+            hll.agrega("e" + (base + random.nextInt(i + 1)));
+        }
+        Assert.assertTrue(hll.esDisperso());
+        Assert.assertTrue(cerca(hll.estima(), n, 0.01));
+    }
+
+    /**
+     * Prueba unitaria para {@link HyperLogLog#estima} contra conteos exactos
+     * en la representación densa, para varios algoritmos y precisiones.
+     */
+    @Test public void testEstimaDenso() {
+        AlgoritmoDispersor[] algoritmos = {
+            AlgoritmoDispersor.XXH64_STRING,
+            AlgoritmoDispersor.MURMUR128_STRING,
+            AlgoritmoDispersor.FNV64_STRING
+        };
+        int[] ns = { 5000, 50000, 200000 };
+        for (AlgoritmoDispersor algoritmo : algoritmos) {
+            for (int n : ns) {
+                HyperLogLog hll = new HyperLogLog(algoritmo, 12);
+                long base = random.nextLong();
+                for (int i = 0; i < n; i++)
+                    hll.agrega(Long.toString(base + i));
+                Assert.assertFalse(hll.esDisperso());
+                // El error estándar con p = 12 es 1.6%; pedimos 5 sigmas.
+                Assert.assertTrue(cerca(hll.estima(), n, 0.08));
+            }
+        }
+        HyperLogLog hll = new HyperLogLog(16);
+        for (int i = 0; i < 500000; i++)
+            hll.agregaDispersion(i);
+        Assert.assertTrue(cerca(hll.estima(), 500000, 0.02));
+    }
+
+    /**
+     * Prueba unitaria para {@link HyperLogLog#agregaLote}.
+     */
+    @Test public void testAgregaLote() {
+        HyperLogLog a = new HyperLogLog(AlgoritmoDispersor.XXH64_STRING, 10);
+        HyperLogLog b = new HyperLogLog(AlgoritmoDispersor.XXH64_STRING, 10);
+        byte[][] llaves = new byte[3000][];
+        for (int i = 0; i < llaves.length; i++) {
+            String s = "llave" + i;
+            llaves[i] = s.getBytes(StandardCharsets.UTF_8);
+            a.agrega(s);
+        }
+        b.agregaLote(llaves);
+        Assert.assertTrue(a.estima() == b.estima());
+        Assert.assertArrayEquals(a.serializa(), b.serializa());
+    }
+
+    /**
+     * Prueba unitaria para {@link HyperLogLog#une}, con todas las
+     * combinaciones de representaciones.
+     */
+    @Test public void testUne() {
+        int[][] tamanos = { { 100, 200 }, { 100, 50000 },
+                            { 50000, 100 }, { 30000, 40000 } };
+        for (int[] t : tamanos) {
+            HyperLogLog a = new HyperLogLog(14);
+            HyperLogLog b = new HyperLogLog(14);
+            HyperLogLog todo = new HyperLogLog(14);
+            for (int i = 0; i < t[0]; i++) {
+                a.agregaDispersion(i);
+                todo.agregaDispersion(i);
+            }
+            // Los dos bosquejos comparten la mitad de b.
+            for (int i = t[0] - t[1] / 2; i < t[0] + t[1] / 2; i++) {
+                b.agregaDispersion(i);
+                todo.agregaDispersion(i);
+            }
+            a.une(b);
+            if (a.esDisperso() == todo.esDisperso())
+                Assert.assertTrue(a.estima() == todo.estima());
+            Assert.assertTrue(cerca(a.estima(), todo.estima(), 0.01));
+        }
+        try {
+            new HyperLogLog(10).une(new HyperLogLog(11));
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link HyperLogLog#serializa} y {@link
+     * HyperLogLog#deserializa}.
+     */
+    @Test public void testSerializa() {
+        int[] ns = { 0, 10, 500, 100000 };
+        for (int n : ns) {
+            HyperLogLog hll = new HyperLogLog(AlgoritmoDispersor.XXH64_STRING, 12);
+            for (int i = 0; i < n; i++)
+                hll.agrega("s" + i);
+            byte[] bytes = hll.serializa();
+            HyperLogLog copia =
+                HyperLogLog.deserializa(bytes, AlgoritmoDispersor.XXH64_STRING);
+            Assert.assertTrue(copia.estima() == hll.estima());
+            Assert.assertTrue(copia.esDisperso() == hll.esDisperso());
+            Assert.assertArrayEquals(bytes, copia.serializa());
+            if (!hll.esDisperso())
+                Assert.assertTrue(bytes.length == 2 + (1 << 12) * 6 / 8);
+            copia.agrega("otra");
+        }
+        try {
+            HyperLogLog.deserializa(new byte[] { 1, 12, 0 }, null);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+        try {
+            HyperLogLog.deserializa(new byte[] { 7, 12 }, null);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+    }
+}
@@ -0,0 +1,53 @@
+package mx.unam.ciencias.edd.test;
+
+import mx.unam.ciencias.edd.LatenciaDiccionarios;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+/**
+ * Clase para pruebas unitarias de la clase {@link LatenciaDiccionarios}.
+ */
+public class TestLatenciaDiccionarios {
+
+    /** Expiración para que ninguna prueba tarde más de 5 segundos. */
+    @Rule public Timeout expiracion = Timeout.seconds(5);
+
+    /**
+     * Prueba unitaria para {@link LatenciaDiccionarios#percentil}.
+     */
+    @Test public void testPercentil() {
+        long[] t = new long[1000];
+        for (int i = 0; i < t.length; i++)
+            t[i] = i + 1;
+        Assert.assertTrue(LatenciaDiccionarios.percentil(t, 50) == 500);
+        Assert.assertTrue(LatenciaDiccionarios.percentil(t, 99) == 990);
+        Assert.assertTrue(LatenciaDiccionarios.percentil(t, 99.9) == 999);
+        Assert.assertTrue(LatenciaDiccionarios.percentil(t, 100) == 1000);
+        Assert.assertTrue(LatenciaDiccionarios.percentil(t, 0) == 1);
+        Assert.assertTrue(LatenciaDiccionarios.percentil(new long[0], 50) == 0);
+        long[] u = { 7 };
+        Assert.assertTrue(LatenciaDiccionarios.percentil(u, 50) == 7);
+    }
+
+    /**
+     * Prueba unitaria para {@link LatenciaDiccionarios#histograma}.
+     */
+    @Test public void testHistograma() {
+        long[] t = { 0, 1, 2, 3, 4, 7, 8, 1000 };
+        long[] h = LatenciaDiccionarios.histograma(t);
+        Assert.assertTrue(h.length == 10);
+        Assert.assertTrue(h[0] == 2);
+        Assert.assertTrue(h[1] == 2);
+        Assert.assertTrue(h[2] == 2);
+        Assert.assertTrue(h[3] == 1);
+        Assert.assertTrue(h[9] == 1);
+        long suma = 0;
+        for (long c : h)
+            suma += c;
+        Assert.assertTrue(suma == t.length);
+        Assert.assertTrue(LatenciaDiccionarios.histograma(new long[0]).length
+                          == 0);
+    }
+}
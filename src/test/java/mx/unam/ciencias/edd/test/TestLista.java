@@ -1,5 +1,7 @@
 package mx.unam.ciencias.edd.test;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
 import java.util.Random;
@@ -551,6 +553,106 @@ public class TestLista {
         } catch (ExcepcionIndiceInvalido eii) {}
     }
 
+    /* Compara la lista con el arreglo por índices, en orden aleatorio. */
+    private void comparaIndices(Lista<Integer> lista, ArrayList<Integer> a) {
+        Assert.assertTrue(lista.getLongitud() == a.size());
+        for (int i = 0; i < a.size(); i++) {
+            int j = random.nextInt(a.size());
+            Assert.assertTrue(lista.get(j).equals(a.get(j)));
+        }
+    }
+
+    /**
+     * Prueba unitaria para {@link Lista#setIndexada} y {@link
+     * Lista#setPasoSaltos}: con cualquier combinación, los accesos por índice
+     * coinciden con un arreglo después de inserciones y eliminaciones en
+     * cualquier posición.
+     */
+    @Test public void testIndexada() {
+        int[] pasos = { 0, 1, 3, 8 };
+        for (int modo = 0; modo < 2; modo++) {
+            for (int paso : pasos) {
+                Lista<Integer> l = new Lista<Integer>();
+                l.setIndexada(modo == 1);
+                l.setPasoSaltos(paso);
+                Assert.assertTrue(l.esIndexada() == (modo == 1));
+                Assert.assertTrue(l.getPasoSaltos() == paso);
+                ArrayList<Integer> a = new ArrayList<Integer>();
+                for (int i = 0; i < 400; i++) {
+                    int e = random.nextInt(1000);
+                    int j = random.nextInt(a.size() + 1);
+                    switch (random.nextInt(6)) {
+                    case 0: l.agregaFinal(e); a.add(e); break;
+                    case 1: l.agregaInicio(e); a.add(0, e); break;
+                    case 2: l.inserta(j, e); a.add(j, e); break;
+                    case 3:
+                        if (!a.isEmpty()) {
+                            Integer x = a.get(random.nextInt(a.size()));
+                            l.elimina(x);
+                            a.remove(x);
+                        }
+                        break;
+                    case 4:
+                        if (a.size() > 1) {
+                            Assert.assertTrue(l.eliminaPrimero().equals(a.remove(0)));
+                            Assert.assertTrue(l.eliminaUltimo()
+                                              .equals(a.remove(a.size() - 1)));
+                        }
+                        break;
+                    default:
+                        if (!a.isEmpty()) {
+                            Integer x = a.get(random.nextInt(a.size()));
+                            int k = l.indiceDe(x);
+                            Assert.assertTrue(k == a.indexOf(x));
+                            Assert.assertTrue(l.get(k).equals(x));
+                        }
+                    }
+                    if (i % 10 == 0)
+                        comparaIndices(l, a);
+                    validaLista(l);
+                }
+                comparaIndices(l, a);
+                l.limpia();
+                Assert.assertTrue(l.esVacia());
+                l.agrega(7);
+                Assert.assertTrue(l.get(0) == 7);
+            }
+        }
+        try {
+            lista.setPasoSaltos(-1);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link Lista#get} en una lista indexada: recorrer
+     * una lista grande por índices, hacia adelante y hacia atrás, toma tiempo
+     * lineal, y con índice de saltos los accesos aleatorios son baratos.
+     */
+    @Test public void testGetIndexada() {
+        int n = 200000;
+        Lista<Integer> l = new Lista<Integer>();
+        for (int i = 0; i < n; i++)
+            l.agrega(i);
+        l.setIndexada(true);
+        for (int i = 0; i < n; i++)
+            Assert.assertTrue(l.get(i) == i);
+        for (int i = n - 1; i >= 0; i--)
+            Assert.assertTrue(l.get(i) == i);
+        for (int i = 0; i < 1000; i++)
+            l.inserta(n / 2 + i, -i);
+        Assert.assertTrue(l.get(n / 2 + 999) == -999);
+        Assert.assertTrue(l.get(n / 2 + 1000) == n / 2);
+        l.setPasoSaltos(64);
+        for (int i = 0; i < 20000; i++) {
+            int j = random.nextInt(n + 1000);
+            if (j < n / 2)
+                Assert.assertTrue(l.get(j) == j);
+            else if (j >= n / 2 + 1000)
+                Assert.assertTrue(l.get(j) == j - 1000);
+        }
+    }
+
     /**
      * Prueba unitaria para {@link Lista#indiceDe}.
      */
@@ -802,6 +904,108 @@ public class TestLista {
         }
     }
 
+    /* Revisa que la lista de pares esté ordenada de forma estable. */
+    private void validaEstable(Lista<Par> pares) {
+        Par u = null;
+        for (Par par : pares) {
+            if (u != null) {
+                Assert.assertTrue(u.getValor() <= par.getValor());
+                if (u.getValor() == par.getValor())
+                    Assert.assertTrue(u.getEtiqueta() < par.getEtiqueta());
+            }
+            u = par;
+        }
+    }
+
+    /**
+     * Prueba unitaria para {@link Lista#ordena(java.util.Comparator)}.
+     */
+    @Test public void testOrdena() {
+        lista.ordena((a, b) -> a.compareTo(b));
+        Assert.assertTrue(lista.esVacia());
+        lista.agrega(5);
+        lista.ordena((a, b) -> a.compareTo(b));
+        Assert.assertTrue(lista.getPrimero() == 5 && lista.getUltimo() == 5);
+        lista.limpia();
+        int[] a = new int[total];
+        for (int i = 0; i < total; i++) {
+            a[i] = random.nextInt(total);
+            lista.agregaFinal(a[i]);
+        }
+        Lista<Integer> copia = lista.copia();
+        lista.ordena((x, y) -> x.compareTo(y));
+        Arrays.sort(a);
+        Assert.assertTrue(lista.getLongitud() == total);
+        int c = 0;
+        for (int e : lista)
+            Assert.assertTrue(e == a[c++]);
+        Assert.assertTrue(lista.getUltimo() == a[total - 1]);
+        validaLista(lista);
+        Assert.assertTrue(lista.equals(copia.mergeSort((x, y) -> x.compareTo(y))));
+        /* Listas ya ordenadas, en reversa y con repetidos. */
+        int[][] casos = new int[3][total];
+        for (int i = 0; i < total; i++) {
+            casos[0][i] = i;
+            casos[1][i] = total - i;
+            casos[2][i] = i % 3;
+        }
+        for (int[] caso : casos) {
+            lista.limpia();
+            for (int e : caso)
+                lista.agrega(e);
+            lista.ordena((x, y) -> x.compareTo(y));
+            int[] b = caso.clone();
+            Arrays.sort(b);
+            c = 0;
+            for (int e : lista)
+                Assert.assertTrue(e == b[c++]);
+            validaLista(lista);
+        }
+        /* Prueba estabilidad. */
+        total = 100 + total * 10;
+        int m = 7 + random.nextInt(20);
+        Lista<Par> pares = new Lista<Par>();
+        for (int i = 0; i < total; i++) {
+            int v = ((i % m) == 0) ? m : random.nextInt(total);
+            pares.agrega(new Par(v, i));
+        }
+        Par primero = pares.getPrimero();
+        pares.ordena((x, y) -> x.compareTo(y));
+        Assert.assertTrue(pares.getLongitud() == total);
+        Assert.assertTrue(pares.contiene(primero));
+        validaEstable(pares);
+    }
+
+    /**
+     * Prueba unitaria para {@link Lista#ordena(Lista)}: también deja
+     * consistentes los accesos por índice de una lista indexada.
+     */
+    @Test public void testOrdenaLista() {
+        lista.setIndexada(true);
+        lista.setPasoSaltos(4);
+        for (int i = 0; i < total; i++)
+            lista.agregaFinal(random.nextInt(total));
+        for (int i = 0; i < total; i++)
+            lista.get(i);
+        Lista.ordena(lista);
+        int a = lista.getPrimero();
+        for (int i = 0; i < total; i++) {
+            int e = lista.get(i);
+            Assert.assertTrue(a <= e);
+            a = e;
+        }
+        validaLista(lista);
+        total = 100 + total * 10;
+        int m = 7 + random.nextInt(20);
+        Lista<Par> pares = new Lista<Par>();
+        for (int i = 0; i < total; i++) {
+            int v = ((i % m) == 0) ? m : random.nextInt(total);
+            pares.agrega(new Par(v, i));
+        }
+        Lista.ordena(pares);
+        validaEstable(pares);
+    }
+
     /**
      * Prueba unitaria para {@link Lista#busquedaLineal}.
      */
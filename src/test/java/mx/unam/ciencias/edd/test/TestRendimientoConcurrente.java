@@ -0,0 +1,88 @@
+package mx.unam.ciencias.edd.test;
+
+import mx.unam.ciencias.edd.AlgoritmoDispersor;
+import mx.unam.ciencias.edd.DiccionarioConcurrente;
+import mx.unam.ciencias.edd.FabricaDispersores;
+import mx.unam.ciencias.edd.RendimientoConcurrente;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+/**
+ * Clase para pruebas unitarias de la clase {@link RendimientoConcurrente}.
+ */
+public class TestRendimientoConcurrente {
+
+    /** Expiración para que ninguna prueba tarde más de 5 segundos. */
+    @Rule public Timeout expiracion = Timeout.seconds(5);
+
+    /* Regresa un diccionario concurrente vacío para cadenas. */
+    private static DiccionarioConcurrente<String, String> diccionario() {
+        return new DiccionarioConcurrente<String, String>(
+            FabricaDispersores.dispersorCadena(AlgoritmoDispersor.BJ_STRING));
+    }
+
+    /* Regresa un universo de n llaves. */
+    private static String[] llaves(int n) {
+        String[] llaves = new String[n];
+        for (int i = 0; i < n; i++)
+            llaves[i] = String.valueOf(i);
+        return llaves;
+    }
+
+    /**
+     * Prueba unitaria para {@link RendimientoConcurrente#mide}.
+     */
+    @Test public void testMide() {
+        String[] llaves = llaves(1000);
+        DiccionarioConcurrente<String, String> d = diccionario();
+        Assert.assertTrue(RendimientoConcurrente.mide(d, llaves, 4, 0.5, 50)
+                          > 0);
+        // Sólo se agregan llaves del universo, cada una con ella misma como
+        // valor.
+        int n = 0;
+        for (String v : d) {
+            Assert.assertTrue(v.equals(d.get(v)));
+            n++;
+        }
+        Assert.assertTrue(n == d.getElementos());
+        Assert.assertTrue(n <= llaves.length);
+        d.limpia();
+        Assert.assertTrue(RendimientoConcurrente.mide(d, llaves, 1, 1.0, 20)
+                          > 0);
+        Assert.assertTrue(d.esVacia());
+        Assert.assertTrue(RendimientoConcurrente.mide(d, llaves, 64, 0.0, 20)
+                          > 0);
+        Assert.assertTrue(!d.esVacia());
+    }
+
+    /**
+     * Prueba unitaria para {@link RendimientoConcurrente#mide} con
+     * parámetros inválidos.
+     */
+    @Test public void testMideInvalido() {
+        String[] llaves = llaves(10);
+        DiccionarioConcurrente<String, String> d = diccionario();
+        try {
+            RendimientoConcurrente.mide(d, llaves, 0, 0.5, 10);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+        try {
+            RendimientoConcurrente.mide(d, llaves, 65, 0.5, 10);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+        try {
+            RendimientoConcurrente.mide(d, llaves, 1, 1.5, 10);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+        try {
+            RendimientoConcurrente.mide(d, llaves, 1, 0.5, 0);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+        try {
+            RendimientoConcurrente.mide(d, new String[0], 1, 0.5, 10);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+    }
+}
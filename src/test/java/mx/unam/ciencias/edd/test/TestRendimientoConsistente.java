@@ -0,0 +1,53 @@
+package mx.unam.ciencias.edd.test;
+
+import mx.unam.ciencias.edd.RendimientoConsistente;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+/**
+ * Clase para pruebas unitarias de la clase {@link RendimientoConsistente}.
+ */
+public class TestRendimientoConsistente {
+
+    /** Expiración para que ninguna prueba tarde más de 5 segundos. */
+    @Rule public Timeout expiracion = Timeout.seconds(5);
+
+    /**
+     * Prueba unitaria para {@link RendimientoConsistente#fraccionMovida}.
+     */
+    @Test public void testFraccionMovida() {
+        int[] antes = { 0, 1, 2, 3 };
+        int[] despues = { 0, 4, 2, 4 };
+        Assert.assertTrue(RendimientoConsistente.fraccionMovida(antes, despues)
+                          == 0.5);
+        Assert.assertTrue(RendimientoConsistente.fraccionMovida(antes, antes)
+                          == 0.0);
+        Assert.assertTrue(RendimientoConsistente.fraccionMovida(new int[0],
+                                                                new int[0])
+                          == 0.0);
+        try {
+            RendimientoConsistente.fraccionMovida(antes, new int[3]);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link RendimientoConsistente#cargaMaxima}.
+     */
+    @Test public void testCargaMaxima() {
+        int[] balanceada = { 0, 1, 2, 3, 3, 2, 1, 0 };
+        Assert.assertTrue(RendimientoConsistente.cargaMaxima(balanceada, 4)
+                          == 1.0);
+        int[] cargada = { 0, 0, 0, 1 };
+        Assert.assertTrue(RendimientoConsistente.cargaMaxima(cargada, 2)
+                          == 1.5);
+        Assert.assertTrue(RendimientoConsistente.cargaMaxima(new int[0], 2)
+                          == 0.0);
+        try {
+            RendimientoConsistente.cargaMaxima(cargada, 0);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+    }
+}
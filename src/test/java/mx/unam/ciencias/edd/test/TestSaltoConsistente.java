@@ -0,0 +1,103 @@
+package mx.unam.ciencias.edd.test;
+
+import java.util.Random;
+import mx.unam.ciencias.edd.AlgoritmoDispersor;
+import mx.unam.ciencias.edd.SaltoConsistente;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+/**
+ * Clase para pruebas unitarias de la clase {@link SaltoConsistente}.
+ */
+public class TestSaltoConsistente {
+
+    /** Expiración para que ninguna prueba tarde más de 5 segundos. */
+    @Rule public Timeout expiracion = Timeout.seconds(5);
+
+    /* Generador de números aleatorios. */
+    private Random random;
+
+    /**
+     * Crea un generador de números aleatorios para cada prueba.
+     */
+    public TestSaltoConsistente() {
+        random = new Random();
+    }
+
+    /**
+     * Prueba unitaria para {@link SaltoConsistente#SaltoConsistente}.
+     */
+    @Test public void testConstructor() {
+        SaltoConsistente salto =
+            new SaltoConsistente(AlgoritmoDispersor.XXH64_STRING, 7);
+        Assert.assertTrue(salto.getCubetas() == 7);
+        try {
+            new SaltoConsistente(AlgoritmoDispersor.XXH64_STRING, 0);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+        try {
+            salto.setCubetas(-1);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+        try {
+            SaltoConsistente.cubeta(1L, 0);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link SaltoConsistente#cubeta(long,int)}: con
+     * una cubeta todo va a la 0, y al agregar una cubeta cada llave se queda
+     * donde estaba o se mueve a la nueva.
+     */
+    @Test public void testCubetaDispersion() {
+        for (int i = 0; i < 1000; i++) {
+            long llave = random.nextLong();
+            Assert.assertTrue(SaltoConsistente.cubeta(llave, 1) == 0);
+            int anterior = 0;
+            for (int n = 2; n <= 100; n++) {
+                int c = SaltoConsistente.cubeta(llave, n);
+                Assert.assertTrue(c == anterior || c == n - 1);
+                anterior = c;
+            }
+        }
+    }
+
+    /**
+     * Prueba unitaria para {@link SaltoConsistente#cubeta(CharSequence)}: las
+     * llaves se reparten de forma balanceada, y al agregar una cubeta sólo se
+     * mueven alrededor de 1/(n + 1) de ellas, todas a la nueva.
+     */
+    @Test public void testRemapeo() {
+        for (AlgoritmoDispersor algoritmo : AlgoritmoDispersor.values()) {
+            int n = 10;
+            SaltoConsistente salto = new SaltoConsistente(algoritmo, n);
+            String[] llaves = new String[20000];
+            int[] antes = new int[llaves.length];
+            int[] cargas = new int[n];
+            long base = random.nextLong();
+            for (int i = 0; i < llaves.length; i++) {
+                llaves[i] = "llave:" + (base + i);
+                antes[i] = salto.cubeta(llaves[i]);
+                Assert.assertTrue(antes[i] >= 0 && antes[i] < n);
+                cargas[antes[i]]++;
+            }
+            double promedio = (double)llaves.length / n;
+            for (int carga : cargas)
+                Assert.assertTrue(Math.abs(carga - promedio) < 0.15 * promedio);
+            salto.setCubetas(n + 1);
+            int movidas = 0;
+            for (int i = 0; i < llaves.length; i++) {
+                int c = salto.cubeta(llaves[i]);
+                if (c != antes[i]) {
+                    Assert.assertTrue(c == n);
+                    movidas++;
+                }
+            }
+            double esperadas = (double)llaves.length / (n + 1);
+            Assert.assertTrue(Math.abs(movidas - esperadas) < 0.15 * esperadas);
+        }
+    }
+}
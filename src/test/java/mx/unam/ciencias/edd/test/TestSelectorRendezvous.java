@@ -0,0 +1,135 @@
+package mx.unam.ciencias.edd.test;
+
+import java.util.HashMap;
+import java.util.Random;
+import mx.unam.ciencias.edd.AlgoritmoDispersor;
+import mx.unam.ciencias.edd.Lista;
+import mx.unam.ciencias.edd.SelectorRendezvous;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+/**
+ * Clase para pruebas unitarias de la clase {@link SelectorRendezvous}.
+ */
+public class TestSelectorRendezvous {
+
+    /** Expiración para que ninguna prueba tarde más de 5 segundos. */
+    @Rule public Timeout expiracion = Timeout.seconds(5);
+
+    /* Generador de números aleatorios. */
+    private Random random;
+    /* Las llaves de prueba. */
+    private String[] llaves;
+
+    /**
+     * Crea las llaves para cada prueba.
+     */
+    public TestSelectorRendezvous() {
+        random = new Random();
+        llaves = new String[20000];
+        long base = random.nextLong();
+        for (int i = 0; i < llaves.length; i++)
+            llaves[i] = "llave:" + (base + i);
+    }
+
+    /* Regresa el nodo de cada llave. */
+    private String[] asigna(SelectorRendezvous selector) {
+        String[] asignados = new String[llaves.length];
+        for (int i = 0; i < llaves.length; i++)
+            asignados[i] = selector.nodo(llaves[i]);
+        return asignados;
+    }
+
+    /**
+     * Prueba unitaria para {@link SelectorRendezvous#agregaNodo} y {@link
+     * SelectorRendezvous#eliminaNodo}.
+     */
+    @Test public void testNodos() {
+        SelectorRendezvous selector =
+            new SelectorRendezvous(AlgoritmoDispersor.XXH64_STRING);
+        Assert.assertTrue(selector.getNumeroNodos() == 0);
+        try {
+            selector.nodo("a");
+            Assert.fail();
+        } catch (IllegalStateException ise) {}
+        for (int i = 0; i < 5; i++)
+            selector.agregaNodo("nodo" + i);
+        try {
+            selector.agregaNodo("nodo0");
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+        try {
+            selector.agregaNodo(null);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+        selector.eliminaNodo("nodo2");
+        selector.eliminaNodo("nodo7");
+        selector.eliminaNodo(null);
+        Assert.assertTrue(selector.getNumeroNodos() == 4);
+        Assert.assertFalse(selector.contieneNodo("nodo2"));
+        Assert.assertTrue(selector.contieneNodo("nodo4"));
+        Lista<String> nodos = selector.getNodos();
+        Assert.assertTrue(nodos.get(0).equals("nodo0"));
+        Assert.assertTrue(nodos.get(3).equals("nodo4"));
+    }
+
+    /**
+     * Prueba unitaria para {@link SelectorRendezvous#nodo}: las llaves se
+     * reparten de forma balanceada, sin importar el orden de los nodos.
+     */
+    @Test public void testBalance() {
+        for (AlgoritmoDispersor algoritmo : AlgoritmoDispersor.values()) {
+            SelectorRendezvous a = new SelectorRendezvous(algoritmo);
+            SelectorRendezvous b = new SelectorRendezvous(algoritmo);
+            int n = 8;
+            for (int i = 0; i < n; i++) {
+                a.agregaNodo("nodo" + i);
+                b.agregaNodo("nodo" + (n - 1 - i));
+            }
+            HashMap<String, Integer> cargas = new HashMap<String, Integer>();
+            for (String llave : llaves) {
+                String nodo = a.nodo(llave);
+                Assert.assertTrue(nodo.equals(b.nodo(llave)));
+                cargas.merge(nodo, 1, Integer::sum);
+            }
+            Assert.assertTrue(cargas.size() == n);
+            double promedio = (double)llaves.length / n;
+            for (int carga : cargas.values())
+                Assert.assertTrue(Math.abs(carga - promedio) < 0.15 * promedio);
+        }
+    }
+
+    /**
+     * Prueba unitaria para {@link SelectorRendezvous#agregaNodo} y {@link
+     * SelectorRendezvous#eliminaNodo}: sólo se mueven las llaves del nodo
+     * agregado o eliminado.
+     */
+    @Test public void testRemapeo() {
+        SelectorRendezvous selector =
+            new SelectorRendezvous(AlgoritmoDispersor.SIP13_STRING);
+        int n = 10;
+        for (int i = 0; i < n; i++)
+            selector.agregaNodo("nodo" + i);
+        String[] antes = asigna(selector);
+        selector.agregaNodo("nuevo");
+        String[] despues = asigna(selector);
+        int movidas = 0;
+        for (int i = 0; i < llaves.length; i++) {
+            if (!antes[i].equals(despues[i])) {
+                Assert.assertTrue(despues[i].equals("nuevo"));
+                movidas++;
+            }
+        }
+        double esperadas = (double)llaves.length / (n + 1);
+        Assert.assertTrue(Math.abs(movidas - esperadas) < 0.15 * esperadas);
+        selector.eliminaNodo("nuevo");
+        Assert.assertArrayEquals(antes, asigna(selector));
+        selector.eliminaNodo("nodo6");
+        despues = asigna(selector);
+        for (int i = 0; i < llaves.length; i++)
+            if (!antes[i].equals(despues[i]))
+                Assert.assertTrue(antes[i].equals("nodo6"));
+    }
+}
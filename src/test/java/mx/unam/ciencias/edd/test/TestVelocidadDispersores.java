@@ -0,0 +1,30 @@
+package mx.unam.ciencias.edd.test;
+
+import mx.unam.ciencias.edd.VelocidadDispersores;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+/**
+ * Clase para pruebas unitarias de la clase {@link VelocidadDispersores}.
+ */
+public class TestVelocidadDispersores {
+
+    /** Expiración para que ninguna prueba tarde más de 5 segundos. */
+    @Rule public Timeout expiracion = Timeout.seconds(5);
+
+    /**
+     * Prueba unitaria para {@link VelocidadDispersores#mediana}.
+     */
+    @Test public void testMediana() {
+        double[] impar = { 5.0, 1.0, 400.0, 3.0, 2.0 };
+        Assert.assertTrue(VelocidadDispersores.mediana(impar) == 3.0);
+        Assert.assertTrue(impar[0] == 5.0 && impar[2] == 400.0);
+        double[] par = { 4.0, 1.0, 3.0, 2.0 };
+        Assert.assertTrue(VelocidadDispersores.mediana(par) == 2.5);
+        Assert.assertTrue(VelocidadDispersores.mediana(new double[] { 7.0 })
+                          == 7.0);
+        Assert.assertTrue(VelocidadDispersores.mediana(new double[0]) == 0.0);
+    }
+}